@@ -0,0 +1,135 @@
+package io.github.mavenmcp.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.mavenmcp.model.TestFailure;
+
+/**
+ * Deterministic synthetic inputs for the benchmarks: stack traces shaped like JUnit 5 failures
+ * under Surefire, Surefire XML reports and Maven build logs of a given size.
+ */
+public final class SyntheticInputs {
+
+    /** Application package of the synthetic traces. */
+    public static final String APP_PACKAGE = "com.example";
+
+    private static final String[] FRAMEWORK_FRAMES = {
+            "org.junit.jupiter.api.AssertionUtils.fail(AssertionUtils.java:55)",
+            "org.junit.jupiter.api.AssertEquals.assertEquals(AssertEquals.java:150)",
+            "java.base/jdk.internal.reflect.DirectMethodHandleAccessor.invoke(DirectMethodHandleAccessor.java:103)",
+            "java.base/java.lang.reflect.Method.invoke(Method.java:580)",
+            "org.junit.platform.commons.util.ReflectionUtils.invokeMethod(ReflectionUtils.java:728)",
+            "org.junit.jupiter.engine.execution.MethodInvocation.proceed(MethodInvocation.java:60)",
+            "org.junit.jupiter.engine.execution.InvocationInterceptorChain.proceed(InvocationInterceptorChain.java:131)",
+            "org.junit.jupiter.engine.descriptor.TestMethodTestDescriptor.invokeTestMethod(TestMethodTestDescriptor.java:218)",
+            "org.junit.platform.engine.support.hierarchical.NodeTestTask.executeRecursively(NodeTestTask.java:151)",
+            "org.apache.maven.surefire.junitplatform.JUnitPlatformProvider.invoke(JUnitPlatformProvider.java:150)",
+            "org.apache.maven.surefire.booter.ForkedBooter.main(ForkedBooter.java:495)",
+    };
+
+    private static final String LOG_LINE = "[INFO] Download from central: https://repo.maven.apache.org/maven2/org/"
+            + "example/artifact/1.0/artifact-1.0.pom (2.1 kB at 48 kB/s)\n";
+
+    private SyntheticInputs() {
+    }
+
+    /**
+     * @param index          failure number, varies the test method and line numbers
+     * @param distinctCauses number of distinct root causes across all failures
+     * @return a trace with a wrapping exception and a root cause, each with framework noise
+     */
+    public static String stackTrace(int index, int distinctCauses) {
+        int cause = index % distinctCauses;
+        var sb = new StringBuilder(4096);
+        sb.append("org.opentest4j.AssertionFailedError: expected: 200 but was: 500\n");
+        for (String frame : FRAMEWORK_FRAMES) {
+            sb.append("\tat ").append(frame).append('\n');
+        }
+        sb.append("\tat ").append(APP_PACKAGE).append(".service.OrderServiceTest.test").append(index)
+                .append("(OrderServiceTest.java:").append(40 + index % 500).append(")\n");
+        sb.append("Caused by: java.lang.IllegalStateException: Order ").append(1000 + index)
+                .append(" rejected by rule ").append(cause).append('\n');
+        sb.append("\tat ").append(APP_PACKAGE).append(".service.Rule").append(cause)
+                .append(".check(Rule").append(cause).append(".java:").append(17 + cause).append(")\n");
+        sb.append("\tat ").append(APP_PACKAGE).append(".service.OrderService.place(OrderService.java:88)\n");
+        for (String frame : FRAMEWORK_FRAMES) {
+            sb.append("\tat ").append(frame).append('\n');
+        }
+        sb.append("\t... 42 more");
+        return sb.toString();
+    }
+
+    /**
+     * @param count          number of failures
+     * @param distinctCauses number of distinct root causes among them
+     * @return failures with raw stack traces, spread over test classes of 50 methods
+     */
+    public static List<TestFailure> failures(int count, int distinctCauses) {
+        List<TestFailure> failures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            failures.add(new TestFailure(testClass(i), "test" + i, "expected: 200 but was: 500",
+                    stackTrace(i, distinctCauses), "order " + (1000 + i) + " placed\n"));
+        }
+        return failures;
+    }
+
+    /**
+     * Write {@code TEST-*.xml} reports holding the given failures, 50 test cases per report.
+     *
+     * @param reportsDir     directory to write to; must exist
+     * @param failures       number of failing test cases
+     * @param distinctCauses number of distinct root causes among them
+     * @throws IOException if a report cannot be written
+     */
+    public static void writeSurefireReports(Path reportsDir, int failures, int distinctCauses) throws IOException {
+        for (int first = 0; first < failures; first += 50) {
+            int last = Math.min(failures, first + 50);
+            String suite = testClass(first);
+            try (Writer out = Files.newBufferedWriter(reportsDir.resolve("TEST-" + suite + ".xml"))) {
+                out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+                out.write("<testsuite name=\"" + suite + "\" time=\"1.5\" tests=\"" + (last - first)
+                        + "\" errors=\"0\" skipped=\"0\" failures=\"" + (last - first) + "\">\n");
+                for (int i = first; i < last; i++) {
+                    out.write("  <testcase name=\"test" + i + "\" classname=\"" + suite + "\" time=\"0.030\">\n");
+                    out.write("    <failure message=\"expected: 200 but was: 500\" "
+                            + "type=\"org.opentest4j.AssertionFailedError\">");
+                    out.write(stackTrace(i, distinctCauses));
+                    out.write("</failure>\n");
+                    out.write("    <system-out>order " + (1000 + i) + " placed</system-out>\n");
+                    out.write("  </testcase>\n");
+                }
+                out.write("</testsuite>\n");
+            }
+        }
+    }
+
+    /**
+     * @param bytes       approximate size of the log
+     * @param diagnostics whether to interleave compiler errors and warnings, one per 50 lines
+     * @return a Maven log of {@code [INFO]} lines
+     */
+    public static String mavenLog(int bytes, boolean diagnostics) {
+        var sb = new StringBuilder(bytes + 256);
+        int line = 0;
+        while (sb.length() < bytes) {
+            if (diagnostics && line % 50 == 25) {
+                String level = line % 100 == 25 ? "ERROR" : "WARNING";
+                sb.append('[').append(level).append("] /home/user/project/src/main/java/com/example/service/Service")
+                        .append(line % 200).append(".java:[").append(10 + line % 90).append(",17] cannot find symbol\n");
+            } else {
+                sb.append(LOG_LINE);
+            }
+            line++;
+        }
+        return sb.toString();
+    }
+
+    private static String testClass(int failure) {
+        return APP_PACKAGE + ".service.OrderService" + (failure / 50) + "Test";
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.mavenmcp.formatter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.github.mavenmcp.benchmark.SyntheticInputs;
+import io.github.mavenmcp.model.BuildResult;
+import io.github.mavenmcp.model.TestFailure;
+import io.github.mavenmcp.model.TestSummary;
+import io.github.mavenmcp.parser.FrameCache;
+import io.github.mavenmcp.parser.StackTraceProcessor;
+import io.github.mavenmcp.parser.SurefireReportParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rendering a failed maven_test result with processed stack traces, within the default output
+ * budget and without one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MarkdownFormatterBenchmark {
+
+    @Param({"1", "100", "10000"})
+    int failures;
+
+    private BuildResult result;
+
+    @Setup
+    public void createResult() {
+        var frameCache = new FrameCache(SyntheticInputs.APP_PACKAGE);
+        List<TestFailure> processed = SyntheticInputs.failures(failures, failures).stream()
+                .map(f -> f.withStackTrace(StackTraceProcessor.processWithCache(f.stackTrace(), frameCache,
+                        SurefireReportParser.DEFAULT_STACK_TRACE_LINES)))
+                .toList();
+        result = new BuildResult(BuildResult.FAILURE, 12_345, null, null,
+                new TestSummary(failures * 2, failures, 0, 0), processed, null,
+                SyntheticInputs.mavenLog(4096, false), null);
+    }
+
+    @Benchmark
+    public String format() {
+        return MarkdownFormatter.format(result, "test");
+    }
+
+    @Benchmark
+    public String formatUnbounded() {
+        return MarkdownFormatter.format(result, "test", Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.mavenmcp.parser;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import io.github.mavenmcp.benchmark.SyntheticInputs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Extracting compiler diagnostics from Maven logs of 10 KB to 50 MB, one diagnostic per 50 lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CompilationOutputParserBenchmark {
+
+    private static final Path PROJECT_DIR = Path.of("/home/user/project");
+
+    @Param({"10240", "1048576", "52428800"})
+    int logBytes;
+
+    private String log;
+
+    @Setup
+    public void createLog() {
+        log = SyntheticInputs.mavenLog(logBytes, true);
+    }
+
+    @Benchmark
+    public CompilationOutputParser.ParseResult parse() {
+        return CompilationOutputParser.parse(log, PROJECT_DIR);
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.mavenmcp.parser;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.github.mavenmcp.benchmark.SyntheticInputs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Processing every stack trace of a run: through {@link StackTraceProcessor#process}, which
+ * classifies frames with a fresh cache per trace, and with one cache shared by the run, as
+ * maven_test does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StackTraceProcessorBenchmark {
+
+    @Param({"1", "100", "10000"})
+    int failures;
+
+    private List<String> traces;
+
+    @Setup
+    public void createTraces() {
+        int distinctCauses = Math.max(1, failures / 10);
+        traces = SyntheticInputs.failures(failures, distinctCauses).stream().map(f -> f.stackTrace()).toList();
+    }
+
+    @Benchmark
+    public void process(Blackhole blackhole) {
+        for (String trace : traces) {
+            blackhole.consume(StackTraceProcessor.process(trace, SyntheticInputs.APP_PACKAGE,
+                    SurefireReportParser.DEFAULT_STACK_TRACE_LINES));
+        }
+    }
+
+    @Benchmark
+    public void processWithSharedCache(Blackhole blackhole) {
+        var frameCache = new FrameCache(SyntheticInputs.APP_PACKAGE);
+        for (String trace : traces) {
+            blackhole.consume(StackTraceProcessor.processWithCache(trace, frameCache,
+                    SurefireReportParser.DEFAULT_STACK_TRACE_LINES));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.mavenmcp.parser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import io.github.mavenmcp.benchmark.SyntheticInputs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing a run's Surefire reports with deduplication while parsing, as maven_test does.
+ * Reports hold 50 test cases each, every one failing, with one root cause per 10 failures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SurefireReportParserBenchmark {
+
+    @Param({"1", "100", "10000"})
+    int failures;
+
+    private Path projectDir;
+
+    @Setup
+    public void writeReports() throws IOException {
+        projectDir = Files.createTempDirectory("surefire-bench");
+        Path reportsDir = Files.createDirectories(projectDir.resolve(SurefireReportParser.REPORTS_DIR));
+        SyntheticInputs.writeSurefireReports(reportsDir, failures, Math.max(1, failures / 10));
+    }
+
+    @TearDown
+    public void deleteReports() throws IOException {
+        try (Stream<Path> paths = Files.walk(projectDir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<SurefireReportParser.SurefireResult> parse() {
+        return SurefireReportParser.parse(projectDir, true, SurefireReportParser.DEFAULT_PER_TEST_OUTPUT_LIMIT,
+                new TestFailureDeduplicator.Accumulator(new FrameCache(SyntheticInputs.APP_PACKAGE)));
+    }
+}
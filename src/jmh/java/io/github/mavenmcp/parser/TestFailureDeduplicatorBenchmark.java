@@ -0,0 +1,49 @@
+package io.github.mavenmcp.parser;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.github.mavenmcp.benchmark.SyntheticInputs;
+import io.github.mavenmcp.model.TestFailure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Grouping a run's failures by root cause, with every cause distinct ({@code failuresPerCause = 1})
+ * or shared by ten failures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TestFailureDeduplicatorBenchmark {
+
+    @Param({"1", "100", "10000"})
+    int failures;
+
+    @Param({"1", "10"})
+    int failuresPerCause;
+
+    private List<TestFailure> input;
+
+    @Setup
+    public void createFailures() {
+        input = SyntheticInputs.failures(failures, Math.max(1, failures / failuresPerCause));
+    }
+
+    @Benchmark
+    public List<TestFailure> deduplicate() {
+        return TestFailureDeduplicator.deduplicate(input, new FrameCache(SyntheticInputs.APP_PACKAGE));
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.mavenmcp.tool;
+
+import java.util.concurrent.TimeUnit;
+
+import io.github.mavenmcp.benchmark.SyntheticInputs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Keeping the tail of Maven logs of 10 KB to 50 MB for a failed build's output. In this package
+ * because {@link ToolUtils} is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ToolUtilsBenchmark {
+
+    @Param({"10240", "1048576", "52428800"})
+    int logBytes;
+
+    private String log;
+
+    @Setup
+    public void createLog() {
+        log = SyntheticInputs.mavenLog(logBytes, false);
+    }
+
+    @Benchmark
+    public String tailLines() {
+        return ToolUtils.tailLines(log, ToolUtils.DEFAULT_OUTPUT_TAIL_LINES);
+    }
+}
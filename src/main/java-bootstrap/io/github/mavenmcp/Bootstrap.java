@@ -1,25 +1,68 @@
 package io.github.mavenmcp;
 
+import java.io.IOException;
 import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Bootstrap entry point compiled at Java 11 bytecode level.
  * Validates JVM version before loading the main application
  * to provide a clear error message instead of UnsupportedClassVersionError.
+ *
+ * <p>When started from the shaded jar, the server is relaunched in a child JVM that uses a
+ * dynamic AppCDS archive: the first launch records the loaded classes with
+ * {@code -XX:ArchiveClassesAtExit}, later launches map them with {@code -XX:SharedArchiveFile}.
+ * Archives live in the user cache directory, keyed by jar and JVM, so a new jar or JDK starts
+ * a new archive. Set {@code MAVEN_MCP_CDS=false} or {@code -Dmaven.mcp.cds=false} to run in-process.
+ * JVMs started with a debugger or Java agent also run in-process, so the agent attaches to the
+ * server rather than to a launcher that only waits.</p>
  */
 public class Bootstrap {
 
     static final int REQUIRED_JAVA_VERSION = 21;
     static final String SERVER_CLASS = "io.github.mavenmcp.MavenMcpServer";
 
+    /** System property / environment variable disabling the CDS relaunch when set to {@code false}. */
+    static final String CDS_PROPERTY = "maven.mcp.cds";
+    static final String CDS_ENV = "MAVEN_MCP_CDS";
+    /** Overrides the archive directory. */
+    static final String CDS_DIR_PROPERTY = "maven.mcp.cds.dir";
+    /** Set on the child JVM: {@code create} or {@code use}. Also prevents relaunching again. */
+    static final String CDS_MODE_PROPERTY = "maven.mcp.cds.mode";
+    /** Set on the child JVM: epoch millis when the launching JVM started, for startup timing. */
+    static final String LAUNCHED_AT_PROPERTY = "maven.mcp.launchedAt";
+    /** How long the shutdown hook waits for the child to exit and finish dumping its archive. */
+    static final long CHILD_EXIT_WAIT_SECONDS = 10;
+
     public static void main(String[] args) {
         int currentVersion = Runtime.version().feature();
         if (!checkVersion(currentVersion, System.err)) {
             System.exit(1);
         }
 
+        if (cdsEnabled(System.getenv(CDS_ENV), System.getProperty(CDS_PROPERTY))
+                && System.getProperty(CDS_MODE_PROPERTY) == null) {
+            Integer exitCode = relaunchWithArchive(args);
+            if (exitCode != null) {
+                System.exit(exitCode);
+            }
+        }
+
         try {
             delegateToServer(SERVER_CLASS, args);
         } catch (ReflectiveOperationException e) {
@@ -61,4 +104,212 @@ public class Bootstrap {
         }
         return true;
     }
+
+    /**
+     * @param env      value of {@link #CDS_ENV}, may be null
+     * @param property value of {@link #CDS_PROPERTY}, may be null
+     * @return false if either is {@code false}
+     */
+    static boolean cdsEnabled(String env, String property) {
+        return !"false".equalsIgnoreCase(env) && !"false".equalsIgnoreCase(property);
+    }
+
+    /**
+     * Relaunch the server in a child JVM with an AppCDS archive, inheriting stdin/stdout/stderr.
+     *
+     * @return the child's exit code, or null if the server should run in this JVM instead
+     *         (not started from a jar, archive or agent flags given, or the child could not start)
+     */
+    static Integer relaunchWithArchive(String[] args) {
+        Path jar = runningJar();
+        List<String> jvmArgs = ManagementFactory.getRuntimeMXBean().getInputArguments();
+        // Copying -agentlib:jdwp would make the child fight the launcher for the debug port
+        if (jar == null || jvmArgs.stream().anyMatch(arg -> isCdsArgument(arg) || isAgentArgument(arg))) {
+            return null;
+        }
+        Path archive;
+        try {
+            Path dir = archiveDir(System.getProperty(CDS_DIR_PROPERTY), System.getenv(), System.getProperty("user.home"));
+            Files.createDirectories(dir);
+            deleteStaleDumps(dir);
+            archive = dir.resolve(archiveName(jar.toString(), Files.size(jar),
+                    Files.getLastModifiedTime(jar).toMillis(), System.getProperty("java.home"),
+                    System.getProperty("java.vm.version")));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+
+        boolean create = !Files.isRegularFile(archive);
+        // Concurrent first launches each dump to their own file; the finished one is moved into place
+        Path target = create
+                ? archive.resolveSibling(archive.getFileName() + "." + ProcessHandle.current().pid() + ".tmp")
+                : archive;
+        long launchedAt = ProcessHandle.current().info().startInstant()
+                .map(instant -> instant.toEpochMilli()).orElse(System.currentTimeMillis());
+        List<String> command = buildCommand(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                jvmArgs, jar.toString(), target.toString(), create, launchedAt, args);
+
+        Process child;
+        try {
+            child = new ProcessBuilder(command).inheritIO().start();
+        } catch (IOException e) {
+            return null;
+        }
+        // On SIGTERM the child still needs time to write its archive before it can be published
+        Thread reaper = new Thread(() -> {
+            child.destroy();
+            try {
+                child.waitFor(CHILD_EXIT_WAIT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (create && !child.isAlive()) {
+                publishArchive(target, archive);
+            }
+        }, "maven-mcp-cds-child");
+        Runtime.getRuntime().addShutdownHook(reaper);
+        int exitCode = waitFor(child);
+        boolean reaperOwnsArchive = false;
+        try {
+            Runtime.getRuntime().removeShutdownHook(reaper);
+        } catch (IllegalStateException e) {
+            // already shutting down: the reaper publishes
+            reaperOwnsArchive = true;
+        }
+        if (create && !reaperOwnsArchive) {
+            publishArchive(target, archive);
+        }
+        return exitCode;
+    }
+
+    /**
+     * Command line of the child JVM: the original JVM options, the archive option, and this
+     * jar's Bootstrap with the original arguments. Default unified logging is routed to stderr
+     * so CDS warnings (e.g. a rejected archive) never reach the MCP stdout channel; the routing
+     * comes first so any {@code -Xlog} option of the user still applies on top of it.
+     */
+    static List<String> buildCommand(String java, List<String> jvmArgs, String jar, String archive,
+                                     boolean create, long launchedAt, String[] args) {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.add("-Xlog:disable");
+        command.add("-Xlog:all=warning:stderr");
+        command.addAll(jvmArgs);
+        command.add(create ? "-XX:ArchiveClassesAtExit=" + archive : "-XX:SharedArchiveFile=" + archive);
+        command.add("-D" + CDS_MODE_PROPERTY + "=" + (create ? "create" : "use"));
+        command.add("-D" + LAUNCHED_AT_PROPERTY + "=" + launchedAt);
+        command.add("-cp");
+        command.add(jar);
+        command.add(Bootstrap.class.getName());
+        command.addAll(Arrays.asList(args));
+        return command;
+    }
+
+    /**
+     * Archive file name, unique per jar (path, size, modification time) and JVM (home, version).
+     */
+    static String archiveName(String jar, long size, long modified, String javaHome, String vmVersion) {
+        String key = jar + '\n' + size + '\n' + modified + '\n' + javaHome + '\n' + vmVersion;
+        // FNV-1a, 64 bit
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return "maven-mcp-" + Long.toHexString(hash) + ".jsa";
+    }
+
+    /**
+     * Archive directory: {@code -Dmaven.mcp.cds.dir}, else {@code maven-mcp/cds} under
+     * {@code XDG_CACHE_HOME}, {@code LOCALAPPDATA} (Windows) or {@code ~/.cache}.
+     */
+    static Path archiveDir(String override, Map<String, String> env, String userHome) {
+        if (override != null && !override.isBlank()) {
+            return Path.of(override);
+        }
+        String base = env.get("XDG_CACHE_HOME");
+        if (base == null || base.isBlank()) {
+            base = env.get("LOCALAPPDATA");
+        }
+        Path cache = base != null && !base.isBlank() ? Path.of(base) : Path.of(userHome, ".cache");
+        return cache.resolve("maven-mcp").resolve("cds");
+    }
+
+    private static boolean isCdsArgument(String arg) {
+        return arg.startsWith("-Xshare") || arg.contains("SharedArchiveFile")
+                || arg.contains("ArchiveClassesAtExit") || arg.contains("AutoCreateSharedArchive");
+    }
+
+    static boolean isAgentArgument(String arg) {
+        return arg.startsWith("-agentlib:") || arg.startsWith("-agentpath:")
+                || arg.startsWith("-javaagent:") || arg.startsWith("-Xrunjdwp");
+    }
+
+    /**
+     * Delete {@code <archive>.<pid>.tmp} dumps left behind by launchers that are no longer
+     * running, e.g. killed before their child finished writing.
+     */
+    static void deleteStaleDumps(Path dir) {
+        try (DirectoryStream<Path> dumps = Files.newDirectoryStream(dir, "maven-mcp-*.jsa.*.tmp")) {
+            for (Path dump : dumps) {
+                String name = dump.getFileName().toString();
+                String pid = name.substring(name.lastIndexOf(".jsa.") + 5, name.length() - 4);
+                boolean alive;
+                try {
+                    alive = ProcessHandle.of(Long.parseLong(pid)).map(ProcessHandle::isAlive).orElse(false);
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (!alive) {
+                    Files.deleteIfExists(dump);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // best-effort
+        }
+    }
+
+    private static Path runningJar() {
+        try {
+            CodeSource source = Bootstrap.class.getProtectionDomain().getCodeSource();
+            if (source == null || source.getLocation() == null) {
+                return null;
+            }
+            Path path = Path.of(source.getLocation().toURI());
+            return Files.isRegularFile(path) && path.toString().endsWith(".jar") ? path : null;
+        } catch (URISyntaxException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static int waitFor(Process child) {
+        while (true) {
+            try {
+                return child.waitFor();
+            } catch (InterruptedException e) {
+                child.destroy();
+            }
+        }
+    }
+
+    private static void publishArchive(Path dumped, Path archive) {
+        try {
+            if (Files.isRegularFile(dumped) && Files.size(dumped) > 0) {
+                try {
+                    Files.move(dumped, archive, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(dumped, archive, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        } catch (IOException e) {
+            // another launch published first, or the directory is read-only
+        } finally {
+            try {
+                Files.deleteIfExists(dumped);
+            } catch (IOException e) {
+                // best-effort
+            }
+        }
+    }
 }
@@ -2,25 +2,45 @@ package io.github.mavenmcp;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.management.ManagementFactory;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Properties;
+import java.util.StringJoiner;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.analysis.ReactorGraph;
+import io.github.mavenmcp.config.ProjectRegistry;
 import io.github.mavenmcp.config.ServerConfig;
+import io.github.mavenmcp.formatter.JsonFormatter;
+import io.github.mavenmcp.formatter.MarkdownFormatter;
 import io.github.mavenmcp.maven.MavenDetector;
-import io.github.mavenmcp.maven.MavenNotFoundException;
 import io.github.mavenmcp.maven.MavenRunner;
+import io.github.mavenmcp.metrics.PrometheusEndpoint;
+import io.github.mavenmcp.metrics.ServerMetrics;
+import io.github.mavenmcp.parser.CompilationOutputParser;
+import io.github.mavenmcp.parser.StackTraceProcessor;
+import io.github.mavenmcp.parser.SurefireReportParser;
 import io.github.mavenmcp.tool.CleanTool;
 import io.github.mavenmcp.tool.CompileTool;
+import io.github.mavenmcp.tool.StatsTool;
 import io.github.mavenmcp.tool.TestTool;
+import io.github.mavenmcp.transport.HttpTransport;
 import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
+import io.modelcontextprotocol.server.McpAsyncServer;
 import io.modelcontextprotocol.server.McpServer;
 import io.modelcontextprotocol.server.McpSyncServer;
 import io.modelcontextprotocol.server.transport.StdioServerTransportProvider;
 import io.modelcontextprotocol.spec.McpSchema.ServerCapabilities;
+import org.apache.catalina.LifecycleException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import picocli.CommandLine;
@@ -30,7 +50,7 @@ import picocli.CommandLine.Option;
 
 /**
  * Maven MCP Server entry point.
- * Exposes Maven CLI operations as MCP tools over stdio transport.
+ * Exposes Maven CLI operations as MCP tools over stdio or, optionally, streamable HTTP.
  */
 @Command(
         name = "maven-mcp-server",
@@ -44,59 +64,205 @@ public class MavenMcpServer implements Callable<Integer> {
     private static final String SERVER_NAME = "maven-mcp";
     private static final String SERVER_VERSION = loadVersion();
 
+    /** Maven detection and warm-up, off the MCP handshake path. */
+    private static final ExecutorService BACKGROUND =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("maven-mcp-startup-", 0).factory());
+
     @Option(names = "--project",
             description = "Path to the Maven project directory (default: current directory)",
             defaultValue = ".")
     private Path projectDir;
 
+    @Option(names = "--multi-project",
+            description = "Serve any project root named by the tools' project parameter, not only --project")
+    private boolean multiProject;
+
+    @Option(names = "--max-projects",
+            description = "Projects kept open besides --project in multi-project mode; the least recently used idle ones are closed (default: ${DEFAULT-VALUE})",
+            defaultValue = "" + ProjectRegistry.DEFAULT_MAX_PROJECTS)
+    private int maxProjects;
+
+    @Option(names = "--transport",
+            description = "MCP transport: stdio, or http for a streamable HTTP endpoint on 127.0.0.1 shared by many clients (default: ${DEFAULT-VALUE})",
+            defaultValue = "stdio")
+    private Transport transport;
+
+    @Option(names = "--port",
+            description = "Port of the http transport (default: ${DEFAULT-VALUE})",
+            defaultValue = "" + HttpTransport.DEFAULT_PORT)
+    private int port;
+
+    @Option(names = "--metrics-port",
+            description = "Serve Prometheus metrics at http://127.0.0.1:<port>/metrics (default: off)")
+    private Integer metricsPort;
+
+    @Option(names = "--async",
+            description = "Run tool calls without holding a thread while Maven runs (async MCP server)")
+    private boolean async;
+
+    enum Transport { stdio, http }
+
     // Available to future tool handlers
     private ServerConfig config;
     private MavenRunner mavenRunner;
 
     @Override
     public Integer call() {
-        // --- Startup validation ---
+        var phases = new StartupPhases();
+
+        // --- Startup validation (file checks only; Maven detection runs in the background) ---
         try {
-            config = validateAndCreateConfig();
+            validateProjectDir();
         } catch (IllegalStateException e) {
             System.err.println(e.getMessage());
             return 1;
         }
-
+        Path project = projectDir.toAbsolutePath();
+        CompletableFuture<Path> detection = CompletableFuture.supplyAsync(() -> detectMaven(project), BACKGROUND);
+        detection.whenComplete((executable, error) -> {
+            if (error != null) {
+                // Keep serving: each Maven tool call reports the missing executable as a tool error
+                log.error("{}", (error.getCause() != null ? error.getCause() : error).getMessage());
+            }
+        });
+        config = ServerConfig.withPendingMaven(project, detection);
         mavenRunner = new MavenRunner();
+        phases.mark("validate");
 
         log.info("Maven MCP Server v{}", SERVER_VERSION);
         log.info("Project directory: {}", config.projectDir());
-        log.info("Maven executable: {}", config.mavenExecutable());
+        if (multiProject) {
+            log.info("Multi-project mode: up to {} other project(s) kept open", maxProjects);
+        }
 
         // --- MCP server bootstrap ---
         ObjectMapper objectMapper = new ObjectMapper()
                 .setSerializationInclusion(JsonInclude.Include.NON_NULL);
-
-        StdioServerTransportProvider transport =
-                new StdioServerTransportProvider(new JacksonMcpJsonMapper(new ObjectMapper()));
-
-        McpSyncServer server = McpServer.sync(transport)
-                .serverInfo(SERVER_NAME, SERVER_VERSION)
-                .capabilities(ServerCapabilities.builder()
-                        .tools(Boolean.TRUE)
-                        .logging()
-                        .build())
-                .tools(
-                        CompileTool.create(config, mavenRunner, objectMapper),
-                        CleanTool.create(config, mavenRunner, objectMapper),
-                        TestTool.create(config, mavenRunner, objectMapper)
-                )
+        ProjectRegistry projects = multiProject
+                ? ProjectRegistry.multi(config, maxProjects)
+                : ProjectRegistry.single(config);
+        var jsonMapper = new JacksonMcpJsonMapper(new ObjectMapper());
+        HttpTransport http = null;
+        if (transport == Transport.http) {
+            try {
+                http = HttpTransport.create(port, jsonMapper);
+            } catch (IOException e) {
+                System.err.println("Failed to set up the HTTP transport: " + e.getMessage());
+                return 1;
+            }
+        }
+        var capabilities = ServerCapabilities.builder()
+                .tools(Boolean.TRUE)
+                .logging()
                 .build();
+        Runnable closeServer;
+        if (async) {
+            ExecutorService testCalls =
+                    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("maven-test-call-", 0).factory());
+            var tools = List.of(
+                    CompileTool.createAsync(projects, mavenRunner, objectMapper),
+                    CleanTool.createAsync(projects, mavenRunner, objectMapper),
+                    TestTool.createAsync(projects, mavenRunner, objectMapper, testCalls),
+                    StatsTool.createAsync(ServerMetrics.global(), objectMapper));
+            phases.mark("tools");
+            McpServer.AsyncSpecification<?> spec = http != null
+                    ? McpServer.async(http.provider())
+                    : McpServer.async(new StdioServerTransportProvider(jsonMapper));
+            McpAsyncServer server = spec
+                    .serverInfo(SERVER_NAME, SERVER_VERSION)
+                    .capabilities(capabilities)
+                    .tools(tools)
+                    .build();
+            closeServer = () -> {
+                server.closeGracefully().block();
+                // Calls still waiting on Maven are interrupted and end with an error result
+                testCalls.shutdownNow();
+            };
+        } else {
+            var tools = List.of(
+                    CompileTool.create(projects, mavenRunner, objectMapper),
+                    CleanTool.create(projects, mavenRunner, objectMapper),
+                    TestTool.create(projects, mavenRunner, objectMapper),
+                    StatsTool.create(ServerMetrics.global(), objectMapper));
+            phases.mark("tools");
+            McpServer.SyncSpecification<?> spec = http != null
+                    ? McpServer.sync(http.provider())
+                    : McpServer.sync(new StdioServerTransportProvider(jsonMapper));
+            McpSyncServer server = spec
+                    .serverInfo(SERVER_NAME, SERVER_VERSION)
+                    .capabilities(capabilities)
+                    .tools(tools)
+                    .build();
+            closeServer = server::closeGracefully;
+        }
+        if (http != null) {
+            try {
+                http.start();
+            } catch (LifecycleException e) {
+                System.err.println("Failed to start the HTTP transport on port " + port + ": " + e.getMessage());
+                http.close();
+                return 1;
+            }
+        }
+        if (metricsPort != null) {
+            try {
+                PrometheusEndpoint.start(metricsPort, ServerMetrics.global());
+            } catch (IOException e) {
+                System.err.println("Failed to start the metrics endpoint on port " + metricsPort + ": " + e.getMessage());
+                if (http != null) {
+                    http.close();
+                }
+                return 1;
+            }
+        }
+        phases.mark("transport");
+
+        log.info("MCP server started, listening on {} ({} ms since launch, class data sharing: {})",
+                http != null ? http.endpoint() : "stdio", millisSinceLaunch(),
+                System.getProperty("maven.mcp.cds.mode", "off"));
+        log.debug("Startup phases: {}", phases);
 
-        log.info("MCP server started, listening on stdio");
+        BACKGROUND.execute(() -> warmUp(project));
+
+        if (http != null) {
+            return serveUntilShutdown(closeServer, http);
+        }
 
         // Server blocks on stdio until client disconnects.
         // StdioServerTransportProvider handles the lifecycle.
         return 0;
     }
 
-    private ServerConfig validateAndCreateConfig() {
+    /**
+     * Keep serving HTTP clients until the JVM is asked to shut down (SIGINT/SIGTERM); Tomcat's
+     * threads alone would not keep it alive.
+     */
+    private static int serveUntilShutdown(Runnable closeServer, HttpTransport http) {
+        var stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            closeServer.run();
+            http.close();
+            stopped.countDown();
+        }, "maven-mcp-shutdown"));
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+
+    /**
+     * Startup time, measured from the launching JVM when Bootstrap relaunched the server with a
+     * class data sharing archive, otherwise from this JVM's start.
+     */
+    private static long millisSinceLaunch() {
+        long launchedAt = Long.getLong("maven.mcp.launchedAt",
+                ManagementFactory.getRuntimeMXBean().getStartTime());
+        return System.currentTimeMillis() - launchedAt;
+    }
+
+    private void validateProjectDir() {
         // 1. Project directory exists
         if (!Files.isDirectory(projectDir)) {
             throw new IllegalStateException(
@@ -110,15 +276,64 @@ public class MavenMcpServer implements Callable<Integer> {
                     "No pom.xml found in project directory: " + projectDir);
         }
 
-        // 3. Maven executable available
-        Path mavenExecutable;
+        if (maxProjects < 1) {
+            throw new IllegalStateException("--max-projects must be at least 1: " + maxProjects);
+        }
+    }
+
+    private static Path detectMaven(Path project) {
+        long start = System.nanoTime();
+        Path executable = MavenDetector.detect(project);
+        MavenDetector.wrapperVersion(project).ifPresentOrElse(
+                version -> log.info("Maven executable: {} (wrapper, Maven {})", executable, version),
+                () -> log.info("Maven executable: {}", executable));
+        MavenDetector.daemon().ifPresent(mvnd -> log.debug("Maven Daemon available at {} (use with -D{}=true)",
+                mvnd, MavenDetector.USE_MVND_PROPERTY));
+        log.debug("Maven detection took {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return executable;
+    }
+
+    /**
+     * Pay first-call costs off the request path: parse the reactor POMs (cached by
+     * {@link ReactorGraph}) and initialize the report parsers and formatters.
+     */
+    private static void warmUp(Path project) {
+        long start = System.nanoTime();
         try {
-            mavenExecutable = MavenDetector.detect(projectDir);
-        } catch (MavenNotFoundException e) {
-            throw new IllegalStateException(e.getMessage());
+            ReactorGraph.load(project);
+            for (Class<?> type : List.of(SurefireReportParser.class, CompilationOutputParser.class,
+                    StackTraceProcessor.class, MarkdownFormatter.class, JsonFormatter.class)) {
+                Class.forName(type.getName(), true, type.getClassLoader());
+            }
+            log.debug("Background warm-up took {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception | LinkageError e) {
+            log.debug("Background warm-up failed: {}", e.getMessage());
         }
+    }
 
-        return new ServerConfig(projectDir.toAbsolutePath(), mavenExecutable);
+    /**
+     * Wall-clock breakdown of the startup phases, for the debug log.
+     */
+    private static final class StartupPhases {
+
+        private final StringJoiner breakdown = new StringJoiner(", ");
+        private final long start = System.nanoTime();
+        private long last = start;
+
+        StartupPhases() {
+            breakdown.add("launch " + millisSinceLaunch() + " ms");
+        }
+
+        void mark(String phase) {
+            long now = System.nanoTime();
+            breakdown.add(phase + " " + TimeUnit.NANOSECONDS.toMillis(now - last) + " ms");
+            last = now;
+        }
+
+        @Override
+        public String toString() {
+            return breakdown + " (call " + TimeUnit.NANOSECONDS.toMillis(last - start) + " ms)";
+        }
     }
 
     public ServerConfig getConfig() {
@@ -0,0 +1,211 @@
+package io.github.mavenmcp.analysis;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Detects changed source files of a Maven project.
+ *
+ * <p>Inside a git work tree, changes are the files differing from {@code HEAD} plus untracked
+ * files ({@code git diff --name-only HEAD}, {@code git ls-files --others --exclude-standard}).
+ * Otherwise files under {@code src/} modified after the last {@code maven_test} run
+ * (see {@link #markTestRun}) are used; without such a marker, changes are unknown. For a
+ * multi-module project the timestamp check covers {@code pom.xml} and {@code src/} of every
+ * given module directory.</p>
+ */
+public final class ChangeDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeDetector.class);
+
+    /** Marker touched after each test run, used as the reference for timestamp-based detection. */
+    public static final String MARKER_FILE = "target/.maven-mcp/last-test-run";
+
+    private static final long GIT_TIMEOUT_SECONDS = 10;
+
+    private ChangeDetector() {
+    }
+
+    /**
+     * Detect changed files.
+     *
+     * @param projectDir project root
+     * @return the change set, or empty if changes cannot be determined
+     */
+    public static Optional<ChangeSet> detect(Path projectDir) {
+        return detect(projectDir, List.of(""));
+    }
+
+    /**
+     * Detect changed files of a multi-module project. Git reports changes anywhere in the work
+     * tree; the timestamp fallback checks {@code pom.xml} and {@code src/} of every module.
+     *
+     * @param projectDir project root
+     * @param moduleDirs module directories relative to the project root, {@code ""} for the root
+     * @return the change set, or empty if changes cannot be determined
+     */
+    public static Optional<ChangeSet> detect(Path projectDir, Collection<String> moduleDirs) {
+        Optional<List<String>> diff = git(projectDir, "diff", "--name-only", "--relative", "HEAD", "--");
+        Optional<List<String>> untracked = git(projectDir, "ls-files", "--others", "--exclude-standard");
+        if (diff.isPresent() && untracked.isPresent()) {
+            Set<String> files = new LinkedHashSet<>(diff.get());
+            files.addAll(untracked.get());
+            return Optional.of(ChangeSet.of("git", files));
+        }
+        return fromTimestamps(projectDir, moduleDirs);
+    }
+
+    /**
+     * Record that tests ran now, for timestamp-based detection. Best-effort.
+     */
+    public static void markTestRun(Path projectDir) {
+        Path marker = projectDir.resolve(MARKER_FILE);
+        try {
+            Files.createDirectories(marker.getParent());
+            if (!Files.exists(marker)) {
+                Files.createFile(marker);
+            }
+            Files.setLastModifiedTime(marker, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            log.debug("Failed to update test run marker: {}", e.getMessage());
+        }
+    }
+
+    static Optional<ChangeSet> fromTimestamps(Path projectDir) {
+        return fromTimestamps(projectDir, List.of(""));
+    }
+
+    static Optional<ChangeSet> fromTimestamps(Path projectDir, Collection<String> moduleDirs) {
+        Path marker = projectDir.resolve(MARKER_FILE);
+        if (!Files.isRegularFile(marker)) {
+            return Optional.empty();
+        }
+        try {
+            FileTime since = Files.getLastModifiedTime(marker);
+            Set<String> files = new LinkedHashSet<>();
+            for (String moduleDir : moduleDirs) {
+                Path moduleRoot = projectDir.resolve(moduleDir);
+                Path pom = moduleRoot.resolve("pom.xml");
+                if (Files.isRegularFile(pom) && Files.getLastModifiedTime(pom).compareTo(since) > 0) {
+                    files.add(relativize(projectDir, pom));
+                }
+                Path srcDir = moduleRoot.resolve("src");
+                if (Files.isDirectory(srcDir)) {
+                    Files.walkFileTree(srcDir, new SimpleFileVisitor<>() {
+                        @Override
+                        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                            if (attrs.lastModifiedTime().compareTo(since) > 0) {
+                                files.add(relativize(projectDir, file));
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
+                }
+            }
+            return Optional.of(ChangeSet.of("timestamps", files));
+        } catch (IOException e) {
+            log.debug("Failed to detect changes from timestamps: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static String relativize(Path projectDir, Path file) {
+        return projectDir.relativize(file).toString().replace('\\', '/');
+    }
+
+    private static Optional<List<String>> git(Path projectDir, String... args) {
+        List<String> command = new ArrayList<>(List.of("git", "-C", projectDir.toString()));
+        command.addAll(List.of(args));
+        try {
+            Process process = new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            String stdout;
+            try (InputStream in = process.getInputStream()) {
+                stdout = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            if (!process.waitFor(GIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return Optional.empty();
+            }
+            if (process.exitValue() != 0) {
+                return Optional.empty();
+            }
+            return Optional.of(stdout.lines().filter(line -> !line.isBlank()).toList());
+        } catch (IOException e) {
+            log.debug("git unavailable: {}", e.getMessage());
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Changed files and the top-level classes they declare.
+     *
+     * @param method          how changes were detected: {@code git} or {@code timestamps}
+     * @param files           changed paths relative to the project root, using {@code /}
+     * @param classNames      top-level class names derived from changed {@code .java} files
+     *                        under a {@code src/<set>/java} root
+     * @param requiresFullRun true if a change cannot be mapped to classes (POM, resources,
+     *                        other files under {@code src/}), so every test may be affected
+     */
+    public record ChangeSet(String method, Set<String> files, Set<String> classNames, boolean requiresFullRun) {
+
+        static ChangeSet of(String method, Set<String> files) {
+            Set<String> classNames = new LinkedHashSet<>();
+            boolean requiresFullRun = false;
+            for (String file : files) {
+                String path = file.replace('\\', '/');
+                if (path.equals("pom.xml") || path.endsWith("/pom.xml")) {
+                    requiresFullRun = true;
+                    continue;
+                }
+                Optional<String> className = classNameOf(path);
+                if (className.isPresent()) {
+                    classNames.add(className.get());
+                } else if (path.startsWith("src/") || path.contains("/src/")) {
+                    requiresFullRun = true;
+                }
+            }
+            return new ChangeSet(method, Set.copyOf(files), Set.copyOf(classNames), requiresFullRun);
+        }
+
+        /**
+         * {@code src/main/java/com/example/Foo.java} → {@code com.example.Foo}.
+         */
+        static Optional<String> classNameOf(String path) {
+            if (!path.endsWith(".java")) {
+                return Optional.empty();
+            }
+            String[] segments = path.split("/");
+            for (int i = 0; i + 2 < segments.length; i++) {
+                if ("src".equals(segments[i]) && "java".equals(segments[i + 2])) {
+                    String relative = String.join(".", List.of(segments).subList(i + 3, segments.length));
+                    String name = relative.substring(0, relative.length() - ".java".length());
+                    return name.isEmpty() || name.endsWith("package-info") || name.endsWith("module-info")
+                            ? Optional.empty() : Optional.of(name);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+}
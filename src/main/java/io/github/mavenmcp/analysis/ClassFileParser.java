@@ -0,0 +1,175 @@
+package io.github.mavenmcp.analysis;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Minimal class file reader: extracts the class name, access flags and referenced class names
+ * from the constant pool. Method bodies and attributes are never parsed.
+ *
+ * <p>References are collected from {@code CONSTANT_Class} entries and from type descriptors and
+ * generic signatures ({@code Lpkg/Name;}) in {@code CONSTANT_Utf8} entries, which covers field
+ * types, method signatures and annotations that never appear as class constants. The result
+ * is conservative: it may include names that are not classes, never misses a constant pool
+ * reference.</p>
+ */
+public final class ClassFileParser {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    /** {@code ACC_INTERFACE} access flag. */
+    public static final int ACC_INTERFACE = 0x0200;
+    /** {@code ACC_ABSTRACT} access flag. */
+    public static final int ACC_ABSTRACT = 0x0400;
+
+    private ClassFileParser() {
+    }
+
+    /**
+     * Parse a class file.
+     *
+     * @param bytes class file contents
+     * @return parsed class information, with dotted binary names
+     * @throws IOException if the bytes are not a well-formed class file
+     */
+    public static ClassFileInfo parse(byte[] bytes) throws IOException {
+        var in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        in.readUnsignedShort(); // minor
+        in.readUnsignedShort(); // major
+
+        int count = in.readUnsignedShort();
+        String[] utf8 = new String[count];
+        int[] classNameIndex = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case CONSTANT_UTF8 -> utf8[i] = in.readUTF();
+                case CONSTANT_CLASS -> classNameIndex[i] = in.readUnsignedShort();
+                case CONSTANT_STRING, CONSTANT_METHOD_TYPE, CONSTANT_MODULE, CONSTANT_PACKAGE ->
+                        in.readUnsignedShort();
+                case CONSTANT_METHOD_HANDLE -> in.skipNBytes(3);
+                case CONSTANT_INTEGER, CONSTANT_FLOAT, CONSTANT_FIELDREF, CONSTANT_METHODREF,
+                     CONSTANT_INTERFACE_METHODREF, CONSTANT_NAME_AND_TYPE, CONSTANT_DYNAMIC,
+                     CONSTANT_INVOKE_DYNAMIC -> in.skipNBytes(4);
+                case CONSTANT_LONG, CONSTANT_DOUBLE -> {
+                    in.skipNBytes(8);
+                    i++; // 8-byte constants take two slots
+                }
+                default -> throw new IOException("Unknown constant pool tag " + tag + " at " + i);
+            }
+        }
+
+        int accessFlags = in.readUnsignedShort();
+        int thisClass = in.readUnsignedShort();
+        String name = classNameAt(utf8, classNameIndex, thisClass);
+        if (name == null) {
+            throw new IOException("Missing this_class");
+        }
+
+        Set<String> references = new HashSet<>();
+        for (int i = 1; i < count; i++) {
+            if (classNameIndex[i] != 0) {
+                addClassConstant(references, utf8[classNameIndex[i]]);
+            }
+        }
+        for (int i = 1; i < count; i++) {
+            if (utf8[i] != null) {
+                addDescriptorReferences(references, utf8[i]);
+            }
+        }
+        String binaryName = toBinaryName(name);
+        references.remove(binaryName);
+        return new ClassFileInfo(binaryName, accessFlags, Set.copyOf(references));
+    }
+
+    private static String classNameAt(String[] utf8, int[] classNameIndex, int index) {
+        if (index <= 0 || index >= classNameIndex.length || classNameIndex[index] == 0) {
+            return null;
+        }
+        return utf8[classNameIndex[index]];
+    }
+
+    /**
+     * Class constants hold internal names, or descriptors for array types.
+     */
+    private static void addClassConstant(Set<String> references, String internalName) {
+        if (internalName == null) {
+            return;
+        }
+        if (internalName.startsWith("[")) {
+            addDescriptorReferences(references, internalName);
+        } else {
+            references.add(toBinaryName(internalName));
+        }
+    }
+
+    /**
+     * Collect every {@code L<internal name>;} or {@code L<internal name><} occurrence.
+     */
+    private static void addDescriptorReferences(Set<String> references, String text) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) != 'L') {
+                continue;
+            }
+            int end = i + 1;
+            while (end < length && isNameChar(text.charAt(end))) {
+                end++;
+            }
+            if (end > i + 1 && end < length && (text.charAt(end) == ';' || text.charAt(end) == '<')) {
+                references.add(toBinaryName(text.substring(i + 1, end)));
+                i = end;
+            }
+        }
+    }
+
+    private static boolean isNameChar(char c) {
+        return c != ';' && c != '<' && c != '>' && c != '(' && c != ')' && c != '['
+                && c != '.' && c != ':' && !Character.isWhitespace(c);
+    }
+
+    private static String toBinaryName(String internalName) {
+        return internalName.replace('/', '.');
+    }
+
+    /**
+     * Parsed class file.
+     *
+     * @param name         binary class name, e.g. {@code com.example.Outer$Inner}
+     * @param accessFlags  class access flags
+     * @param references   binary names of all classes referenced from the constant pool
+     */
+    public record ClassFileInfo(String name, int accessFlags, Set<String> references) {
+
+        /**
+         * @return true if the class is abstract or an interface
+         */
+        public boolean isAbstract() {
+            return (accessFlags & (ACC_ABSTRACT | ACC_INTERFACE)) != 0;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package io.github.mavenmcp.analysis;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import io.github.mavenmcp.util.Fnv1a;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of compiled classes under one or more output directories (e.g. {@code target/classes}
+ * and {@code target/test-classes}).
+ *
+ * <p>The directory scan only records class names and paths. Each class file is read at most
+ * once, on first use, yielding both its content digest and its constant pool references.
+ * Dependencies are restricted to indexed classes — JDK and library classes are not tracked.</p>
+ *
+ * <p>Not thread-safe.</p>
+ */
+public final class ClassIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ClassIndex.class);
+
+    private final Map<String, Path> paths;
+    private final Map<String, Path> roots;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private ClassIndex(Map<String, Path> paths, Map<String, Path> roots) {
+        this.paths = paths;
+        this.roots = roots;
+    }
+
+    /**
+     * Index all {@code .class} files below the given directories. Missing directories are skipped;
+     * when a class appears under several roots, the first root wins.
+     *
+     * @param outputDirs compiled class directories, in precedence order
+     * @return the index
+     * @throws IOException if a directory cannot be walked
+     */
+    public static ClassIndex scan(List<Path> outputDirs) throws IOException {
+        Map<String, Path> paths = new LinkedHashMap<>();
+        Map<String, Path> roots = new HashMap<>();
+        for (Path dir : outputDirs) {
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            try (Stream<Path> stream = Files.walk(dir)) {
+                stream.filter(p -> p.getFileName().toString().endsWith(".class"))
+                        .filter(p -> !"module-info.class".equals(p.getFileName().toString()))
+                        .forEach(p -> {
+                            String name = binaryName(dir.relativize(p));
+                            if (paths.putIfAbsent(name, p) == null) {
+                                roots.put(name, dir);
+                            }
+                        });
+            }
+        }
+        return new ClassIndex(paths, roots);
+    }
+
+    /**
+     * @return all indexed binary class names, in scan order
+     */
+    public Set<String> classNames() {
+        return Collections.unmodifiableSet(paths.keySet());
+    }
+
+    /**
+     * @return true if the class is indexed
+     */
+    public boolean contains(String className) {
+        return paths.containsKey(className);
+    }
+
+    /**
+     * @return the output directory the class was found under, if indexed
+     */
+    public Optional<Path> root(String className) {
+        return Optional.ofNullable(roots.get(className));
+    }
+
+    /**
+     * @return parsed class file, or empty if not indexed or unreadable
+     */
+    public Optional<ClassFileParser.ClassFileInfo> info(String className) {
+        return entry(className).map(Entry::info);
+    }
+
+    /**
+     * @return 64-bit FNV-1a digest of the class file contents, or empty if not indexed or unreadable
+     */
+    public Optional<Long> digest(String className) {
+        return entry(className).map(Entry::digest);
+    }
+
+    /**
+     * @return indexed classes directly referenced by the class (empty if unreadable)
+     */
+    public Set<String> dependencies(String className) {
+        return entry(className).map(Entry::dependencies).orElse(Set.of());
+    }
+
+    /**
+     * Transitive closure of indexed dependencies, including the class itself.
+     *
+     * @return class names in breadth-first order, or empty if the class or any reachable class
+     *         could not be read
+     */
+    public Optional<Set<String>> transitiveDependencies(String className) {
+        Set<String> visited = new LinkedHashSet<>();
+        var queue = new ArrayDeque<String>();
+        visited.add(className);
+        queue.add(className);
+        while (!queue.isEmpty()) {
+            Optional<Entry> entry = entry(queue.poll());
+            if (entry.isEmpty()) {
+                return Optional.empty();
+            }
+            for (String dependency : entry.get().dependencies()) {
+                if (visited.add(dependency)) {
+                    queue.add(dependency);
+                }
+            }
+        }
+        return Optional.of(visited);
+    }
+
+    private Optional<Entry> entry(String className) {
+        Entry cached = entries.get(className);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Path path = paths.get(className);
+        if (path == null) {
+            return Optional.empty();
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(path);
+            var info = ClassFileParser.parse(bytes);
+            Set<String> dependencies = new LinkedHashSet<>();
+            for (String reference : info.references()) {
+                if (paths.containsKey(reference)) {
+                    dependencies.add(reference);
+                }
+            }
+            var entry = new Entry(info, digest(bytes), Set.copyOf(dependencies));
+            entries.put(className, entry);
+            return Optional.of(entry);
+        } catch (IOException e) {
+            log.debug("Failed to read class file {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static long digest(byte[] bytes) {
+        return Fnv1a.hash(Fnv1a.OFFSET_BASIS, bytes);
+    }
+
+    private static String binaryName(Path relative) {
+        String path = relative.toString().replace(relative.getFileSystem().getSeparator(), ".");
+        return path.substring(0, path.length() - ".class".length());
+    }
+
+    private record Entry(ClassFileParser.ClassFileInfo info, long digest, Set<String> dependencies) {
+    }
+}
@@ -0,0 +1,529 @@
+package io.github.mavenmcp.analysis;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.github.mavenmcp.parser.XmlUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Module graph of a Maven reactor, read directly from the POMs.
+ *
+ * <p>Modules are found by following {@code <modules>} from the root POM (profile modules are
+ * not considered). A module depends on another reactor module if it names it as
+ * {@code <parent>}, in {@code <dependencies>}, as an imported BOM, or as a build plugin or
+ * plugin dependency. {@code ${...}} references are resolved against {@code project.groupId},
+ * {@code project.parent.groupId} and the {@code <properties>} of the module and its
+ * aggregators; anything else is left unresolved and simply matches no module.</p>
+ *
+ * <p>The graph also records the build inputs that live outside the project tree: parent POMs
+ * reached through {@code <relativePath>} (default {@code ../pom.xml}) that lie outside it, and
+ * {@code -SNAPSHOT} dependencies, imported BOMs and repository parents that are not reactor
+ * modules. Versions are taken from the dependency or, failing that, from any
+ * {@code <dependencyManagement>} entry read.</p>
+ *
+ * <p>Graphs are cached per project directory and reused until any of their POMs, including the
+ * external parents, changes (modification time or size).</p>
+ */
+public final class ReactorGraph {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactorGraph.class);
+
+    private static final Pattern PROPERTY = Pattern.compile("\\$\\{([^}]+)}");
+
+    /** Guards against parent cycles among external POMs. */
+    private static final int MAX_PARENT_DEPTH = 16;
+
+    private static final Map<Path, ReactorGraph> CACHE = new ConcurrentHashMap<>();
+
+    private final Map<String, Module> modules;
+    private final Map<String, Set<String>> downstream;
+    private final Map<Path, PomStamp> poms;
+    private final Set<Path> externalPoms;
+    private final Set<String> snapshotArtifacts;
+
+    private ReactorGraph(Map<String, Module> modules, Map<Path, PomStamp> poms, Set<Path> externalPoms,
+                         Set<String> snapshotArtifacts) {
+        this.modules = modules;
+        this.poms = poms;
+        this.externalPoms = externalPoms;
+        this.snapshotArtifacts = snapshotArtifacts;
+        this.downstream = new HashMap<>();
+        for (Module module : modules.values()) {
+            for (String upstream : module.upstream()) {
+                downstream.computeIfAbsent(upstream, k -> new TreeSet<>()).add(module.path());
+            }
+        }
+    }
+
+    /**
+     * Load the reactor graph of a project, reusing the cached graph while its POMs are unchanged.
+     *
+     * @param projectDir directory containing the root {@code pom.xml}
+     * @return the graph, or empty if a POM cannot be read
+     */
+    public static Optional<ReactorGraph> load(Path projectDir) {
+        Path root = projectDir.toAbsolutePath().normalize();
+        ReactorGraph cached = CACHE.get(root);
+        if (cached != null && cached.isCurrent()) {
+            return Optional.of(cached);
+        }
+        try {
+            ReactorGraph graph = parse(root);
+            CACHE.put(root, graph);
+            log.debug("Parsed reactor graph of {}: {} module(s)", root, graph.modules.size());
+            return Optional.of(graph);
+        } catch (Exception e) {
+            log.debug("Failed to read reactor graph of {}: {}", root, e.getMessage());
+            CACHE.remove(root);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Drop the cached graph of a project.
+     *
+     * @param projectDir directory containing the root {@code pom.xml}
+     */
+    public static void evict(Path projectDir) {
+        CACHE.remove(projectDir.toAbsolutePath().normalize());
+    }
+
+    /**
+     * @return modules keyed by their directory relative to the project root ({@code ""} for the
+     *         root project), in reactor declaration order
+     */
+    public Map<String, Module> modules() {
+        return modules;
+    }
+
+    /**
+     * @return parent POM files outside the project tree, in the order they were read
+     */
+    public Set<Path> externalPoms() {
+        return externalPoms;
+    }
+
+    /**
+     * @return {@code groupId:artifactId:version} of the {@code -SNAPSHOT} artifacts the build takes
+     *         from a repository rather than from the reactor, sorted
+     */
+    public Set<String> snapshotArtifacts() {
+        return snapshotArtifacts;
+    }
+
+    /**
+     * @return true if the root POM aggregates at least one module
+     */
+    public boolean isMultiModule() {
+        return modules.size() > 1;
+    }
+
+    /**
+     * Modules that transitively depend on any of the given modules, including the modules themselves.
+     */
+    public Set<String> withDownstream(Collection<String> paths) {
+        Set<String> result = new TreeSet<>();
+        Deque<String> queue = new ArrayDeque<>(paths);
+        while (!queue.isEmpty()) {
+            String path = queue.poll();
+            if (result.add(path)) {
+                queue.addAll(downstream.getOrDefault(path, Set.of()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Map changed files to the modules that must be rebuilt.
+     *
+     * <p>A file belongs to the innermost module directory containing it. Files outside every
+     * module require a full build if they are the root {@code pom.xml}, under {@code .mvn/}, or
+     * under the root {@code src/}; other root-level files (documentation, CI config) are ignored.</p>
+     *
+     * @param files changed paths relative to the project root, using {@code /}
+     * @return the selection
+     */
+    public Selection select(Collection<String> files) {
+        Set<String> changed = new TreeSet<>();
+        for (String file : files) {
+            String path = file.replace('\\', '/');
+            String owner = ownerOf(path);
+            if (!owner.isEmpty()) {
+                changed.add(owner);
+            } else if (path.equals("pom.xml") || path.startsWith(".mvn/") || path.startsWith("src/")) {
+                return new Selection(Set.of(), List.of(), Set.copyOf(modules.keySet()), true);
+            }
+        }
+        Set<String> affected = withDownstream(changed);
+        // Modules already rebuilt as dependents of another changed module need not be listed
+        List<String> projects = changed.stream()
+                .filter(path -> changed.stream().noneMatch(other -> !other.equals(path)
+                        && withDownstream(List.of(other)).contains(path)))
+                .toList();
+        return new Selection(changed, projects, affected, false);
+    }
+
+    /**
+     * @param file path relative to the project root, using {@code /}
+     * @return the innermost non-root module directory containing the file, if any
+     */
+    public Optional<String> moduleOf(String file) {
+        String owner = ownerOf(file.replace('\\', '/'));
+        return owner.isEmpty() ? Optional.empty() : Optional.of(owner);
+    }
+
+    private String ownerOf(String file) {
+        String owner = "";
+        for (String path : modules.keySet()) {
+            if (!path.isEmpty() && file.startsWith(path + "/") && path.length() > owner.length()) {
+                owner = path;
+            }
+        }
+        return owner;
+    }
+
+    private boolean isCurrent() {
+        for (var entry : poms.entrySet()) {
+            if (!entry.getValue().equals(PomStamp.of(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ReactorGraph parse(Path root) throws Exception {
+        Map<String, RawModule> raw = new LinkedHashMap<>();
+        Map<Path, PomStamp> poms = new HashMap<>();
+        var external = new External();
+        Deque<Pending> queue = new ArrayDeque<>();
+        queue.add(new Pending(root.resolve("pom.xml"), Map.of()));
+        while (!queue.isEmpty()) {
+            Pending pending = queue.poll();
+            Path pom = pending.pom().normalize();
+            if (poms.containsKey(pom)) {
+                continue;
+            }
+            PomStamp stamp = PomStamp.of(pom);
+            if (stamp == null) {
+                throw new IOException("Missing module POM: " + pom);
+            }
+            poms.put(pom, stamp);
+
+            Element project = XmlUtils.newSecureDocumentBuilder().parse(pom.toFile()).getDocumentElement();
+            Element parent = child(project, "parent");
+            String parentGroupId = parent != null ? text(parent, "groupId") : null;
+            String groupId = text(project, "groupId");
+            if (groupId == null) {
+                groupId = parentGroupId;
+            }
+            String artifactId = text(project, "artifactId");
+
+            Map<String, String> properties = new HashMap<>(pending.properties());
+            properties.putAll(readExternalParents(root, pom, parent, poms, external));
+            Element props = child(project, "properties");
+            if (props != null) {
+                for (Element property : children(props, null)) {
+                    properties.put(property.getTagName(), property.getTextContent().strip());
+                }
+            }
+            if (groupId != null) {
+                properties.put("project.groupId", groupId);
+                properties.put("pom.groupId", groupId);
+                properties.put("groupId", groupId);
+            }
+            if (artifactId != null) {
+                properties.put("project.artifactId", artifactId);
+            }
+            if (parentGroupId != null) {
+                properties.put("project.parent.groupId", parentGroupId);
+            }
+            String version = text(project, "version");
+            String parentVersion = parent != null ? text(parent, "version") : null;
+            if (version == null) {
+                version = parentVersion;
+            }
+            if (version != null) {
+                properties.put("project.version", version);
+                properties.put("version", version);
+            }
+            if (parentVersion != null) {
+                properties.put("project.parent.version", parentVersion);
+            }
+            external.collectVersions(project, properties);
+
+            Set<String> references = new LinkedHashSet<>();
+            if (parent != null) {
+                references.add(coordinate(parent, properties));
+            }
+            collectDependencies(child(project, "dependencies"), properties, references, false);
+            collectDependencies(child(child(project, "dependencyManagement"), "dependencies"),
+                    properties, references, true);
+            Element plugins = child(child(project, "build"), "plugins");
+            for (Element plugin : children(plugins, "plugin")) {
+                references.add(coordinate(plugin, properties));
+                collectDependencies(child(plugin, "dependencies"), properties, references, false);
+            }
+
+            String path = relativePath(root, pom.getParent());
+            raw.put(path, new RawModule(path, resolve(groupId, properties), resolve(artifactId, properties),
+                    references));
+
+            for (Element module : children(child(project, "modules"), "module")) {
+                Path target = pom.getParent().resolve(module.getTextContent().strip()).normalize();
+                queue.add(new Pending(Files.isRegularFile(target) ? target : target.resolve("pom.xml"),
+                        Map.copyOf(properties)));
+            }
+        }
+
+        Map<String, String> byCoordinate = new HashMap<>();
+        raw.values().forEach(m -> byCoordinate.put(m.groupId() + ':' + m.artifactId(), m.path()));
+        Map<String, Module> modules = new LinkedHashMap<>();
+        for (RawModule m : raw.values()) {
+            Set<String> upstream = new TreeSet<>();
+            for (String reference : m.references()) {
+                String target = byCoordinate.get(reference);
+                if (target != null && !target.equals(m.path())) {
+                    upstream.add(target);
+                }
+            }
+            modules.put(m.path(), new Module(m.path(), m.groupId(), m.artifactId(), Set.copyOf(upstream)));
+        }
+        return new ReactorGraph(modules, poms, Collections.unmodifiableSet(external.poms),
+                external.snapshots(byCoordinate.keySet()));
+    }
+
+    /**
+     * Read the chain of parent POMs above a module POM that lie outside the project tree.
+     * A parent without a local file is recorded as a repository artifact if it is a snapshot.
+     *
+     * @return properties of the external parents, nearest parent last so it takes precedence
+     */
+    private static Map<String, String> readExternalParents(Path root, Path pom, Element parent,
+                                                           Map<Path, PomStamp> poms, External external)
+            throws Exception {
+        List<Element> chain = new ArrayList<>();
+        Path current = pom;
+        for (int depth = 0; parent != null && depth < MAX_PARENT_DEPTH; depth++) {
+            Path candidate = parentPom(current, parent);
+            Element parentProject = candidate != null
+                    ? XmlUtils.newSecureDocumentBuilder().parse(candidate.toFile()).getDocumentElement()
+                    : null;
+            if (parentProject == null
+                    || !Objects.equals(text(parentProject, "artifactId"), text(parent, "artifactId"))) {
+                // Resolved from a repository, like a dependency
+                external.declare(text(parent, "groupId"), text(parent, "artifactId"), text(parent, "version"));
+                break;
+            }
+            if (candidate.startsWith(root)) {
+                // In-tree parents are module POMs or covered by the project fingerprint
+                break;
+            }
+            if (external.poms.add(candidate)) {
+                poms.put(candidate, PomStamp.of(candidate));
+            }
+            chain.addFirst(parentProject);
+            current = candidate;
+            parent = child(parentProject, "parent");
+        }
+        Map<String, String> properties = new HashMap<>();
+        for (Element project : chain) {
+            Element props = child(project, "properties");
+            if (props != null) {
+                for (Element property : children(props, null)) {
+                    properties.put(property.getTagName(), property.getTextContent().strip());
+                }
+            }
+            external.collectVersions(project, properties);
+        }
+        return properties;
+    }
+
+    /** The parent's POM file named by {@code <relativePath>}, or null if there is none on disk. */
+    private static Path parentPom(Path pom, Element parent) {
+        Element relativePath = child(parent, "relativePath");
+        if (relativePath != null && relativePath.getTextContent().isBlank()) {
+            return null;
+        }
+        String relative = relativePath != null ? relativePath.getTextContent().strip() : "../pom.xml";
+        Path candidate = pom.getParent().resolve(relative).normalize();
+        if (Files.isDirectory(candidate)) {
+            candidate = candidate.resolve("pom.xml");
+        }
+        return Files.isRegularFile(candidate) ? candidate : null;
+    }
+
+    private static void collectDependencies(Element dependencies, Map<String, String> properties,
+                                            Set<String> references, boolean importsOnly) {
+        for (Element dependency : children(dependencies, "dependency")) {
+            if (!importsOnly || "import".equals(text(dependency, "scope"))) {
+                references.add(coordinate(dependency, properties));
+            }
+        }
+    }
+
+    private static String coordinate(Element element, Map<String, String> properties) {
+        return resolve(text(element, "groupId"), properties) + ':' + resolve(text(element, "artifactId"), properties);
+    }
+
+    private static String resolve(String value, Map<String, String> properties) {
+        if (value == null || value.indexOf('$') < 0) {
+            return value;
+        }
+        Matcher matcher = PROPERTY.matcher(value);
+        var result = new StringBuilder();
+        while (matcher.find()) {
+            String replacement = properties.get(matcher.group(1));
+            matcher.appendReplacement(result, Matcher.quoteReplacement(
+                    replacement != null ? replacement : matcher.group()));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    private static String relativePath(Path root, Path dir) {
+        return root.relativize(dir).toString().replace('\\', '/');
+    }
+
+    private static Element child(Element parent, String name) {
+        List<Element> matches = children(parent, name);
+        return matches.isEmpty() ? null : matches.getFirst();
+    }
+
+    private static List<Element> children(Element parent, String name) {
+        if (parent == null) {
+            return List.of();
+        }
+        List<Element> result = new ArrayList<>();
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element element && (name == null || name.equals(element.getTagName()))) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    private static String text(Element parent, String name) {
+        Element element = child(parent, name);
+        if (element == null) {
+            return null;
+        }
+        String value = element.getTextContent().strip();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * One reactor module.
+     *
+     * @param path       directory relative to the project root, using {@code /}; {@code ""} for the root
+     * @param groupId    declared or inherited groupId
+     * @param artifactId artifactId
+     * @param upstream   paths of the reactor modules this module depends on
+     */
+    public record Module(String path, String groupId, String artifactId, Set<String> upstream) {
+    }
+
+    /**
+     * Modules to rebuild for a set of changed files.
+     *
+     * @param changed   modules containing changed files
+     * @param projects  minimal {@code -pl} list: changed modules that are not already downstream of
+     *                  another changed module
+     * @param affected  changed modules and everything depending on them ({@code -pl ... -amd})
+     * @param fullBuild true if a change outside every module (root POM, {@code .mvn/}) affects all modules
+     */
+    public record Selection(Set<String> changed, List<String> projects, Set<String> affected, boolean fullBuild) {
+    }
+
+    private record RawModule(String path, String groupId, String artifactId, Set<String> references) {
+    }
+
+    /**
+     * Inputs outside the project tree collected while parsing: external parent POMs, versions
+     * from {@code <dependencyManagement>}, and declared dependency, import and parent coordinates.
+     */
+    private static final class External {
+
+        final Set<Path> poms = new LinkedHashSet<>();
+        private final Map<String, String> managed = new HashMap<>();
+        private final Map<String, Set<String>> declared = new HashMap<>();
+
+        void collectVersions(Element project, Map<String, String> properties) {
+            for (Element dependency : children(child(child(project, "dependencyManagement"), "dependencies"),
+                    "dependency")) {
+                String coordinate = coordinate(dependency, properties);
+                String version = resolve(text(dependency, "version"), properties);
+                if (version != null) {
+                    managed.putIfAbsent(coordinate, version);
+                }
+                if ("import".equals(text(dependency, "scope"))) {
+                    declared.computeIfAbsent(coordinate, k -> new TreeSet<>()).add(version == null ? "" : version);
+                }
+            }
+            for (Element dependency : children(child(project, "dependencies"), "dependency")) {
+                String version = resolve(text(dependency, "version"), properties);
+                declared.computeIfAbsent(coordinate(dependency, properties), k -> new TreeSet<>())
+                        .add(version == null ? "" : version);
+            }
+        }
+
+        void declare(String groupId, String artifactId, String version) {
+            if (groupId != null && artifactId != null && version != null) {
+                declared.computeIfAbsent(groupId + ':' + artifactId, k -> new TreeSet<>()).add(version);
+            }
+        }
+
+        /** Snapshot coordinates that are not built by the reactor. */
+        Set<String> snapshots(Set<String> reactor) {
+            Set<String> result = new TreeSet<>();
+            declared.forEach((coordinate, versions) -> {
+                if (reactor.contains(coordinate)) {
+                    return;
+                }
+                for (String version : versions) {
+                    String effective = version.isEmpty() ? managed.get(coordinate) : version;
+                    if (effective != null && effective.endsWith("-SNAPSHOT")) {
+                        result.add(coordinate + ':' + effective);
+                    }
+                }
+            });
+            return Collections.unmodifiableSet(result);
+        }
+    }
+
+    private record Pending(Path pom, Map<String, String> properties) {
+    }
+
+    private record PomStamp(FileTime modified, long size) {
+
+        static PomStamp of(Path pom) {
+            try {
+                return new PomStamp(Files.getLastModifiedTime(pom), Files.size(pom));
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
+}
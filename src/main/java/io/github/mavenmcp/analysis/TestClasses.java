@@ -0,0 +1,33 @@
+package io.github.mavenmcp.analysis;
+
+import java.nio.file.Path;
+
+/**
+ * Identifies test classes the way Surefire's default includes do.
+ */
+public final class TestClasses {
+
+    private TestClasses() {
+    }
+
+    /**
+     * Surefire's default includes: {@code Test*}, {@code *Test}, {@code *Tests}, {@code *TestCase};
+     * top-level, concrete classes under the test output directory only.
+     *
+     * @param index       class index
+     * @param className   binary class name
+     * @param testClasses test output directory
+     * @return true if Surefire would run the class by default
+     */
+    public static boolean isTestClass(ClassIndex index, String className, Path testClasses) {
+        if (className.indexOf('$') >= 0 || !index.root(className).map(testClasses::equals).orElse(false)) {
+            return false;
+        }
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        if (!(simpleName.startsWith("Test") || simpleName.endsWith("Test")
+                || simpleName.endsWith("Tests") || simpleName.endsWith("TestCase"))) {
+            return false;
+        }
+        return index.info(className).map(info -> !info.isAbstract()).orElse(true);
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.mavenmcp.analysis;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Selects the test classes affected by a set of changed classes: every test class that
+ * transitively references a changed class (or is itself changed), found by a breadth-first walk
+ * over the reversed class dependency graph.
+ */
+public final class TestImpactAnalysis {
+
+    private TestImpactAnalysis() {
+    }
+
+    /**
+     * Compute affected test classes.
+     *
+     * @param index        index over the main and test output directories
+     * @param changed      top-level class names of changed sources; nested classes are included
+     * @param testClasses  test output directory — only classes found there are candidates
+     * @return affected concrete test classes, in index order
+     */
+    public static Set<String> affectedTests(ClassIndex index, Set<String> changed, Path testClasses) {
+        Map<String, List<String>> dependents = reverseGraph(index);
+
+        Set<String> visited = new LinkedHashSet<>();
+        var queue = new ArrayDeque<String>();
+        for (String className : index.classNames()) {
+            if (changed.contains(topLevelName(className)) && visited.add(className)) {
+                queue.add(className);
+            }
+        }
+        while (!queue.isEmpty()) {
+            for (String dependent : dependents.getOrDefault(queue.poll(), List.of())) {
+                if (visited.add(dependent)) {
+                    queue.add(dependent);
+                }
+            }
+        }
+
+        Set<String> affected = new LinkedHashSet<>();
+        for (String className : index.classNames()) {
+            if (visited.contains(className) && TestClasses.isTestClass(index, className, testClasses)) {
+                affected.add(className);
+            }
+        }
+        return affected;
+    }
+
+    private static Map<String, List<String>> reverseGraph(ClassIndex index) {
+        Map<String, List<String>> dependents = new HashMap<>();
+        for (String className : index.classNames()) {
+            for (String dependency : index.dependencies(className)) {
+                dependents.computeIfAbsent(dependency, k -> new ArrayList<>()).add(className);
+            }
+        }
+        return dependents;
+    }
+
+    private static String topLevelName(String className) {
+        int dollar = className.indexOf('$');
+        return dollar >= 0 ? className.substring(0, dollar) : className;
+    }
+}
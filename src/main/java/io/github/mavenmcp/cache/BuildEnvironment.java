@@ -0,0 +1,127 @@
+package io.github.mavenmcp.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import io.github.mavenmcp.analysis.ReactorGraph;
+import io.github.mavenmcp.util.Fnv1a;
+
+/**
+ * Stat-only hash of the build inputs outside the project tree, which {@link InputFingerprint}
+ * cannot see. Combined with it, the cache key covers what makes a compile result stale.
+ *
+ * <p>Covered: parent POMs outside the project and {@code -SNAPSHOT} artifacts in the local
+ * repository (both from {@link ReactorGraph}), the user and installation {@code settings.xml}
+ * and user {@code toolchains.xml}, the Maven environment variables, and the Maven executable.
+ * Release artifacts are immutable and not covered; neither are profiles activated by the
+ * environment beyond those variables.</p>
+ */
+public final class BuildEnvironment {
+
+    /** Inputs covered, for notes shown with cached results. */
+    public static final String COVERED = "parent POMs outside the project, SNAPSHOT dependencies in the local "
+            + "repository, settings.xml, MAVEN_OPTS and the Maven executable";
+
+    private static final List<String> ENV_VARIABLES =
+            List.of("MAVEN_OPTS", "MAVEN_ARGS", "JAVA_HOME", "MAVEN_HOME", "M2_HOME");
+    private static final String REPO_LOCAL = "-Dmaven.repo.local=";
+
+    private BuildEnvironment() {
+    }
+
+    /**
+     * Hash the external build inputs of a project.
+     *
+     * @param projectDir      Maven project root
+     * @param mavenExecutable the Maven executable that will run the build
+     * @param args            Maven arguments, searched for {@code -Dmaven.repo.local}
+     * @param env             environment of the Maven process
+     * @param userHome        user home directory, for {@code ~/.m2}
+     * @return the hash
+     */
+    public static long hash(Path projectDir, Path mavenExecutable, List<String> args, Map<String, String> env,
+                            Path userHome) {
+        long hash = Fnv1a.OFFSET_BASIS;
+        for (String name : ENV_VARIABLES) {
+            hash = Fnv1a.hash(hash, name + '=' + env.getOrDefault(name, "") + '\0');
+        }
+
+        Path executable = realPath(mavenExecutable);
+        hash = stat(hash, executable);
+        Path mavenHome = executable.getParent() != null ? executable.getParent().getParent() : null;
+        if (mavenHome != null) {
+            hash = stat(hash, mavenHome.resolve("conf/settings.xml"));
+        }
+        Path m2 = userHome.resolve(".m2");
+        hash = stat(hash, m2.resolve("settings.xml"));
+        hash = stat(hash, m2.resolve("toolchains.xml"));
+
+        Optional<ReactorGraph> graph = ReactorGraph.load(projectDir);
+        if (graph.isEmpty()) {
+            // Unreadable POMs: the project fingerprint changes once they are fixed
+            return Fnv1a.hash(hash, "unreadable-reactor");
+        }
+        for (Path pom : graph.get().externalPoms()) {
+            hash = stat(hash, pom);
+        }
+        Path repository = localRepository(args, env, m2);
+        for (String artifact : graph.get().snapshotArtifacts()) {
+            String[] parts = artifact.split(":");
+            Path dir = repository.resolve(parts[0].replace('.', '/')).resolve(parts[1]).resolve(parts[2]);
+            hash = Fnv1a.hash(hash, artifact);
+            hash = statChildren(hash, dir);
+        }
+        return hash;
+    }
+
+    /**
+     * {@code -Dmaven.repo.local} from the args, else from {@code MAVEN_OPTS}, else
+     * {@code ~/.m2/repository}. A {@code <localRepository>} in settings.xml is not read.
+     */
+    static Path localRepository(List<String> args, Map<String, String> env, Path m2) {
+        String opts = env.getOrDefault("MAVEN_OPTS", "");
+        // The last definition wins, and command line properties override MAVEN_OPTS
+        return Stream.concat(Stream.of(opts.split("\\s+")), args.stream())
+                .filter(arg -> arg.startsWith(REPO_LOCAL) && arg.length() > REPO_LOCAL.length())
+                .reduce((first, second) -> second)
+                .map(arg -> Path.of(arg.substring(REPO_LOCAL.length())))
+                .orElse(m2.resolve("repository"));
+    }
+
+    private static long stat(long hash, Path file) {
+        hash = Fnv1a.hash(hash, file.toString());
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            hash = Fnv1a.hash(hash, attrs.size());
+            return Fnv1a.hash(hash, attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+        } catch (IOException e) {
+            return Fnv1a.hash(hash, -1L);
+        }
+    }
+
+    private static long statChildren(long hash, Path dir) {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.sorted().toList()) {
+                hash = stat(hash, file);
+            }
+            return hash;
+        } catch (IOException e) {
+            return Fnv1a.hash(hash, -1L);
+        }
+    }
+
+    private static Path realPath(Path path) {
+        try {
+            return path.toRealPath();
+        } catch (IOException e) {
+            return path.toAbsolutePath().normalize();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.mavenmcp.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import io.github.mavenmcp.model.BuildResult;
+
+/**
+ * Small in-memory LRU cache of build results keyed by input fingerprint and argument hash.
+ *
+ * <p>Thread-safe. Entries never expire on their own — a changed fingerprint simply misses.</p>
+ */
+public final class BuildResultCache {
+
+    /** Default number of retained results (distinct fingerprint/argument combinations). */
+    public static final int DEFAULT_MAX_ENTRIES = 16;
+
+    private final Map<Key, BuildResult> entries;
+
+    public BuildResultCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param maxEntries maximum number of retained results
+     */
+    public BuildResultCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, BuildResult> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Look up a result for the given inputs.
+     */
+    public synchronized Optional<BuildResult> get(InputFingerprint fingerprint, long argsHash) {
+        return Optional.ofNullable(entries.get(new Key(fingerprint, argsHash)));
+    }
+
+    /**
+     * Store a result for the given inputs, replacing any previous entry.
+     */
+    public synchronized void put(InputFingerprint fingerprint, long argsHash, BuildResult result) {
+        entries.put(new Key(fingerprint, argsHash), result);
+    }
+
+    /**
+     * Drop all entries.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return number of retained results
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record Key(InputFingerprint fingerprint, long argsHash) {
+    }
+}
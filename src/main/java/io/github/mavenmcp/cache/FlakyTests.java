@@ -0,0 +1,134 @@
+package io.github.mavenmcp.cache;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent record of tests that passed only on retry, keyed by {@code testClass#testMethod}.
+ *
+ * <p>Stored as a properties file under {@code target/.maven-mcp/}; each value is
+ * {@code <flakyRuns> <lastFlakyAtEpochMillis>}. Load and save are best-effort, like
+ * {@link TestResultCache}.</p>
+ */
+public final class FlakyTests {
+
+    private static final Logger log = LoggerFactory.getLogger(FlakyTests.class);
+
+    /** Store location relative to the project root. */
+    public static final String STORE_FILE = "target/.maven-mcp/flaky-tests.properties";
+
+    private final Path file;
+    private final Map<String, Entry> entries;
+    private boolean dirty;
+
+    private FlakyTests(Path file, Map<String, Entry> entries) {
+        this.file = file;
+        this.entries = entries;
+    }
+
+    /**
+     * Load the store for a project, or start empty if the file is missing or unreadable.
+     */
+    public static FlakyTests load(Path projectDir) {
+        Path file = projectDir.resolve(STORE_FILE);
+        Map<String, Entry> entries = new TreeMap<>();
+        if (Files.isRegularFile(file)) {
+            var properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+                for (String id : properties.stringPropertyNames()) {
+                    Entry.parse(properties.getProperty(id)).ifPresent(e -> entries.put(id, e));
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                log.debug("Ignoring unreadable flaky test store {}: {}", file, e.getMessage());
+                entries.clear();
+            }
+        }
+        return new FlakyTests(file, entries);
+    }
+
+    /**
+     * @return history of the test, if it was ever flaky
+     */
+    public Optional<Entry> get(String testId) {
+        return Optional.ofNullable(entries.get(testId));
+    }
+
+    /**
+     * Record a flaky run of the test.
+     *
+     * @return runs in which the test was flaky so far, including this one
+     */
+    public int record(String testId, Instant at) {
+        Entry previous = entries.get(testId);
+        var entry = new Entry(previous == null ? 1 : previous.flakyRuns() + 1, at.toEpochMilli());
+        entries.put(testId, entry);
+        dirty = true;
+        return entry.flakyRuns();
+    }
+
+    /**
+     * Write the store if it changed since loading.
+     */
+    public void save() {
+        if (!dirty) {
+            return;
+        }
+        var properties = new Properties();
+        entries.forEach((id, entry) -> properties.setProperty(id, entry.format()));
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), "flaky-tests", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                properties.store(writer, "maven-mcp flaky tests");
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            dirty = false;
+        } catch (IOException e) {
+            log.warn("Failed to save flaky test store {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Flaky history of one test.
+     *
+     * @param flakyRuns   runs in which the test passed only on retry
+     * @param lastFlakyAt epoch millis of the last such run
+     */
+    public record Entry(int flakyRuns, long lastFlakyAt) {
+
+        String format() {
+            return flakyRuns + " " + lastFlakyAt;
+        }
+
+        static Optional<Entry> parse(String value) {
+            String[] parts = value.strip().split(" ");
+            if (parts.length != 2) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(new Entry(Integer.parseInt(parts[0]), Long.parseLong(parts[1])));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.mavenmcp.cache;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.github.mavenmcp.util.Fnv1a;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stat-only fingerprint of a Maven project's build inputs.
+ *
+ * <p>Walks the project tree once and folds the relative path, size and modification time of
+ * every {@code pom.xml}, every file below a {@code src} directory and every file below
+ * {@code .mvn} ({@code jvm.config}, {@code maven.config}, {@code extensions.xml}) into a 64-bit
+ * FNV-1a hash. File contents are never read, so a fingerprint costs one directory walk
+ * regardless of source size. Build output directories ({@code target}), other hidden
+ * directories and {@code node_modules} are skipped.</p>
+ *
+ * <p>A second hash covers build outputs: whether {@code target/classes} exists next to each
+ * {@code pom.xml}. It lets callers notice an external {@code mvn clean} without treating
+ * freshly compiled output as an input change.</p>
+ *
+ * @param sources hash of source and POM paths, sizes and modification times
+ * @param outputs hash of per-module {@code target/classes} presence
+ */
+public record InputFingerprint(long sources, long outputs) {
+
+    private static final Logger log = LoggerFactory.getLogger(InputFingerprint.class);
+
+    private static final Set<String> SKIPPED_DIRS = Set.of("target", "node_modules");
+    private static final String MAVEN_CONFIG_DIR = ".mvn";
+
+    /**
+     * Fingerprint the project inputs.
+     *
+     * @param projectDir Maven project root
+     * @return the fingerprint, or empty if the tree could not be walked
+     */
+    public static Optional<InputFingerprint> compute(Path projectDir) {
+        if (!Files.isDirectory(projectDir)) {
+            return Optional.empty();
+        }
+        var visitor = new Visitor(projectDir);
+        try {
+            Files.walkFileTree(projectDir, visitor);
+        } catch (IOException e) {
+            log.debug("Failed to fingerprint {}: {}", projectDir, e.getMessage());
+            return Optional.empty();
+        }
+        return Optional.of(new InputFingerprint(visitor.sources, visitor.outputs));
+    }
+
+    /**
+     * Hash a list of tool arguments so it can be combined with a fingerprint into a cache key.
+     */
+    public static long hashArgs(List<String> args) {
+        long hash = Fnv1a.OFFSET_BASIS;
+        for (String arg : args) {
+            hash = Fnv1a.hash(hash, arg);
+            hash = Fnv1a.hash(hash, "\0");
+        }
+        return hash;
+    }
+
+    private static final class Visitor extends SimpleFileVisitor<Path> {
+
+        private final Path root;
+        private long sources = Fnv1a.OFFSET_BASIS;
+        private long outputs = Fnv1a.OFFSET_BASIS;
+
+        Visitor(Path root) {
+            this.root = root;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            if (dir.equals(root)) {
+                return FileVisitResult.CONTINUE;
+            }
+            String name = dir.getFileName().toString();
+            if ((name.startsWith(".") && !name.equals(MAVEN_CONFIG_DIR)) || SKIPPED_DIRS.contains(name)) {
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            Path relative = root.relativize(file);
+            boolean pom = "pom.xml".equals(file.getFileName().toString());
+            if (pom || isBuildInput(relative)) {
+                sources = Fnv1a.hash(sources, relative.toString());
+                sources = Fnv1a.hash(sources, attrs.size());
+                sources = Fnv1a.hash(sources, attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+            }
+            if (pom) {
+                outputs = Fnv1a.hash(outputs, relative.toString());
+                outputs = Fnv1a.hash(outputs, Files.isDirectory(file.resolveSibling("target/classes")) ? 1 : 0);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException e) {
+            // Unreadable entries still count: a later successful stat changes the fingerprint
+            sources = Fnv1a.hash(sources, root.relativize(file).toString());
+            return FileVisitResult.CONTINUE;
+        }
+
+        private static boolean isBuildInput(Path relative) {
+            for (int i = 0; i < relative.getNameCount() - 1; i++) {
+                String name = relative.getName(i).toString();
+                if ("src".equals(name) || MAVEN_CONFIG_DIR.equals(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package io.github.mavenmcp.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import io.github.mavenmcp.parser.SurefireReportParser.SuiteResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent set of the tests that failed in the last run, as {@code testClass#testMethod}.
+ *
+ * <p>Stored one id per line under {@code target/.maven-mcp/}. A run only replaces the entries
+ * of the test classes it reported, so a filtered run does not forget failures elsewhere.
+ * Load and save are best-effort, like {@link TestResultCache}.</p>
+ */
+public final class LastFailures {
+
+    private static final Logger log = LoggerFactory.getLogger(LastFailures.class);
+
+    /** Store location relative to the project root. */
+    public static final String STORE_FILE = "target/.maven-mcp/last-failures";
+
+    /**
+     * Upper bound for a generated {@code -Dtest} value, well below Windows' 8191-char command line
+     * and Linux's 128 KiB per argument.
+     */
+    public static final int MAX_FILTER_LENGTH = 4000;
+
+    private final Path file;
+    private final Set<String> ids;
+    private boolean dirty;
+
+    private LastFailures(Path file, Set<String> ids) {
+        this.file = file;
+        this.ids = ids;
+    }
+
+    /**
+     * Load the store for a project, or start empty if the file is missing or unreadable.
+     */
+    public static LastFailures load(Path projectDir) {
+        Path file = projectDir.resolve(STORE_FILE);
+        Set<String> ids = new TreeSet<>();
+        if (Files.isRegularFile(file)) {
+            try {
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    String id = line.strip();
+                    if (id.indexOf('#') > 0) {
+                        ids.add(id);
+                    }
+                }
+            } catch (IOException e) {
+                log.debug("Ignoring unreadable failure store {}: {}", file, e.getMessage());
+                ids.clear();
+            }
+        }
+        return new LastFailures(file, ids);
+    }
+
+    /**
+     * @return recorded failing test ids, sorted
+     */
+    public Set<String> ids() {
+        return Collections.unmodifiableSet(ids);
+    }
+
+    /**
+     * @return true if no failures are recorded
+     */
+    public boolean isEmpty() {
+        return ids.isEmpty();
+    }
+
+    /**
+     * Replace the entries of every class that ran with the failures reported for it.
+     */
+    public void update(List<SuiteResult> suites) {
+        Set<String> ranClasses = new LinkedHashSet<>();
+        Set<String> failed = new LinkedHashSet<>();
+        for (SuiteResult suite : suites) {
+            ranClasses.add(suite.name());
+            for (String id : suite.failedTests()) {
+                ranClasses.add(id.substring(0, id.indexOf('#')));
+                failed.add(id);
+            }
+        }
+        if (ids.removeIf(id -> ranClasses.contains(id.substring(0, id.indexOf('#'))))) {
+            dirty = true;
+        }
+        if (ids.addAll(failed)) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Write the store if it changed since loading, deleting the file once no failures remain.
+     */
+    public void save() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            if (ids.isEmpty()) {
+                Files.deleteIfExists(file);
+            } else {
+                Files.createDirectories(file.getParent());
+                Path tmp = Files.createTempFile(file.getParent(), "last-failures", ".tmp");
+                Files.write(tmp, ids, StandardCharsets.UTF_8);
+                try {
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            dirty = false;
+        } catch (IOException e) {
+            log.warn("Failed to save failure store {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Build a Surefire {@code -Dtest} value selecting the recorded failures, coarsening it until
+     * it fits: {@code Class#m1+m2} per class, then whole classes, then {@code pkg/**}{@code /*}
+     * patterns for ever shorter package prefixes.
+     *
+     * @param maxLength maximum filter length in characters
+     * @return the filter, or empty if nothing is recorded or even top-level packages do not fit
+     */
+    public Optional<String> toTestFilter(int maxLength) {
+        return compact(ids, maxLength);
+    }
+
+    static Optional<String> compact(Set<String> ids, int maxLength) {
+        Map<String, Set<String>> byClass = new TreeMap<>();
+        Set<String> wholeClasses = new TreeSet<>();
+        for (String id : ids) {
+            int hash = id.indexOf('#');
+            String className = id.substring(0, hash);
+            String method = filterMethodName(id.substring(hash + 1));
+            Set<String> classMethods = byClass.computeIfAbsent(className, k -> new TreeSet<>());
+            if (method == null) {
+                wholeClasses.add(className);
+            } else {
+                classMethods.add(method);
+            }
+        }
+        if (byClass.isEmpty()) {
+            return Optional.empty();
+        }
+
+        var methods = new StringBuilder();
+        for (var entry : byClass.entrySet()) {
+            if (!methods.isEmpty()) {
+                methods.append(',');
+            }
+            methods.append(entry.getKey());
+            // A method name Surefire cannot express selects the whole class
+            if (!wholeClasses.contains(entry.getKey())) {
+                methods.append('#').append(String.join("+", entry.getValue()));
+            }
+        }
+        if (methods.length() <= maxLength) {
+            return Optional.of(methods.toString());
+        }
+
+        return compactClasses(byClass.keySet(), maxLength);
+    }
+
+    /**
+     * Build a Surefire {@code -Dtest} value selecting whole test classes, coarsened like
+     * {@link #toTestFilter} until it fits: the class names, then {@code pkg/**}{@code /*} patterns
+     * for ever shorter package prefixes. Package patterns may select more classes than given.
+     *
+     * @param classNames fully qualified test class names
+     * @param maxLength  maximum filter length in characters
+     * @return the filter, or empty if there are no classes or even top-level packages do not fit
+     */
+    public static Optional<String> toClassFilter(Collection<String> classNames, int maxLength) {
+        return classNames.isEmpty() ? Optional.empty() : compactClasses(new TreeSet<>(classNames), maxLength);
+    }
+
+    private static Optional<String> compactClasses(Set<String> classNames, int maxLength) {
+        String classes = String.join(",", classNames);
+        if (classes.length() <= maxLength) {
+            return Optional.of(classes);
+        }
+
+        int depth = classNames.stream().mapToInt(c -> packageOf(c).split("\\.").length).max().orElse(0);
+        for (; depth >= 1; depth--) {
+            Set<String> patterns = new TreeSet<>();
+            for (String className : classNames) {
+                String pkg = packageOf(className);
+                if (pkg.isEmpty()) {
+                    patterns.add(className);
+                } else {
+                    String[] segments = pkg.split("\\.");
+                    int keep = Math.min(depth, segments.length);
+                    patterns.add(String.join("/", List.of(segments).subList(0, keep)) + "/**/*");
+                }
+            }
+            String filter = String.join(",", patterns);
+            if (filter.length() <= maxLength) {
+                return Optional.of(filter);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Strip parameterized suffixes ({@code test(int)[1]}, {@code test[1]}); null if the
+     * remainder is not a plain method name.
+     */
+    private static String filterMethodName(String method) {
+        int end = method.length();
+        for (int i = 0; i < method.length(); i++) {
+            char c = method.charAt(i);
+            if (c == '(' || c == '[') {
+                end = i;
+                break;
+            }
+        }
+        String name = method.substring(0, end);
+        if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0))
+                || !name.chars().skip(1).allMatch(Character::isJavaIdentifierPart)) {
+            return null;
+        }
+        return name;
+    }
+
+    private static String packageOf(String className) {
+        int dot = className.lastIndexOf('.');
+        return dot < 0 ? "" : className.substring(0, dot);
+    }
+}
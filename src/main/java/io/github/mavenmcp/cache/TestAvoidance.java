@@ -0,0 +1,182 @@
+package io.github.mavenmcp.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import io.github.mavenmcp.analysis.ClassIndex;
+import io.github.mavenmcp.analysis.TestClasses;
+import io.github.mavenmcp.parser.SurefireReportParser.SuiteResult;
+import io.github.mavenmcp.util.Fnv1a;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test avoidance: decides which test classes can be skipped because neither their bytecode
+ * nor the bytecode of any project class they transitively reference changed since they last passed.
+ *
+ * <p>A class fingerprint folds, in order: a global hash (Maven args, {@code pom.xml} content and
+ * every non-class resource under the output directories), then the name and content digest of
+ * each class in the test's transitive dependency closure. Library changes are covered by the
+ * {@code pom.xml} hash; anything not visible in bytecode (e.g. files read from {@code src/test}
+ * at runtime) is not tracked.</p>
+ */
+public final class TestAvoidance {
+
+    private static final Logger log = LoggerFactory.getLogger(TestAvoidance.class);
+
+    public static final String CLASSES_DIR = "target/classes";
+    public static final String TEST_CLASSES_DIR = "target/test-classes";
+
+    private TestAvoidance() {
+    }
+
+    /**
+     * Partition the project's test classes into cached passes and classes that must run.
+     *
+     * @param projectDir project root (classes must already be compiled)
+     * @param args       Maven args of this run; different args never share cache entries
+     * @param cache      loaded test result cache
+     * @return the plan, or empty if compiled classes could not be scanned
+     */
+    public static Optional<Plan> plan(Path projectDir, List<String> args, TestResultCache cache) {
+        Path testClasses = projectDir.resolve(TEST_CLASSES_DIR);
+        Path classes = projectDir.resolve(CLASSES_DIR);
+        try {
+            ClassIndex index = ClassIndex.scan(List.of(testClasses, classes));
+            long global = globalHash(projectDir, args, List.of(testClasses, classes));
+
+            Map<String, String> toRun = new LinkedHashMap<>();
+            Map<String, TestResultCache.Entry> cached = new LinkedHashMap<>();
+            for (String className : index.classNames()) {
+                if (!TestClasses.isTestClass(index, className, testClasses)) {
+                    continue;
+                }
+                Optional<String> fingerprint = fingerprint(index, className, global);
+                if (fingerprint.isEmpty()) {
+                    toRun.put(className, null);
+                    continue;
+                }
+                Optional<TestResultCache.Entry> hit = cache.get(className, fingerprint.get());
+                if (hit.isPresent()) {
+                    cached.put(className, hit.get());
+                } else {
+                    toRun.put(className, fingerprint.get());
+                }
+            }
+            return Optional.of(new Plan(toRun, cached));
+        } catch (IOException e) {
+            log.debug("Test avoidance unavailable: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Update the cache from the suites that ran: passing classes are recorded under the
+     * fingerprint computed for this run, failing or missing classes are forgotten.
+     */
+    public static void record(Plan plan, List<SuiteResult> suites, TestResultCache cache) {
+        Map<String, SuiteResult> byName = new LinkedHashMap<>();
+        for (SuiteResult suite : suites) {
+            byName.put(suite.name(), suite);
+        }
+        plan.toRun().forEach((className, fingerprint) -> {
+            SuiteResult suite = byName.get(className);
+            if (fingerprint != null && suite != null && suite.passed() && suite.tests() > 0) {
+                cache.recordPass(className, fingerprint, suite.tests(), suite.skipped());
+            } else {
+                cache.remove(className);
+            }
+        });
+        cache.save();
+    }
+
+    private static Optional<String> fingerprint(ClassIndex index, String className, long global) {
+        Optional<Set<String>> closure = index.transitiveDependencies(className);
+        if (closure.isEmpty()) {
+            return Optional.empty();
+        }
+        long hash = global;
+        for (String dependency : new TreeSet<>(closure.get())) {
+            Optional<Long> digest = index.digest(dependency);
+            if (digest.isEmpty()) {
+                return Optional.empty();
+            }
+            hash = Fnv1a.hash(hash, dependency);
+            hash = Fnv1a.hash(hash, digest.get());
+        }
+        return Optional.of(Long.toHexString(hash));
+    }
+
+    private static long globalHash(Path projectDir, List<String> args, List<Path> outputDirs) throws IOException {
+        long hash = Fnv1a.OFFSET_BASIS;
+        for (String arg : args) {
+            hash = Fnv1a.hash(hash, arg);
+            hash = Fnv1a.hash(hash, "\0");
+        }
+        Path pom = projectDir.resolve("pom.xml");
+        if (Files.isRegularFile(pom)) {
+            hash = Fnv1a.hash(hash, Files.readAllBytes(pom));
+        }
+        for (Path dir : outputDirs) {
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            List<Path> resources;
+            try (Stream<Path> stream = Files.walk(dir)) {
+                resources = new ArrayList<>(stream.filter(Files::isRegularFile)
+                        .filter(p -> !p.getFileName().toString().endsWith(".class"))
+                        .toList());
+            }
+            resources.sort(Comparator.naturalOrder());
+            for (Path resource : resources) {
+                hash = Fnv1a.hash(hash, projectDir.relativize(resource).toString());
+                hash = Fnv1a.hash(hash, Files.readAllBytes(resource));
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Outcome of test avoidance planning.
+     *
+     * @param toRun  test classes that must run, mapped to their fingerprint (null if it could not be computed)
+     * @param cached test classes skipped, mapped to their cached passing run
+     */
+    public record Plan(Map<String, String> toRun, Map<String, TestResultCache.Entry> cached) {
+
+        /**
+         * @return total tests covered by cached passes
+         */
+        public int cachedTests() {
+            return cached.values().stream().mapToInt(TestResultCache.Entry::tests).sum();
+        }
+
+        /**
+         * @return total skipped tests covered by cached passes
+         */
+        public int cachedSkipped() {
+            return cached.values().stream().mapToInt(TestResultCache.Entry::skipped).sum();
+        }
+
+        /**
+         * @param ranClasses test classes that ran, e.g. because a widened {@code -Dtest} filter
+         *                   also selected cached classes
+         * @return this plan without the cached classes that ran; their results come from the reports
+         */
+        public Plan withoutCached(Set<String> ranClasses) {
+            Map<String, TestResultCache.Entry> notRun = new LinkedHashMap<>(cached);
+            notRun.keySet().removeAll(ranClasses);
+            return new Plan(toRun, notRun);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package io.github.mavenmcp.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+import io.github.mavenmcp.parser.SurefireReportParser.SuiteResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per test class run history: average duration, failure count and time of the last failure.
+ *
+ * <p>Stored as an append-only log under {@code target/.maven-mcp/}. Each run appends one
+ * {@code R <epochMillis> <P|F> <durationMillis> <class>} line per suite; once the log grows well
+ * beyond the number of classes it is rewritten as one
+ * {@code S <runs> <failures> <lastFailedAt> <averageMillis> <class>} line per class. Load and
+ * append are best-effort, like {@link TestResultCache}.</p>
+ */
+public final class TestHistory {
+
+    private static final Logger log = LoggerFactory.getLogger(TestHistory.class);
+
+    /** History file location relative to the project root. */
+    public static final String HISTORY_FILE = "target/.maven-mcp/test-history";
+
+    /** A class that failed within this window counts as recently failed. */
+    public static final Duration RECENT_FAILURE_WINDOW = Duration.ofHours(24);
+
+    /** Estimated run time of the fast classes pulled into the first phase. */
+    public static final long FAST_PHASE_BUDGET_MILLIS = 10_000;
+
+    /** Run time assumed for classes without history when no class has any. */
+    public static final long DEFAULT_ESTIMATE_MILLIS = 1000;
+
+    /** Weight of the newest duration in the exponential moving average. */
+    private static final double DURATION_WEIGHT = 0.3;
+
+    private static final int COMPACT_MIN_LINES = 1000;
+    private static final int COMPACT_LINES_PER_CLASS = 8;
+
+    private final Path file;
+    private final Map<String, Stats> stats;
+    private int lines;
+
+    private TestHistory(Path file, Map<String, Stats> stats, int lines) {
+        this.file = file;
+        this.stats = stats;
+        this.lines = lines;
+    }
+
+    /**
+     * Load the history for a project, or start empty if the file is missing or unreadable.
+     * Malformed lines are skipped.
+     */
+    public static TestHistory load(Path projectDir) {
+        Path file = projectDir.resolve(HISTORY_FILE);
+        Map<String, Stats> stats = new TreeMap<>();
+        int lines = 0;
+        if (Files.isRegularFile(file)) {
+            try {
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    lines++;
+                    apply(stats, line);
+                }
+            } catch (IOException e) {
+                log.debug("Ignoring unreadable test history {}: {}", file, e.getMessage());
+                stats.clear();
+            }
+        }
+        return new TestHistory(file, stats, lines);
+    }
+
+    /**
+     * @return history of the class, if it ever ran
+     */
+    public Optional<Stats> stats(String className) {
+        return Optional.ofNullable(stats.get(className));
+    }
+
+    /**
+     * @return number of classes with history
+     */
+    public int size() {
+        return stats.size();
+    }
+
+    /**
+     * Append the outcome of the suites that ran, compacting the log when it grew too long.
+     */
+    public void record(List<SuiteResult> suites, Instant now) {
+        if (suites.isEmpty()) {
+            return;
+        }
+        List<String> appended = new ArrayList<>(suites.size());
+        for (SuiteResult suite : suites) {
+            String line = "R " + now.toEpochMilli() + ' ' + (suite.passed() ? 'P' : 'F') + ' '
+                    + suite.durationMillis() + ' ' + suite.name();
+            apply(stats, line);
+            appended.add(line);
+        }
+        lines += appended.size();
+        try {
+            Files.createDirectories(file.getParent());
+            if (lines > Math.max(COMPACT_MIN_LINES, COMPACT_LINES_PER_CLASS * stats.size())) {
+                compact();
+            } else {
+                Files.write(file, appended, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to update test history {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Split test classes into a quick first phase and the rest: classes that failed within
+     * {@link #RECENT_FAILURE_WINDOW}, then the fastest remaining classes up to
+     * {@link #FAST_PHASE_BUDGET_MILLIS} of estimated run time. Classes without history go last.
+     *
+     * @param classes test classes about to run
+     * @param now     current time
+     * @return the ordering; {@code first} is empty when history cannot tell the classes apart
+     */
+    public Ordering prioritize(Collection<String> classes, Instant now) {
+        long recentSince = now.minus(RECENT_FAILURE_WINDOW).toEpochMilli();
+        List<String> failed = new ArrayList<>();
+        List<String> known = new ArrayList<>();
+        List<String> unknown = new ArrayList<>();
+        for (String className : classes) {
+            Stats s = stats.get(className);
+            if (s == null) {
+                unknown.add(className);
+            } else if (s.lastFailedAt() >= recentSince && s.failures() > 0) {
+                failed.add(className);
+            } else {
+                known.add(className);
+            }
+        }
+        Comparator<String> fastest = Comparator.comparingLong((String c) -> stats.get(c).averageMillis())
+                .thenComparing(Comparator.naturalOrder());
+        failed.sort(fastest);
+        known.sort(fastest);
+
+        List<String> first = new ArrayList<>(failed);
+        List<String> rest = new ArrayList<>();
+        long budget = FAST_PHASE_BUDGET_MILLIS;
+        for (String className : known) {
+            long estimate = stats.get(className).averageMillis();
+            if (rest.isEmpty() && estimate <= budget) {
+                first.add(className);
+                budget -= estimate;
+            } else {
+                rest.add(className);
+            }
+        }
+        unknown.sort(Comparator.naturalOrder());
+        rest.addAll(unknown);
+        if (first.isEmpty() || rest.isEmpty()) {
+            List<String> all = new ArrayList<>(first);
+            all.addAll(rest);
+            return new Ordering(List.of(), all);
+        }
+        return new Ordering(first, rest);
+    }
+
+    /**
+     * Bin-pack test classes into shards of similar estimated run time: longest processing time
+     * first, each class going to the currently lightest shard. Classes without history are
+     * estimated at the median known duration.
+     *
+     * @param classes test classes to distribute
+     * @param shards  maximum number of shards
+     * @return non-empty shards, heaviest first; fewer than requested if there are fewer classes
+     */
+    public List<List<String>> shard(Collection<String> classes, int shards) {
+        long[] known = classes.stream().map(stats::get).filter(Objects::nonNull)
+                .mapToLong(Stats::averageMillis).sorted().toArray();
+        long fallback = known.length == 0 ? DEFAULT_ESTIMATE_MILLIS : known[known.length / 2];
+        Map<String, Long> estimates = new HashMap<>();
+        for (String className : classes) {
+            Stats s = stats.get(className);
+            estimates.put(className, s != null ? s.averageMillis() : fallback);
+        }
+        List<String> sorted = new ArrayList<>(estimates.keySet());
+        sorted.sort(Comparator.comparingLong((String c) -> estimates.get(c)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+
+        int count = Math.max(1, Math.min(shards, sorted.size()));
+        List<Shard> bins = new ArrayList<>(count);
+        var lightest = new PriorityQueue<Shard>(Comparator.comparingLong(Shard::load).thenComparingInt(Shard::index));
+        for (int i = 0; i < count; i++) {
+            var bin = new Shard(i);
+            bins.add(bin);
+            lightest.add(bin);
+        }
+        for (String className : sorted) {
+            Shard bin = lightest.poll();
+            bin.add(className, estimates.get(className));
+            lightest.add(bin);
+        }
+        return bins.stream()
+                .filter(bin -> !bin.classes.isEmpty())
+                .sorted(Comparator.comparingLong(Shard::load).reversed())
+                .map(bin -> List.copyOf(bin.classes))
+                .toList();
+    }
+
+    private void compact() throws IOException {
+        List<String> summary = new ArrayList<>(stats.size());
+        stats.forEach((className, s) -> summary.add("S " + s.runs() + ' ' + s.failures() + ' '
+                + s.lastFailedAt() + ' ' + s.averageMillis() + ' ' + className));
+        Path tmp = Files.createTempFile(file.getParent(), "test-history", ".tmp");
+        Files.write(tmp, summary, StandardCharsets.UTF_8);
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        lines = summary.size();
+    }
+
+    private static void apply(Map<String, Stats> stats, String line) {
+        String[] parts = line.strip().split(" ");
+        try {
+            if (parts.length == 5 && "R".equals(parts[0])) {
+                long at = Long.parseLong(parts[1]);
+                boolean passed = "P".equals(parts[2]);
+                long millis = Long.parseLong(parts[3]);
+                Stats previous = stats.get(parts[4]);
+                stats.put(parts[4], previous == null
+                        ? new Stats(1, passed ? 0 : 1, passed ? 0 : at, millis)
+                        : previous.plus(at, passed, millis));
+            } else if (parts.length == 6 && "S".equals(parts[0])) {
+                stats.put(parts[5], new Stats(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                        Long.parseLong(parts[3]), Long.parseLong(parts[4])));
+            }
+        } catch (NumberFormatException e) {
+            // skip malformed line
+        }
+    }
+
+    /**
+     * Folded history of one test class.
+     *
+     * @param runs          recorded runs
+     * @param failures      runs with failures or errors
+     * @param lastFailedAt  epoch millis of the last failing run, 0 if it never failed
+     * @param averageMillis exponential moving average of the run time
+     */
+    public record Stats(int runs, int failures, long lastFailedAt, long averageMillis) {
+
+        Stats plus(long at, boolean passed, long millis) {
+            long average = Math.round(DURATION_WEIGHT * millis + (1 - DURATION_WEIGHT) * averageMillis);
+            return new Stats(runs + 1, failures + (passed ? 0 : 1), passed ? lastFailedAt : at, average);
+        }
+    }
+
+    private static final class Shard {
+
+        private final int index;
+        private final List<String> classes = new ArrayList<>();
+        private long load;
+
+        Shard(int index) {
+            this.index = index;
+        }
+
+        void add(String className, long estimate) {
+            classes.add(className);
+            load += estimate;
+        }
+
+        int index() {
+            return index;
+        }
+
+        long load() {
+            return load;
+        }
+    }
+
+    /**
+     * Two-phase run order.
+     *
+     * @param first classes to run first, empty if the run should not be split
+     * @param rest  remaining classes
+     */
+    public record Ordering(List<String> first, List<String> rest) {
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.mavenmcp.cache;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent map of test class to the input fingerprint of its last passing run.
+ *
+ * <p>Stored as a properties file under {@code target/.maven-mcp/}, so {@code mvn clean}
+ * discards it together with the class files it describes. Each value is
+ * {@code <fingerprint> <tests> <skipped>}. Load and save are best-effort: an unreadable file
+ * yields an empty cache and a failed save is logged and ignored.</p>
+ */
+public final class TestResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(TestResultCache.class);
+
+    /** Cache file location relative to the project root. */
+    public static final String CACHE_FILE = "target/.maven-mcp/test-cache.properties";
+
+    private final Path file;
+    private final Map<String, Entry> entries;
+    private boolean dirty;
+
+    private TestResultCache(Path file, Map<String, Entry> entries) {
+        this.file = file;
+        this.entries = entries;
+    }
+
+    /**
+     * Load the cache for a project, or start empty if the file is missing or unreadable.
+     */
+    public static TestResultCache load(Path projectDir) {
+        Path file = projectDir.resolve(CACHE_FILE);
+        Map<String, Entry> entries = new TreeMap<>();
+        if (Files.isRegularFile(file)) {
+            var properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+                for (String className : properties.stringPropertyNames()) {
+                    Entry.parse(properties.getProperty(className)).ifPresent(e -> entries.put(className, e));
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                log.debug("Ignoring unreadable test cache {}: {}", file, e.getMessage());
+                entries.clear();
+            }
+        }
+        return new TestResultCache(file, entries);
+    }
+
+    /**
+     * @return the cached pass for the class if it was recorded with the same fingerprint
+     */
+    public Optional<Entry> get(String className, String fingerprint) {
+        Entry entry = entries.get(className);
+        return entry != null && entry.fingerprint().equals(fingerprint) ? Optional.of(entry) : Optional.empty();
+    }
+
+    /**
+     * Record a passing run of the class.
+     */
+    public void recordPass(String className, String fingerprint, int tests, int skipped) {
+        Entry entry = new Entry(fingerprint, tests, skipped);
+        if (!entry.equals(entries.put(className, entry))) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Forget the class, e.g. after it failed.
+     */
+    public void remove(String className) {
+        if (entries.remove(className) != null) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * @return number of cached classes
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Write the cache if it changed since loading. Writes to a temporary file and renames it
+     * into place so a concurrent reader never sees a partial file.
+     */
+    public void save() {
+        if (!dirty) {
+            return;
+        }
+        var properties = new Properties();
+        entries.forEach((className, entry) -> properties.setProperty(className, entry.format()));
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), "test-cache", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                properties.store(writer, "maven-mcp test result cache");
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            dirty = false;
+        } catch (IOException e) {
+            log.warn("Failed to save test cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * A cached passing run.
+     *
+     * @param fingerprint input fingerprint of the class when it passed
+     * @param tests       tests run
+     * @param skipped     tests skipped
+     */
+    public record Entry(String fingerprint, int tests, int skipped) {
+
+        String format() {
+            return fingerprint + ' ' + tests + ' ' + skipped;
+        }
+
+        static Optional<Entry> parse(String value) {
+            String[] parts = value.strip().split(" ");
+            if (parts.length != 3) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(new Entry(parts[0], Integer.parseInt(parts[1]), Integer.parseInt(parts[2])));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+    }
+}
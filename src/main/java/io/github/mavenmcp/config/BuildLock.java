@@ -0,0 +1,80 @@
+package io.github.mavenmcp.config;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fair mutual exclusion for the Maven runs of one project, usable both by blocking tool calls
+ * ({@link #lock()}) and by asynchronous ones ({@link #acquire()}), which must not hold a thread
+ * while they wait.
+ *
+ * <p>Unlike {@link java.util.concurrent.locks.ReentrantLock} it is not owned by a thread: an
+ * asynchronous build may release it from the thread that observed the Maven process exit. It is
+ * not reentrant.</p>
+ */
+public final class BuildLock {
+
+    private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private boolean held;
+
+    /**
+     * Acquire the lock without blocking.
+     *
+     * @return a future completing once the lock is held by the caller, in request order
+     */
+    public CompletableFuture<Void> acquire() {
+        synchronized (this) {
+            if (!held) {
+                held = true;
+                return CompletableFuture.completedFuture(null);
+            }
+            var waiter = new CompletableFuture<Void>();
+            waiters.add(waiter);
+            return waiter;
+        }
+    }
+
+    /**
+     * Acquire the lock, waiting as long as necessary.
+     */
+    public void lock() {
+        acquire().join();
+    }
+
+    /**
+     * @return true if the lock was free and is now held by the caller
+     */
+    public synchronized boolean tryLock() {
+        if (held) {
+            return false;
+        }
+        held = true;
+        return true;
+    }
+
+    /**
+     * Release the lock, handing it to the longest waiting caller if any.
+     *
+     * @throws IllegalStateException if the lock is not held
+     */
+    public void unlock() {
+        CompletableFuture<Void> next;
+        synchronized (this) {
+            if (!held) {
+                throw new IllegalStateException("BuildLock is not held");
+            }
+            next = waiters.poll();
+            held = next != null;
+        }
+        if (next != null) {
+            next.complete(null);
+        }
+    }
+
+    /**
+     * @return true if a build holds the lock
+     */
+    public synchronized boolean isLocked() {
+        return held;
+    }
+}
@@ -0,0 +1,237 @@
+package io.github.mavenmcp.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.github.mavenmcp.analysis.ReactorGraph;
+import io.github.mavenmcp.cache.BuildResultCache;
+import io.github.mavenmcp.maven.MavenDetector;
+import io.github.mavenmcp.maven.MavenNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Projects served by this server, selected per tool call by the {@code project} parameter.
+ *
+ * <p>The startup project is always present. In multi-project mode other project roots are
+ * validated and given their own {@link Project} state on first use; the least recently used
+ * idle ones are evicted beyond {@code maxProjects}. A project is idle when no tool call holds it
+ * (see {@link #acquire}) and no build is running. In single-project mode only the startup
+ * project is accepted.</p>
+ *
+ * <p>Thread-safe.</p>
+ */
+public final class ProjectRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectRegistry.class);
+
+    /** Tool parameter selecting the project. */
+    public static final String PARAM = "project";
+
+    /** Default number of retained projects besides the startup project. */
+    public static final int DEFAULT_MAX_PROJECTS = 8;
+
+    private final Project startupProject;
+    private final Path startupDir;
+    private final boolean multiProject;
+    private final int maxProjects;
+    private final LinkedHashMap<Path, Project> projects = new LinkedHashMap<>(16, 0.75f, true);
+
+    private ProjectRegistry(Project startupProject, boolean multiProject, int maxProjects) {
+        if (maxProjects <= 0) {
+            throw new IllegalArgumentException("maxProjects must be positive: " + maxProjects);
+        }
+        this.startupProject = startupProject;
+        this.startupDir = realPath(startupProject.config().projectDir());
+        this.multiProject = multiProject;
+        this.maxProjects = maxProjects;
+    }
+
+    /**
+     * Registry serving only the startup project.
+     */
+    public static ProjectRegistry single(ServerConfig config) {
+        return single(config, new BuildResultCache());
+    }
+
+    /**
+     * Registry serving only the startup project, with the given build result cache.
+     */
+    public static ProjectRegistry single(ServerConfig config, BuildResultCache buildCache) {
+        return new ProjectRegistry(new Project(config, buildCache), false, 1);
+    }
+
+    /**
+     * Registry serving any project root named by the {@code project} parameter.
+     *
+     * @param config      the startup project, used when the parameter is absent
+     * @param maxProjects projects retained besides the startup project
+     */
+    public static ProjectRegistry multi(ServerConfig config, int maxProjects) {
+        return new ProjectRegistry(new Project(config, new BuildResultCache()), true, maxProjects);
+    }
+
+    /**
+     * Project selected by the {@code project} parameter of a tool call.
+     *
+     * @param params the tool call parameters map
+     * @return the project; the startup project if the parameter is absent or blank
+     * @throws IllegalArgumentException if the directory is not a Maven project, is not served in
+     *                                  single-project mode, or has no Maven executable
+     */
+    public Project resolve(Map<String, Object> params) {
+        return resolve(params, false);
+    }
+
+    /**
+     * Like {@link #resolve}, but holds the project so it is not evicted until {@link #release}.
+     * Tool calls hold the project from resolution until their build lock is released, closing the
+     * window in which an evicted project could be locked and built alongside its replacement.
+     *
+     * @param params the tool call parameters map
+     * @return the held project
+     * @throws IllegalArgumentException as {@link #resolve}
+     */
+    public Project acquire(Map<String, Object> params) {
+        return resolve(params, true);
+    }
+
+    /**
+     * Release a project obtained from {@link #acquire}.
+     */
+    public synchronized void release(Project project) {
+        if (project.users > 0) {
+            project.users--;
+        }
+    }
+
+    private Project resolve(Map<String, Object> params, boolean hold) {
+        if (!(params.get(PARAM) instanceof String value) || value.isBlank()) {
+            return startupProject;
+        }
+        Path dir = canonical(value);
+        if (dir.equals(startupDir)) {
+            return startupProject;
+        }
+        if (!multiProject) {
+            throw new IllegalArgumentException("This server serves only " + startupProject.config().projectDir()
+                    + ". Start it with --multi-project to use other projects.");
+        }
+        synchronized (this) {
+            Project project = projects.get(dir);
+            if (project == null) {
+                project = open(dir);
+                projects.put(dir, project);
+                evictIdle();
+            }
+            if (hold) {
+                project.users++;
+            }
+            return project;
+        }
+    }
+
+    /**
+     * @return projects currently retained, including the startup project
+     */
+    public synchronized int size() {
+        return projects.size() + 1;
+    }
+
+    /**
+     * @return true if tool calls may select other project roots
+     */
+    public boolean isMultiProject() {
+        return multiProject;
+    }
+
+    /** Relative paths are resolved against the startup project. */
+    private Path canonical(String value) {
+        try {
+            return realPath(startupProject.config().projectDir().resolve(value.strip()));
+        } catch (InvalidPathException e) {
+            throw new IllegalArgumentException("Invalid project path: " + value);
+        }
+    }
+
+    private static Path realPath(Path path) {
+        try {
+            return path.toRealPath();
+        } catch (IOException e) {
+            return path.toAbsolutePath().normalize();
+        }
+    }
+
+    private static Project open(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            throw new IllegalArgumentException("Project directory does not exist: " + dir);
+        }
+        if (!Files.isRegularFile(dir.resolve("pom.xml"))) {
+            throw new IllegalArgumentException("No pom.xml found in project directory: " + dir);
+        }
+        try {
+            Project project = new Project(new ServerConfig(dir, MavenDetector.detect(dir)), new BuildResultCache());
+            log.info("Opened project {} (Maven executable: {})", dir, project.config().mavenExecutable());
+            return project;
+        } catch (MavenNotFoundException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    /** Drop least recently used projects beyond the limit, skipping held ones and those with a build running. */
+    private void evictIdle() {
+        var iterator = projects.entrySet().iterator();
+        while (projects.size() > maxProjects && iterator.hasNext()) {
+            var entry = iterator.next();
+            if (entry.getValue().users == 0 && !entry.getValue().buildLock().isLocked()) {
+                iterator.remove();
+                entry.getValue().buildCache().clear();
+                ReactorGraph.evict(entry.getKey());
+                log.info("Evicted idle project {}", entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Runtime state of one project.
+     */
+    public static final class Project {
+
+        private final ServerConfig config;
+        private final BuildResultCache buildCache;
+        private final BuildLock buildLock = new BuildLock();
+        /** Tool calls holding this project; guarded by the registry. */
+        private int users;
+
+        Project(ServerConfig config, BuildResultCache buildCache) {
+            this.config = config;
+            this.buildCache = buildCache;
+        }
+
+        /**
+         * @return project directory and Maven executable
+         */
+        public ServerConfig config() {
+            return config;
+        }
+
+        /**
+         * @return in-memory maven_compile result cache of this project
+         */
+        public BuildResultCache buildCache() {
+            return buildCache;
+        }
+
+        /**
+         * @return lock serializing Maven runs in this project, so concurrent tool calls do not
+         *         write the same {@code target/} directories
+         */
+        public BuildLock buildLock() {
+            return buildLock;
+        }
+    }
+}
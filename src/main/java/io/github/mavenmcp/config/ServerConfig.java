@@ -1,21 +1,115 @@
 package io.github.mavenmcp.config;
 
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import io.github.mavenmcp.maven.MavenExecutionException;
 
 /**
  * Immutable server configuration created after successful startup validation.
  *
- * @param projectDir      validated project directory containing pom.xml
- * @param mavenExecutable detected Maven executable (mvnw or mvn)
+ * <p>The Maven executable may still be being detected when the configuration is created (see
+ * {@link #withPendingMaven}), so the server can answer the MCP handshake without waiting for it;
+ * {@link #mavenExecutable()} waits for the detection on first use.</p>
+ *
+ * <p>Two configurations are equal when they share the project directory and either the same
+ * detection or equal resolved executables; equality never waits for a pending detection.</p>
  */
-public record ServerConfig(Path projectDir, Path mavenExecutable) {
+public final class ServerConfig {
 
-    public ServerConfig {
+    private final Path projectDir;
+    private final CompletableFuture<Path> mavenExecutable;
+
+    /**
+     * @param projectDir      validated project directory containing pom.xml
+     * @param mavenExecutable detected Maven executable (mvnw or mvn)
+     */
+    public ServerConfig(Path projectDir, Path mavenExecutable) {
+        this(projectDir, CompletableFuture.completedFuture(requireExecutable(mavenExecutable)));
+    }
+
+    private ServerConfig(Path projectDir, CompletableFuture<Path> mavenExecutable) {
         if (projectDir == null) {
             throw new IllegalArgumentException("projectDir must not be null");
         }
+        this.projectDir = projectDir;
+        this.mavenExecutable = mavenExecutable;
+    }
+
+    /**
+     * Configuration whose Maven executable is detected in the background.
+     *
+     * @param projectDir validated project directory containing pom.xml
+     * @param detection  completes with the Maven executable, or exceptionally if none was found
+     * @return the configuration
+     */
+    public static ServerConfig withPendingMaven(Path projectDir, CompletableFuture<Path> detection) {
+        if (detection == null) {
+            throw new IllegalArgumentException("detection must not be null");
+        }
+        return new ServerConfig(projectDir, detection);
+    }
+
+    /**
+     * @return validated project directory containing pom.xml
+     */
+    public Path projectDir() {
+        return projectDir;
+    }
+
+    /**
+     * Detected Maven executable (mvnw or mvn), waiting for the detection if it is still running.
+     *
+     * @return the executable
+     * @throws MavenExecutionException if no Maven executable was found
+     */
+    public Path mavenExecutable() {
+        try {
+            return mavenExecutable.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new MavenExecutionException(cause.getMessage(), cause, 0);
+        }
+    }
+
+    private static Path requireExecutable(Path mavenExecutable) {
         if (mavenExecutable == null) {
             throw new IllegalArgumentException("mavenExecutable must not be null");
         }
+        return mavenExecutable;
+    }
+
+    /** The executable if detection finished successfully, otherwise null. */
+    private Path resolvedExecutable() {
+        return mavenExecutable.isDone() && !mavenExecutable.isCompletedExceptionally()
+                ? mavenExecutable.join()
+                : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ServerConfig other) || !projectDir.equals(other.projectDir)) {
+            return false;
+        }
+        Path resolved = resolvedExecutable();
+        return mavenExecutable == other.mavenExecutable
+                || (resolved != null && resolved.equals(other.resolvedExecutable()));
+    }
+
+    @Override
+    public int hashCode() {
+        // The executable may still be pending, so it cannot take part without changing the hash later
+        return projectDir.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        Object executable = !mavenExecutable.isDone() ? "(detecting)"
+                : mavenExecutable.isCompletedExceptionally() ? "(not found)" : mavenExecutable.join();
+        return "ServerConfig[projectDir=" + projectDir + ", mavenExecutable=" + executable + "]";
     }
 }
@@ -0,0 +1,154 @@
+package io.github.mavenmcp.formatter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.github.mavenmcp.model.BuildResult;
+import io.github.mavenmcp.model.CompilationError;
+import io.github.mavenmcp.model.FlakyTest;
+import io.github.mavenmcp.model.TestFailure;
+import io.github.mavenmcp.model.TestSummary;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Formats BuildResult as compact JSON for programmatic consumers.
+ *
+ * <p>Writes through a streaming {@link JsonGenerator} — no intermediate tree or reflective
+ * serialization. Field names follow the model record components and null fields are omitted,
+ * matching the models' {@code @JsonInclude(NON_NULL)} contract.</p>
+ */
+public final class JsonFormatter {
+
+    private JsonFormatter() {}
+
+    /**
+     * Formats a BuildResult as a JSON string.
+     *
+     * @param result  the build result to format
+     * @param factory JSON factory (typically {@code objectMapper.getFactory()}, which also
+     *                supplies the codec for the untyped {@code artifact} field)
+     * @return JSON-formatted string
+     */
+    public static String format(BuildResult result, JsonFactory factory) {
+        var writer = new StringWriter(estimateSize(result));
+        try (JsonGenerator gen = factory.createGenerator(writer)) {
+            write(gen, result);
+        } catch (IOException e) {
+            // StringWriter does not throw; only a misconfigured codec can get here
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Writes a BuildResult as a JSON object to an open generator.
+     */
+    public static void write(JsonGenerator gen, BuildResult result) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("status", result.status());
+        gen.writeNumberField("duration", result.duration());
+        writeErrors(gen, "errors", result.errors());
+        writeErrors(gen, "warnings", result.warnings());
+        writeSummary(gen, result.summary());
+        writeFailures(gen, result.failures());
+        if (result.artifact() != null) {
+            gen.writeFieldName("artifact");
+            gen.writeObject(result.artifact());
+        }
+        writeOptionalString(gen, "output", result.output());
+        writeOptionalString(gen, "note", result.note());
+        writeFlakyTests(gen, result.flakyTests());
+        gen.writeEndObject();
+    }
+
+    private static void writeErrors(JsonGenerator gen, String field, List<CompilationError> errors)
+            throws IOException {
+        if (errors == null) return;
+        gen.writeArrayFieldStart(field);
+        for (var error : errors) {
+            gen.writeStartObject();
+            writeOptionalString(gen, "file", error.file());
+            gen.writeNumberField("line", error.line());
+            if (error.column() != null) {
+                gen.writeNumberField("column", error.column());
+            }
+            writeOptionalString(gen, "message", error.message());
+            writeOptionalString(gen, "severity", error.severity());
+            writeOptionalString(gen, "module", error.module());
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    private static void writeSummary(JsonGenerator gen, TestSummary summary) throws IOException {
+        if (summary == null) return;
+        gen.writeObjectFieldStart("summary");
+        gen.writeNumberField("testsRun", summary.testsRun());
+        gen.writeNumberField("testsFailed", summary.testsFailed());
+        gen.writeNumberField("testsSkipped", summary.testsSkipped());
+        gen.writeNumberField("testsErrored", summary.testsErrored());
+        gen.writeEndObject();
+    }
+
+    private static void writeFailures(JsonGenerator gen, List<TestFailure> failures) throws IOException {
+        if (failures == null) return;
+        gen.writeArrayFieldStart("failures");
+        for (var failure : failures) {
+            gen.writeStartObject();
+            writeOptionalString(gen, "testClass", failure.testClass());
+            writeOptionalString(gen, "testMethod", failure.testMethod());
+            writeOptionalString(gen, "message", failure.message());
+            writeOptionalString(gen, "stackTrace", failure.stackTrace());
+            writeOptionalString(gen, "testOutput", failure.testOutput());
+            writeOptionalString(gen, "module", failure.module());
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    private static void writeFlakyTests(JsonGenerator gen, List<FlakyTest> flakyTests) throws IOException {
+        if (flakyTests == null) return;
+        gen.writeArrayFieldStart("flakyTests");
+        for (var flaky : flakyTests) {
+            gen.writeStartObject();
+            writeOptionalString(gen, "testClass", flaky.testClass());
+            writeOptionalString(gen, "testMethod", flaky.testMethod());
+            gen.writeNumberField("failedAttempts", flaky.failedAttempts());
+            writeOptionalString(gen, "message", flaky.message());
+            if (flaky.flakyRuns() != null) {
+                gen.writeNumberField("flakyRuns", flaky.flakyRuns());
+            }
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    private static void writeOptionalString(JsonGenerator gen, String field, String value) throws IOException {
+        if (value != null) {
+            gen.writeStringField(field, value);
+        }
+    }
+
+    /**
+     * Rough output size so the buffer rarely has to grow.
+     */
+    private static int estimateSize(BuildResult result) {
+        long size = 128;
+        if (result.output() != null) size += result.output().length();
+        if (result.errors() != null) size += 160L * result.errors().size();
+        if (result.warnings() != null) size += 160L * result.warnings().size();
+        if (result.flakyTests() != null) size += 256L * result.flakyTests().size();
+        if (result.failures() != null) {
+            for (var failure : result.failures()) {
+                size += 128;
+                if (failure.message() != null) size += failure.message().length();
+                if (failure.stackTrace() != null) size += failure.stackTrace().length();
+                if (failure.testOutput() != null) size += failure.testOutput().length();
+            }
+        }
+        return (int) Math.min(size, 1 << 24);
+    }
+}
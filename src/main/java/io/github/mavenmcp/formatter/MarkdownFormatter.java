@@ -2,18 +2,40 @@ package io.github.mavenmcp.formatter;
 
 import io.github.mavenmcp.model.BuildResult;
 import io.github.mavenmcp.model.CompilationError;
+import io.github.mavenmcp.model.TestFailure;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 
 /**
  * Formats BuildResult as a Markdown string for LLM consumption.
  * Pure function — no side effects, no dependencies beyond the model.
+ *
+ * <p>Output can be capped to a global character budget. Every emitted line carries a
+ * {@link Priority}; the budget is allocated tier by tier (summary, root causes, application
+ * frames, test output, framework frames) and the document is then rendered in a single pass,
+ * replacing omitted lines with per-section markers.</p>
  */
 public final class MarkdownFormatter {
 
+    /** Rough characters-per-token ratio used to convert token budgets to characters. */
+    public static final int CHARS_PER_TOKEN = 4;
+    /** Default output budget for tool responses, in estimated tokens. */
+    public static final int DEFAULT_MAX_OUTPUT_TOKENS = 10_000;
+
+    /** Group label for entries outside every reactor module. */
+    private static final String ROOT_MODULE = "(root)";
+
+    /** Characters reserved for each per-section omission marker. */
+    private static final int MARKER_RESERVE = 48;
+    /** Characters reserved for the trailing truncation notice. */
+    private static final int FOOTER_RESERVE = 120;
+
     private MarkdownFormatter() {}
 
     /**
@@ -24,16 +46,40 @@ public final class MarkdownFormatter {
      * @return Markdown-formatted string
      */
     public static String format(BuildResult result, String operation) {
-        var sb = new StringBuilder();
-        appendHeader(sb, result, operation);
-        appendErrors(sb, result);
-        appendFailures(sb, result);
-        appendRawOutput(sb, result);
-        appendNote(sb, result);
-        return sb.toString().stripTrailing();
+        return format(result, operation, Integer.MAX_VALUE);
     }
 
-    private static void appendHeader(StringBuilder sb, BuildResult result, String operation) {
+    /**
+     * Formats a BuildResult as a Markdown string that fits within a character budget.
+     * The summary header and note are always included.
+     *
+     * @param result    the build result to format
+     * @param operation "Clean", "Compile", or "Test"
+     * @param maxChars  character budget for the whole response
+     * @return Markdown-formatted string
+     */
+    public static String format(BuildResult result, String operation, int maxChars) {
+        var doc = new Document();
+        appendHeader(doc, result, operation);
+        appendErrors(doc, result);
+        appendFailures(doc, result);
+        appendFlakyTests(doc, result);
+        appendRawOutput(doc, result);
+        appendNote(doc, result);
+        return doc.render(maxChars).stripTrailing();
+    }
+
+    /**
+     * Convert an estimated token budget to characters.
+     */
+    public static int tokensToChars(int tokens) {
+        return tokens <= 0 || tokens > Integer.MAX_VALUE / CHARS_PER_TOKEN
+                ? Integer.MAX_VALUE
+                : tokens * CHARS_PER_TOKEN;
+    }
+
+    private static void appendHeader(Document doc, BuildResult result, String operation) {
+        var sb = new StringBuilder();
         sb.append(operation).append(' ').append(result.status())
                 .append(" (").append(formatDuration(result.duration())).append(')');
 
@@ -44,70 +90,151 @@ public final class MarkdownFormatter {
             if (s.testsSkipped() > 0) {
                 sb.append(", ").append(s.testsSkipped()).append(" skipped");
             }
+            if (!isNullOrEmpty(result.flakyTests())) {
+                sb.append(", ").append(result.flakyTests().size()).append(" flaky");
+            }
         } else if (!isNullOrEmpty(result.errors())) {
             sb.append(" — ").append(pluralize(result.errors().size(), "error"));
         } else if (!isNullOrEmpty(result.warnings())) {
             sb.append(" — ").append(pluralize(result.warnings().size(), "warning"));
         }
+        doc.add(Priority.SUMMARY, sb.toString());
     }
 
-    private static void appendErrors(StringBuilder sb, BuildResult result) {
+    private static void appendErrors(Document doc, BuildResult result) {
         if (isNullOrEmpty(result.errors())) return;
 
-        var byFile = new LinkedHashMap<String, List<CompilationError>>();
-        for (var error : result.errors()) {
-            byFile.computeIfAbsent(error.file(), k -> new ArrayList<>()).add(error);
-        }
+        var byModule = groupByModule(result.errors(), CompilationError::module);
+        boolean grouped = result.errors().stream().anyMatch(e -> e.module() != null);
+        for (var moduleEntry : byModule.entrySet()) {
+            if (grouped) {
+                appendModuleHeader(doc, moduleEntry.getKey(), pluralize(moduleEntry.getValue().size(), "error"));
+            }
+            var byFile = new LinkedHashMap<String, List<CompilationError>>();
+            for (var error : moduleEntry.getValue()) {
+                byFile.computeIfAbsent(error.file(), k -> new ArrayList<>()).add(error);
+            }
 
-        for (var entry : byFile.entrySet()) {
-            sb.append("\n\n### ").append(entry.getKey());
-            for (var error : entry.getValue()) {
-                sb.append("\n- L").append(error.line());
-                if (error.column() != null) {
-                    sb.append(':').append(error.column());
+            for (var entry : byFile.entrySet()) {
+                doc.section();
+                doc.add(Priority.ROOT_CAUSE, "\n\n### " + entry.getKey());
+                for (var error : entry.getValue()) {
+                    var sb = new StringBuilder("\n- L").append(error.line());
+                    if (error.column() != null) {
+                        sb.append(':').append(error.column());
+                    }
+                    sb.append(" — ").append(error.message());
+                    doc.add(Priority.ROOT_CAUSE, sb.toString());
                 }
-                sb.append(" — ").append(error.message());
             }
         }
     }
 
-    private static void appendFailures(StringBuilder sb, BuildResult result) {
+    private static void appendFailures(Document doc, BuildResult result) {
         if (isNullOrEmpty(result.failures())) return;
 
-        for (var failure : result.failures()) {
-            String shortClass = shortClassName(failure.testClass());
-            String method = failure.testMethod() != null ? failure.testMethod() : "unknown";
-            sb.append("\n\n### FAILED: ").append(shortClass).append('#').append(method);
-            if (failure.message() != null) {
-                sb.append('\n').append(failure.message());
+        var byModule = groupByModule(result.failures(), TestFailure::module);
+        boolean grouped = result.failures().stream().anyMatch(f -> f.module() != null);
+        for (var moduleEntry : byModule.entrySet()) {
+            if (grouped) {
+                appendModuleHeader(doc, moduleEntry.getKey(), pluralize(moduleEntry.getValue().size(), "failure"));
+            }
+            for (var failure : moduleEntry.getValue()) {
+                appendFailure(doc, failure);
+            }
+        }
+    }
+
+    private static void appendFailure(Document doc, TestFailure failure) {
+        String shortClass = shortClassName(failure.testClass());
+        String method = failure.testMethod() != null ? failure.testMethod() : "unknown";
+        doc.section();
+        doc.add(Priority.ROOT_CAUSE, "\n\n### FAILED: " + shortClass + '#' + method);
+        if (failure.message() != null) {
+            doc.add(Priority.ROOT_CAUSE, "\n" + failure.message());
+        }
+        if (failure.stackTrace() != null && !failure.stackTrace().isBlank()) {
+            String[] lines = failure.stackTrace().split("\n");
+            for (int i = 0; i < lines.length; i++) {
+                doc.add(i == 0 ? Priority.ROOT_CAUSE : classifyTraceLine(lines[i]), "\n  " + lines[i]);
             }
-            if (failure.stackTrace() != null && !failure.stackTrace().isBlank()) {
-                appendIndented(sb, failure.stackTrace());
+        }
+        if (failure.testOutput() != null && !failure.testOutput().isBlank()) {
+            doc.add(Priority.TEST_OUTPUT, "\n  Test output:");
+            appendIndented(doc, Priority.TEST_OUTPUT, failure.testOutput());
+        }
+    }
+
+    /**
+     * Group entries by reactor module, in first-occurrence order; entries without a module share one group.
+     */
+    private static <T> Map<String, List<T>> groupByModule(List<T> entries, Function<T, String> module) {
+        var groups = new LinkedHashMap<String, List<T>>();
+        for (T entry : entries) {
+            groups.computeIfAbsent(Objects.requireNonNullElse(module.apply(entry), ROOT_MODULE),
+                    k -> new ArrayList<>()).add(entry);
+        }
+        return groups;
+    }
+
+    private static void appendModuleHeader(Document doc, String module, String count) {
+        doc.section();
+        doc.add(Priority.ROOT_CAUSE, "\n\n## Module: " + module + " — " + count);
+    }
+
+    private static void appendFlakyTests(Document doc, BuildResult result) {
+        if (isNullOrEmpty(result.flakyTests())) return;
+
+        for (var flaky : result.flakyTests()) {
+            var sb = new StringBuilder("\n\n### FLAKY: ")
+                    .append(shortClassName(flaky.testClass())).append('#').append(flaky.testMethod())
+                    .append(" — passed after ").append(pluralize(flaky.failedAttempts(), "failed attempt"));
+            if (flaky.flakyRuns() != null && flaky.flakyRuns() > 1) {
+                sb.append(", flaky in ").append(flaky.flakyRuns()).append(" runs");
             }
-            if (failure.testOutput() != null && !failure.testOutput().isBlank()) {
-                sb.append("\n  Test output:");
-                appendIndented(sb, failure.testOutput());
+            doc.section();
+            doc.add(Priority.ROOT_CAUSE, sb.toString());
+            if (flaky.message() != null) {
+                doc.add(Priority.APP_FRAME, "\n" + flaky.message());
             }
         }
     }
 
-    private static void appendRawOutput(StringBuilder sb, BuildResult result) {
+    private static void appendRawOutput(Document doc, BuildResult result) {
         if (result.output() == null || result.output().isBlank()) return;
         // Skip raw output when structured errors or failures are present
         if (!isNullOrEmpty(result.errors()) || !isNullOrEmpty(result.failures())) return;
-        sb.append("\n");
-        appendIndented(sb, result.output());
+        doc.section();
+        doc.add(Priority.ROOT_CAUSE, "\n");
+        appendIndented(doc, Priority.ROOT_CAUSE, result.output());
     }
 
-    private static void appendNote(StringBuilder sb, BuildResult result) {
+    private static void appendNote(Document doc, BuildResult result) {
         if (result.note() == null || result.note().isBlank()) return;
-        sb.append("\n\n> ").append(result.note());
+        doc.section();
+        doc.add(Priority.SUMMARY, "\n\n> " + result.note());
     }
 
-    private static void appendIndented(StringBuilder sb, String text) {
+    private static void appendIndented(Document doc, Priority priority, String text) {
         for (String line : text.split("\n")) {
-            sb.append("\n  ").append(line);
+            doc.add(priority, "\n  " + line);
+        }
+    }
+
+    /**
+     * Classify a processed stack trace line (after the first): frames are application frames
+     * (framework frames were already collapsed upstream), {@code ...} markers stand for
+     * framework frames, anything else is an exception header.
+     */
+    static Priority classifyTraceLine(String line) {
+        String stripped = line.strip();
+        if (stripped.startsWith("at ")) {
+            return Priority.APP_FRAME;
+        }
+        if (stripped.startsWith("...")) {
+            return Priority.FRAMEWORK_FRAME;
         }
+        return Priority.ROOT_CAUSE;
     }
 
     private static boolean isNullOrEmpty(List<?> list) {
@@ -127,4 +254,136 @@ public final class MarkdownFormatter {
     private static String formatDuration(long millis) {
         return String.format(Locale.ROOT, "%.1fs", millis / 1000.0);
     }
+
+    /**
+     * Output priority tiers, highest first. Budget is allocated in this order.
+     */
+    enum Priority {
+        SUMMARY, ROOT_CAUSE, APP_FRAME, TEST_OUTPUT, FRAMEWORK_FRAME
+    }
+
+    /**
+     * Prioritized chunks grouped into sections (one per file, failure, raw output or note).
+     */
+    private static final class Document {
+
+        private final List<String> chunks = new ArrayList<>();
+        private final List<Priority> priorities = new ArrayList<>();
+        private final List<Integer> sectionStarts = new ArrayList<>();
+        // Bit per priority present in each section; index 0 holds chunks added before the first section
+        private final List<Integer> sectionTiers = new ArrayList<>(List.of(0));
+        private final long[] tierChars = new long[Priority.values().length];
+        private long totalChars;
+
+        void section() {
+            sectionStarts.add(chunks.size());
+            sectionTiers.add(0);
+        }
+
+        void add(Priority priority, String chunk) {
+            chunks.add(chunk);
+            priorities.add(priority);
+            tierChars[priority.ordinal()] += chunk.length();
+            sectionTiers.set(sectionTiers.size() - 1, sectionTiers.getLast() | 1 << priority.ordinal());
+            totalChars += chunk.length();
+        }
+
+        String render(int maxChars) {
+            if (totalChars <= maxChars) {
+                return String.join("", chunks);
+            }
+
+            // Plan: whole tiers while they fit, a prefix of the first tier that does not. Marker
+            // space is reserved only for sections that would be cut, not for every section.
+            long budget = (long) maxChars - FOOTER_RESERVE;
+            long used = 0;
+            int partialTier = Priority.values().length;
+            long partialAllowance = 0;
+            for (Priority tier : Priority.values()) {
+                long withTier = used + tierChars[tier.ordinal()];
+                if (tier == Priority.SUMMARY
+                        || withTier + (long) MARKER_RESERVE * cutSections(tier.ordinal()) <= budget) {
+                    used = withTier;
+                } else {
+                    partialTier = tier.ordinal();
+                    partialAllowance = Math.max(
+                            budget - used - (long) MARKER_RESERVE * cutSections(tier.ordinal() - 1), 0);
+                    break;
+                }
+            }
+
+            // Render: single pass, collapsing omitted lines into one marker per section
+            var sb = new StringBuilder(Math.min(maxChars, (int) Math.min(totalChars, Integer.MAX_VALUE)));
+            boolean partialOpen = true;
+            int omittedLines = 0;
+            int omittedSections = 0;
+            int sectionOmitted = 0;
+            int sectionIncluded = 0;
+            int nextSection = 0;
+            for (int i = 0; i <= chunks.size(); i++) {
+                boolean sectionEnd = i == chunks.size()
+                        || (nextSection < sectionStarts.size() && sectionStarts.get(nextSection) == i);
+                if (sectionEnd) {
+                    if (sectionOmitted > 0 && sectionIncluded > 0) {
+                        sb.append("\n  ... ").append(sectionOmitted).append(" lines omitted (output budget)");
+                    } else if (sectionOmitted > 0) {
+                        omittedSections++;
+                    }
+                    sectionOmitted = 0;
+                    sectionIncluded = 0;
+                    while (nextSection < sectionStarts.size() && sectionStarts.get(nextSection) == i) {
+                        nextSection++;
+                    }
+                    if (i == chunks.size()) {
+                        break;
+                    }
+                }
+
+                String chunk = chunks.get(i);
+                int tier = priorities.get(i).ordinal();
+                boolean include = tier < partialTier;
+                if (!include && tier == partialTier && partialOpen) {
+                    // A section first opened by the partial tier will need its own marker
+                    long cost = chunk.length() + (sectionIncluded == 0 ? MARKER_RESERVE : 0);
+                    if (cost <= partialAllowance) {
+                        partialAllowance -= cost;
+                        include = true;
+                    } else {
+                        partialOpen = false;
+                    }
+                }
+                if (include) {
+                    sb.append(chunk);
+                    sectionIncluded++;
+                } else {
+                    sectionOmitted++;
+                    omittedLines++;
+                }
+            }
+
+            sb.append("\n\n> Output truncated to ~").append(maxChars / CHARS_PER_TOKEN)
+                    .append(" tokens: ").append(pluralize(omittedLines, "line")).append(" omitted");
+            if (omittedSections > 0) {
+                sb.append(" (").append(omittedSections).append(omittedSections == 1 ? " section" : " sections")
+                        .append(" dropped entirely)");
+            }
+            sb.append(". Raise maxOutputTokens to see more.");
+            return sb.toString();
+        }
+
+        /**
+         * Number of sections that keep some chunks but lose others when every tier up to and
+         * including {@code lastIncluded} is rendered and the rest is omitted.
+         */
+        private int cutSections(int lastIncluded) {
+            int kept = (1 << (lastIncluded + 1)) - 1;
+            int count = 0;
+            for (int tiers : sectionTiers) {
+                if ((tiers & kept) != 0 && (tiers & ~kept) != 0) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
 }
@@ -0,0 +1,78 @@
+package io.github.mavenmcp.formatter;
+
+import io.github.mavenmcp.metrics.Histogram;
+import io.github.mavenmcp.metrics.ServerMetrics;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Formats a {@link ServerMetrics.Snapshot} as Markdown for the maven_server_stats tool.
+ * Pure function.
+ */
+public final class StatsFormatter {
+
+    private StatsFormatter() {}
+
+    /**
+     * @param stats the metrics snapshot
+     * @return Markdown with build counters, a latency table (milliseconds) and cache hit rates
+     */
+    public static String markdown(ServerMetrics.Snapshot stats) {
+        var sb = new StringBuilder();
+        sb.append("Server stats (uptime ").append(uptime(stats.uptimeMillis())).append(")\n\n");
+        sb.append("Maven builds: ").append(stats.builds()).append(" finished, ")
+                .append(stats.activeBuilds()).append(" running, peak ").append(stats.peakBuilds())
+                .append(" concurrent; output read: ").append(bytes(stats.outputBytes())).append('\n');
+
+        sb.append("\n| Timer | Count | Mean ms | p50 ms | p90 ms | p99 ms | Max ms |\n");
+        sb.append("|---|---|---|---|---|---|---|\n");
+        appendRow(sb, "fork", stats.fork());
+        appendRow(sb, "maven", stats.maven());
+        stats.stages().forEach((stage, histogram) -> appendRow(sb, "stage: " + stage, histogram));
+        stats.tools().forEach((tool, toolStats) -> appendRow(sb, "tool: " + tool
+                + (toolStats.errors() > 0 ? " (" + toolStats.errors() + " errors)" : ""), toolStats.latency()));
+
+        if (!stats.caches().isEmpty()) {
+            sb.append("\n| Cache | Hits | Misses | Hit rate |\n");
+            sb.append("|---|---|---|---|\n");
+            for (Map.Entry<String, ServerMetrics.CacheStats> cache : stats.caches().entrySet()) {
+                var c = cache.getValue();
+                sb.append("| ").append(cache.getKey()).append(" | ").append(c.hits()).append(" | ")
+                        .append(c.misses()).append(" | ")
+                        .append(String.format(Locale.ROOT, "%.0f%%", c.hitRate() * 100)).append(" |\n");
+            }
+        }
+        return sb.toString().stripTrailing();
+    }
+
+    private static void appendRow(StringBuilder sb, String name, Histogram.Snapshot h) {
+        sb.append("| ").append(name).append(" | ").append(h.count()).append(" | ")
+                .append(millis(h.mean())).append(" | ").append(millis(h.p50())).append(" | ")
+                .append(millis(h.p90())).append(" | ").append(millis(h.p99())).append(" | ")
+                .append(millis(h.max())).append(" |\n");
+    }
+
+    private static String millis(double micros) {
+        return String.format(Locale.ROOT, micros < 10_000 ? "%.2f" : "%.0f", micros / 1000);
+    }
+
+    private static String uptime(long millis) {
+        Duration d = Duration.ofMillis(millis);
+        if (d.toHours() > 0) {
+            return d.toHours() + "h " + d.toMinutesPart() + "m";
+        }
+        return d.toMinutes() > 0 ? d.toMinutes() + "m " + d.toSecondsPart() + "s" : d.toSeconds() + "s";
+    }
+
+    private static String bytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        }
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024));
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.mavenmcp.maven;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Sizes the Maven {@code -T} thread count for parallel reactor builds.
+ *
+ * <p>Each builder thread runs javac in-process and typically forks a test JVM, so besides the
+ * cores the thread count is bounded by physical memory (container-aware): half of it is assumed
+ * to be available to the build, at {@link #MEMORY_PER_THREAD_BYTES} per thread. More threads than
+ * reactor modules never help.</p>
+ */
+public final class BuildThreads {
+
+    /** Memory assumed per builder thread: compiler plus one forked test JVM. */
+    public static final long MEMORY_PER_THREAD_BYTES = 1L << 30;
+
+    private BuildThreads() {
+    }
+
+    /**
+     * Thread count for this machine.
+     *
+     * @param modules number of reactor modules to build, 0 if unknown
+     * @return thread count, at least 1
+     */
+    public static int auto(int modules) {
+        return compute(Runtime.getRuntime().availableProcessors(), physicalMemory(), modules);
+    }
+
+    /**
+     * @param cores       available processors
+     * @param memoryBytes physical memory, 0 if unknown
+     * @param modules     reactor modules to build, 0 if unknown
+     * @return thread count, at least 1
+     */
+    static int compute(int cores, long memoryBytes, int modules) {
+        long threads = cores;
+        if (memoryBytes > 0) {
+            threads = Math.min(threads, memoryBytes / 2 / MEMORY_PER_THREAD_BYTES);
+        }
+        if (modules > 0) {
+            threads = Math.min(threads, modules);
+        }
+        return (int) Math.max(1, threads);
+    }
+
+    /**
+     * @return total physical memory in bytes, 0 if the platform does not report it
+     */
+    public static long physicalMemory() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return os.getTotalMemorySize();
+        }
+        return 0;
+    }
+}
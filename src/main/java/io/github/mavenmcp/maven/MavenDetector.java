@@ -1,8 +1,20 @@
 package io.github.mavenmcp.maven;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,11 +22,27 @@ import org.slf4j.LoggerFactory;
 /**
  * Detects the Maven executable to use for a project.
  * Prefers ./mvnw (Maven Wrapper), falls back to system mvn on PATH.
+ *
+ * <p>System installations are found in-process by scanning {@code PATH}, then
+ * {@code MAVEN_HOME}/{@code M2_HOME} (and {@code MVND_HOME} for the Maven Daemon). The scan
+ * runs once per process; wrapper versions are cached per properties file until it changes.</p>
  */
 public final class MavenDetector {
 
     private static final Logger log = LoggerFactory.getLogger(MavenDetector.class);
 
+    /** System property opting in to the Maven Daemon (mvnd) when the project has no wrapper. */
+    public static final String USE_MVND_PROPERTY = "maven.mcp.mvnd";
+
+    static final String WRAPPER_PROPERTIES = ".mvn/wrapper/maven-wrapper.properties";
+
+    private static final Pattern DISTRIBUTION_VERSION =
+            Pattern.compile("/(?:apache-maven|maven-mvnd)-(\\d[^/]*?)(?:-bin|-[a-z]+-[a-z0-9_]+)?\\.(?:zip|tar\\.gz)$");
+
+    private static volatile SystemMaven systemMaven;
+
+    private static final Map<Path, WrapperVersion> WRAPPER_VERSIONS = new ConcurrentHashMap<>();
+
     private MavenDetector() {
         // utility class
     }
@@ -34,33 +62,159 @@ public final class MavenDetector {
             return mvnw;
         }
 
-        // 2. Fallback to system mvn on PATH
-        Path systemMvn = findSystemMvn();
-        if (systemMvn != null) {
-            log.debug("Using system Maven at {}", systemMvn);
-            return systemMvn;
+        SystemMaven system = systemMaven();
+
+        // 2. Maven Daemon, if asked for
+        if (Boolean.getBoolean(USE_MVND_PROPERTY) && system.mvnd() != null) {
+            log.debug("Using Maven Daemon at {}", system.mvnd());
+            return system.mvnd();
+        }
+
+        // 3. Fallback to system mvn on PATH
+        if (system.mvn() != null) {
+            log.debug("Using system Maven at {}", system.mvn());
+            return system.mvn();
         }
 
         throw new MavenNotFoundException(
                 "Maven not found. Install Maven or add mvnw to your project.");
     }
 
-    private static Path findSystemMvn() {
+    /**
+     * @return the Maven Daemon executable on PATH or under {@code MVND_HOME}, if installed
+     */
+    public static Optional<Path> daemon() {
+        return Optional.ofNullable(systemMaven().mvnd());
+    }
+
+    /**
+     * Maven version the project's wrapper downloads, read from the {@code distributionUrl} in
+     * {@code .mvn/wrapper/maven-wrapper.properties}.
+     *
+     * @param projectDir project root
+     * @return the version, or empty if there is no wrapper configuration or the URL has no version
+     */
+    public static Optional<String> wrapperVersion(Path projectDir) {
+        Path file = projectDir.resolve(WRAPPER_PROPERTIES).toAbsolutePath().normalize();
+        FileTime modified;
         try {
-            ProcessBuilder pb = new ProcessBuilder("which", "mvn");
-            pb.redirectErrorStream(true);
-            Process process = pb.start();
-            String output = new String(process.getInputStream().readAllBytes()).trim();
-            int exitCode = process.waitFor();
-            if (exitCode == 0 && !output.isEmpty()) {
-                return Path.of(output);
+            modified = Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            WRAPPER_VERSIONS.remove(file);
+            return Optional.empty();
+        }
+        WrapperVersion cached = WRAPPER_VERSIONS.get(file);
+        if (cached != null && cached.modified().equals(modified)) {
+            return Optional.ofNullable(cached.version());
+        }
+        String version = null;
+        try (InputStream in = Files.newInputStream(file)) {
+            Properties properties = new Properties();
+            properties.load(in);
+            version = parseDistributionVersion(properties.getProperty("distributionUrl"));
+        } catch (IOException | IllegalArgumentException e) {
+            log.debug("Failed to read {}: {}", file, e.getMessage());
+        }
+        WRAPPER_VERSIONS.put(file, new WrapperVersion(modified, version));
+        return Optional.ofNullable(version);
+    }
+
+    /**
+     * @param distributionUrl e.g. {@code .../apache-maven/3.9.9/apache-maven-3.9.9-bin.zip}
+     * @return the version in the archive name, or null
+     */
+    static String parseDistributionVersion(String distributionUrl) {
+        if (distributionUrl == null) {
+            return null;
+        }
+        Matcher matcher = DISTRIBUTION_VERSION.matcher(distributionUrl.strip());
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static SystemMaven systemMaven() {
+        SystemMaven result = systemMaven;
+        if (result == null) {
+            synchronized (MavenDetector.class) {
+                result = systemMaven;
+                if (result == null) {
+                    result = scan(System.getenv(), System.getProperty("os.name", ""));
+                    systemMaven = result;
+                }
             }
-        } catch (IOException | InterruptedException e) {
-            log.debug("Failed to locate system mvn: {}", e.getMessage());
-            if (e instanceof InterruptedException) {
-                Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    /**
+     * Locate mvn and mvnd without spawning a process.
+     *
+     * @param env    environment variables ({@code PATH}, {@code PATHEXT}, {@code MAVEN_HOME},
+     *               {@code M2_HOME}, {@code MVND_HOME})
+     * @param osName value of {@code os.name}
+     * @return the executables found; either may be null
+     */
+    static SystemMaven scan(Map<String, String> env, String osName) {
+        boolean windows = osName.toLowerCase(Locale.ROOT).startsWith("windows");
+        List<String> extensions = windows
+                ? List.of(env.getOrDefault("PATHEXT", ".COM;.EXE;.BAT;.CMD").toLowerCase(Locale.ROOT).split(";"))
+                : List.of("");
+        List<Path> mvnDirs = new ArrayList<>(pathEntries(env.get("PATH"), windows));
+        homeBin(env.get("MAVEN_HOME")).ifPresent(mvnDirs::add);
+        homeBin(env.get("M2_HOME")).ifPresent(mvnDirs::add);
+        List<Path> mvndDirs = new ArrayList<>(pathEntries(env.get("PATH"), windows));
+        homeBin(env.get("MVND_HOME")).ifPresent(mvndDirs::add);
+        SystemMaven result = new SystemMaven(find("mvn", mvnDirs, extensions), find("mvnd", mvndDirs, extensions));
+        log.debug("System Maven scan: mvn={}, mvnd={}", result.mvn(), result.mvnd());
+        return result;
+    }
+
+    private static Path find(String name, List<Path> dirs, List<String> extensions) {
+        for (Path dir : dirs) {
+            for (String extension : extensions) {
+                Path candidate = dir.resolve(name + extension);
+                if (Files.isRegularFile(candidate) && Files.isExecutable(candidate)) {
+                    return candidate;
+                }
             }
         }
         return null;
     }
+
+    private static List<Path> pathEntries(String path, boolean windows) {
+        if (path == null || path.isBlank()) {
+            return List.of();
+        }
+        List<Path> entries = new ArrayList<>();
+        for (String entry : path.split(windows ? ";" : ":")) {
+            String dir = windows ? entry.replace("\"", "") : entry;
+            if (!dir.isBlank()) {
+                toPath(dir).ifPresent(entries::add);
+            }
+        }
+        return entries;
+    }
+
+    private static Optional<Path> homeBin(String home) {
+        return home == null || home.isBlank() ? Optional.empty() : toPath(home).map(dir -> dir.resolve("bin"));
+    }
+
+    private static Optional<Path> toPath(String value) {
+        try {
+            return Optional.of(Path.of(value));
+        } catch (InvalidPathException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Executables found by the system scan.
+     *
+     * @param mvn  Maven launcher, or null
+     * @param mvnd Maven Daemon launcher, or null
+     */
+    record SystemMaven(Path mvn, Path mvnd) {
+    }
+
+    private record WrapperVersion(FileTime modified, String version) {
+    }
 }
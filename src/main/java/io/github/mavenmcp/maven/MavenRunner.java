@@ -1,16 +1,23 @@
 package io.github.mavenmcp.maven;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
+import io.github.mavenmcp.metrics.MavenForkEvent;
+import io.github.mavenmcp.metrics.ServerMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,12 +25,40 @@ import org.slf4j.LoggerFactory;
  * Executes Maven commands as child processes and captures their output.
  * <p>
  * Stdout and stderr are consumed on separate threads via {@link CompletableFuture}
- * to prevent deadlock when Maven produces large output on both streams.
+ * to prevent deadlock when Maven produces large output on both streams. Readers run on
+ * dedicated virtual threads rather than the common pool, so concurrent executions
+ * (parallel test shards) cannot starve each other's readers.
+ * <p>
+ * Waiting for the process goes through {@link Process#onExit()}: {@link #executeAsync} holds no
+ * thread until Maven exits, and {@link #execute} parks rather than pins when called on a
+ * virtual thread.
  */
 public class MavenRunner {
 
     private static final Logger log = LoggerFactory.getLogger(MavenRunner.class);
 
+    private static final Executor STREAM_READERS =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("maven-stream-", 0).factory());
+
+    /** How often a stop condition is evaluated while Maven runs. */
+    static final long STOP_POLL_INTERVAL_MS = 250;
+
+    /** Grace period between asking the process tree to terminate and killing it. */
+    private static final long STOP_GRACE_PERIOD_MS = 5000;
+
+    private final ServerMetrics metrics;
+
+    public MavenRunner() {
+        this(ServerMetrics.global());
+    }
+
+    /**
+     * @param metrics where fork latency, run time, output volume and concurrent builds are recorded
+     */
+    public MavenRunner(ServerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * Execute a Maven goal as a child process.
      *
@@ -36,6 +71,22 @@ public class MavenRunner {
      */
     public MavenExecutionResult execute(String goal, List<String> extraArgs,
                                         Path mavenExecutable, Path projectDir) {
+        return execute(goal, extraArgs, mavenExecutable, projectDir, null);
+    }
+
+    /**
+     * Execute a Maven goal, stopping early once a condition holds.
+     * <p>
+     * The condition is evaluated on the calling thread every {@value #STOP_POLL_INTERVAL_MS} ms.
+     * When it returns true, the whole process tree (Maven and its forked test JVMs) is terminated,
+     * and the output captured so far is returned with the exit code of the terminated process.
+     *
+     * @param stopCondition condition to poll, or null to run to completion
+     * @see #execute(String, List, Path, Path)
+     */
+    public MavenExecutionResult execute(String goal, List<String> extraArgs,
+                                        Path mavenExecutable, Path projectDir,
+                                        BooleanSupplier stopCondition) {
         List<String> command = buildCommand(mavenExecutable, goal, extraArgs);
         log.info("Executing: {}", String.join(" ", command));
 
@@ -44,21 +95,30 @@ public class MavenRunner {
         // Do NOT redirect streams — we capture them separately
 
         long startTime = System.currentTimeMillis();
+        var event = new MavenForkEvent();
         try {
-            Process process = pb.start();
+            Process process = start(pb, event);
 
             // Consume stdout and stderr concurrently to prevent deadlock
-            CompletableFuture<String> stdoutFuture = readStreamAsync(process.getInputStream());
-            CompletableFuture<String> stderrFuture = readStreamAsync(process.getErrorStream());
+            CompletableFuture<Output> stdoutFuture = readStreamAsync(process.getInputStream());
+            CompletableFuture<Output> stderrFuture = readStreamAsync(process.getErrorStream());
 
-            int exitCode = process.waitFor();
+            int exitCode;
+            try {
+                exitCode = stopCondition == null
+                        ? awaitExit(process)
+                        : waitFor(process, stopCondition, event);
+            } finally {
+                metrics.buildFinished(System.currentTimeMillis() - startTime);
+            }
             long duration = System.currentTimeMillis() - startTime;
 
-            String stdout = stdoutFuture.join();
-            String stderr = stderrFuture.join();
+            Output stdout = stdoutFuture.join();
+            Output stderr = stderrFuture.join();
+            commit(event, goal, projectDir, process, exitCode, stdout, stderr);
 
             log.info("Maven exited with code {} in {}ms", exitCode, duration);
-            return new MavenExecutionResult(exitCode, stdout, stderr, duration);
+            return new MavenExecutionResult(exitCode, stdout.text(), stderr.text(), duration);
 
         } catch (IOException e) {
             long duration = System.currentTimeMillis() - startTime;
@@ -72,6 +132,136 @@ public class MavenRunner {
         }
     }
 
+    /**
+     * Execute a Maven goal without blocking the calling thread.
+     * <p>
+     * The returned future completes from the process exit callback once Maven has exited and
+     * both output streams are drained; no thread waits for the process in the meantime.
+     *
+     * @return future of the execution result; completes exceptionally with
+     *         {@link MavenExecutionException} if the process cannot be started
+     * @see #execute(String, List, Path, Path)
+     */
+    public CompletableFuture<MavenExecutionResult> executeAsync(String goal, List<String> extraArgs,
+                                                                Path mavenExecutable, Path projectDir) {
+        List<String> command = buildCommand(mavenExecutable, goal, extraArgs);
+        log.info("Executing: {}", String.join(" ", command));
+
+        ProcessBuilder pb = new ProcessBuilder(command);
+        pb.directory(projectDir.toFile());
+
+        long startTime = System.currentTimeMillis();
+        var event = new MavenForkEvent();
+        Process process;
+        try {
+            process = start(pb, event);
+        } catch (IOException e) {
+            long duration = System.currentTimeMillis() - startTime;
+            return CompletableFuture.failedFuture(new MavenExecutionException(
+                    "Failed to start Maven process: " + e.getMessage(), e, duration));
+        }
+
+        CompletableFuture<Output> stdoutFuture = readStreamAsync(process.getInputStream());
+        CompletableFuture<Output> stderrFuture = readStreamAsync(process.getErrorStream());
+
+        return process.onExit().thenCompose(exited -> {
+            int exitCode = exited.exitValue();
+            long duration = System.currentTimeMillis() - startTime;
+            metrics.buildFinished(duration);
+            return stdoutFuture.thenCombine(stderrFuture, (stdout, stderr) -> {
+                commit(event, goal, projectDir, exited, exitCode, stdout, stderr);
+                log.info("Maven exited with code {} in {}ms", exitCode, duration);
+                return new MavenExecutionResult(exitCode, stdout.text(), stderr.text(), duration);
+            });
+        });
+    }
+
+    /**
+     * Start the process, recording the fork latency and counting it as a running build. Begins
+     * the process's {@link MavenForkEvent}.
+     */
+    private Process start(ProcessBuilder pb, MavenForkEvent event) throws IOException {
+        event.begin();
+        long forkStart = System.nanoTime();
+        Process process = pb.start();
+        event.forkTime = System.nanoTime() - forkStart;
+        metrics.recordFork(event.forkTime);
+        metrics.buildStarted();
+        return process;
+    }
+
+    /** End the process's event once it has exited and its output is read. */
+    private static void commit(MavenForkEvent event, String goal, Path projectDir, Process process,
+                               int exitCode, Output stdout, Output stderr) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.goal = goal;
+            event.project = projectDir.toString();
+            event.pid = process.pid();
+            event.exitCode = exitCode;
+            event.stdoutBytes = stdout.bytes();
+            event.stderrBytes = stderr.bytes();
+            event.commit();
+        }
+    }
+
+    private static int waitFor(Process process, BooleanSupplier stopCondition, MavenForkEvent event)
+            throws InterruptedException {
+        while (!awaitExit(process, STOP_POLL_INTERVAL_MS)) {
+            if (stopCondition.getAsBoolean()) {
+                log.info("Stop condition met, terminating Maven process tree (pid {})", process.pid());
+                event.terminated = true;
+                destroyTree(process);
+                break;
+            }
+        }
+        return awaitExit(process);
+    }
+
+    /**
+     * {@link Process#waitFor()} waits on the process monitor, which pins a virtual thread to its
+     * carrier; waiting on the exit future does not.
+     */
+    private static int awaitExit(Process process) throws InterruptedException {
+        try {
+            return process.onExit().get().exitValue();
+        } catch (ExecutionException e) {
+            return process.waitFor();
+        }
+    }
+
+    private static boolean awaitExit(Process process, long timeoutMillis) throws InterruptedException {
+        try {
+            process.onExit().get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            return process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Terminate the process and all its descendants, forcibly after a grace period. Descendants
+     * are collected first, since they are re-parented once Maven exits.
+     */
+    private static void destroyTree(Process process) throws InterruptedException {
+        List<ProcessHandle> descendants = process.descendants().toList();
+        process.destroy();
+        descendants.forEach(ProcessHandle::destroy);
+        long deadline = System.currentTimeMillis() + STOP_GRACE_PERIOD_MS;
+        if (!process.waitFor(STOP_GRACE_PERIOD_MS, TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly();
+        }
+        for (ProcessHandle descendant : descendants) {
+            try {
+                descendant.onExit().get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                descendant.destroyForcibly();
+            }
+        }
+    }
+
     private List<String> buildCommand(Path mavenExecutable, String goal, List<String> extraArgs) {
         List<String> command = new ArrayList<>();
         command.add(mavenExecutable.toString());
@@ -83,14 +273,21 @@ public class MavenRunner {
         return command;
     }
 
-    private CompletableFuture<String> readStreamAsync(InputStream inputStream) {
+    private CompletableFuture<Output> readStreamAsync(InputStream inputStream) {
         return CompletableFuture.supplyAsync(() -> {
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-                return reader.lines().collect(Collectors.joining("\n"));
+            try (inputStream) {
+                byte[] bytes = inputStream.readAllBytes();
+                metrics.recordOutputBytes(bytes.length);
+                return new Output(new String(bytes, Charset.defaultCharset()).lines()
+                        .collect(Collectors.joining("\n")), bytes.length);
             } catch (IOException e) {
                 log.warn("Error reading process stream: {}", e.getMessage());
-                return "";
+                return new Output("", 0);
             }
-        });
+        }, STREAM_READERS);
+    }
+
+    /** A drained output stream: its lines joined with {@code \n}, and the bytes read. */
+    private record Output(String text, long bytes) {
     }
 }
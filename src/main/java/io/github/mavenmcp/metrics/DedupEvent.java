@@ -0,0 +1,36 @@
+package io.github.mavenmcp.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for the deduplication of a run's test failures. Failures are fingerprinted as they
+ * are parsed, so the event spans only the merge of the groups into results; the fingerprinting
+ * time is reported in {@link #fingerprintTime}.
+ */
+@Name(DedupEvent.NAME)
+@Label("Failure Deduplication")
+@Category({"Maven MCP", "Parser"})
+@Description("Grouping test failures by root cause")
+@StackTrace(false)
+public final class DedupEvent extends Event {
+
+    public static final String NAME = "io.github.mavenmcp.Dedup";
+
+    @Label("Failures")
+    public int failures;
+
+    @Label("Groups")
+    @Description("Distinct root causes")
+    public int groups;
+
+    @Label("Fingerprint Time")
+    @Description("Total time spent fingerprinting failures")
+    @Timespan(Timespan.NANOSECONDS)
+    public long fingerprintTime;
+}
@@ -0,0 +1,108 @@
+package io.github.mavenmcp.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative long values with HDR-style log-linear buckets.
+ *
+ * <p>Each power of two is split into {@value #SUB_BUCKETS} linear sub-buckets, so any recorded
+ * value is reported within about 3% (1/{@value #SUB_BUCKETS}) of its true value, over the whole
+ * {@code long} range, in a fixed {@value #BUCKETS}-slot array. Recording is a few atomic
+ * increments; snapshots may be taken concurrently with recording.</p>
+ */
+public final class Histogram {
+
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param value value to record; negative values are recorded as 0
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(bucket(v));
+        count.increment();
+        sum.add(v);
+        if (v > max.get()) {
+            max.accumulateAndGet(v, Math::max);
+        }
+    }
+
+    /**
+     * @return count, sum, maximum and percentiles of the values recorded so far
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        long highest = max.get();
+        return new Snapshot(total, sum.sum(), highest,
+                percentile(copy, total, highest, 50), percentile(copy, total, highest, 90),
+                percentile(copy, total, highest, 99));
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /** Largest value that falls into the bucket. */
+    static long highestEquivalent(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    private static long percentile(long[] counts, long total, long max, double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestEquivalent(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Point-in-time view of a histogram, in the unit the values were recorded in.
+     *
+     * @param count number of values
+     * @param sum   sum of the values
+     * @param max   largest value
+     * @param p50   median
+     * @param p90   90th percentile
+     * @param p99   99th percentile
+     */
+    public record Snapshot(long count, long sum, long max, long p50, long p90, long p99) {
+
+        /**
+         * @return arithmetic mean, 0 if empty
+         */
+        public double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.mavenmcp.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event spanning the lifetime of a Maven child process, from starting it until it has
+ * exited and both output streams are drained.
+ */
+@Name(MavenForkEvent.NAME)
+@Label("Maven Process")
+@Category({"Maven MCP"})
+@Description("A Maven child process, from start until it exited and its output was read")
+@StackTrace(false)
+public final class MavenForkEvent extends Event {
+
+    public static final String NAME = "io.github.mavenmcp.MavenFork";
+
+    @Label("Goal")
+    public String goal;
+
+    @Label("Project")
+    public String project;
+
+    @Label("PID")
+    public long pid;
+
+    @Label("Fork Time")
+    @Description("Time to start the process")
+    @Timespan(Timespan.NANOSECONDS)
+    public long forkTime;
+
+    @Label("Exit Code")
+    public int exitCode;
+
+    @Label("Terminated")
+    @Description("Stopped early by a stop condition, e.g. fail-fast")
+    public boolean terminated;
+
+    @Label("Stdout Size")
+    @DataAmount(DataAmount.BYTES)
+    public long stdoutBytes;
+
+    @Label("Stderr Size")
+    @DataAmount(DataAmount.BYTES)
+    public long stderrBytes;
+}
@@ -0,0 +1,156 @@
+package io.github.mavenmcp.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves {@link ServerMetrics} in the Prometheus text exposition format at
+ * {@code http://127.0.0.1:<port>/metrics}, on the JDK's built-in HTTP server so it works with
+ * either MCP transport. Timers are exported as summaries in seconds.
+ */
+public final class PrometheusEndpoint implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PrometheusEndpoint.class);
+
+    /** Path of the metrics endpoint. */
+    public static final String PATH = "/metrics";
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String PREFIX = "maven_mcp_";
+
+    private final HttpServer server;
+
+    private PrometheusEndpoint(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Bind the port and start serving.
+     *
+     * @param port    TCP port on 127.0.0.1; 0 picks a free port
+     * @param metrics the metrics to expose
+     * @return the running endpoint
+     * @throws IOException if the port cannot be bound
+     */
+    public static PrometheusEndpoint start(int port, ServerMetrics metrics) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(PATH, exchange -> respond(exchange, metrics));
+        // The dispatcher thread inherits the daemon flag of the thread starting the server: make it
+        // a daemon so the endpoint does not keep the JVM alive once the stdio client disconnects
+        Thread starter = Thread.ofPlatform().daemon().name("maven-mcp-metrics-start").unstarted(server::start);
+        starter.start();
+        try {
+            starter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        var endpoint = new PrometheusEndpoint(server);
+        log.info("Prometheus metrics at {}", endpoint.uri());
+        return endpoint;
+    }
+
+    /**
+     * @return URL of the metrics endpoint
+     */
+    public URI uri() {
+        return URI.create("http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":"
+                + server.getAddress().getPort() + PATH);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, ServerMetrics metrics) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = render(metrics.snapshot()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * @param stats the metrics snapshot
+     * @return the snapshot in the Prometheus text exposition format (version 0.0.4)
+     */
+    static String render(ServerMetrics.Snapshot stats) {
+        var sb = new StringBuilder();
+        sample(sb, "builds_total", "counter", "Maven processes that finished", stats.builds());
+        sample(sb, "builds_active", "gauge", "Maven processes running now", stats.activeBuilds());
+        sample(sb, "builds_peak", "gauge", "Most Maven processes running at once", stats.peakBuilds());
+        sample(sb, "output_bytes_total", "counter", "Bytes read from Maven stdout and stderr", stats.outputBytes());
+        summary(sb, "fork_seconds", "Time to start a Maven process", null, Map.of("", stats.fork()), h -> h);
+        summary(sb, "build_seconds", "Maven process run time", null, Map.of("", stats.maven()), h -> h);
+        summary(sb, "stage_seconds", "Time per processing stage", "stage", stats.stages(), h -> h);
+        summary(sb, "tool_call_seconds", "Tool call latency", "tool", stats.tools(), ServerMetrics.ToolStats::latency);
+
+        header(sb, "tool_errors_total", "counter", "Tool calls that returned an error result");
+        stats.tools().forEach((tool, t) -> line(sb, "tool_errors_total", label("tool", tool), t.errors()));
+        header(sb, "cache_hits_total", "counter", "Lookups answered from a cache");
+        stats.caches().forEach((cache, c) -> line(sb, "cache_hits_total", label("cache", cache), c.hits()));
+        header(sb, "cache_misses_total", "counter", "Cache lookups that were not answered from the cache");
+        stats.caches().forEach((cache, c) -> line(sb, "cache_misses_total", label("cache", cache), c.misses()));
+        return sb.toString();
+    }
+
+    private static void sample(StringBuilder sb, String name, String type, String help, long value) {
+        header(sb, name, type, help);
+        line(sb, name, "", value);
+    }
+
+    private static <T> void summary(StringBuilder sb, String name, String help, String labelName,
+                                    Map<String, T> series, Function<T, Histogram.Snapshot> histogram) {
+        header(sb, name, "summary", help);
+        series.forEach((labelValue, value) -> {
+            Histogram.Snapshot h = histogram.apply(value);
+            String label = labelName == null ? "" : label(labelName, labelValue);
+            String prefix = label.isEmpty() ? "" : label + ",";
+            line(sb, name, prefix + "quantile=\"0.5\"", seconds(h.p50()));
+            line(sb, name, prefix + "quantile=\"0.9\"", seconds(h.p90()));
+            line(sb, name, prefix + "quantile=\"0.99\"", seconds(h.p99()));
+            line(sb, name + "_sum", label, seconds(h.sum()));
+            line(sb, name + "_count", label, h.count());
+        });
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void line(StringBuilder sb, String name, String labels, Object value) {
+        sb.append(PREFIX).append(name);
+        if (!labels.isEmpty()) {
+            sb.append('{').append(labels).append('}');
+        }
+        sb.append(' ').append(value).append('\n');
+    }
+
+    private static String label(String name, String value) {
+        return name + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+
+    private static String seconds(long micros) {
+        return String.format(Locale.ROOT, "%.6f", micros / 1e6);
+    }
+}
@@ -0,0 +1,203 @@
+package io.github.mavenmcp.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide instrumentation of the hot paths: Maven process start (fork) latency and run
+ * time, output volume, concurrent builds, time per parser stage and tool call, and cache hit
+ * rates.
+ *
+ * <p>All updates are lock-free ({@link LongAdder}, atomics, {@link Histogram}), so recording
+ * costs a few atomic increments per event. Durations are recorded in microseconds.</p>
+ */
+public final class ServerMetrics {
+
+    /** Parsing Maven's compiler output into diagnostics. */
+    public static final String STAGE_COMPILER_OUTPUT = "compiler_output_parse";
+    /** Parsing Surefire XML reports, including failure deduplication. */
+    public static final String STAGE_SUREFIRE_REPORTS = "surefire_report_parse";
+    /** Filtering and truncating failure stack traces. */
+    public static final String STAGE_STACK_TRACES = "stack_trace_processing";
+    /** Fingerprinting sources for the compile result cache. */
+    public static final String STAGE_INPUT_FINGERPRINT = "input_fingerprint";
+    /** Waiting for another call's build in the same project. */
+    public static final String STAGE_BUILD_LOCK_WAIT = "build_lock_wait";
+    /** Rendering the tool response. */
+    public static final String STAGE_RESPONSE_FORMAT = "response_format";
+
+    /** maven_compile results answered without running Maven. */
+    public static final String CACHE_COMPILE_RESULTS = "compile_results";
+    /** Test classes skipped because their inputs are unchanged since they passed. */
+    public static final String CACHE_TEST_CLASSES = "test_classes";
+    /** Stack frame classifications reused within a test run. */
+    public static final String CACHE_STACK_FRAMES = "stack_frames";
+
+    private static final ServerMetrics GLOBAL = new ServerMetrics();
+
+    private final long startNanos = System.nanoTime();
+    private final Histogram forkLatency = new Histogram();
+    private final Histogram mavenDuration = new Histogram();
+    private final LongAdder builds = new LongAdder();
+    private final LongAdder outputBytes = new LongAdder();
+    private final AtomicInteger activeBuilds = new AtomicInteger();
+    private final AtomicInteger peakBuilds = new AtomicInteger();
+    private final Map<String, Histogram> stages = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> toolCalls = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> toolErrors = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder[]> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @return the metrics of this server process
+     */
+    public static ServerMetrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * @param nanos time taken to start a Maven process
+     */
+    public void recordFork(long nanos) {
+        forkLatency.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * A Maven process started; pair with {@link #buildFinished}.
+     */
+    public void buildStarted() {
+        int active = activeBuilds.incrementAndGet();
+        if (active > peakBuilds.get()) {
+            peakBuilds.accumulateAndGet(active, Math::max);
+        }
+    }
+
+    /**
+     * @param durationMillis wall-clock time of the Maven process
+     */
+    public void buildFinished(long durationMillis) {
+        activeBuilds.decrementAndGet();
+        builds.increment();
+        mavenDuration.record(TimeUnit.MILLISECONDS.toMicros(durationMillis));
+    }
+
+    /**
+     * @param bytes bytes read from a Maven process's stdout or stderr
+     */
+    public void recordOutputBytes(long bytes) {
+        outputBytes.add(bytes);
+    }
+
+    /**
+     * @param stage one of the {@code STAGE_} names
+     * @param nanos time spent in the stage
+     */
+    public void recordStage(String stage, long nanos) {
+        stages.computeIfAbsent(stage, name -> new Histogram()).record(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * Run a stage and record its duration, also when it fails.
+     *
+     * @param stage one of the {@code STAGE_} names
+     * @param work  the stage
+     * @return the stage's result
+     */
+    public <T> T time(String stage, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            recordStage(stage, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @param tool  tool name
+     * @param nanos time from receiving the call to its result
+     * @param error true if the result is an error result
+     */
+    public void recordToolCall(String tool, long nanos, boolean error) {
+        // Errors counter first: snapshot() looks it up for every tool with a latency histogram
+        LongAdder errors = toolErrors.computeIfAbsent(tool, name -> new LongAdder());
+        if (error) {
+            errors.increment();
+        }
+        toolCalls.computeIfAbsent(tool, name -> new Histogram()).record(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * @param cache  one of the {@code CACHE_} names
+     * @param hits   lookups answered from the cache
+     * @param misses lookups that were not
+     */
+    public void recordCacheLookups(String cache, long hits, long misses) {
+        LongAdder[] counters = caches.computeIfAbsent(cache, name -> new LongAdder[] {new LongAdder(), new LongAdder()});
+        counters[0].add(hits);
+        counters[1].add(misses);
+    }
+
+    /**
+     * @return the current values, with stages, tools and caches sorted by name
+     */
+    public Snapshot snapshot() {
+        Map<String, Histogram.Snapshot> stageSnapshots = new TreeMap<>();
+        stages.forEach((name, histogram) -> stageSnapshots.put(name, histogram.snapshot()));
+        Map<String, ToolStats> toolSnapshots = new TreeMap<>();
+        toolCalls.forEach((name, histogram) -> toolSnapshots.put(name,
+                new ToolStats(toolErrors.get(name).sum(), histogram.snapshot())));
+        Map<String, CacheStats> cacheSnapshots = new TreeMap<>();
+        caches.forEach((name, counters) -> cacheSnapshots.put(name,
+                new CacheStats(counters[0].sum(), counters[1].sum())));
+        return new Snapshot(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                builds.sum(), activeBuilds.get(), peakBuilds.get(), outputBytes.sum(),
+                forkLatency.snapshot(), mavenDuration.snapshot(),
+                stageSnapshots, toolSnapshots, cacheSnapshots);
+    }
+
+    /**
+     * Point-in-time view of the metrics. Durations are in microseconds.
+     *
+     * @param uptimeMillis time since recording started
+     * @param builds       Maven processes that finished
+     * @param activeBuilds Maven processes running now
+     * @param peakBuilds   most Maven processes running at once
+     * @param outputBytes  bytes read from Maven's stdout and stderr
+     * @param fork         time to start a Maven process
+     * @param maven        Maven process run time
+     * @param stages       time per processing stage
+     * @param tools        latency and errors per tool
+     * @param caches       hits and misses per cache
+     */
+    public record Snapshot(long uptimeMillis, long builds, int activeBuilds, int peakBuilds,
+                           long outputBytes, Histogram.Snapshot fork, Histogram.Snapshot maven,
+                           Map<String, Histogram.Snapshot> stages, Map<String, ToolStats> tools,
+                           Map<String, CacheStats> caches) {
+    }
+
+    /**
+     * @param errors  calls that returned an error result
+     * @param latency call latency
+     */
+    public record ToolStats(long errors, Histogram.Snapshot latency) {
+    }
+
+    /**
+     * @param hits   lookups answered from the cache
+     * @param misses lookups that were not
+     */
+    public record CacheStats(long hits, long misses) {
+
+        /**
+         * @return fraction of lookups answered from the cache, 0 if there were none
+         */
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+}
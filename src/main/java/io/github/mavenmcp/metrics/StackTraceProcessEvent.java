@@ -0,0 +1,32 @@
+package io.github.mavenmcp.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the filtering and truncation of one failure stack trace.
+ */
+@Name(StackTraceProcessEvent.NAME)
+@Label("Stack Trace Processing")
+@Category({"Maven MCP", "Parser"})
+@Description("Filtering and truncating one failure stack trace")
+@StackTrace(false)
+public final class StackTraceProcessEvent extends Event {
+
+    public static final String NAME = "io.github.mavenmcp.StackTraceProcess";
+
+    @Label("Input Length")
+    @Description("Characters of the raw stack trace")
+    public long inputChars;
+
+    @Label("Segments")
+    @Description("The exception and its Caused by chain")
+    public int segments;
+
+    @Label("Output Lines")
+    public int outputLines;
+}
@@ -0,0 +1,36 @@
+package io.github.mavenmcp.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one pass over the Surefire XML reports of a run.
+ */
+@Name(SurefireParseEvent.NAME)
+@Label("Surefire Report Parse")
+@Category({"Maven MCP", "Parser"})
+@Description("Parsing the Surefire XML reports of a test run")
+@StackTrace(false)
+public final class SurefireParseEvent extends Event {
+
+    public static final String NAME = "io.github.mavenmcp.SurefireParse";
+
+    @Label("Report Files")
+    public int reportFiles;
+
+    @Label("Report Size")
+    @DataAmount(DataAmount.BYTES)
+    public long reportBytes;
+
+    @Label("Tests")
+    public int tests;
+
+    @Label("Failures")
+    @Description("Failed and errored tests")
+    public int failures;
+}
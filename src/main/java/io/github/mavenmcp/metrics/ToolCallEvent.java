@@ -0,0 +1,42 @@
+package io.github.mavenmcp.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event spanning one MCP tool call, from receiving it to its result. Asynchronous calls
+ * are committed on the thread that completes them.
+ */
+@Name(ToolCallEvent.NAME)
+@Label("Tool Call")
+@Category({"Maven MCP"})
+@Description("An MCP tool call, from receiving it to its result")
+@StackTrace(false)
+public final class ToolCallEvent extends Event {
+
+    public static final String NAME = "io.github.mavenmcp.ToolCall";
+
+    @Label("Tool")
+    public String tool;
+
+    @Label("Project")
+    @Description("Project directory the call ran in, null if the project was rejected")
+    public String project;
+
+    @Label("Error")
+    @Description("The call returned an error result or threw")
+    public boolean error;
+
+    @Label("Build Lock Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    public long lockWait;
+
+    @Label("Response Length")
+    @Description("Characters of text content in the result")
+    public long responseChars;
+}
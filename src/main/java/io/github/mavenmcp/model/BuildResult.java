@@ -17,6 +17,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
  * @param artifact built artifact info, null unless maven_package succeeds
  * @param output   raw Maven output, only populated on FAILURE
  * @param note     contextual note about execution mode, null when not applicable
+ * @param flakyTests tests that passed only on retry, null unless retries were enabled and some passed
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record BuildResult(
@@ -28,11 +29,20 @@ public record BuildResult(
         List<TestFailure> failures,
         Object artifact,
         String output,
-        String note
+        String note,
+        List<FlakyTest> flakyTests
 ) {
 
+    public BuildResult(String status, long duration, List<CompilationError> errors, List<CompilationError> warnings,
+                       TestSummary summary, List<TestFailure> failures, Object artifact, String output,
+                       String note) {
+        this(status, duration, errors, warnings, summary, failures, artifact, output, note, null);
+    }
+
     /** Status constants */
     public static final String SUCCESS = "SUCCESS";
     public static final String FAILURE = "FAILURE";
     public static final String TIMEOUT = "TIMEOUT";
+    /** Test selection left nothing to run; says nothing about whether the tests pass. */
+    public static final String NO_TESTS = "NO_TESTS";
 }
@@ -10,6 +10,8 @@ import com.fasterxml.jackson.annotation.JsonInclude;
  * @param column   column number (1-based), null if not available
  * @param message  error or warning message
  * @param severity ERROR or WARNING
+ * @param module   reactor module containing the file, relative to the project root
+ *                 (null for single-module projects)
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record CompilationError(
@@ -17,6 +19,15 @@ public record CompilationError(
         int line,
         Integer column,
         String message,
-        String severity
+        String severity,
+        String module
 ) {
+
+    public CompilationError(String file, int line, Integer column, String message, String severity) {
+        this(file, line, column, message, severity, null);
+    }
+
+    public CompilationError withModule(String module) {
+        return new CompilationError(file, line, column, message, severity, module);
+    }
 }
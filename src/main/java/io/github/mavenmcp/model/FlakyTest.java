@@ -0,0 +1,20 @@
+package io.github.mavenmcp.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A test that failed and then passed when Surefire re-ran it.
+ *
+ * @param testClass      fully qualified test class name
+ * @param testMethod     test method name
+ * @param failedAttempts failed attempts before the passing one
+ * @param message        message of the first failed attempt (nullable)
+ * @param flakyRuns      runs in which this test was flaky so far, including this one (nullable if untracked)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FlakyTest(String testClass, String testMethod, int failedAttempts, String message, Integer flakyRuns) {
+
+    public FlakyTest withFlakyRuns(Integer flakyRuns) {
+        return new FlakyTest(testClass, testMethod, failedAttempts, message, flakyRuns);
+    }
+}
@@ -10,15 +10,26 @@ import com.fasterxml.jackson.annotation.JsonInclude;
  * @param message    failure/error message
  * @param stackTrace truncated stack trace (nullable)
  * @param testOutput extracted stdout/stderr from test execution (nullable)
+ * @param module     reactor module the test belongs to, relative to the project root
+ *                   (null for single-module projects)
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
-public record TestFailure(String testClass, String testMethod, String message, String stackTrace, String testOutput) {
+public record TestFailure(String testClass, String testMethod, String message, String stackTrace, String testOutput,
+                          String module) {
+
+    public TestFailure(String testClass, String testMethod, String message, String stackTrace, String testOutput) {
+        this(testClass, testMethod, message, stackTrace, testOutput, null);
+    }
 
     public TestFailure withStackTrace(String stackTrace) {
-        return new TestFailure(testClass, testMethod, message, stackTrace, testOutput);
+        return new TestFailure(testClass, testMethod, message, stackTrace, testOutput, module);
     }
 
     public TestFailure withTestOutput(String testOutput) {
-        return new TestFailure(testClass, testMethod, message, stackTrace, testOutput);
+        return new TestFailure(testClass, testMethod, message, stackTrace, testOutput, module);
+    }
+
+    public TestFailure withModule(String module) {
+        return new TestFailure(testClass, testMethod, message, stackTrace, testOutput, module);
     }
 }
@@ -0,0 +1,141 @@
+package io.github.mavenmcp.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import io.github.mavenmcp.model.TestFailure;
+import io.github.mavenmcp.util.Fnv1a;
+
+/**
+ * Computes a 64-bit fingerprint of a test failure's root cause for deduplication.
+ *
+ * <p>The root cause line (last {@code Caused by:} line, or first line of the message) is
+ * normalized so volatile tokens — UUIDs, timestamps, temp paths, hex ids, IP addresses,
+ * ports and long numbers — do not split otherwise identical failures. The normalized line
+ * is hashed together with the top application frames of the root cause segment
+ * (64-bit FNV-1a).</p>
+ */
+public final class FailureFingerprint {
+
+    /** Number of root cause application frames folded into the fingerprint. */
+    public static final int DEFAULT_APP_FRAMES = 3;
+
+    // Order matters: composite tokens first, plain numbers last
+    private static final Pattern UUID =
+            Pattern.compile("\\b[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\b");
+    private static final Pattern TIMESTAMP =
+            Pattern.compile("\\d{4}-\\d{2}-\\d{2}[T ]\\d{2}:\\d{2}(?::\\d{2}(?:[.,]\\d+)?)?(?:Z|[+-]\\d{2}:?\\d{2})?");
+    private static final Pattern TEMP_PATH =
+            Pattern.compile("(?:/private)?/(?:tmp|var/folders)/[^\\s'\",;\\])}]*"
+                    + "|[A-Za-z]:\\\\[^\\s'\",;]*?\\\\Temp\\\\[^\\s'\",;\\])}]*");
+    private static final Pattern HEX_PREFIXED = Pattern.compile("\\b0x[0-9a-fA-F]+\\b");
+    private static final Pattern IDENTITY_HASH = Pattern.compile("@[0-9a-fA-F]{4,}\\b");
+    private static final Pattern HEX_ID =
+            Pattern.compile("\\b(?=[0-9a-fA-F]*[a-fA-F])(?=[0-9a-fA-F]*\\d)[0-9a-fA-F]{8,}\\b");
+    private static final Pattern IPV4 = Pattern.compile("\\b\\d{1,3}(?:\\.\\d{1,3}){3}\\b");
+    // Ports only after an IP, localhost, an IPv6 literal or a host name; a trailing ')' marks
+    // a source location such as (Foo.java:42), whose line number stays part of the identity
+    private static final Pattern PORT = Pattern.compile(
+            "(?<=<ip>|localhost|]|[\\w-]\\.[A-Za-z]{2,63}):\\d{2,5}\\b(?!\\))");
+    private static final Pattern LONG_NUMBER = Pattern.compile("(?<!\\.[A-Za-z]{1,10}:)\\b\\d{4,}\\b");
+
+    private FailureFingerprint() {
+    }
+
+    /**
+     * Fingerprint a failure using the default number of application frames.
+     *
+     * @param failure    the failure (raw or processed stack trace)
+     * @param frameCache run-scoped frame classification cache
+     * @return 64-bit fingerprint; equal fingerprints mean the same normalized root cause
+     */
+    public static long compute(TestFailure failure, FrameCache frameCache) {
+        return compute(failure.message(), failure.stackTrace(), frameCache, DEFAULT_APP_FRAMES);
+    }
+
+    /**
+     * Fingerprint a failure from its message and stack trace.
+     *
+     * @param message    failure message (nullable)
+     * @param stackTrace raw or processed stack trace (nullable)
+     * @param frameCache run-scoped frame classification cache
+     * @param appFrames  number of root cause application frames to include
+     * @return 64-bit fingerprint
+     */
+    public static long compute(String message, String stackTrace, FrameCache frameCache, int appFrames) {
+        RootCause rootCause = rootCause(message, stackTrace);
+        long hash = Fnv1a.hash(Fnv1a.OFFSET_BASIS, normalize(StackTraceProcessor.truncateHeader(rootCause.header())));
+
+        int included = 0;
+        for (String line : rootCause.frames()) {
+            if (included >= appFrames) {
+                break;
+            }
+            if (!line.strip().startsWith("at ")
+                    || frameCache.classify(line).kind() != FrameCache.Kind.APPLICATION) {
+                continue;
+            }
+            hash = Fnv1a.hash(hash ^ '\n', normalize(line.strip()));
+            included++;
+        }
+        return hash;
+    }
+
+    /**
+     * Locate the root cause: the last {@code Caused by:} line and the frames that follow it,
+     * or the first line of the message (with no frames) if there is no cause chain.
+     * Both null yields an empty header.
+     */
+    static RootCause rootCause(String message, String stackTrace) {
+        if (stackTrace != null) {
+            String[] lines = stackTrace.split("\n");
+            int lastCausedBy = -1;
+            for (int i = 0; i < lines.length; i++) {
+                if (lines[i].strip().startsWith("Caused by:")) {
+                    lastCausedBy = i;
+                }
+            }
+            if (lastCausedBy >= 0) {
+                List<String> frames = new ArrayList<>(lines.length - lastCausedBy - 1);
+                for (int i = lastCausedBy + 1; i < lines.length; i++) {
+                    frames.add(lines[i]);
+                }
+                return new RootCause(lines[lastCausedBy].strip(), frames);
+            }
+        }
+        if (message != null) {
+            int newline = message.indexOf('\n');
+            String firstLine = newline >= 0 ? message.substring(0, newline) : message;
+            return new RootCause(firstLine.strip(), List.of());
+        }
+        return new RootCause("", List.of());
+    }
+
+    /**
+     * Replace volatile tokens with stable placeholders.
+     */
+    static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String result = UUID.matcher(text).replaceAll("<uuid>");
+        result = TIMESTAMP.matcher(result).replaceAll("<timestamp>");
+        result = TEMP_PATH.matcher(result).replaceAll("<tmp>");
+        result = HEX_PREFIXED.matcher(result).replaceAll("<hex>");
+        result = IDENTITY_HASH.matcher(result).replaceAll("@<hex>");
+        result = HEX_ID.matcher(result).replaceAll("<hex>");
+        result = IPV4.matcher(result).replaceAll("<ip>");
+        result = PORT.matcher(result).replaceAll(":<port>");
+        return LONG_NUMBER.matcher(result).replaceAll("<n>");
+    }
+
+    /**
+     * Root cause of a failure.
+     *
+     * @param header root cause line (trimmed), empty if unavailable
+     * @param frames lines following the root cause header, empty for message-only root causes
+     */
+    record RootCause(String header, List<String> frames) {
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.mavenmcp.parser;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import io.github.mavenmcp.model.TestFailure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches a Surefire report directory while tests run and counts distinct root causes.
+ *
+ * <p>Surefire writes one {@code TEST-*.xml} per test class when the class finishes. Each poll
+ * parses reports not seen yet and fingerprints their failures like {@link TestFailureDeduplicator};
+ * a report that cannot be parsed yet (still being written) is retried on the next poll. As a
+ * {@link BooleanSupplier} it is a stop condition for
+ * {@link io.github.mavenmcp.maven.MavenRunner#execute(String, java.util.List, Path, Path, BooleanSupplier)}.</p>
+ *
+ * <p>Thread-safe: parallel shards may poll the same watcher.</p>
+ */
+public final class FailureWatcher implements BooleanSupplier {
+
+    private static final Logger log = LoggerFactory.getLogger(FailureWatcher.class);
+
+    private final List<Path> reportsDirs;
+    private final FrameCache frameCache;
+    private final int maxRootCauses;
+    private final Set<Path> seenReports = new HashSet<>();
+    private final Set<Long> rootCauses = new HashSet<>();
+
+    /**
+     * @param reportsDir    Surefire report directory
+     * @param frameCache    frame cache used to fingerprint root causes
+     * @param maxRootCauses distinct root causes after which {@link #getAsBoolean()} returns true
+     */
+    public FailureWatcher(Path reportsDir, FrameCache frameCache, int maxRootCauses) {
+        this(List.of(reportsDir), frameCache, maxRootCauses);
+    }
+
+    /**
+     * @param reportsDirs   Surefire report directories, e.g. one per parallel shard
+     * @param frameCache    frame cache used to fingerprint root causes
+     * @param maxRootCauses distinct root causes after which {@link #getAsBoolean()} returns true
+     */
+    public FailureWatcher(List<Path> reportsDirs, FrameCache frameCache, int maxRootCauses) {
+        this.reportsDirs = List.copyOf(reportsDirs);
+        this.frameCache = frameCache;
+        this.maxRootCauses = maxRootCauses;
+    }
+
+    /**
+     * Parse new reports.
+     *
+     * @return true once at least {@code maxRootCauses} distinct root causes were seen
+     */
+    @Override
+    public synchronized boolean getAsBoolean() {
+        for (Path reportsDir : reportsDirs) {
+            if (rootCauses.size() >= maxRootCauses) {
+                return true;
+            }
+            scan(reportsDir);
+        }
+        return rootCauses.size() >= maxRootCauses;
+    }
+
+    private void scan(Path reportsDir) {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(reportsDir, "TEST-*.xml")) {
+            for (Path report : stream) {
+                if (seenReports.contains(report)) {
+                    continue;
+                }
+                try {
+                    for (TestFailure failure : SurefireReportParser.parseFailures(report)) {
+                        rootCauses.add(FailureFingerprint.compute(failure, frameCache));
+                    }
+                    seenReports.add(report);
+                } catch (IOException e) {
+                    log.debug("Report {} not readable yet: {}", report.getFileName(), e.getMessage());
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // no report written yet
+        } catch (IOException e) {
+            log.debug("Failed to scan {}: {}", reportsDir, e.getMessage());
+        }
+    }
+
+    /**
+     * @return distinct root causes seen so far
+     */
+    public synchronized int rootCauseCount() {
+        return rootCauses.size();
+    }
+
+    /**
+     * @return true if the stop threshold was reached
+     */
+    public synchronized boolean triggered() {
+        return rootCauses.size() >= maxRootCauses;
+    }
+}
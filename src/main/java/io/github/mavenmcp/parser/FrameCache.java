@@ -0,0 +1,135 @@
+package io.github.mavenmcp.parser;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Run-scoped cache of stack frame classifications.
+ *
+ * <p>Large failing runs repeat the same framework frames ({@code org.springframework...},
+ * {@code org.junit...}, {@code jdk.internal.reflect...}) in nearly every stack trace.
+ * The cache classifies each distinct frame line once and returns an interned {@link Frame}
+ * holding its classification and collapsed rendering, so repeated lines are neither
+ * re-classified nor re-rendered.</p>
+ *
+ * <p>Bounded by an LRU entry limit. Not thread-safe — create one per tool call.</p>
+ */
+public final class FrameCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    private final String appPackage;
+    private final boolean filterFrames;
+    private final Map<String, Frame> frames;
+    private long hits;
+    private long misses;
+
+    /**
+     * @param appPackage application package prefix for frame classification (null/blank = keep all)
+     */
+    public FrameCache(String appPackage) {
+        this(appPackage, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param appPackage application package prefix for frame classification (null/blank = keep all)
+     * @param maxEntries maximum number of distinct frame lines kept before evicting the least recently used
+     */
+    public FrameCache(String appPackage, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.appPackage = appPackage;
+        this.filterFrames = appPackage != null && !appPackage.isBlank();
+        this.frames = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Frame> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the application package prefix this cache classifies against (may be null)
+     */
+    public String appPackage() {
+        return appPackage;
+    }
+
+    /**
+     * @return true if frames are classified by package (false = every frame is kept)
+     */
+    public boolean filtersFrames() {
+        return filterFrames;
+    }
+
+    /**
+     * Classify a frame line, returning the cached result when the same line was seen before.
+     *
+     * @param line raw frame line from a stack trace segment
+     * @return interned classification and rendering for the line
+     */
+    public Frame classify(String line) {
+        Frame frame = frames.get(line);
+        if (frame != null) {
+            hits++;
+            return frame;
+        }
+        misses++;
+        frame = computeFrame(line);
+        frames.put(line, frame);
+        return frame;
+    }
+
+    private Frame computeFrame(String line) {
+        if (StackTraceProcessor.isStructuralLine(line)) {
+            return new Frame(Kind.STRUCTURAL, StackTraceProcessor.truncateHeader(line));
+        }
+        if (StackTraceProcessor.isApplicationFrame(line, appPackage)) {
+            return new Frame(Kind.APPLICATION, line);
+        }
+        return new Frame(Kind.FRAMEWORK, null);
+    }
+
+    /**
+     * @return number of lookups answered from the cache
+     */
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * @return number of lookups that had to classify the line
+     */
+    public long misses() {
+        return misses;
+    }
+
+    /**
+     * @return number of distinct frame lines currently cached
+     */
+    public int size() {
+        return frames.size();
+    }
+
+    /**
+     * Frame classification.
+     */
+    public enum Kind {
+        /** Frame in the application package — always rendered. */
+        APPLICATION,
+        /** Framework frame — collapsed into an "N framework frames omitted" marker. */
+        FRAMEWORK,
+        /** {@code Suppressed:} or indented {@code Caused by:} header — always rendered. */
+        STRUCTURAL
+    }
+
+    /**
+     * A classified frame line.
+     *
+     * @param kind     frame classification
+     * @param rendered line as emitted in processed output, null for collapsed framework frames
+     */
+    public record Frame(Kind kind, String rendered) {
+    }
+}
@@ -3,6 +3,8 @@ package io.github.mavenmcp.parser;
 import java.util.ArrayList;
 import java.util.List;
 
+import io.github.mavenmcp.metrics.StackTraceProcessEvent;
+
 /**
  * Intelligent stack trace processor that preserves root cause and application frames
  * while collapsing framework noise.
@@ -11,6 +13,9 @@ import java.util.List;
  * classifies frames as application or framework by package prefix, collapses
  * consecutive framework frames with summary markers, and always preserves
  * the root cause segment.</p>
+ *
+ * <p>Frame classification goes through a {@link FrameCache}; callers processing many traces
+ * from one run should share a single cache.</p>
  */
 public final class StackTraceProcessor {
 
@@ -32,14 +37,41 @@ public final class StackTraceProcessor {
         if (stackTrace == null || stackTrace.isBlank()) {
             return null;
         }
+        return processWithCache(stackTrace, new FrameCache(appPackage), stackTraceLines);
+    }
 
-        boolean filterFrames = appPackage != null && !appPackage.isBlank();
+    /**
+     * Process a stack trace with intelligent truncation, classifying frames through a shared cache.
+     * Use one {@link FrameCache} across all failures of a run so repeated frames are classified once.
+     *
+     * @param stackTrace      raw stack trace string
+     * @param frameCache      run-scoped frame classification cache (carries the application package)
+     * @param stackTraceLines hard cap on output lines (0 = no cap)
+     * @return processed stack trace, or null if input is null/blank
+     */
+    public static String processWithCache(String stackTrace, FrameCache frameCache, int stackTraceLines) {
+        if (stackTrace == null || stackTrace.isBlank()) {
+            return null;
+        }
+
+        var event = new StackTraceProcessEvent();
+        event.begin();
         List<Segment> segments = parseSegments(stackTrace.strip());
+        String processed = segments.isEmpty()
+                ? stackTrace.strip()
+                : collapse(segments, frameCache, stackTraceLines);
 
-        if (segments.isEmpty()) {
-            return stackTrace.strip();
+        event.end();
+        if (event.shouldCommit()) {
+            event.inputChars = stackTrace.length();
+            event.segments = segments.size();
+            event.outputLines = (int) processed.lines().count();
+            event.commit();
         }
+        return processed;
+    }
 
+    private static String collapse(List<Segment> segments, FrameCache frameCache, int stackTraceLines) {
         List<String> outputLines = new ArrayList<>();
 
         // Always include top-level exception first line
@@ -48,22 +80,22 @@ public final class StackTraceProcessor {
 
         if (segments.size() == 1) {
             // Simple trace — collapse frames from the single segment
-            addCollapsedFrames(outputLines, topLevel.frames, appPackage, filterFrames);
+            addCollapsedFrames(outputLines, topLevel.frames, frameCache);
         } else {
             // Multi-segment: collapse top-level, show chain headers, preserve root cause
-            addCollapsedFrames(outputLines, topLevel.frames, appPackage, filterFrames);
+            addCollapsedFrames(outputLines, topLevel.frames, frameCache);
 
             // Intermediate segments: just header + collapsed frames
             for (int i = 1; i < segments.size() - 1; i++) {
                 Segment seg = segments.get(i);
                 outputLines.add(truncateHeader(seg.header));
-                addCollapsedFrames(outputLines, seg.frames, appPackage, filterFrames);
+                addCollapsedFrames(outputLines, seg.frames, frameCache);
             }
 
             // Root cause: header + up to N application frames (or all if no filtering)
             Segment rootCause = segments.getLast();
             outputLines.add(truncateHeader(rootCause.header));
-            addRootCauseFrames(outputLines, rootCause.frames, appPackage, filterFrames);
+            addRootCauseFrames(outputLines, rootCause.frames, frameCache);
         }
 
         // Apply hard cap
@@ -112,20 +144,21 @@ public final class StackTraceProcessor {
      * Add frames to output, collapsing consecutive framework frames.
      */
     private static void addCollapsedFrames(List<String> output, List<String> frames,
-                                           String appPackage, boolean filterFrames) {
-        if (!filterFrames) {
+                                           FrameCache frameCache) {
+        if (!frameCache.filtersFrames()) {
             output.addAll(frames);
             return;
         }
 
         int frameworkCount = 0;
-        for (String frame : frames) {
-            if (isStructuralLine(frame) || isApplicationFrame(frame, appPackage)) {
+        for (String line : frames) {
+            FrameCache.Frame frame = frameCache.classify(line);
+            if (frame.kind() != FrameCache.Kind.FRAMEWORK) {
                 if (frameworkCount > 0) {
                     output.add("\t... " + frameworkCount + " framework frames omitted");
                     frameworkCount = 0;
                 }
-                output.add(isStructuralLine(frame) ? truncateHeader(frame) : frame);
+                output.add(frame.rendered());
             } else {
                 frameworkCount++;
             }
@@ -139,23 +172,24 @@ public final class StackTraceProcessor {
      * Add root cause frames: preserve up to N application frames, collapse framework.
      */
     private static void addRootCauseFrames(List<String> output, List<String> frames,
-                                           String appPackage, boolean filterFrames) {
-        if (!filterFrames) {
+                                           FrameCache frameCache) {
+        if (!frameCache.filtersFrames()) {
             output.addAll(frames);
             return;
         }
 
         int appFrameCount = 0;
         int frameworkCount = 0;
-        for (String frame : frames) {
-            boolean structural = isStructuralLine(frame);
-            if (structural || isApplicationFrame(frame, appPackage)) {
+        for (String line : frames) {
+            FrameCache.Frame frame = frameCache.classify(line);
+            boolean structural = frame.kind() == FrameCache.Kind.STRUCTURAL;
+            if (frame.kind() != FrameCache.Kind.FRAMEWORK) {
                 if (frameworkCount > 0) {
                     output.add("\t... " + frameworkCount + " framework frames omitted");
                     frameworkCount = 0;
                 }
                 if (structural || appFrameCount < DEFAULT_ROOT_CAUSE_APP_FRAMES) {
-                    output.add(structural ? truncateHeader(frame) : frame);
+                    output.add(frame.rendered());
                     if (!structural) {
                         appFrameCount++;
                     }
@@ -1,14 +1,21 @@
 package io.github.mavenmcp.parser;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import javax.xml.parsers.DocumentBuilder;
 
+import io.github.mavenmcp.metrics.SurefireParseEvent;
+import io.github.mavenmcp.model.FlakyTest;
 import io.github.mavenmcp.model.TestFailure;
 import io.github.mavenmcp.model.TestSummary;
 import org.slf4j.Logger;
@@ -24,7 +31,8 @@ import org.w3c.dom.NodeList;
 public final class SurefireReportParser {
 
     private static final Logger log = LoggerFactory.getLogger(SurefireReportParser.class);
-    private static final String REPORTS_DIR = "target/surefire-reports";
+    /** Surefire report directory relative to the project root. */
+    public static final String REPORTS_DIR = "target/surefire-reports";
     public static final int DEFAULT_STACK_TRACE_LINES = 50;
     public static final int DEFAULT_PER_TEST_OUTPUT_LIMIT = 2000;
     public static final int DEFAULT_TOTAL_OUTPUT_LIMIT = 10000;
@@ -52,23 +60,128 @@ public final class SurefireReportParser {
      */
     public static Optional<SurefireResult> parse(Path projectDir,
                                                   boolean includeTestLogs, int testOutputLimit) {
-        Path reportsDir = projectDir.resolve(REPORTS_DIR);
+        List<TestFailure> failures = new ArrayList<>();
+        List<SuiteResult> suites = new ArrayList<>();
+        List<FlakyTest> flakyTests = new ArrayList<>();
+        return parseReports(unlabeled(List.of(projectDir.resolve(REPORTS_DIR))), includeTestLogs, testOutputLimit,
+                        failures::add, suites, flakyTests)
+                .map(summary -> new SurefireResult(summary, failures, suites, flakyTests));
+    }
 
-        if (!Files.isDirectory(reportsDir)) {
-            log.debug("Surefire reports directory not found: {}", reportsDir);
-            return Optional.empty();
+    /**
+     * Parse Surefire XML reports, deduplicating failures while parsing.
+     * Failures matching an already-seen root cause are folded into their group as they are read,
+     * so only one full failure per distinct root cause is retained.
+     *
+     * @param projectDir      project root directory
+     * @param includeTestLogs whether to extract system-out/system-err from test cases
+     * @param testOutputLimit per-test character limit for extracted output (default 2000)
+     * @param accumulator     deduplicating accumulator receiving every failure
+     * @return parsed test results with deduplicated (raw, unprocessed) failures, or empty if no reports found
+     */
+    public static Optional<SurefireResult> parse(Path projectDir, boolean includeTestLogs, int testOutputLimit,
+                                                  TestFailureDeduplicator.Accumulator accumulator) {
+        return parse(List.of(projectDir.resolve(REPORTS_DIR)), includeTestLogs, testOutputLimit, accumulator);
+    }
+
+    /**
+     * Parse the reports of several report directories as one run, e.g. the per-shard directories
+     * of a parallel run, deduplicating failures across all of them.
+     *
+     * @param reportsDirs     report directories; missing ones are skipped
+     * @param includeTestLogs whether to extract system-out/system-err from test cases
+     * @param testOutputLimit per-test character limit for extracted output (default 2000)
+     * @param accumulator     deduplicating accumulator receiving every failure
+     * @return merged test results with deduplicated (raw, unprocessed) failures, or empty if no reports found
+     */
+    public static Optional<SurefireResult> parse(List<Path> reportsDirs, boolean includeTestLogs,
+                                                  int testOutputLimit,
+                                                  TestFailureDeduplicator.Accumulator accumulator) {
+        return parse(unlabeled(reportsDirs), includeTestLogs, testOutputLimit, accumulator);
+    }
+
+    /**
+     * Parse the reports of a multi-module build as one run, attributing each failure to the
+     * module whose report directory it came from.
+     *
+     * @param moduleReportsDirs report directory → module path ({@code ""} leaves failures unattributed);
+     *                          missing directories are skipped
+     * @param includeTestLogs   whether to extract system-out/system-err from test cases
+     * @param testOutputLimit   per-test character limit for extracted output (default 2000)
+     * @param accumulator       deduplicating accumulator receiving every failure
+     * @return merged test results with deduplicated (raw, unprocessed) failures, or empty if no reports found
+     */
+    public static Optional<SurefireResult> parse(Map<Path, String> moduleReportsDirs, boolean includeTestLogs,
+                                                  int testOutputLimit,
+                                                  TestFailureDeduplicator.Accumulator accumulator) {
+        List<SuiteResult> suites = new ArrayList<>();
+        List<FlakyTest> flakyTests = new ArrayList<>();
+        return parseReports(moduleReportsDirs, includeTestLogs, testOutputLimit, accumulator::add, suites, flakyTests)
+                .map(summary -> new SurefireResult(summary, accumulator.results(), suites, flakyTests));
+    }
+
+    /**
+     * Read the failures and errors of a single report file, without test output. Used to watch
+     * reports while Surefire is still writing them.
+     *
+     * @param reportFile a {@code TEST-*.xml} file
+     * @return failures with raw stack traces, in report order
+     * @throws IOException if the file cannot be read or is not (yet) well-formed
+     */
+    public static List<TestFailure> parseFailures(Path reportFile) throws IOException {
+        List<TestFailure> failures = new ArrayList<>();
+        var outputBudget = new OutputBudget(false, 0);
+        try {
+            Element testsuite = XmlUtils.newSecureDocumentBuilder().parse(reportFile.toFile()).getDocumentElement();
+            List<String> failedTests = new ArrayList<>();
+            extractFailures(testsuite, "failure", outputBudget, failures::add, failedTests);
+            extractFailures(testsuite, "error", outputBudget, failures::add, failedTests);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Malformed report " + reportFile.getFileName() + ": " + e.getMessage(), e);
         }
+        return failures;
+    }
 
-        File[] xmlFiles = reportsDir.toFile().listFiles(
-                (dir, name) -> name.startsWith("TEST-") && name.endsWith(".xml"));
+    private static Map<Path, String> unlabeled(List<Path> reportsDirs) {
+        Map<Path, String> labeled = new LinkedHashMap<>();
+        reportsDirs.forEach(dir -> labeled.put(dir, ""));
+        return labeled;
+    }
 
-        if (xmlFiles == null || xmlFiles.length == 0) {
-            log.debug("No TEST-*.xml files found in {}", reportsDir);
+    private static Optional<TestSummary> parseReports(Map<Path, String> reportsDirs, boolean includeTestLogs,
+                                                      int testOutputLimit, Consumer<TestFailure> sink,
+                                                      List<SuiteResult> suites, List<FlakyTest> flakyTests) {
+        List<File> xmlFiles = new ArrayList<>();
+        Map<File, String> modules = new HashMap<>();
+        for (var entry : reportsDirs.entrySet()) {
+            Path reportsDir = entry.getKey();
+            if (!Files.isDirectory(reportsDir)) {
+                log.debug("Surefire reports directory not found: {}", reportsDir);
+                continue;
+            }
+            File[] files = reportsDir.toFile().listFiles(
+                    (dir, name) -> name.startsWith("TEST-") && name.endsWith(".xml"));
+            if (files != null) {
+                xmlFiles.addAll(List.of(files));
+                if (!entry.getValue().isEmpty()) {
+                    for (File file : files) {
+                        modules.put(file, entry.getValue());
+                    }
+                }
+            }
+        }
+
+        if (xmlFiles.isEmpty()) {
+            log.debug("No TEST-*.xml files found in {}", reportsDirs.keySet());
             return Optional.empty();
         }
 
+        var event = new SurefireParseEvent();
+        event.begin();
         int totalTests = 0, totalFailures = 0, totalErrors = 0, totalSkipped = 0;
-        List<TestFailure> failures = new ArrayList<>();
+        var outputBudget = new OutputBudget(includeTestLogs, testOutputLimit);
 
         try {
             DocumentBuilder builder = XmlUtils.newSecureDocumentBuilder();
@@ -78,15 +191,25 @@ public final class SurefireReportParser {
                     Document doc = builder.parse(xmlFile);
                     Element testsuite = doc.getDocumentElement();
 
-                    totalTests += intAttr(testsuite, "tests");
-                    totalFailures += intAttr(testsuite, "failures");
-                    totalErrors += intAttr(testsuite, "errors");
-                    totalSkipped += intAttr(testsuite, "skipped");
-
+                    List<String> failedTests = new ArrayList<>();
+                    String module = modules.get(xmlFile);
+                    Consumer<TestFailure> fileSink = module == null ? sink : f -> sink.accept(f.withModule(module));
                     // Extract failures
-                    extractFailures(testsuite, "failure", includeTestLogs, testOutputLimit, failures);
+                    extractFailures(testsuite, "failure", outputBudget, fileSink, failedTests);
                     // Extract errors (same structure, different element name)
-                    extractFailures(testsuite, "error", includeTestLogs, testOutputLimit, failures);
+                    extractFailures(testsuite, "error", outputBudget, fileSink, failedTests);
+                    // Tests that passed on a rerun (rerunFailingTestsCount)
+                    extractFlakyTests(testsuite, flakyTests);
+
+                    var suite = new SuiteResult(testsuite.getAttribute("name"),
+                            intAttr(testsuite, "tests"), intAttr(testsuite, "failures"),
+                            intAttr(testsuite, "errors"), intAttr(testsuite, "skipped"),
+                            millisAttr(testsuite, "time"), failedTests);
+                    suites.add(suite);
+                    totalTests += suite.tests();
+                    totalFailures += suite.failures();
+                    totalErrors += suite.errors();
+                    totalSkipped += suite.skipped();
 
                 } catch (Exception e) {
                     log.warn("Failed to parse Surefire report {}: {}", xmlFile.getName(), e.getMessage());
@@ -97,16 +220,20 @@ public final class SurefireReportParser {
             return Optional.empty();
         }
 
-        // Apply total output limit across all failures
-        applyTotalOutputLimit(failures);
-
-        var summary = new TestSummary(totalTests, totalFailures, totalSkipped, totalErrors);
-        return Optional.of(new SurefireResult(summary, failures));
+        event.end();
+        if (event.shouldCommit()) {
+            event.reportFiles = xmlFiles.size();
+            event.reportBytes = xmlFiles.stream().mapToLong(File::length).sum();
+            event.tests = totalTests;
+            event.failures = totalFailures + totalErrors;
+            event.commit();
+        }
+        return Optional.of(new TestSummary(totalTests, totalFailures, totalSkipped, totalErrors));
     }
 
     private static void extractFailures(Element testsuite, String failureElementName,
-                                        boolean includeTestLogs, int testOutputLimit,
-                                        List<TestFailure> results) {
+                                        OutputBudget outputBudget, Consumer<TestFailure> sink,
+                                        List<String> failedTests) {
         NodeList testcases = testsuite.getElementsByTagName("testcase");
         for (int i = 0; i < testcases.getLength(); i++) {
             Element testcase = (Element) testcases.item(i);
@@ -119,14 +246,43 @@ public final class SurefireReportParser {
                 // Raw stack trace — smart truncation is applied by the caller (StackTraceProcessor)
                 String rawTrace = failure.getTextContent();
                 String stackTrace = (rawTrace == null || rawTrace.isBlank()) ? null : rawTrace.strip();
+                String testOutput = outputBudget.extract(testcase);
 
-                String testOutput = null;
-                if (includeTestLogs) {
-                    testOutput = extractTestOutput(testcase, testOutputLimit);
-                }
+                sink.accept(new TestFailure(testClass, testMethod, message, stackTrace, testOutput));
+                failedTests.add(testClass + '#' + testMethod);
+            }
+        }
+    }
 
-                results.add(new TestFailure(testClass, testMethod, message, stackTrace, testOutput));
+    /**
+     * Collect test cases that carry {@code flakyFailure}/{@code flakyError} attempts but no final
+     * {@code failure}/{@code error}, i.e. passed on a rerun. Flaky attempts keep their trace in a
+     * nested {@code stackTrace} element, which is not needed here.
+     */
+    private static void extractFlakyTests(Element testsuite, List<FlakyTest> flakyTests) {
+        NodeList testcases = testsuite.getElementsByTagName("testcase");
+        for (int i = 0; i < testcases.getLength(); i++) {
+            Element testcase = (Element) testcases.item(i);
+            if (testcase.getElementsByTagName("failure").getLength() > 0
+                    || testcase.getElementsByTagName("error").getLength() > 0) {
+                continue;
+            }
+            int attempts = 0;
+            String message = null;
+            NodeList children = testcase.getChildNodes();
+            for (int j = 0; j < children.getLength(); j++) {
+                if (children.item(j) instanceof Element child
+                        && ("flakyFailure".equals(child.getTagName()) || "flakyError".equals(child.getTagName()))) {
+                    if (attempts++ == 0) {
+                        message = child.getAttribute("message");
+                    }
+                }
+            }
+            if (attempts == 0) {
+                continue;
             }
+            flakyTests.add(new FlakyTest(testcase.getAttribute("classname"), testcase.getAttribute("name"),
+                    attempts, message.isEmpty() ? null : truncateMessage(message), null));
         }
     }
 
@@ -195,26 +351,35 @@ public final class SurefireReportParser {
     }
 
     /**
-     * Apply total character limit across all test outputs (default 10000).
-     * When the limit is reached, remaining tests have testOutput set to null.
+     * Running total character limit across all test outputs (default 10000), applied in
+     * encounter order. Once the limit is exceeded, that output and all later ones are dropped
+     * and no further output is extracted.
      */
-    private static void applyTotalOutputLimit(List<TestFailure> failures) {
-        int totalChars = 0;
-        for (int i = 0; i < failures.size(); i++) {
-            TestFailure f = failures.get(i);
-            if (f.testOutput() != null) {
-                totalChars += f.testOutput().length();
+    private static final class OutputBudget {
+
+        private final boolean includeTestLogs;
+        private final int perTestLimit;
+        private boolean exhausted;
+        private int totalChars;
+
+        OutputBudget(boolean includeTestLogs, int perTestLimit) {
+            this.includeTestLogs = includeTestLogs;
+            this.perTestLimit = perTestLimit;
+        }
+
+        String extract(Element testcase) {
+            if (!includeTestLogs || exhausted) {
+                return null;
+            }
+            String output = extractTestOutput(testcase, perTestLimit);
+            if (output != null) {
+                totalChars += output.length();
                 if (totalChars > DEFAULT_TOTAL_OUTPUT_LIMIT) {
-                    // Null out this and remaining testOutputs
-                    for (int j = i; j < failures.size(); j++) {
-                        TestFailure orig = failures.get(j);
-                        if (orig.testOutput() != null) {
-                            failures.set(j, orig.withTestOutput(null));
-                        }
-                    }
-                    break;
+                    exhausted = true;
+                    return null;
                 }
             }
+            return output;
         }
     }
 
@@ -230,9 +395,60 @@ public final class SurefireReportParser {
         }
     }
 
+    /**
+     * Surefire writes durations in seconds, with a grouping separator above 1000 s ({@code 1,234.5}).
+     */
+    private static long millisAttr(Element element, String name) {
+        String value = element.getAttribute(name);
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Math.round(Double.parseDouble(value.replace(",", "")) * 1000);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     /**
      * Result of parsing Surefire reports.
+     *
+     * @param summary  aggregated counts across all suites
+     * @param failures failures and errors (deduplicated when parsed with an accumulator)
+     * @param suites   per-suite (test class) counts, in report order
+     * @param flakyTests tests that failed and then passed on a Surefire rerun, in report order
      */
-    public record SurefireResult(TestSummary summary, List<TestFailure> failures) {
+    public record SurefireResult(TestSummary summary, List<TestFailure> failures, List<SuiteResult> suites,
+                                 List<FlakyTest> flakyTests) {
+
+        public SurefireResult(TestSummary summary, List<TestFailure> failures) {
+            this(summary, failures, List.of(), List.of());
+        }
+    }
+
+    /**
+     * Counts for a single test suite report.
+     *
+     * @param name     suite name — the fully qualified test class name
+     * @param tests    tests run
+     * @param failures assertion failures
+     * @param errors   unexpected errors
+     * @param skipped  skipped tests
+     * @param durationMillis suite run time in milliseconds (0 if not reported)
+     * @param failedTests {@code testClass#testMethod} of every failed or errored test case, in report order
+     */
+    public record SuiteResult(String name, int tests, int failures, int errors, int skipped,
+                              long durationMillis, List<String> failedTests) {
+
+        public SuiteResult(String name, int tests, int failures, int errors, int skipped) {
+            this(name, tests, failures, errors, skipped, 0, List.of());
+        }
+
+        /**
+         * @return true if the suite ran without failures or errors
+         */
+        public boolean passed() {
+            return failures == 0 && errors == 0;
+        }
     }
 }
@@ -1,20 +1,26 @@
 package io.github.mavenmcp.parser;
 
+import io.github.mavenmcp.metrics.DedupEvent;
 import io.github.mavenmcp.model.TestFailure;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
 
 /**
  * Deduplicates test failures that share the same root cause.
  *
- * <p>Groups failures by extracting the deepest {@code Caused by:} line from the stack trace
- * (or the first line of message if no cause chain exists), merging identical groups
- * into a single entry with a consolidated {@code testMethod}, {@code testClass}, and
- * {@code testOutput} field. Singleton groups pass through unchanged.</p>
+ * <p>Groups failures by a {@link FailureFingerprint} of their root cause — the deepest
+ * {@code Caused by:} line from the stack trace (or the first line of message if no cause chain
+ * exists) with volatile tokens normalized, combined with the top root cause application frames.
+ * Identical groups are merged into a single entry with a consolidated {@code testMethod},
+ * {@code testClass}, and {@code testOutput} field. Singleton groups pass through unchanged.</p>
+ *
+ * <p>Grouping is incremental via {@link Accumulator}, so {@link SurefireReportParser} can
+ * deduplicate while parsing without materializing every failure.</p>
  */
 public final class TestFailureDeduplicator {
 
@@ -25,101 +31,179 @@ public final class TestFailureDeduplicator {
     }
 
     /**
-     * Deduplicate a list of test failures by grouping on root cause.
-     * Root cause is the last {@code Caused by:} line from the stack trace,
-     * or the first line of message if no Caused by chain exists.
+     * Deduplicate a list of test failures by grouping on root cause fingerprint.
+     * Every stack frame counts as an application frame.
      *
      * @param failures the original list of test failures
      * @return deduplicated list preserving first-occurrence order
      */
     public static List<TestFailure> deduplicate(List<TestFailure> failures) {
+        return deduplicate(failures, new FrameCache(null));
+    }
+
+    /**
+     * Deduplicate a list of test failures by grouping on root cause fingerprint.
+     * Grouping is a single pass over the failures keyed by 64-bit fingerprints.
+     *
+     * @param failures   the original list of test failures
+     * @param frameCache run-scoped frame cache used to pick root cause application frames
+     * @return deduplicated list preserving first-occurrence order
+     */
+    public static List<TestFailure> deduplicate(List<TestFailure> failures, FrameCache frameCache) {
         if (failures == null || failures.size() <= 1) {
             return failures;
         }
 
-        Map<String, List<TestFailure>> groups = new LinkedHashMap<>();
-        for (TestFailure failure : failures) {
-            var key = extractRootCauseKey(failure);
-            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(failure);
-        }
+        var accumulator = new Accumulator(frameCache);
+        failures.forEach(accumulator::add);
 
-        if (groups.size() == failures.size()) {
+        if (accumulator.groupCount() == failures.size()) {
             return failures;
         }
+        return accumulator.results();
+    }
 
-        List<TestFailure> result = new ArrayList<>(groups.size());
-        for (List<TestFailure> group : groups.values()) {
-            if (group.size() == 1) {
-                result.add(group.getFirst());
-            } else {
-                result.add(merge(group));
-            }
+    private static String summarize(List<String> first, int total) {
+        if (total <= SUMMARY_THRESHOLD) {
+            return String.join(", ", first);
         }
-        return result;
+        return String.join(", ", first) + " (+" + (total - SUMMARY_THRESHOLD) + " more)";
     }
 
-    private static TestFailure merge(List<TestFailure> group) {
-        TestFailure first = group.getFirst();
-
-        String testMethod = summarize(
-                group.stream().map(TestFailure::testMethod).toList());
-        String testClass = summarizeDistinct(
-                group.stream().map(TestFailure::testClass).toList());
-        String testOutput = mergeTestOutput(group);
+    private static String summarizeDistinct(Set<String> distinct) {
+        if (distinct.size() == 1) {
+            return distinct.iterator().next();
+        }
+        List<String> first = distinct.stream().limit(SUMMARY_THRESHOLD).toList();
+        return summarize(first, distinct.size());
+    }
 
-        return new TestFailure(testClass, testMethod, first.message(), first.stackTrace(), testOutput);
+    /**
+     * Extract the raw dedup key: last "Caused by:" line from stackTrace,
+     * or first line of message if no Caused by chain. The fingerprint is
+     * computed from this line after normalization.
+     */
+    static String extractRootCauseKey(TestFailure failure) {
+        return FailureFingerprint.rootCause(failure.message(), failure.stackTrace()).header();
     }
 
-    private static String summarize(List<String> items) {
-        if (items.size() <= SUMMARY_THRESHOLD) {
-            return String.join(", ", items);
+    /**
+     * Incremental deduplicator. Each failure is fingerprinted on arrival; a failure matching
+     * an existing group only contributes its method name, class name and test output —
+     * its stack trace is not retained. Memory is bounded by the number of distinct root causes
+     * (plus test output, which callers bound separately).
+     *
+     * <p>Not thread-safe.</p>
+     */
+    public static final class Accumulator {
+
+        private final FrameCache frameCache;
+        private final Map<Long, Group> groups = new LinkedHashMap<>();
+        private final DedupEvent event = new DedupEvent();
+        /** Fingerprinting is timed only while a recording takes {@link DedupEvent}s. */
+        private final boolean timed = event.isEnabled();
+        private int failureCount;
+
+        /**
+         * @param frameCache run-scoped frame cache used to pick root cause application frames
+         */
+        public Accumulator(FrameCache frameCache) {
+            this.frameCache = frameCache;
         }
-        List<String> first = items.subList(0, SUMMARY_THRESHOLD);
-        return String.join(", ", first) + " (+" + (items.size() - SUMMARY_THRESHOLD) + " more)";
-    }
 
-    private static String summarizeDistinct(List<String> items) {
-        List<String> distinct = items.stream().distinct().toList();
-        if (distinct.size() == 1) {
-            return distinct.getFirst();
+        /**
+         * Add a failure, merging it into an existing group when the root cause fingerprint matches.
+         *
+         * @param failure the failure, with raw or processed stack trace
+         */
+        public void add(TestFailure failure) {
+            failureCount++;
+            long start = timed ? System.nanoTime() : 0;
+            long fingerprint = FailureFingerprint.compute(failure, frameCache);
+            if (timed) {
+                event.fingerprintTime += System.nanoTime() - start;
+            }
+            Group group = groups.get(fingerprint);
+            if (group == null) {
+                groups.put(fingerprint, new Group(failure));
+            } else {
+                group.add(failure);
+            }
         }
-        return summarize(distinct);
-    }
 
-    private static String mergeTestOutput(List<TestFailure> group) {
-        List<String> outputs = group.stream()
-                .map(TestFailure::testOutput)
-                .filter(Objects::nonNull)
-                .toList();
-        if (outputs.isEmpty()) {
-            return null;
+        /**
+         * @return number of failures added so far
+         */
+        public int failureCount() {
+            return failureCount;
+        }
+
+        /**
+         * @return number of distinct root causes seen so far
+         */
+        public int groupCount() {
+            return groups.size();
+        }
+
+        /**
+         * @return one entry per distinct root cause, in first-occurrence order
+         */
+        public List<TestFailure> results() {
+            event.begin();
+            List<TestFailure> result = new ArrayList<>(groups.size());
+            for (Group group : groups.values()) {
+                result.add(group.toFailure());
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.failures = failureCount;
+                event.groups = groups.size();
+                event.commit();
+            }
+            return result;
         }
-        return String.join(TEST_OUTPUT_SEPARATOR, outputs);
     }
 
     /**
-     * Extract the dedup key: last "Caused by:" line from stackTrace,
-     * or first line of message if no Caused by chain.
+     * A group of failures sharing a fingerprint. Keeps the first failure in full,
+     * the first {@link #SUMMARY_THRESHOLD} method names, distinct class and module names and test outputs.
      */
-    static String extractRootCauseKey(TestFailure failure) {
-        String stackTrace = failure.stackTrace();
-        if (stackTrace != null) {
-            String lastCausedBy = null;
-            for (String line : stackTrace.split("\n")) {
-                String stripped = line.strip();
-                if (stripped.startsWith("Caused by:")) {
-                    lastCausedBy = stripped;
-                }
+    private static final class Group {
+
+        private final TestFailure first;
+        private final List<String> methods = new ArrayList<>(SUMMARY_THRESHOLD);
+        private final Set<String> classes = new LinkedHashSet<>();
+        private final Set<String> modules = new LinkedHashSet<>();
+        private final List<String> outputs = new ArrayList<>();
+        private int size;
+
+        Group(TestFailure first) {
+            this.first = first;
+            add(first);
+        }
+
+        void add(TestFailure failure) {
+            size++;
+            if (methods.size() < SUMMARY_THRESHOLD) {
+                methods.add(failure.testMethod());
+            }
+            classes.add(failure.testClass());
+            if (failure.module() != null) {
+                modules.add(failure.module());
             }
-            if (lastCausedBy != null) {
-                return lastCausedBy;
+            if (failure.testOutput() != null) {
+                outputs.add(failure.testOutput());
             }
         }
-        String message = failure.message();
-        if (message != null) {
-            int newline = message.indexOf('\n');
-            return newline >= 0 ? message.substring(0, newline).strip() : message.strip();
+
+        TestFailure toFailure() {
+            if (size == 1) {
+                return first;
+            }
+            String testOutput = outputs.isEmpty() ? null : String.join(TEST_OUTPUT_SEPARATOR, outputs);
+            return new TestFailure(summarizeDistinct(classes), summarize(methods, size),
+                    first.message(), first.stackTrace(), testOutput,
+                    modules.isEmpty() ? null : String.join(", ", modules));
         }
-        return "";
     }
 }
@@ -1,15 +1,17 @@
 package io.github.mavenmcp.tool;
 
 import java.util.List;
+import java.util.Map;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.config.ProjectRegistry;
 import io.github.mavenmcp.config.ServerConfig;
-import io.github.mavenmcp.formatter.MarkdownFormatter;
 import io.github.mavenmcp.maven.MavenExecutionException;
 import io.github.mavenmcp.maven.MavenExecutionResult;
 import io.github.mavenmcp.maven.MavenRunner;
 import io.github.mavenmcp.model.BuildResult;
 import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
+import io.modelcontextprotocol.server.McpServerFeatures.AsyncToolSpecification;
 import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
 import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
 import io.modelcontextprotocol.spec.McpSchema.TextContent;
@@ -34,6 +36,15 @@ public final class CleanTool {
                   "type": "array",
                   "items": { "type": "string" },
                   "description": "Additional Maven CLI arguments"
+                },
+                "project": {
+                  "type": "string",
+                  "description": "Project root to run in, absolute or relative to the server's project (default: the server's project). Other roots require the server's --multi-project mode."
+                },
+                "format": {
+                  "type": "string",
+                  "enum": ["markdown", "json"],
+                  "description": "Response format (default: markdown). json returns the full result as JSON text and structuredContent."
                 }
               }
             }
@@ -44,15 +55,15 @@ public final class CleanTool {
 
     public static SyncToolSpecification create(ServerConfig config, MavenRunner runner,
                                                ObjectMapper objectMapper) {
-        var jsonMapper = new JacksonMcpJsonMapper(objectMapper);
-        Tool tool = Tool.builder()
-                .name(TOOL_NAME)
-                .description(DESCRIPTION)
-                .inputSchema(jsonMapper, INPUT_SCHEMA)
-                .build();
+        return create(ProjectRegistry.single(config), runner, objectMapper);
+    }
+
+    public static SyncToolSpecification create(ProjectRegistry projects, MavenRunner runner,
+                                               ObjectMapper objectMapper) {
         return new SyncToolSpecification(
-                tool,
-                (exchange, params) -> {
+                tool(objectMapper),
+                (exchange, params) -> ToolUtils.inProject(projects, params, TOOL_NAME, project -> {
+                    ServerConfig config = project.config();
                     try {
                         List<String> args = ToolUtils.extractArgs(params);
                         log.info("maven_clean called with args: {}", args);
@@ -61,16 +72,7 @@ public final class CleanTool {
                                 "clean", args,
                                 config.mavenExecutable(), config.projectDir());
 
-                        String status = execResult.isSuccess() ? BuildResult.SUCCESS : BuildResult.FAILURE;
-                        String output = execResult.isSuccess() ? null
-                                : ToolUtils.tailLines(execResult.stdout(), ToolUtils.DEFAULT_OUTPUT_TAIL_LINES);
-
-                        var buildResult = new BuildResult(
-                                status, execResult.duration(),
-                                null, null, null, null, null, output, null);
-
-                        String markdown = MarkdownFormatter.format(buildResult, "Clean");
-                        return new CallToolResult(List.of(new TextContent(markdown)), false);
+                        return toCallToolResult(execResult, params, objectMapper);
 
                     } catch (MavenExecutionException e) {
                         log.error("maven_clean failed: {}", e.getMessage());
@@ -81,7 +83,51 @@ public final class CleanTool {
                         return new CallToolResult(
                                 List.of(new TextContent("Internal error: " + e.getMessage())), true);
                     }
-                }
+                })
         );
     }
+
+    /**
+     * Non-blocking variant for the async server: the result is produced when the Maven process
+     * exits.
+     */
+    public static AsyncToolSpecification createAsync(ProjectRegistry projects, MavenRunner runner,
+                                                     ObjectMapper objectMapper) {
+        return AsyncToolSpecification.builder()
+                .tool(tool(objectMapper))
+                .callHandler((exchange, request) -> {
+                    Map<String, Object> params = request.arguments();
+                    return ToolUtils.inProjectAsync(projects, params, TOOL_NAME, project -> {
+                        ServerConfig config = project.config();
+                        List<String> args = ToolUtils.extractArgs(params);
+                        log.info("maven_clean called with args: {}", args);
+
+                        return runner.executeAsync("clean", args, config.mavenExecutable(), config.projectDir())
+                                .thenApplyAsync(execResult -> toCallToolResult(execResult, params, objectMapper),
+                                        ToolUtils.ASYNC_STEPS);
+                    });
+                })
+                .build();
+    }
+
+    private static Tool tool(ObjectMapper objectMapper) {
+        return Tool.builder()
+                .name(TOOL_NAME)
+                .description(DESCRIPTION)
+                .inputSchema(new JacksonMcpJsonMapper(objectMapper), INPUT_SCHEMA)
+                .build();
+    }
+
+    private static CallToolResult toCallToolResult(MavenExecutionResult execResult, Map<String, Object> params,
+                                                   ObjectMapper objectMapper) {
+        String status = execResult.isSuccess() ? BuildResult.SUCCESS : BuildResult.FAILURE;
+        String output = execResult.isSuccess() ? null
+                : ToolUtils.tailLines(execResult.stdout(), ToolUtils.DEFAULT_OUTPUT_TAIL_LINES);
+
+        var buildResult = new BuildResult(
+                status, execResult.duration(),
+                null, null, null, null, null, output, null);
+
+        return ToolUtils.toCallToolResult(buildResult, "Clean", params, objectMapper);
+    }
 }
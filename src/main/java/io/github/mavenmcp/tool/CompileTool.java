@@ -1,16 +1,28 @@
 package io.github.mavenmcp.tool;
 
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.analysis.ReactorGraph;
+import io.github.mavenmcp.cache.BuildEnvironment;
+import io.github.mavenmcp.cache.BuildResultCache;
+import io.github.mavenmcp.cache.InputFingerprint;
+import io.github.mavenmcp.config.ProjectRegistry;
 import io.github.mavenmcp.config.ServerConfig;
-import io.github.mavenmcp.formatter.MarkdownFormatter;
 import io.github.mavenmcp.maven.MavenExecutionException;
 import io.github.mavenmcp.maven.MavenExecutionResult;
 import io.github.mavenmcp.maven.MavenRunner;
+import io.github.mavenmcp.metrics.ServerMetrics;
 import io.github.mavenmcp.model.BuildResult;
+import io.github.mavenmcp.model.CompilationError;
 import io.github.mavenmcp.parser.CompilationOutputParser;
+import io.github.mavenmcp.util.Fnv1a;
 import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
+import io.modelcontextprotocol.server.McpServerFeatures.AsyncToolSpecification;
 import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
 import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
 import io.modelcontextprotocol.spec.McpSchema.TextContent;
@@ -36,6 +48,31 @@ public final class CompileTool {
                   "type": "array",
                   "items": { "type": "string" },
                   "description": "Additional Maven CLI arguments (e.g. [\\"-DskipFrontend\\", \\"-Pdev\\"])"
+                },
+                "useCache": {
+                  "type": "boolean",
+                  "description": "Return the previous result when src/, .mvn/, POMs (including parents outside the project), SNAPSHOT dependencies in the local repository, settings.xml, MAVEN_OPTS, the Maven executable and args are unchanged since the last compile (default: true). Set to false to force a Maven run."
+                },
+                "affectedModules": {
+                  "type": "boolean",
+                  "description": "Multi-module projects: build only the modules containing changed files (uncommitted git changes vs HEAD, or files modified since the last maven_test run outside git) and the modules depending on them, via -pl <modules> -amd (default: false). The module graph is read from the POMs and cached until a POM changes. Ignored if args already select projects."
+                },
+                "threads": {
+                  "type": ["integer", "string"],
+                  "description": "Multi-module projects: build modules in parallel with Maven -T. \\"auto\\" sizes the thread count from available cores, physical memory (~1 GiB per thread) and the number of modules; an integer sets it. Diagnostics are attributed to modules and grouped by module. Ignored if args already contain -T."
+                },
+                "maxOutputTokens": {
+                  "type": "integer",
+                  "description": "Approximate token budget for the response (default: 10000). 0 disables the budget."
+                },
+                "project": {
+                  "type": "string",
+                  "description": "Project root to run in, absolute or relative to the server's project (default: the server's project). Other roots require the server's --multi-project mode."
+                },
+                "format": {
+                  "type": "string",
+                  "enum": ["markdown", "json"],
+                  "description": "Response format (default: markdown). json returns the full result as JSON text and structuredContent."
                 }
               }
             }
@@ -46,39 +83,31 @@ public final class CompileTool {
 
     public static SyncToolSpecification create(ServerConfig config, MavenRunner runner,
                                                ObjectMapper objectMapper) {
-        var jsonMapper = new JacksonMcpJsonMapper(objectMapper);
-        Tool tool = Tool.builder()
-                .name(TOOL_NAME)
-                .description(DESCRIPTION)
-                .inputSchema(jsonMapper, INPUT_SCHEMA)
-                .build();
+        return create(ProjectRegistry.single(config), runner, objectMapper);
+    }
+
+    static SyncToolSpecification create(ServerConfig config, MavenRunner runner,
+                                        ObjectMapper objectMapper, BuildResultCache cache) {
+        return create(ProjectRegistry.single(config, cache), runner, objectMapper);
+    }
+
+    public static SyncToolSpecification create(ProjectRegistry projects, MavenRunner runner,
+                                               ObjectMapper objectMapper) {
         return new SyncToolSpecification(
-                tool,
-                (exchange, params) -> {
+                tool(objectMapper),
+                (exchange, params) -> ToolUtils.inProject(projects, params, TOOL_NAME, project -> {
+                    ServerConfig config = project.config();
                     try {
-                        List<String> args = ToolUtils.extractArgs(params);
-                        log.info("maven_compile called with args: {}", args);
+                        Prepared prepared = prepare(project, params, objectMapper);
+                        if (prepared.immediate() != null) {
+                            return prepared.immediate();
+                        }
 
                         MavenExecutionResult execResult = runner.execute(
-                                "compile", args,
+                                "compile", prepared.args(),
                                 config.mavenExecutable(), config.projectDir());
 
-                        // Parse compilation output
-                        var parseResult = CompilationOutputParser.parse(
-                                execResult.stdout(), config.projectDir());
-
-                        String status = execResult.isSuccess() ? BuildResult.SUCCESS : BuildResult.FAILURE;
-                        // Tail of raw output only on failure
-                        String output = execResult.isSuccess() ? null
-                                : ToolUtils.tailLines(execResult.stdout(), ToolUtils.DEFAULT_OUTPUT_TAIL_LINES);
-
-                        var buildResult = new BuildResult(
-                                status, execResult.duration(),
-                                parseResult.errors(), parseResult.warnings(),
-                                null, null, null, output, null);
-
-                        String markdown = MarkdownFormatter.format(buildResult, "Compile");
-                        return new CallToolResult(List.of(new TextContent(markdown)), false);
+                        return complete(project, prepared, execResult, params, objectMapper);
 
                     } catch (MavenExecutionException e) {
                         log.error("maven_compile failed: {}", e.getMessage());
@@ -89,7 +118,168 @@ public final class CompileTool {
                         return new CallToolResult(
                                 List.of(new TextContent("Internal error: " + e.getMessage())), true);
                     }
-                }
+                })
         );
     }
+
+    /**
+     * Non-blocking variant for the async server: the result is produced when the Maven process
+     * exits.
+     */
+    public static AsyncToolSpecification createAsync(ProjectRegistry projects, MavenRunner runner,
+                                                     ObjectMapper objectMapper) {
+        return AsyncToolSpecification.builder()
+                .tool(tool(objectMapper))
+                .callHandler((exchange, request) -> {
+                    Map<String, Object> params = request.arguments();
+                    return ToolUtils.inProjectAsync(projects, params, TOOL_NAME, project -> {
+                        ServerConfig config = project.config();
+                        Prepared prepared = prepare(project, params, objectMapper);
+                        if (prepared.immediate() != null) {
+                            return CompletableFuture.completedFuture(prepared.immediate());
+                        }
+                        return runner.executeAsync("compile", prepared.args(), config.mavenExecutable(),
+                                        config.projectDir())
+                                .thenApplyAsync(
+                                        execResult -> complete(project, prepared, execResult, params, objectMapper),
+                                        ToolUtils.ASYNC_STEPS);
+                    });
+                })
+                .build();
+    }
+
+    private static Tool tool(ObjectMapper objectMapper) {
+        return Tool.builder()
+                .name(TOOL_NAME)
+                .description(DESCRIPTION)
+                .inputSchema(new JacksonMcpJsonMapper(objectMapper), INPUT_SCHEMA)
+                .build();
+    }
+
+    /**
+     * Resolve the Maven arguments and answer from the cache or module selection if possible.
+     */
+    private static Prepared prepare(ProjectRegistry.Project project, Map<String, Object> params,
+                                    ObjectMapper objectMapper) {
+        ServerConfig config = project.config();
+        boolean useCache = ToolUtils.extractBoolean(params, "useCache", true);
+        var modules = ModuleSelection.apply(params, config.projectDir(), ToolUtils.extractArgs(params));
+        var threads = ParallelBuild.apply(params, config.projectDir(), modules.args());
+        List<String> args = threads.args();
+        String note = ToolUtils.appendNote(modules.note(), threads.note());
+        log.info("maven_compile called with args: {}, useCache: {}", args, useCache);
+
+        if (modules.nothingToBuild()) {
+            return Prepared.answered(ToolUtils.toCallToolResult(new BuildResult(BuildResult.SUCCESS, 0,
+                    null, null, null, null, null, null, modules.note()), "Compile", params, objectMapper));
+        }
+
+        Optional<InputFingerprint> before = useCache
+                ? ServerMetrics.global().time(ServerMetrics.STAGE_INPUT_FINGERPRINT,
+                        () -> InputFingerprint.compute(config.projectDir()))
+                : Optional.empty();
+        // Inputs outside the project tree are part of the key, not of the fingerprint
+        long argsHash = before.isEmpty() ? 0 : Fnv1a.hash(InputFingerprint.hashArgs(args),
+                BuildEnvironment.hash(config.projectDir(), config.mavenExecutable(), args, System.getenv(),
+                        Path.of(System.getProperty("user.home"))));
+        if (before.isPresent()) {
+            Optional<BuildResult> cached = project.buildCache().get(before.get(), argsHash);
+            ServerMetrics.global().recordCacheLookups(ServerMetrics.CACHE_COMPILE_RESULTS, cached.isPresent() ? 1 : 0,
+                    cached.isPresent() ? 0 : 1);
+            if (cached.isPresent()) {
+                log.info("maven_compile served from cache");
+                return Prepared.answered(ToolUtils.toCallToolResult(withCacheNote(cached.get()), "Compile",
+                        params, objectMapper));
+            }
+        }
+        return new Prepared(args, note, argsHash, before, null);
+    }
+
+    /**
+     * Turn the Maven run into the tool result, caching it when deterministic.
+     */
+    private static CallToolResult complete(ProjectRegistry.Project project, Prepared prepared,
+                                           MavenExecutionResult execResult, Map<String, Object> params,
+                                           ObjectMapper objectMapper) {
+        ServerConfig config = project.config();
+
+        // Parse compilation output
+        var parseResult = ServerMetrics.global().time(ServerMetrics.STAGE_COMPILER_OUTPUT,
+                () -> CompilationOutputParser.parse(execResult.stdout(), config.projectDir()));
+        // Interleaved -T output: attribute diagnostics by file path, not by log position
+        Optional<ReactorGraph> reactor = ReactorGraph.load(config.projectDir())
+                .filter(ReactorGraph::isMultiModule);
+        List<CompilationError> errors = attributeModules(parseResult.errors(), reactor);
+        List<CompilationError> warnings = attributeModules(parseResult.warnings(), reactor);
+
+        String status = execResult.isSuccess() ? BuildResult.SUCCESS : BuildResult.FAILURE;
+        // Tail of raw output only on failure
+        String output = execResult.isSuccess() ? null
+                : ToolUtils.tailLines(execResult.stdout(), ToolUtils.DEFAULT_OUTPUT_TAIL_LINES);
+
+        var buildResult = new BuildResult(
+                status, execResult.duration(),
+                errors, warnings,
+                null, null, null, output, prepared.note());
+
+        Optional<InputFingerprint> before = prepared.before();
+        if (before.isPresent() && isCacheable(buildResult)) {
+            // Key on the post-run fingerprint (fresh target/classes), but only if
+            // sources did not change while Maven was running
+            InputFingerprint.compute(config.projectDir())
+                    .filter(after -> after.sources() == before.get().sources())
+                    .ifPresent(after -> project.buildCache().put(after, prepared.argsHash(), buildResult));
+        }
+
+        return ToolUtils.toCallToolResult(buildResult, "Compile", params, objectMapper);
+    }
+
+    /**
+     * A compile call before Maven runs.
+     *
+     * @param args      Maven arguments
+     * @param note      note for the response, may be null
+     * @param argsHash  cache key part for the arguments
+     * @param before    input fingerprint before the run, empty if the cache is not used
+     * @param immediate result answered without running Maven, or null
+     */
+    private record Prepared(List<String> args, String note, long argsHash,
+                            Optional<InputFingerprint> before, CallToolResult immediate) {
+
+        static Prepared answered(CallToolResult result) {
+            return new Prepared(List.of(), null, 0, Optional.empty(), result);
+        }
+    }
+
+    /**
+     * Tag each diagnostic with the reactor module containing its file.
+     */
+    static List<CompilationError> attributeModules(List<CompilationError> diagnostics,
+                                                   Optional<ReactorGraph> reactor) {
+        if (diagnostics == null || reactor.isEmpty()) {
+            return diagnostics;
+        }
+        return diagnostics.stream()
+                .map(d -> d.file() == null ? d : d.withModule(reactor.get().moduleOf(d.file()).orElse(null)))
+                .toList();
+    }
+
+    /**
+     * Only deterministic outcomes are cached: success, or failure with parsed compilation errors.
+     * Failures without errors (dependency resolution, plugin crashes) may be transient.
+     */
+    private static boolean isCacheable(BuildResult result) {
+        return BuildResult.SUCCESS.equals(result.status())
+                || (BuildResult.FAILURE.equals(result.status())
+                    && result.errors() != null && !result.errors().isEmpty());
+    }
+
+    private static BuildResult withCacheNote(BuildResult result) {
+        return new BuildResult(result.status(), result.duration(),
+                result.errors(), result.warnings(), result.summary(), result.failures(),
+                result.artifact(), result.output(),
+                ToolUtils.appendNote(result.note(), "Cached result — src/, .mvn/, POMs, args, "
+                        + BuildEnvironment.COVERED + " are unchanged since the previous compile. "
+                        + "Set useCache=false to force a Maven run."));
+    }
 }
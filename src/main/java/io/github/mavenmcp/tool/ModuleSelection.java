@@ -0,0 +1,92 @@
+package io.github.mavenmcp.tool;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import io.github.mavenmcp.analysis.ChangeDetector;
+import io.github.mavenmcp.analysis.ReactorGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reactor-aware module selection for the {@code affectedModules} parameter of maven_compile and
+ * maven_test: changed files are mapped to reactor modules and turned into {@code -pl <modules> -amd}.
+ */
+final class ModuleSelection {
+
+    private static final Logger log = LoggerFactory.getLogger(ModuleSelection.class);
+
+    /** Tool parameter enabling the selection. */
+    static final String PARAM = "affectedModules";
+
+    private ModuleSelection() {
+    }
+
+    /**
+     * Outcome of the selection.
+     *
+     * @param args           Maven arguments, with {@code -pl ... -amd} appended if modules were selected
+     * @param note           explanation for the response, or null if the parameter was not set
+     * @param nothingToBuild true if no module changed, so Maven need not run at all
+     */
+    record Decision(List<String> args, String note, boolean nothingToBuild) {
+    }
+
+    /**
+     * Apply the selection if the caller asked for it.
+     *
+     * @param params     the tool call parameters map
+     * @param projectDir project root
+     * @param args       Maven arguments so far
+     * @return the decision; args are unchanged unless modules were selected
+     */
+    static Decision apply(Map<String, Object> params, Path projectDir, List<String> args) {
+        if (!ToolUtils.extractBoolean(params, PARAM, false)) {
+            return new Decision(args, null, false);
+        }
+        if (selectsProjects(args)) {
+            return new Decision(args, "affectedModules was ignored: args already select projects.", false);
+        }
+        Optional<ReactorGraph> graph = ReactorGraph.load(projectDir);
+        if (graph.isEmpty()) {
+            return new Decision(args, "affectedModules: the reactor POMs could not be read — ran all modules.", false);
+        }
+        if (!graph.get().isMultiModule()) {
+            return new Decision(args, "affectedModules was ignored: pom.xml declares no modules.", false);
+        }
+        int total = graph.get().modules().size() - 1;
+        Optional<ChangeDetector.ChangeSet> changes = ChangeDetector.detect(projectDir, graph.get().modules().keySet());
+        if (changes.isEmpty()) {
+            return new Decision(args, "affectedModules: changed files unknown (no git work tree and no previous "
+                    + "maven_test run) — ran all " + total + " modules.", false);
+        }
+        ReactorGraph.Selection selection = graph.get().select(changes.get().files());
+        if (selection.fullBuild()) {
+            return new Decision(args, "affectedModules: root pom.xml, .mvn/ or root sources changed — ran all "
+                    + total + " modules.", false);
+        }
+        if (selection.changed().isEmpty()) {
+            return new Decision(args, "affectedModules: no module changed (" + changes.get().method()
+                    + ") — Maven was not run. Set affectedModules=false to run all modules.", true);
+        }
+        String projects = String.join(",", selection.projects());
+        log.info("affectedModules: changed {}, selecting -pl {} -amd ({} of {} modules)",
+                selection.changed(), projects, selection.affected().size(), total);
+        List<String> selected = new ArrayList<>(args);
+        selected.add("-pl");
+        selected.add(projects);
+        selected.add("-amd");
+        return new Decision(selected, "affectedModules: " + selection.changed().size() + " changed module(s) — "
+                + "ran " + selection.affected().size() + " of " + total + " modules with -pl " + projects
+                + " -amd (" + changes.get().method() + ").", false);
+    }
+
+    private static boolean selectsProjects(List<String> args) {
+        return args.stream().anyMatch(arg -> arg.equals("-pl") || arg.startsWith("-pl=")
+                || arg.equals("--projects") || arg.startsWith("--projects=")
+                || arg.equals("-rf") || arg.equals("--resume-from") || arg.startsWith("--resume-from="));
+    }
+}
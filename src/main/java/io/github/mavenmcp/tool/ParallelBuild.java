@@ -0,0 +1,75 @@
+package io.github.mavenmcp.tool;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.github.mavenmcp.analysis.ReactorGraph;
+import io.github.mavenmcp.maven.BuildThreads;
+
+/**
+ * Parallel reactor builds for the {@code threads} parameter of maven_compile and maven_test:
+ * adds {@code -T <n>}, with {@code "auto"} sized by {@link BuildThreads}.
+ */
+final class ParallelBuild {
+
+    /** Tool parameter selecting the thread count. */
+    static final String PARAM = "threads";
+
+    private static final String AUTO = "auto";
+
+    private ParallelBuild() {
+    }
+
+    /**
+     * Outcome of the thread selection.
+     *
+     * @param args Maven arguments, with {@code -T <n>} appended if threads were requested
+     * @param note explanation for the response, or null if the parameter was not set
+     */
+    record Decision(List<String> args, String note) {
+    }
+
+    /**
+     * Apply the thread count if the caller asked for one.
+     *
+     * @param params     the tool call parameters map
+     * @param projectDir project root
+     * @param args       Maven arguments so far
+     * @return the decision; args are unchanged unless {@code -T} was added
+     */
+    static Decision apply(Map<String, Object> params, Path projectDir, List<String> args) {
+        Object value = params.get(PARAM);
+        if (value == null) {
+            return new Decision(args, null);
+        }
+        if (args.stream().anyMatch(ParallelBuild::isThreadsArg)) {
+            return new Decision(args, "threads was ignored: args already contain -T.");
+        }
+        int threads;
+        String note;
+        if (value instanceof String s && AUTO.equalsIgnoreCase(s.strip())) {
+            int modules = ReactorGraph.load(projectDir)
+                    .map(graph -> Math.max(1, graph.modules().size() - 1)).orElse(0);
+            threads = BuildThreads.auto(modules);
+            note = "threads: -T " + threads + " (auto: " + Runtime.getRuntime().availableProcessors()
+                    + " cores, " + BuildThreads.physicalMemory() / BuildThreads.MEMORY_PER_THREAD_BYTES
+                    + " GiB memory" + (modules > 0 ? ", " + modules + " modules" : "") + ").";
+        } else if (value instanceof Number n && n.intValue() > 0) {
+            threads = n.intValue();
+            note = "threads: -T " + threads + ".";
+        } else {
+            return new Decision(args, "threads was ignored: expected a positive integer or \"auto\".");
+        }
+        List<String> result = new ArrayList<>(args);
+        result.add("-T");
+        result.add(String.valueOf(threads));
+        return new Decision(result, note);
+    }
+
+    private static boolean isThreadsArg(String arg) {
+        return arg.equals("-T") || arg.equals("--threads") || arg.startsWith("--threads=")
+                || (arg.startsWith("-T") && arg.length() > 2 && Character.isDigit(arg.charAt(2)));
+    }
+}
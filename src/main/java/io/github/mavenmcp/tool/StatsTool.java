@@ -0,0 +1,78 @@
+package io.github.mavenmcp.tool;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.formatter.StatsFormatter;
+import io.github.mavenmcp.metrics.ServerMetrics;
+import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
+import io.modelcontextprotocol.server.McpServerFeatures.AsyncToolSpecification;
+import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.modelcontextprotocol.spec.McpSchema.Tool;
+import reactor.core.publisher.Mono;
+
+/**
+ * MCP tool: maven_server_stats — reports where the server spends time: Maven fork and run times,
+ * time per parser stage and per tool, concurrent builds and cache hit rates.
+ */
+public final class StatsTool {
+
+    private static final String TOOL_NAME = "maven_server_stats";
+    private static final String DESCRIPTION = "Report server metrics since startup: Maven fork latency and build "
+            + "durations, time per parsing stage and per tool call (p50/p90/p99), concurrent builds, bytes of "
+            + "Maven output read, and cache hit rates.";
+    private static final String INPUT_SCHEMA = """
+            {
+              "type": "object",
+              "properties": {
+                "format": {
+                  "type": "string",
+                  "enum": ["markdown", "json"],
+                  "description": "Response format (default: markdown). json returns the metrics snapshot as JSON text and structuredContent, durations in microseconds."
+                }
+              }
+            }
+            """;
+
+    private StatsTool() {
+    }
+
+    public static SyncToolSpecification create(ServerMetrics metrics, ObjectMapper objectMapper) {
+        return new SyncToolSpecification(
+                tool(objectMapper),
+                (exchange, params) -> stats(metrics, params, objectMapper));
+    }
+
+    public static AsyncToolSpecification createAsync(ServerMetrics metrics, ObjectMapper objectMapper) {
+        return AsyncToolSpecification.builder()
+                .tool(tool(objectMapper))
+                .callHandler((exchange, request) ->
+                        Mono.fromSupplier(() -> stats(metrics, request.arguments(), objectMapper)))
+                .build();
+    }
+
+    private static Tool tool(ObjectMapper objectMapper) {
+        return Tool.builder()
+                .name(TOOL_NAME)
+                .description(DESCRIPTION)
+                .inputSchema(new JacksonMcpJsonMapper(objectMapper), INPUT_SCHEMA)
+                .build();
+    }
+
+    private static CallToolResult stats(ServerMetrics metrics, Map<String, Object> params, ObjectMapper objectMapper) {
+        ServerMetrics.Snapshot snapshot = metrics.snapshot();
+        if (ToolUtils.isJsonFormat(params)) {
+            try {
+                String json = objectMapper.writeValueAsString(snapshot);
+                return new CallToolResult(List.of(new TextContent(json)), false, snapshot, null);
+            } catch (JsonProcessingException e) {
+                return ToolUtils.errorResult(TOOL_NAME, e);
+            }
+        }
+        return new CallToolResult(List.of(new TextContent(StatsFormatter.markdown(snapshot))), false);
+    }
+}
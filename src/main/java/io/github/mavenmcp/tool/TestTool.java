@@ -6,27 +6,55 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.analysis.ChangeDetector;
+import io.github.mavenmcp.analysis.ClassIndex;
+import io.github.mavenmcp.analysis.ReactorGraph;
+import io.github.mavenmcp.analysis.TestClasses;
+import io.github.mavenmcp.analysis.TestImpactAnalysis;
+import io.github.mavenmcp.cache.FlakyTests;
+import io.github.mavenmcp.cache.LastFailures;
+import io.github.mavenmcp.cache.TestAvoidance;
+import io.github.mavenmcp.cache.TestHistory;
+import io.github.mavenmcp.cache.TestResultCache;
+import io.github.mavenmcp.config.ProjectRegistry;
 import io.github.mavenmcp.config.ServerConfig;
-import io.github.mavenmcp.formatter.MarkdownFormatter;
 import io.github.mavenmcp.maven.MavenExecutionException;
 import io.github.mavenmcp.maven.MavenExecutionResult;
 import io.github.mavenmcp.maven.MavenRunner;
+import io.github.mavenmcp.metrics.ServerMetrics;
 import io.github.mavenmcp.model.BuildResult;
+import io.github.mavenmcp.model.FlakyTest;
 import io.github.mavenmcp.model.TestFailure;
+import io.github.mavenmcp.model.TestSummary;
 import io.github.mavenmcp.parser.CompilationOutputParser;
+import io.github.mavenmcp.parser.FailureWatcher;
+import io.github.mavenmcp.parser.FrameCache;
 import io.github.mavenmcp.parser.StackTraceProcessor;
 import io.github.mavenmcp.parser.SurefireReportParser;
 import io.github.mavenmcp.parser.TestFailureDeduplicator;
 import io.github.mavenmcp.parser.XmlUtils;
 import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
+import io.modelcontextprotocol.server.McpServerFeatures.AsyncToolSpecification;
 import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
 import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
 import io.modelcontextprotocol.spec.McpSchema.TextContent;
@@ -35,6 +63,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.NodeList;
+import reactor.core.publisher.Mono;
 
 /**
  * MCP tool: maven_test — runs Maven tests and returns structured results
@@ -45,6 +74,10 @@ public final class TestTool {
     private static final Logger log = LoggerFactory.getLogger(TestTool.class);
 
     private static final String TOOL_NAME = "maven_test";
+
+    /** Prefix of the reports directory each parallel shard writes to, per module. */
+    private static final String SHARD_DIR_PREFIX = "shard-";
+
     private static final String DESCRIPTION =
             "Run Maven tests. Returns structured test results with pass/fail details, failure messages, and stack traces.";
     private static final String INPUT_SCHEMA = """
@@ -79,6 +112,59 @@ public final class TestTool {
                 "testOnly": {
                   "type": "boolean",
                   "description": "Default: true (skips lifecycle, runs surefire:test directly with auto-recompile if sources changed). Set to false when changes go beyond Java source code — e.g., build config (pom.xml), generated source templates, new dependencies, or resource files that affect compilation."
+                },
+                "useCache": {
+                  "type": "boolean",
+                  "description": "Skip test classes whose bytecode and the bytecode of the project classes they use are unchanged since they last passed; their cached pass is reported instead (default: false). Requires testOnly=true and no testFilter."
+                },
+                "affectedOnly": {
+                  "type": "boolean",
+                  "description": "Run only test classes that transitively depend on changed sources (uncommitted git changes vs HEAD, or files modified since the last maven_test run outside git), via bytecode dependency analysis (default: false). Requires testOnly=true and no testFilter."
+                },
+                "affectedModules": {
+                  "type": "boolean",
+                  "description": "Multi-module projects: test only the modules containing changed files (uncommitted git changes vs HEAD, or files modified since the last maven_test run outside git) and the modules depending on them, via -pl <modules> -amd (default: false). The module graph is read from the POMs and cached until a POM changes. Ignored if args already select projects."
+                },
+                "threads": {
+                  "type": ["integer", "string"],
+                  "description": "Multi-module projects: build modules in parallel with Maven -T. \\"auto\\" sizes the thread count from available cores, physical memory (~1 GiB per thread for compiler and test JVM) and the number of modules; an integer sets it. Failures are attributed to modules and grouped by module. Ignored if args already contain -T."
+                },
+                "failedOnly": {
+                  "type": "boolean",
+                  "description": "Re-run only the tests that failed in the previous run(s), as recorded in target/.maven-mcp/last-failures (default: false). Large selections are coarsened to classes or packages. Ignored with testFilter."
+                },
+                "failuresFirst": {
+                  "type": "boolean",
+                  "description": "Run test classes that failed in the last 24h, plus the fastest classes (~10s by recorded durations), in a first Maven invocation and the rest in a second; reports of both are merged (default: false). Combine with failFast to stop once the first classes fail. Requires testOnly=true and no testFilter or failedOnly selection."
+                },
+                "parallel": {
+                  "type": "boolean",
+                  "description": "Bin-pack test classes into shards by recorded durations and run each shard as its own concurrent surefire:test invocation with its own reports and temp directories in every module (default: false). Requires testOnly=true and no testFilter, failedOnly or failuresFirst."
+                },
+                "shards": {
+                  "type": "integer",
+                  "description": "Number of parallel shards (default: number of available processors)"
+                },
+                "retryFailures": {
+                  "type": "integer",
+                  "description": "Re-run each failing test up to this many times within the same Surefire fork (rerunFailingTestsCount); tests that pass on a retry are reported as flaky instead of failed. 0 or absent disables retries."
+                },
+                "failFast": {
+                  "type": "integer",
+                  "description": "Stop Maven (and its forked test JVMs) once this many distinct failure root causes have been reported; the response covers the test classes that finished. 0 or absent runs all tests."
+                },
+                "maxOutputTokens": {
+                  "type": "integer",
+                  "description": "Approximate token budget for the response (default: 10000). Lower-priority detail (test output, then stack frames) is dropped first. 0 disables the budget."
+                },
+                "project": {
+                  "type": "string",
+                  "description": "Project root to run in, absolute or relative to the server's project (default: the server's project). Other roots require the server's --multi-project mode."
+                },
+                "format": {
+                  "type": "string",
+                  "enum": ["markdown", "json"],
+                  "description": "Response format (default: markdown). json returns the full result as JSON text and structuredContent."
                 }
               }
             }
@@ -89,135 +175,716 @@ public final class TestTool {
 
     public static SyncToolSpecification create(ServerConfig config, MavenRunner runner,
                                                ObjectMapper objectMapper) {
-        var jsonMapper = new JacksonMcpJsonMapper(objectMapper);
-        Tool tool = Tool.builder()
+        return create(ProjectRegistry.single(config), runner, objectMapper);
+    }
+
+    /**
+     * Variant for the async server. A test call may run Maven several times, each run decided by
+     * the previous one (recompile, shards, reruns), so the call runs as blocking code on its own
+     * virtual thread; waiting for Maven or for the build lock parks it without holding a
+     * platform thread.
+     *
+     * @param calls runs each call, e.g. a thread-per-task executor of virtual threads; owned by
+     *              the caller, which shuts it down when the server closes
+     */
+    public static AsyncToolSpecification createAsync(ProjectRegistry projects, MavenRunner runner,
+                                                     ObjectMapper objectMapper, Executor calls) {
+        return AsyncToolSpecification.builder()
+                .tool(tool(objectMapper))
+                .callHandler((exchange, request) -> Mono.fromFuture(() -> CompletableFuture.supplyAsync(
+                        () -> call(projects, runner, objectMapper, request.arguments()), calls)))
+                .build();
+    }
+
+    public static SyncToolSpecification create(ProjectRegistry projects, MavenRunner runner,
+                                               ObjectMapper objectMapper) {
+        return new SyncToolSpecification(
+                tool(objectMapper),
+                (exchange, params) -> call(projects, runner, objectMapper, params));
+    }
+
+    private static Tool tool(ObjectMapper objectMapper) {
+        return Tool.builder()
                 .name(TOOL_NAME)
                 .description(DESCRIPTION)
-                .inputSchema(jsonMapper, INPUT_SCHEMA)
+                .inputSchema(new JacksonMcpJsonMapper(objectMapper), INPUT_SCHEMA)
                 .build();
-        return new SyncToolSpecification(
-                tool,
-                (exchange, params) -> {
-                    try {
-                        List<String> args = buildArgs(params);
-                        int stackTraceLines = extractStackTraceLines(params);
-                        String appPackage = extractAppPackage(params, config.projectDir());
-                        boolean includeTestLogs = ToolUtils.extractBoolean(params, "includeTestLogs", true);
-                        int testOutputLimit = ToolUtils.extractInt(params, "testOutputLimit",
-                                SurefireReportParser.DEFAULT_PER_TEST_OUTPUT_LIMIT);
-                        boolean testOnly = ToolUtils.extractBoolean(params, "testOnly", true);
-
-                        String goal = testOnly ? "surefire:test" : "test";
-                        String note = null;
-
-                        // Pre-flight guard: surefire:test requires compiled classes
-                        if (testOnly && !Files.isDirectory(config.projectDir().resolve("target/test-classes"))) {
-                            return new CallToolResult(
-                                    List.of(new TextContent("Project not compiled. Run maven_compile first or set testOnly=false.")),
-                                    true);
-                        }
-
-                        // Stale-classes detection and auto-recompile (testOnly mode only)
-                        if (testOnly) {
-                            if (checkStaleClasses(config.projectDir())) {
-                                log.info("Stale classes detected, auto-recompiling via compiler:compile compiler:testCompile");
-                                MavenExecutionResult recompileResult = runner.execute(
-                                        "compiler:compile compiler:testCompile", List.of(),
-                                        config.mavenExecutable(), config.projectDir());
-
-                                if (!recompileResult.isSuccess()) {
-                                    var parseResult = CompilationOutputParser.parse(
-                                            recompileResult.stdout(), config.projectDir());
-                                    String output = ToolUtils.tailLines(recompileResult.stdout(),
-                                            ToolUtils.DEFAULT_OUTPUT_TAIL_LINES);
-                                    var buildResult = new BuildResult(
-                                            BuildResult.FAILURE, recompileResult.duration(),
-                                            parseResult.errors(), parseResult.warnings(),
-                                            null, null, null, output, null);
-                                    String markdown = MarkdownFormatter.format(buildResult, "Test");
-                                    return new CallToolResult(List.of(new TextContent(markdown)), false);
-                                }
-
-                                note = "Ran in testOnly mode. Stale sources detected — auto-recompiled via "
-                                        + "compiler:compile compiler:testCompile (generate-sources was skipped). "
-                                        + "If tests still fail unexpectedly, re-run with testOnly=false for a full build.";
-                            } else {
-                                note = "Ran in testOnly mode (surefire:test). Lifecycle phases (generate-sources, compile) "
-                                        + "were skipped. If tests fail unexpectedly, re-run with testOnly=false for a full build.";
-                            }
-                        }
-
-                        log.info("maven_test called with goal: {}, args: {}, stackTraceLines: {}, appPackage: {}",
-                                goal, args, stackTraceLines, appPackage);
-
-                        cleanSurefireReports(config.projectDir());
-
-                        MavenExecutionResult execResult = runner.execute(
-                                goal, args,
-                                config.mavenExecutable(), config.projectDir());
-
-                        String status = execResult.isSuccess() ? BuildResult.SUCCESS : BuildResult.FAILURE;
-
-                        // Try Surefire XML reports first
-                        var surefireResult = SurefireReportParser.parse(
-                                config.projectDir(), includeTestLogs, testOutputLimit);
-
-                        BuildResult buildResult;
-                        if (surefireResult.isPresent()) {
-                            // Structured data available — no raw output needed
-                            var sr = surefireResult.get();
-                            var processedFailures = processStackTraces(
-                                    sr.failures(), appPackage, stackTraceLines);
-                            var deduplicatedFailures = TestFailureDeduplicator.deduplicate(processedFailures);
-                            buildResult = new BuildResult(
-                                    status, execResult.duration(),
-                                    null, null,
-                                    sr.summary(), deduplicatedFailures,
-                                    null, null, note);
-                        } else if (!execResult.isSuccess()) {
-                            // No XML reports + failure = likely compilation error; tail raw output
-                            String output = ToolUtils.tailLines(execResult.stdout(),
-                                    ToolUtils.DEFAULT_OUTPUT_TAIL_LINES);
-                            var parseResult = CompilationOutputParser.parse(
-                                    execResult.stdout(), config.projectDir());
-                            buildResult = new BuildResult(
-                                    status, execResult.duration(),
-                                    parseResult.errors(), parseResult.warnings(),
-                                    null, null, null, output, note);
-                        } else {
-                            // Success but no XML (shouldn't happen normally)
-                            buildResult = new BuildResult(
-                                    status, execResult.duration(),
-                                    null, null, null, null, null, null, note);
-                        }
-
-                        String markdown = MarkdownFormatter.format(buildResult, "Test");
-                        return new CallToolResult(List.of(new TextContent(markdown)), false);
-
-                    } catch (MavenExecutionException e) {
-                        log.error("maven_test failed: {}", e.getMessage());
-                        return new CallToolResult(
-                                List.of(new TextContent("Error: " + e.getMessage())), true);
-                    } catch (Exception e) {
-                        log.error("Unexpected error in maven_test", e);
-                        return new CallToolResult(
-                                List.of(new TextContent("Internal error: " + e.getMessage())), true);
-                    }
+    }
+
+    /**
+     * Run one call; blocking, so the async variant runs it on its own thread.
+     */
+    private static CallToolResult call(ProjectRegistry projects, MavenRunner runner, ObjectMapper objectMapper,
+                                       Map<String, Object> params) {
+        return ToolUtils.inProject(projects, params, TOOL_NAME, project -> {
+            ServerConfig config = project.config();
+            try {
+                Prepared prepared = prepare(config, runner, params, objectMapper);
+                if (prepared.immediate() != null) {
+                    return prepared.immediate();
+                }
+                Invocations invocations = prepared.invocations();
+                String appPackage = extractAppPackage(params, config.projectDir());
+                log.info("maven_test called with goal: {}, args: {}, stackTraceLines: {}, appPackage: {}",
+                        invocations.goal(), invocations.args(), extractStackTraceLines(params), appPackage);
+
+                cleanSurefireReports(config.projectDir());
+                invocations.reportsDirs().keySet().stream().filter(Files::isDirectory).forEach(TestTool::deleteReports);
+
+                var frameCache = new FrameCache(appPackage);
+                int failFast = ToolUtils.extractInt(params, "failFast", 0);
+                FailureWatcher watcher = failFast > 0
+                        ? new FailureWatcher(List.copyOf(invocations.reportsDirs().keySet()), frameCache, failFast)
+                        : null;
+
+                Execution execution = invocations.shards() != null
+                        ? executeShards(runner, config, invocations, watcher)
+                        : executeSequentially(runner, config, invocations, watcher);
+                ChangeDetector.markTestRun(config.projectDir());
+
+                BuildResult buildResult = report(config, prepared, execution, frameCache, params);
+                return ToolUtils.toCallToolResult(buildResult, "Test", params, objectMapper);
+
+            } catch (MavenExecutionException e) {
+                log.error("maven_test failed: {}", e.getMessage());
+                return new CallToolResult(
+                        List.of(new TextContent("Error: " + e.getMessage())), true);
+            } catch (Exception e) {
+                log.error("Unexpected error in maven_test", e);
+                return new CallToolResult(
+                        List.of(new TextContent("Internal error: " + e.getMessage())), true);
+            }
+        });
+    }
+
+    /**
+     * Decide what the call runs: narrow the tests by the selection options, recompiling stale
+     * classes first in testOnly mode, and plan the Maven invocations.
+     */
+    private static Prepared prepare(ServerConfig config, MavenRunner runner, Map<String, Object> params,
+                                    ObjectMapper objectMapper) {
+        List<String> args = buildArgs(params);
+        boolean testOnly = ToolUtils.extractBoolean(params, "testOnly", true);
+        boolean useCache = ToolUtils.extractBoolean(params, "useCache", false);
+        boolean affectedOnly = ToolUtils.extractBoolean(params, "affectedOnly", false);
+        boolean failedOnly = ToolUtils.extractBoolean(params, "failedOnly", false);
+        int retryFailures = ToolUtils.extractInt(params, "retryFailures", 0);
+
+        String goal = testOnly ? "surefire:test" : "test";
+        String note = null;
+
+        // Pre-flight guard: surefire:test requires compiled classes
+        Optional<ReactorGraph> reactor = ReactorGraph.load(config.projectDir())
+                .filter(ReactorGraph::isMultiModule);
+        if (testOnly && !hasTestClasses(config.projectDir(), reactor)) {
+            return Prepared.answered(new CallToolResult(
+                    List.of(new TextContent("Project not compiled. Run maven_compile first or set testOnly=false.")),
+                    true));
+        }
+
+        // Rerun-only-failed: the recorded failures become the test filter
+        LastFailures lastFailures = LastFailures.load(config.projectDir());
+        boolean filtered = hasTestFilter(params);
+        String failedOnlyNote = null;
+        if (failedOnly && filtered) {
+            failedOnlyNote = "failedOnly was ignored: testFilter takes precedence.";
+        } else if (failedOnly && lastFailures.isEmpty()) {
+            failedOnlyNote = "failedOnly: no failures recorded from previous runs — ran all tests.";
+        } else if (failedOnly) {
+            Optional<String> filter = lastFailures.toTestFilter(LastFailures.MAX_FILTER_LENGTH);
+            if (filter.isPresent()) {
+                args.add("-Dtest=" + filter.get());
+                args.add("-DfailIfNoTests=false");
+                args.add("-Dsurefire.failIfNoSpecifiedTests=false");
+                filtered = true;
+                failedOnlyNote = "failedOnly: re-ran " + lastFailures.ids().size()
+                        + " previously failing test(s).";
+            } else {
+                failedOnlyNote = "failedOnly: " + lastFailures.ids().size()
+                        + " recorded failures are too many to select — ran all tests.";
+            }
+        }
+
+        // Reactor module selection: changed modules and their dependents via -pl -amd
+        var modules = ModuleSelection.apply(params, config.projectDir(), args);
+        if (modules.nothingToBuild()) {
+            var buildResult = new BuildResult(BuildResult.SUCCESS, 0, null, null,
+                    new TestSummary(0, 0, 0, 0), null, null, null, modules.note());
+            return Prepared.answered(ToolUtils.toCallToolResult(buildResult, "Test", params, objectMapper));
+        }
+        var threads = ParallelBuild.apply(params, config.projectDir(), modules.args());
+        args = new ArrayList<>(threads.args());
+
+        // Retries run inside the fork: no extra Maven or JVM startup per retry
+        if (retryFailures > 0) {
+            args.add("-Dsurefire.rerunFailingTestsCount=" + retryFailures);
+        }
+
+        // Changed sources must be captured before auto-recompile refreshes timestamps
+        Optional<ChangeDetector.ChangeSet> changes = Optional.empty();
+        boolean selectAffected = affectedOnly && testOnly && !filtered;
+        if (selectAffected) {
+            changes = ChangeDetector.detect(config.projectDir());
+        }
+
+        // Stale-classes detection and auto-recompile (testOnly mode only)
+        if (testOnly) {
+            if (checkStaleClasses(config.projectDir())) {
+                log.info("Stale classes detected, auto-recompiling via compiler:compile compiler:testCompile");
+                MavenExecutionResult recompileResult = runner.execute(
+                        "compiler:compile compiler:testCompile", List.of(),
+                        config.mavenExecutable(), config.projectDir());
+
+                if (!recompileResult.isSuccess()) {
+                    var parseResult = ServerMetrics.global().time(ServerMetrics.STAGE_COMPILER_OUTPUT,
+                            () -> CompilationOutputParser.parse(recompileResult.stdout(), config.projectDir()));
+                    String output = ToolUtils.tailLines(recompileResult.stdout(),
+                            ToolUtils.DEFAULT_OUTPUT_TAIL_LINES);
+                    var buildResult = new BuildResult(
+                            BuildResult.FAILURE, recompileResult.duration(),
+                            parseResult.errors(), parseResult.warnings(),
+                            null, null, null, output, null);
+                    return Prepared.answered(ToolUtils.toCallToolResult(buildResult, "Test", params, objectMapper));
+                }
+
+                note = "Ran in testOnly mode. Stale sources detected — auto-recompiled via "
+                        + "compiler:compile compiler:testCompile (generate-sources was skipped). "
+                        + "If tests still fail unexpectedly, re-run with testOnly=false for a full build.";
+            } else {
+                note = "Ran in testOnly mode (surefire:test). Lifecycle phases (generate-sources, compile) "
+                        + "were skipped. If tests fail unexpectedly, re-run with testOnly=false for a full build.";
+            }
+        }
+
+        if (failedOnlyNote != null) {
+            note = ToolUtils.appendNote(note, failedOnlyNote);
+        }
+        note = ToolUtils.appendNote(note, modules.note());
+        note = ToolUtils.appendNote(note, threads.note());
+
+        // Test avoidance: skip classes whose inputs are unchanged since they last passed
+        TestResultCache testCache = null;
+        TestAvoidance.Plan plan = null;
+        if (useCache) {
+            if (testOnly && !filtered) {
+                testCache = TestResultCache.load(config.projectDir());
+                plan = TestAvoidance.plan(config.projectDir(), args, testCache).orElse(null);
+                if (plan != null) {
+                    ServerMetrics.global().recordCacheLookups(ServerMetrics.CACHE_TEST_CLASSES,
+                            plan.cached().size(), plan.toRun().size());
+                }
+            } else {
+                note = ToolUtils.appendNote(note, "useCache was ignored: it requires testOnly=true and no testFilter or failedOnly selection.");
+            }
+        }
+        // Test impact analysis: restrict to test classes reaching changed sources
+        Set<String> affected = null;
+        if (affectedOnly && !selectAffected) {
+            note = ToolUtils.appendNote(note, "affectedOnly was ignored: it requires testOnly=true and no testFilter or failedOnly selection.");
+        } else if (selectAffected) {
+            if (changes.isEmpty()) {
+                note = ToolUtils.appendNote(note, "affectedOnly: changed sources unknown (no git work tree "
+                        + "and no previous maven_test run) — ran all tests.");
+            } else if (changes.get().requiresFullRun()) {
+                note = ToolUtils.appendNote(note, "affectedOnly: pom.xml or non-Java sources changed — ran all tests.");
+            } else {
+                affected = selectAffectedTests(config.projectDir(), changes.get()).orElse(null);
+                if (affected == null) {
+                    note = ToolUtils.appendNote(note, "affectedOnly: dependency analysis failed — ran all tests.");
+                } else {
+                    note = ToolUtils.appendNote(note, "affectedOnly: " + affected.size() + " test class(es) affected by "
+                            + changes.get().classNames().size() + " changed source(s) ("
+                            + changes.get().method() + ").");
+                }
+            }
+        }
+
+        Set<String> testsToRun = plan != null && !plan.cached().isEmpty()
+                ? new LinkedHashSet<>(plan.toRun().keySet()) : null;
+        if (affected != null) {
+            if (testsToRun == null) {
+                testsToRun = affected;
+            } else {
+                testsToRun.retainAll(affected);
+            }
+        }
+        if (plan != null && !plan.cached().isEmpty()) {
+            note = ToolUtils.appendNote(note, cacheNote(plan));
+        }
+        if (affected != null && affected.isEmpty()) {
+            // Nothing selected is not a pass: earlier failures may still be unfixed
+            log.info("No test classes affected by the changed sources");
+            if (!lastFailures.isEmpty()) {
+                note = ToolUtils.appendNote(note, lastFailures.ids().size() + " test(s) failed in an "
+                        + "earlier run and have not passed since: "
+                        + summarizeIds(lastFailures.ids()) + ". Run with failedOnly=true to re-check them.");
+            }
+            var buildResult = new BuildResult(
+                    BuildResult.NO_TESTS, 0, null, null, null, null, null, null, note);
+            return Prepared.answered(ToolUtils.toCallToolResult(buildResult, "Test", params, objectMapper));
+        }
+        if (testsToRun != null && testsToRun.isEmpty()) {
+            log.info("No test classes to run (cached: {}, affected: {})",
+                    plan != null ? plan.cached().size() : 0, affected != null ? affected.size() : "n/a");
+            var summary = plan != null
+                    ? new TestSummary(plan.cachedTests(), 0, plan.cachedSkipped(), 0)
+                    : new TestSummary(0, 0, 0, 0);
+            var buildResult = new BuildResult(
+                    BuildResult.SUCCESS, 0, null, null, summary, null, null, null, note);
+            return Prepared.answered(ToolUtils.toCallToolResult(buildResult, "Test", params, objectMapper));
+        }
+
+        TestHistory history = TestHistory.load(config.projectDir());
+        Invocations invocations = planInvocations(config.projectDir(), reactor, goal, args, testsToRun,
+                testOnly && !filtered, history, params, note);
+        return new Prepared(invocations, lastFailures, history, testCache, plan, null);
+    }
+
+    /**
+     * Plan the Maven invocations: one, two for failuresFirst, or one per parallel shard, with the
+     * report directories to parse once they have run.
+     *
+     * @param testsToRun test classes selected by the cache and affected-test analysis, or null for all
+     * @param eligible   whether failuresFirst and parallel apply: testOnly and no test filter
+     * @param note       note so far, extended with the planning notes
+     */
+    private static Invocations planInvocations(Path projectDir, Optional<ReactorGraph> reactor, String goal,
+                                               List<String> args, Set<String> testsToRun, boolean eligible,
+                                               TestHistory history, Map<String, Object> params, String note) {
+        boolean failuresFirst = ToolUtils.extractBoolean(params, "failuresFirst", false);
+        boolean parallel = ToolUtils.extractBoolean(params, "parallel", false);
+        int shardCount = ToolUtils.extractInt(params, "shards", Runtime.getRuntime().availableProcessors());
+
+        // History-based ordering: recent failures and fast classes run in a first invocation, the rest in a second
+        TestHistory.Ordering ordering = null;
+        if (failuresFirst && !eligible) {
+            note = ToolUtils.appendNote(note, "failuresFirst was ignored: it requires testOnly=true and no "
+                    + "testFilter or failedOnly selection.");
+        } else if (failuresFirst) {
+            Collection<String> candidates = testsToRun != null
+                    ? testsToRun : listTestClasses(projectDir, reactor).orElse(null);
+            if (candidates != null) {
+                ordering = history.prioritize(candidates, Instant.now());
+            }
+            if (ordering == null || ordering.first().isEmpty()) {
+                note = ToolUtils.appendNote(note, "failuresFirst: no recent failures or timings to order by "
+                        + "— ran all tests in one invocation.");
+                ordering = null;
+            }
+        }
+
+        // Parallel shards: LPT bin-packing by recorded durations, one invocation per shard
+        List<List<String>> shards = null;
+        if (parallel && (!eligible || failuresFirst)) {
+            note = ToolUtils.appendNote(note, "parallel was ignored: it requires testOnly=true and no testFilter, "
+                    + "failedOnly or failuresFirst.");
+        } else if (parallel) {
+            Collection<String> candidates = testsToRun != null
+                    ? testsToRun : listTestClasses(projectDir, reactor).orElse(null);
+            if (candidates != null && candidates.size() > 1 && shardCount > 1) {
+                shards = history.shard(candidates, shardCount);
+            } else {
+                note = ToolUtils.appendNote(note, "parallel: fewer than two test classes or shards — ran in "
+                        + "one invocation.");
+            }
+        }
+
+        // Shards must select exactly their classes: package patterns would overlap
+        if (shards != null && shards.stream().anyMatch(
+                shard -> String.join(",", shard).length() > LastFailures.MAX_FILTER_LENGTH)) {
+            note = ToolUtils.appendNote(note, "parallel: too many test classes per shard to select on "
+                    + "the command line — ran in one invocation.");
+            shards = null;
+        }
+
+        // Report directory → module, so failures of a reactor build are attributed to modules
+        Map<Path, String> reportsDirs = reportsDirs(projectDir, reactor);
+        if (shards != null) {
+            // Each shard writes to shard-<n> of every module's reports, with its own temp dir
+            List<List<String>> invocations = new ArrayList<>(shards.size());
+            Map<Path, String> shardDirs = new LinkedHashMap<>();
+            for (int i = 0; i < shards.size(); i++) {
+                String shardDir = SHARD_DIR_PREFIX + (i + 1);
+                List<String> shardArgs = withTests(args, shards.get(i)).orElseThrow();
+                shardArgs.add("-Dsurefire.reportsDirectory=${project.basedir}/"
+                        + SurefireReportParser.REPORTS_DIR + "/" + shardDir);
+                shardArgs.add("-DtempDir=surefire-" + shardDir);
+                invocations.add(shardArgs);
+                reportsDirs.forEach((dir, module) -> shardDirs.put(dir.resolve(shardDir), module));
+            }
+            return new Invocations(goal, invocations, shardDirs, shards, null, note);
+        }
+        if (ordering != null) {
+            Optional<List<String>> first = withTests(args, ordering.first());
+            if (first.isPresent()) {
+                Optional<List<String>> rest = withTests(args, ordering.rest());
+                if (rest.isEmpty()) {
+                    note = ToolUtils.appendNote(note, "failuresFirst: the remaining "
+                            + ordering.rest().size() + " class(es) are too many to select — the "
+                            + "second invocation ran all tests.");
+                }
+                return new Invocations(goal, List.of(first.get(), rest.orElse(args)), reportsDirs, null,
+                        ordering, note);
+            }
+            note = ToolUtils.appendNote(note, "failuresFirst: too many recently failed or fast test "
+                    + "classes to select — ran all tests in one invocation.");
+        }
+        if (testsToRun != null) {
+            Optional<List<String>> selected = withTests(args, testsToRun);
+            if (selected.isEmpty()) {
+                note = ToolUtils.appendNote(note, testsToRun.size() + " selected test class(es) are "
+                        + "too many to select on the command line — ran all tests.");
+            }
+            return new Invocations(goal, List.of(selected.orElse(args)), reportsDirs, null, null, note);
+        }
+        return new Invocations(goal, List.of(args), reportsDirs, null, null, note);
+    }
+
+    /**
+     * Run the invocations one after another. Later invocations add their reports next to earlier
+     * ones; a failed invocation decides the status, but only failFast stops the later ones.
+     */
+    private static Execution executeSequentially(MavenRunner runner, ServerConfig config, Invocations invocations,
+                                                 FailureWatcher watcher) {
+        String note = invocations.note();
+        MavenExecutionResult execResult = null;
+        long duration = 0;
+        for (List<String> args : invocations.args()) {
+            MavenExecutionResult result = watcher != null
+                    ? runner.execute(invocations.goal(), args, config.mavenExecutable(), config.projectDir(), watcher)
+                    : runner.execute(invocations.goal(), args, config.mavenExecutable(), config.projectDir());
+            if (execResult == null || execResult.isSuccess()) {
+                execResult = result;
+            }
+            duration += result.duration();
+            if (watcher != null && watcher.triggered()) {
+                return new Execution(execResult, duration, ToolUtils.appendNote(note, failFastNote(watcher)));
+            }
+        }
+        TestHistory.Ordering ordering = invocations.ordering();
+        if (ordering != null) {
+            note = ToolUtils.appendNote(note, "failuresFirst: ran " + ordering.first().size()
+                    + " recently failed or fast test class(es) first, then the remaining "
+                    + ordering.rest().size() + ".");
+        }
+        return new Execution(execResult, duration, note);
+    }
+
+    /**
+     * Run the shards concurrently; the duration is wall-clock time and a failed shard decides the
+     * status.
+     */
+    private static Execution executeShards(MavenRunner runner, ServerConfig config, Invocations invocations,
+                                           FailureWatcher watcher) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        List<MavenExecutionResult> results = executeConcurrently(
+                runner, invocations.goal(), invocations.args(), config, watcher);
+        long duration = System.currentTimeMillis() - start;
+        MavenExecutionResult execResult = results.stream().filter(r -> !r.isSuccess()).findFirst()
+                .orElse(results.getFirst());
+        String note = ToolUtils.appendNote(invocations.note(), "parallel: ran " + invocations.shards().size()
+                + " shard(s) concurrently ("
+                + invocations.shards().stream().map(shard -> String.valueOf(shard.size()))
+                        .collect(Collectors.joining("/"))
+                + " test classes).");
+        if (watcher != null && watcher.triggered()) {
+            note = ToolUtils.appendNote(note, failFastNote(watcher));
+        }
+        return new Execution(execResult, duration, note);
+    }
+
+    /**
+     * Build the result from the Surefire reports of all invocations, recording failures, history,
+     * flaky retries and cache entries; without reports, from the Maven output.
+     */
+    private static BuildResult report(ServerConfig config, Prepared prepared, Execution execution,
+                                      FrameCache frameCache, Map<String, Object> params) {
+        MavenExecutionResult execResult = execution.result();
+        String status = execResult.isSuccess() ? BuildResult.SUCCESS : BuildResult.FAILURE;
+        long duration = execution.duration();
+        String note = execution.note();
+        boolean includeTestLogs = ToolUtils.extractBoolean(params, "includeTestLogs", true);
+        int testOutputLimit = ToolUtils.extractInt(params, "testOutputLimit",
+                SurefireReportParser.DEFAULT_PER_TEST_OUTPUT_LIMIT);
+
+        // Try Surefire XML reports first, deduplicating failures while parsing
+        var accumulator = new TestFailureDeduplicator.Accumulator(frameCache);
+        long parseStart = System.nanoTime();
+        var surefireResult = SurefireReportParser.parse(
+                prepared.invocations().reportsDirs(), includeTestLogs, testOutputLimit, accumulator);
+        ServerMetrics.global().recordStage(ServerMetrics.STAGE_SUREFIRE_REPORTS,
+                System.nanoTime() - parseStart);
+
+        if (surefireResult.isPresent()) {
+            // Structured data available — no raw output needed
+            var sr = surefireResult.get();
+            int stackTraceLines = extractStackTraceLines(params);
+            var processedFailures = ServerMetrics.global().time(ServerMetrics.STAGE_STACK_TRACES,
+                    () -> processStackTraces(sr.failures(), frameCache, stackTraceLines));
+            ServerMetrics.global().recordCacheLookups(ServerMetrics.CACHE_STACK_FRAMES,
+                    frameCache.hits(), frameCache.misses());
+            log.debug("Deduplicated {} failures into {} groups; frame cache: {} hits, {} misses",
+                    accumulator.failureCount(), accumulator.groupCount(),
+                    frameCache.hits(), frameCache.misses());
+            prepared.lastFailures().update(sr.suites());
+            prepared.lastFailures().save();
+            prepared.history().record(sr.suites(), Instant.now());
+            List<FlakyTest> flakyTests = null;
+            if (!sr.flakyTests().isEmpty()) {
+                flakyTests = recordFlakyTests(config.projectDir(), sr.flakyTests());
+                note = ToolUtils.appendNote(note, "retryFailures: " + flakyTests.size()
+                        + " test(s) failed and then passed on retry — reported as flaky.");
+            }
+            TestSummary summary = sr.summary();
+            TestAvoidance.Plan plan = prepared.plan();
+            if (plan != null) {
+                // A widened -Dtest filter may have run cached classes: count them once
+                plan = plan.withoutCached(sr.suites().stream()
+                        .map(SurefireReportParser.SuiteResult::name)
+                        .collect(Collectors.toSet()));
+                TestAvoidance.record(plan, sr.suites(), prepared.testCache());
+                if (!plan.cached().isEmpty()) {
+                    summary = new TestSummary(
+                            summary.testsRun() + plan.cachedTests(), summary.testsFailed(),
+                            summary.testsSkipped() + plan.cachedSkipped(), summary.testsErrored());
                 }
-        );
+            }
+            return new BuildResult(
+                    status, duration,
+                    null, null,
+                    summary, processedFailures,
+                    null, null, note, flakyTests);
+        } else if (!execResult.isSuccess()) {
+            // No XML reports + failure = likely compilation error; tail raw output
+            String output = ToolUtils.tailLines(execResult.stdout(),
+                    ToolUtils.DEFAULT_OUTPUT_TAIL_LINES);
+            long compilerParseStart = System.nanoTime();
+            var parseResult = CompilationOutputParser.parse(
+                    execResult.stdout(), config.projectDir());
+            ServerMetrics.global().recordStage(ServerMetrics.STAGE_COMPILER_OUTPUT,
+                    System.nanoTime() - compilerParseStart);
+            return new BuildResult(
+                    status, duration,
+                    parseResult.errors(), parseResult.warnings(),
+                    null, null, null, output, note);
+        } else {
+            // Success but no XML (shouldn't happen normally)
+            return new BuildResult(
+                    status, duration,
+                    null, null, null, null, null, null, note);
+        }
+    }
+
+    /**
+     * A test call before Maven runs the tests.
+     *
+     * @param invocations  the planned Maven invocations
+     * @param lastFailures recorded failures, updated from the reports
+     * @param history      test history, appended to from the reports
+     * @param testCache    test result cache, or null if useCache is off
+     * @param plan         test avoidance plan, or null if the cache is not used
+     * @param immediate    result answered without running the tests, or null
+     */
+    private record Prepared(Invocations invocations, LastFailures lastFailures, TestHistory history,
+                            TestResultCache testCache, TestAvoidance.Plan plan, CallToolResult immediate) {
+
+        static Prepared answered(CallToolResult result) {
+            return new Prepared(null, null, null, null, null, result);
+        }
+    }
+
+    /**
+     * The Maven invocations of a test call.
+     *
+     * @param goal        goal of every invocation
+     * @param args        arguments of each invocation
+     * @param reportsDirs report directory → module, parsed together once all invocations ran
+     * @param shards      test classes of each invocation if they run concurrently, else null
+     * @param ordering    failuresFirst split if two invocations run one after another, else null
+     * @param note        note for the response so far, may be null
+     */
+    private record Invocations(String goal, List<List<String>> args, Map<Path, String> reportsDirs,
+                               List<List<String>> shards, TestHistory.Ordering ordering, String note) {
     }
 
     /**
-     * Apply smart stack trace processing to all failures.
+     * Outcome of the invocations of a test call.
+     *
+     * @param result   a failed invocation's result if any, else a successful one's
+     * @param duration total duration in milliseconds
+     * @param note     note for the response, may be null
+     */
+    private record Execution(MavenExecutionResult result, long duration, String note) {
+    }
+
+    /**
+     * Apply smart stack trace processing to all failures, sharing one frame cache across the run.
      */
     private static List<TestFailure> processStackTraces(List<TestFailure> failures,
-                                                         String appPackage, int stackTraceLines) {
+                                                         FrameCache frameCache, int stackTraceLines) {
         return failures.stream()
                 .map(f -> f.withStackTrace(
-                        StackTraceProcessor.process(f.stackTrace(), appPackage, stackTraceLines)))
+                        StackTraceProcessor.processWithCache(f.stackTrace(), frameCache, stackTraceLines)))
                 .toList();
     }
 
+    /**
+     * Persist flaky outcomes and annotate each test with the number of runs it was flaky in.
+     */
+    private static List<FlakyTest> recordFlakyTests(Path projectDir, List<FlakyTest> flakyTests) {
+        var store = FlakyTests.load(projectDir);
+        Instant now = Instant.now();
+        List<FlakyTest> recorded = flakyTests.stream()
+                .map(f -> f.withFlakyRuns(store.record(f.testClass() + '#' + f.testMethod(), now)))
+                .toList();
+        store.save();
+        return recorded;
+    }
+
+    /**
+     * Test classes affected by the changed sources, or empty if compiled classes cannot be scanned.
+     */
+    private static Optional<Set<String>> selectAffectedTests(Path projectDir, ChangeDetector.ChangeSet changes) {
+        Path testClasses = projectDir.resolve(TestAvoidance.TEST_CLASSES_DIR);
+        try {
+            ClassIndex index = ClassIndex.scan(List.of(testClasses, projectDir.resolve(TestAvoidance.CLASSES_DIR)));
+            return Optional.of(TestImpactAnalysis.affectedTests(index, changes.classNames(), testClasses));
+        } catch (IOException e) {
+            log.debug("Test impact analysis failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Test classes Surefire would run by default in the root project or, for a reactor, in its
+     * modules; empty if compiled classes cannot be scanned.
+     */
+    private static Optional<List<String>> listTestClasses(Path projectDir, Optional<ReactorGraph> reactor) {
+        Set<String> names = new LinkedHashSet<>();
+        try {
+            for (Path moduleDir : moduleDirs(projectDir, reactor)) {
+                Path testClasses = moduleDir.resolve(TestAvoidance.TEST_CLASSES_DIR);
+                if (!Files.isDirectory(testClasses)) {
+                    continue;
+                }
+                ClassIndex index = ClassIndex.scan(List.of(testClasses, moduleDir.resolve(TestAvoidance.CLASSES_DIR)));
+                index.classNames().stream()
+                        .filter(name -> TestClasses.isTestClass(index, name, testClasses))
+                        .forEach(names::add);
+            }
+            return Optional.of(List.copyOf(names));
+        } catch (IOException e) {
+            log.debug("Failed to list test classes: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * The root project directory, plus each module's for a reactor.
+     */
+    private static List<Path> moduleDirs(Path projectDir, Optional<ReactorGraph> reactor) {
+        List<Path> dirs = new ArrayList<>();
+        dirs.add(projectDir);
+        reactor.ifPresent(graph -> graph.modules().keySet().stream()
+                .filter(module -> !module.isEmpty())
+                .forEach(module -> dirs.add(projectDir.resolve(module))));
+        return dirs;
+    }
+
+    /**
+     * Run the invocations at the same time, one virtual thread each, and wait for all of them.
+     */
+    private static List<MavenExecutionResult> executeConcurrently(MavenRunner runner, String goal,
+                                                                  List<List<String>> invocations,
+                                                                  ServerConfig config, FailureWatcher watcher)
+            throws InterruptedException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<MavenExecutionResult>> futures = new ArrayList<>(invocations.size());
+            for (List<String> invocationArgs : invocations) {
+                futures.add(executor.submit(() -> watcher != null
+                        ? runner.execute(goal, invocationArgs, config.mavenExecutable(), config.projectDir(), watcher)
+                        : runner.execute(goal, invocationArgs, config.mavenExecutable(), config.projectDir())));
+            }
+            List<MavenExecutionResult> results = new ArrayList<>(futures.size());
+            for (Future<MavenExecutionResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException runtime) {
+                        throw runtime;
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Surefire report directories of the project: the root's, plus each module's for a reactor.
+     */
+    private static Map<Path, String> reportsDirs(Path projectDir, Optional<ReactorGraph> reactor) {
+        Map<Path, String> dirs = new LinkedHashMap<>();
+        dirs.put(projectDir.resolve(SurefireReportParser.REPORTS_DIR), "");
+        reactor.ifPresent(graph -> graph.modules().keySet().stream()
+                .filter(module -> !module.isEmpty())
+                .forEach(module -> dirs.put(projectDir.resolve(module).resolve(SurefireReportParser.REPORTS_DIR),
+                        module)));
+        return dirs;
+    }
+
+    /**
+     * surefire:test needs compiled test classes in the root project or, for a reactor, in any module.
+     */
+    private static boolean hasTestClasses(Path projectDir, Optional<ReactorGraph> reactor) {
+        if (Files.isDirectory(projectDir.resolve(TestAvoidance.TEST_CLASSES_DIR))) {
+            return true;
+        }
+        return reactor.map(graph -> graph.modules().keySet().stream()
+                        .anyMatch(module -> Files.isDirectory(
+                                projectDir.resolve(module).resolve(TestAvoidance.TEST_CLASSES_DIR))))
+                .orElse(false);
+    }
+
+    static Path shardReportsDir(Path projectDir, int shard) {
+        return projectDir.resolve(SurefireReportParser.REPORTS_DIR).resolve(SHARD_DIR_PREFIX + shard);
+    }
+
+    /**
+     * Args selecting the given test classes, with the {@code -Dtest} value compacted to
+     * {@link LastFailures#MAX_FILTER_LENGTH} like the failedOnly filter, so the command line stays
+     * within OS limits.
+     *
+     * @return the args, or empty if even top-level package patterns do not fit
+     */
+    static Optional<List<String>> withTests(List<String> args, Collection<String> testClasses) {
+        return LastFailures.toClassFilter(testClasses, LastFailures.MAX_FILTER_LENGTH).map(filter -> {
+            List<String> result = new ArrayList<>(args);
+            result.add("-Dtest=" + filter);
+            result.add("-Dsurefire.failIfNoSpecifiedTests=false");
+            return result;
+        });
+    }
+
+    private static boolean hasTestFilter(Map<String, Object> params) {
+        return params.get("testFilter") instanceof String filter && !filter.isBlank();
+    }
+
+    private static String summarizeIds(Set<String> ids) {
+        String first = ids.stream().limit(5).collect(Collectors.joining(", "));
+        return ids.size() > 5 ? first + " (+" + (ids.size() - 5) + " more)" : first;
+    }
+
+    private static String cacheNote(TestAvoidance.Plan plan) {
+        return plan.cached().size() + " test class(es) skipped — bytecode and dependencies unchanged since "
+                + "their last passing run (cached). Set useCache=false to run everything.";
+    }
+
+    private static String failFastNote(FailureWatcher watcher) {
+        return "failFast: stopped after " + watcher.rootCauseCount() + " distinct failure root cause(s) — "
+                + "tests that had not finished were not run or reported.";
+    }
+
     private static List<String> buildArgs(Map<String, Object> params) {
         List<String> args = new ArrayList<>(ToolUtils.extractArgs(params));
 
@@ -310,15 +977,28 @@ public final class TestTool {
     }
 
     /**
-     * Delete all TEST-*.xml files from target/surefire-reports/ to prevent stale results.
-     * Best-effort: errors are silently ignored.
+     * Delete all TEST-*.xml files from target/surefire-reports/ and its shard-* directories
+     * to prevent stale results. Best-effort: errors are silently ignored.
      */
     static void cleanSurefireReports(Path projectDir) {
-        Path reportsDir = projectDir.resolve("target/surefire-reports");
+        Path reportsDir = projectDir.resolve(SurefireReportParser.REPORTS_DIR);
         if (!Files.isDirectory(reportsDir)) {
             return;
         }
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(reportsDir, "TEST-*.xml")) {
+        deleteReports(reportsDir);
+        try (DirectoryStream<Path> shards = Files.newDirectoryStream(reportsDir, SHARD_DIR_PREFIX + "*")) {
+            for (Path shard : shards) {
+                if (Files.isDirectory(shard)) {
+                    deleteReports(shard);
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Failed to clean shard reports: {}", e.getMessage());
+        }
+    }
+
+    private static void deleteReports(Path dir) {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "TEST-*.xml")) {
             for (Path file : stream) {
                 Files.deleteIfExists(file);
             }
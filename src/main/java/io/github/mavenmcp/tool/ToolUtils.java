@@ -4,15 +4,184 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.config.BuildLock;
+import io.github.mavenmcp.config.ProjectRegistry;
+import io.github.mavenmcp.formatter.JsonFormatter;
+import io.github.mavenmcp.formatter.MarkdownFormatter;
+import io.github.mavenmcp.maven.MavenExecutionException;
+import io.github.mavenmcp.metrics.ServerMetrics;
+import io.github.mavenmcp.metrics.ToolCallEvent;
+import io.github.mavenmcp.model.BuildResult;
+import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Shared utilities for MCP tool handlers.
  */
 final class ToolUtils {
 
+    private static final Logger log = LoggerFactory.getLogger(ToolUtils.class);
+
     private ToolUtils() {
     }
 
+    /**
+     * Run a tool handler in the project selected by the {@code project} parameter, holding the
+     * project's build lock so calls on the same project run one at a time. The call's latency and
+     * outcome are recorded in {@link ServerMetrics} and as a {@link ToolCallEvent}.
+     *
+     * @param projects the projects served
+     * @param params   the tool call parameters map
+     * @param toolName tool name, for logging and metrics
+     * @param handler  the handler body
+     * @return the handler's result, or an error result if the project cannot be used
+     */
+    static CallToolResult inProject(ProjectRegistry projects, Map<String, Object> params, String toolName,
+                                    Function<ProjectRegistry.Project, CallToolResult> handler) {
+        long start = System.nanoTime();
+        var event = new ToolCallEvent();
+        event.begin();
+        CallToolResult result = null;
+        try {
+            result = inLockedProject(projects, params, toolName, handler, event);
+            return result;
+        } finally {
+            recordToolCall(toolName, start, result, event);
+        }
+    }
+
+    private static CallToolResult inLockedProject(ProjectRegistry projects, Map<String, Object> params,
+                                                  String toolName,
+                                                  Function<ProjectRegistry.Project, CallToolResult> handler,
+                                                  ToolCallEvent event) {
+        ProjectRegistry.Project project;
+        try {
+            project = projects.acquire(params);
+        } catch (IllegalArgumentException e) {
+            log.error("{} rejected project: {}", toolName, e.getMessage());
+            return new CallToolResult(List.of(new TextContent("Error: " + e.getMessage())), true);
+        }
+        event.project = project.config().projectDir().toString();
+        BuildLock lock = project.buildLock();
+        if (!lock.tryLock()) {
+            log.info("{} waiting for the running build in {}", toolName, project.config().projectDir());
+            long waitStart = System.nanoTime();
+            lock.lock();
+            event.lockWait = System.nanoTime() - waitStart;
+            ServerMetrics.global().recordStage(ServerMetrics.STAGE_BUILD_LOCK_WAIT, event.lockWait);
+        }
+        try {
+            return handler.apply(project);
+        } finally {
+            lock.unlock();
+            projects.release(project);
+        }
+    }
+
+    /** A call without a result threw; count it as an error. */
+    private static void recordToolCall(String toolName, long start, CallToolResult result, ToolCallEvent event) {
+        boolean error = result == null || Boolean.TRUE.equals(result.isError());
+        ServerMetrics.global().recordToolCall(toolName, System.nanoTime() - start, error);
+        event.end();
+        if (event.shouldCommit()) {
+            event.tool = toolName;
+            event.error = error;
+            event.responseChars = result == null ? 0 : textLength(result);
+            event.commit();
+        }
+    }
+
+    private static long textLength(CallToolResult result) {
+        if (result.content() == null) {
+            return 0;
+        }
+        long length = 0;
+        for (var content : result.content()) {
+            if (content instanceof TextContent text && text.text() != null) {
+                length += text.text().length();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Runs the short steps of asynchronous tool calls (project resolution, argument and cache
+     * checks, output parsing) — the steps the sync server runs for the whole call.
+     */
+    static final Executor ASYNC_STEPS = task -> Schedulers.boundedElastic().schedule(task);
+
+    /**
+     * Asynchronous {@link #inProject}: the build lock is awaited and released without holding a
+     * thread, so a call queued behind a running build, or waiting for its own Maven process,
+     * costs no thread.
+     *
+     * @param projects the projects served
+     * @param params   the tool call parameters map
+     * @param toolName tool name, for logging
+     * @param handler  the handler body, started on {@link #ASYNC_STEPS} once the lock is held
+     * @return the handler's result; an error result if the project cannot be used or the
+     *         handler fails
+     */
+    static Mono<CallToolResult> inProjectAsync(ProjectRegistry projects, Map<String, Object> params,
+                                               String toolName,
+                                               Function<ProjectRegistry.Project, CompletableFuture<CallToolResult>> handler) {
+        return Mono.fromFuture(() -> {
+            long start = System.nanoTime();
+            var event = new ToolCallEvent();
+            event.begin();
+            return CompletableFuture.supplyAsync(() -> projects.acquire(params), ASYNC_STEPS)
+                    .thenCompose(project -> {
+                        event.project = project.config().projectDir().toString();
+                        BuildLock lock = project.buildLock();
+                        long waitStart = System.nanoTime();
+                        CompletableFuture<Void> granted = lock.acquire();
+                        if (!granted.isDone()) {
+                            log.info("{} waiting for the running build in {}", toolName, project.config().projectDir());
+                            granted = granted.thenRun(() -> {
+                                event.lockWait = System.nanoTime() - waitStart;
+                                ServerMetrics.global().recordStage(ServerMetrics.STAGE_BUILD_LOCK_WAIT, event.lockWait);
+                            });
+                        }
+                        return granted
+                                .thenComposeAsync(ignored -> handler.apply(project), ASYNC_STEPS)
+                                .whenComplete((result, error) -> {
+                                    lock.unlock();
+                                    projects.release(project);
+                                });
+                    })
+                    .exceptionally(e -> errorResult(toolName, e))
+                    .whenComplete((result, error) -> recordToolCall(toolName, start, result, event));
+        });
+    }
+
+    /**
+     * Error result for a failed tool call, as the sync handlers report them: "Error: ..." for
+     * expected failures (Maven could not run, project rejected), "Internal error: ..." otherwise.
+     *
+     * @param toolName tool name, for logging
+     * @param error    the failure, possibly wrapped in a {@link CompletionException}
+     * @return an error result
+     */
+    static CallToolResult errorResult(String toolName, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof MavenExecutionException || cause instanceof IllegalArgumentException) {
+            log.error("{} failed: {}", toolName, cause.getMessage());
+            return new CallToolResult(List.of(new TextContent("Error: " + cause.getMessage())), true);
+        }
+        log.error("Unexpected error in {}", toolName, cause);
+        return new CallToolResult(List.of(new TextContent("Internal error: " + cause.getMessage())), true);
+    }
+
     /**
      * Extract the "args" parameter from the tool call arguments.
      *
@@ -62,6 +231,67 @@ final class ToolUtils {
         return defaultValue;
     }
 
+    /**
+     * Extract the "maxOutputTokens" parameter as a character budget for the formatter.
+     *
+     * @param params the tool call parameters map
+     * @return character budget; {@link Integer#MAX_VALUE} when the budget is disabled (0 or negative)
+     */
+    static int extractMaxOutputChars(Map<String, Object> params) {
+        return MarkdownFormatter.tokensToChars(
+                extractInt(params, "maxOutputTokens", MarkdownFormatter.DEFAULT_MAX_OUTPUT_TOKENS));
+    }
+
+    /** Value of the "format" parameter selecting JSON output. */
+    static final String FORMAT_JSON = "json";
+
+    /**
+     * Whether the caller asked for JSON output via {@code "format": "json"}.
+     *
+     * @param params the tool call parameters map
+     * @return true for JSON, false for the default Markdown
+     */
+    static boolean isJsonFormat(Map<String, Object> params) {
+        return params.get("format") instanceof String format && FORMAT_JSON.equalsIgnoreCase(format.strip());
+    }
+
+    /**
+     * Render a BuildResult in the format requested by the caller.
+     * Markdown honors {@code maxOutputTokens}; JSON is returned in full, both as text content
+     * and as {@code structuredContent}.
+     *
+     * @param buildResult  the result to render
+     * @param operation    "Clean", "Compile", or "Test"
+     * @param params       the tool call parameters map
+     * @param objectMapper mapper supplying the JSON factory
+     * @return tool result (never an error result)
+     */
+    static CallToolResult toCallToolResult(BuildResult buildResult, String operation,
+                                           Map<String, Object> params, ObjectMapper objectMapper) {
+        return ServerMetrics.global().time(ServerMetrics.STAGE_RESPONSE_FORMAT, () -> {
+            if (isJsonFormat(params)) {
+                String json = JsonFormatter.format(buildResult, objectMapper.getFactory());
+                return new CallToolResult(List.of(new TextContent(json)), false, buildResult, null);
+            }
+            String markdown = MarkdownFormatter.format(buildResult, operation, extractMaxOutputChars(params));
+            return new CallToolResult(List.of(new TextContent(markdown)), false);
+        });
+    }
+
+    /**
+     * Append a sentence to a response note.
+     *
+     * @param note     the note so far, may be null
+     * @param addition text to append, may be null
+     * @return the combined note, or null if both are null
+     */
+    static String appendNote(String note, String addition) {
+        if (addition == null) {
+            return note;
+        }
+        return note == null ? addition : note + " " + addition;
+    }
+
     /** Default number of lines to keep from raw Maven output (tail). */
     static final int DEFAULT_OUTPUT_TAIL_LINES = 50;
 
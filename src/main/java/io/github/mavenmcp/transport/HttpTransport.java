@@ -0,0 +1,155 @@
+package io.github.mavenmcp.transport;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.logging.Level;
+
+import io.modelcontextprotocol.json.McpJsonMapper;
+import io.modelcontextprotocol.server.transport.HttpServletStreamableServerTransportProvider;
+import io.modelcontextprotocol.spec.McpStreamableServerTransportProvider;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.descriptor.web.FilterDef;
+import org.apache.tomcat.util.descriptor.web.FilterMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streamable HTTP transport: the MCP endpoint served by an embedded Tomcat on the loopback
+ * interface only, so one long-lived server (and its caches) can be shared by many clients.
+ * Requests whose {@code Host} or {@code Origin} is not a loopback address are rejected with 403
+ * (see {@link LoopbackOriginFilter}).
+ *
+ * <p>Create it, build the MCP server on {@link #provider()}, then {@link #start()} it —
+ * requests must not arrive before the server has registered its session factory.</p>
+ */
+public final class HttpTransport implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpTransport.class);
+
+    /** Path of the MCP endpoint. */
+    public static final String ENDPOINT = "/mcp";
+
+    /** Port used when none is given. */
+    public static final int DEFAULT_PORT = 8765;
+
+    /** Tomcat logs through java.util.logging; keep its lifecycle chatter out of the server log. */
+    private static final java.util.logging.Logger TOMCAT_LOG = java.util.logging.Logger.getLogger("org.apache");
+
+    static {
+        TOMCAT_LOG.setLevel(Level.WARNING);
+    }
+
+    private final HttpServletStreamableServerTransportProvider provider;
+    private final Tomcat tomcat;
+    private final Connector connector;
+    private final Path baseDir;
+
+    private HttpTransport(HttpServletStreamableServerTransportProvider provider, Tomcat tomcat,
+                          Connector connector, Path baseDir) {
+        this.provider = provider;
+        this.tomcat = tomcat;
+        this.connector = connector;
+        this.baseDir = baseDir;
+    }
+
+    /**
+     * Configure the transport without binding the port.
+     *
+     * @param port       TCP port on 127.0.0.1; 0 picks a free port
+     * @param jsonMapper mapper for the MCP messages
+     * @return the transport
+     * @throws IOException if Tomcat's scratch directory cannot be created
+     */
+    public static HttpTransport create(int port, McpJsonMapper jsonMapper) throws IOException {
+        var provider = HttpServletStreamableServerTransportProvider.builder()
+                .jsonMapper(jsonMapper)
+                .mcpEndpoint(ENDPOINT)
+                .build();
+
+        Path baseDir = Files.createTempDirectory("maven-mcp-http");
+        var tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.toString());
+
+        var connector = new Connector();
+        connector.setPort(port);
+        connector.setProperty("address", InetAddress.getLoopbackAddress().getHostAddress());
+        tomcat.getService().addConnector(connector);
+        tomcat.setConnector(connector);
+
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "mcp", provider).setAsyncSupported(true);
+        context.addServletMappingDecoded(ENDPOINT, "mcp");
+
+        var filterDef = new FilterDef();
+        filterDef.setFilterName("loopback-origin");
+        filterDef.setFilter(new LoopbackOriginFilter());
+        filterDef.setAsyncSupported("true");
+        context.addFilterDef(filterDef);
+        var filterMap = new FilterMap();
+        filterMap.setFilterName("loopback-origin");
+        filterMap.addURLPattern("/*");
+        context.addFilterMap(filterMap);
+        return new HttpTransport(provider, tomcat, connector, baseDir);
+    }
+
+    /**
+     * @return the transport provider to build the MCP server on
+     */
+    public McpStreamableServerTransportProvider provider() {
+        return provider;
+    }
+
+    /**
+     * Bind the port and start serving.
+     *
+     * @throws LifecycleException if Tomcat cannot start, e.g. the port is in use
+     */
+    public void start() throws LifecycleException {
+        tomcat.start();
+        log.debug("Tomcat started on {}", endpoint());
+    }
+
+    /**
+     * @return the bound port (the actual one if created with port 0)
+     */
+    public int port() {
+        return connector.getLocalPort();
+    }
+
+    /**
+     * @return URL of the MCP endpoint
+     */
+    public URI endpoint() {
+        return URI.create("http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + port() + ENDPOINT);
+    }
+
+    /**
+     * Close client sessions and stop Tomcat.
+     */
+    @Override
+    public void close() {
+        try {
+            provider.closeGracefully().block();
+        } catch (RuntimeException e) {
+            log.debug("Closing MCP sessions failed: {}", e.getMessage());
+        }
+        try {
+            tomcat.stop();
+            tomcat.destroy();
+        } catch (LifecycleException e) {
+            log.debug("Stopping Tomcat failed: {}", e.getMessage());
+        }
+        try (var files = Files.walk(baseDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            // scratch directory only
+        }
+    }
+}
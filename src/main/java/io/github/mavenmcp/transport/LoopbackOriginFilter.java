@@ -0,0 +1,84 @@
+package io.github.mavenmcp.transport;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Locale;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rejects requests that did not come from a local client, guarding against DNS rebinding: a web
+ * page whose host name resolves to 127.0.0.1 reaches the loopback port, but its requests carry
+ * that foreign name in {@code Host} and its own site in {@code Origin}.
+ *
+ * <p>Requests pass only if {@code Host} names a loopback address and {@code Origin} is absent
+ * (non-browser clients) or names a loopback address; others get 403. Names are compared
+ * literally, never resolved.</p>
+ */
+final class LoopbackOriginFilter implements Filter {
+
+    private static final Logger log = LoggerFactory.getLogger(LoopbackOriginFilter.class);
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        var http = (HttpServletRequest) request;
+        String host = http.getHeader("Host");
+        String origin = http.getHeader("Origin");
+        if (!isLoopbackHost(hostName(host)) || (origin != null && !isLoopbackHost(originHost(origin)))) {
+            log.warn("Rejected HTTP request with Host {} and Origin {}", host, origin);
+            ((HttpServletResponse) response).sendError(HttpServletResponse.SC_FORBIDDEN,
+                    "Only local clients may use this server");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * @param host host name or address literal, IPv6 with or without brackets; may be null
+     * @return true for {@code localhost}, 127.0.0.0/8 and ::1
+     */
+    static boolean isLoopbackHost(String host) {
+        if (host == null || host.isEmpty()) {
+            return false;
+        }
+        String name = host.toLowerCase(Locale.ROOT);
+        if (name.startsWith("[") && name.endsWith("]")) {
+            name = name.substring(1, name.length() - 1);
+        }
+        return name.equals("localhost") || name.equals("::1") || name.equals("0:0:0:0:0:0:0:1")
+                || name.matches("127(\\.(25[0-5]|2[0-4]\\d|1?\\d?\\d)){3}");
+    }
+
+    /** Host part of a {@code Host} header: the header without its port. */
+    private static String hostName(String header) {
+        if (header == null) {
+            return null;
+        }
+        String value = header.strip();
+        if (value.startsWith("[")) {
+            int end = value.indexOf(']');
+            return end > 0 ? value.substring(0, end + 1) : null;
+        }
+        int colon = value.indexOf(':');
+        return colon >= 0 ? value.substring(0, colon) : value;
+    }
+
+    /** Host of an {@code Origin} header; null for {@code null} and unparsable origins. */
+    private static String originHost(String origin) {
+        try {
+            return new URI(origin.strip()).getHost();
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+}
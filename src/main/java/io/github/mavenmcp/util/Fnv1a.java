@@ -0,0 +1,52 @@
+package io.github.mavenmcp.util;
+
+/**
+ * 64-bit FNV-1a hashing, shared by the fingerprints and caches. Hashes are folded: start from
+ * {@link #OFFSET_BASIS} and pass each result into the next call.
+ *
+ * <p>Strings are hashed per UTF-16 char, longs per byte (little-endian), byte arrays per byte.
+ * Persisted cache keys depend on this, so the scheme must not change.</p>
+ */
+public final class Fnv1a {
+
+    /** Initial hash value. */
+    public static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long PRIME = 0x100000001b3L;
+
+    private Fnv1a() {
+    }
+
+    /**
+     * @return {@code hash} folded with each char of {@code text}
+     */
+    public static long hash(long hash, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * @return {@code hash} folded with the eight bytes of {@code value}, lowest first
+     */
+    public static long hash(long hash, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * @return {@code hash} folded with each byte of {@code bytes}
+     */
+    public static long hash(long hash, byte[] bytes) {
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= PRIME;
+        }
+        return hash;
+    }
+}
@@ -6,8 +6,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -94,6 +99,85 @@ class BootstrapTest {
         assertThat(ArgCaptor.captured).containsExactly("--project", "/tmp");
     }
 
+    @Test
+    void cdsIsDisabledOnlyByExplicitFalse() {
+        assertThat(Bootstrap.cdsEnabled(null, null)).isTrue();
+        assertThat(Bootstrap.cdsEnabled("true", null)).isTrue();
+        assertThat(Bootstrap.cdsEnabled("FALSE", null)).isFalse();
+        assertThat(Bootstrap.cdsEnabled(null, "false")).isFalse();
+    }
+
+    @Test
+    void archiveNameChangesWithJarAndJvm() {
+        String name = Bootstrap.archiveName("/opt/maven-mcp.jar", 100, 1000, "/jdk21", "21.0.1+12");
+
+        assertThat(name).matches("maven-mcp-[0-9a-f]+\\.jsa");
+        assertThat(Bootstrap.archiveName("/opt/maven-mcp.jar", 100, 1000, "/jdk21", "21.0.1+12")).isEqualTo(name);
+        assertThat(Bootstrap.archiveName("/opt/maven-mcp.jar", 100, 2000, "/jdk21", "21.0.1+12")).isNotEqualTo(name);
+        assertThat(Bootstrap.archiveName("/opt/maven-mcp.jar", 100, 1000, "/jdk22", "22+36")).isNotEqualTo(name);
+    }
+
+    @Test
+    void archiveDirPrefersOverrideThenCacheHome() {
+        assertThat(Bootstrap.archiveDir("/tmp/cds", Map.of("XDG_CACHE_HOME", "/cache"), "/home/u"))
+                .isEqualTo(Path.of("/tmp/cds"));
+        assertThat(Bootstrap.archiveDir(null, Map.of("XDG_CACHE_HOME", "/cache"), "/home/u"))
+                .isEqualTo(Path.of("/cache", "maven-mcp", "cds"));
+        assertThat(Bootstrap.archiveDir(null, Map.of(), "/home/u"))
+                .isEqualTo(Path.of("/home/u", ".cache", "maven-mcp", "cds"));
+    }
+
+    @Test
+    void buildCommandCreatesArchiveOnFirstLaunch() {
+        List<String> command = Bootstrap.buildCommand("/jdk/bin/java", List.of("-Xmx512m"), "/opt/maven-mcp.jar",
+                "/cache/a.jsa.42.tmp", true, 1234L, new String[]{"--project", "/work"});
+
+        assertThat(command).startsWith("/jdk/bin/java").contains("-Xmx512m")
+                .contains("-XX:ArchiveClassesAtExit=/cache/a.jsa.42.tmp", "-Dmaven.mcp.cds.mode=create",
+                        "-Dmaven.mcp.launchedAt=1234", "-Xlog:all=warning:stderr")
+                .endsWith("-cp", "/opt/maven-mcp.jar", Bootstrap.class.getName(), "--project", "/work");
+    }
+
+    @Test
+    void buildCommandKeepsUserLoggingOptions() {
+        List<String> command = Bootstrap.buildCommand("/jdk/bin/java", List.of("-Xlog:gc*:file=gc.log"),
+                "/opt/maven-mcp.jar", "/cache/a.jsa", false, 1234L, new String[0]);
+
+        assertThat(command.indexOf("-Xlog:gc*:file=gc.log"))
+                .isGreaterThan(command.indexOf("-Xlog:disable"))
+                .isGreaterThan(command.indexOf("-Xlog:all=warning:stderr"));
+    }
+
+    @Test
+    void buildCommandUsesExistingArchive() {
+        List<String> command = Bootstrap.buildCommand("/jdk/bin/java", List.of(), "/opt/maven-mcp.jar",
+                "/cache/a.jsa", false, 1234L, new String[0]);
+
+        assertThat(command).contains("-XX:SharedArchiveFile=/cache/a.jsa", "-Dmaven.mcp.cds.mode=use")
+                .noneMatch(arg -> arg.contains("ArchiveClassesAtExit"));
+    }
+
+    @Test
+    void agentArgumentsAreRecognized() {
+        assertThat(Bootstrap.isAgentArgument("-agentlib:jdwp=transport=dt_socket,server=y,address=5005")).isTrue();
+        assertThat(Bootstrap.isAgentArgument("-javaagent:/opt/agent.jar")).isTrue();
+        assertThat(Bootstrap.isAgentArgument("-agentpath:/opt/libprof.so")).isTrue();
+        assertThat(Bootstrap.isAgentArgument("-Xmx512m")).isFalse();
+    }
+
+    @Test
+    void deleteStaleDumpsKeepsDumpsOfRunningLaunchers(@TempDir Path dir) throws IOException {
+        Path live = Files.writeString(dir.resolve("maven-mcp-ab.jsa." + ProcessHandle.current().pid() + ".tmp"), "x");
+        Path stale = Files.writeString(dir.resolve("maven-mcp-ab.jsa." + Long.MAX_VALUE + ".tmp"), "x");
+        Path archive = Files.writeString(dir.resolve("maven-mcp-ab.jsa"), "x");
+
+        Bootstrap.deleteStaleDumps(dir);
+
+        assertThat(live).exists();
+        assertThat(stale).doesNotExist();
+        assertThat(archive).exists();
+    }
+
     /** Test helper: captures args passed to main(). */
     public static class ArgCaptor {
         static String[] captured;
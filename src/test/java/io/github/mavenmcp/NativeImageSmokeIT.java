@@ -0,0 +1,100 @@
+package io.github.mavenmcp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Drives the native executable built by the {@code native} profile over stdio.
+ * Runs under failsafe ({@code mvn -Pnative verify}); skipped when no executable was built.
+ */
+class NativeImageSmokeIT {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path projectDir;
+
+    @Test
+    void shouldInitializeAndListToolsOverStdio() throws Exception {
+        Path executable = executable();
+        assumeTrue(executable != null, "native executable not built");
+        Files.writeString(projectDir.resolve("pom.xml"), "<project/>\n");
+        Path mvnw = projectDir.resolve("mvnw");
+        Files.writeString(mvnw, "#!/bin/sh\nexit 0\n");
+        mvnw.toFile().setExecutable(true);
+
+        Process process = new ProcessBuilder(executable.toString(), "--project", projectDir.toString())
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try (var reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            OutputStream stdin = process.getOutputStream();
+            long start = System.nanoTime();
+            send(stdin, "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"initialize\",\"params\":{\"protocolVersion\":\"2024-11-05\",\"capabilities\":{},\"clientInfo\":{\"name\":\"smoke\",\"version\":\"1.0\"}}}");
+            JsonNode init = readResponse(reader);
+            long startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertThat(init.path("result").path("serverInfo").path("name").asText()).isEqualTo("maven-mcp");
+
+            send(stdin, "{\"jsonrpc\":\"2.0\",\"method\":\"notifications/initialized\"}");
+            send(stdin, "{\"jsonrpc\":\"2.0\",\"id\":2,\"method\":\"tools/list\"}");
+            JsonNode tools = readResponse(reader);
+
+            List<String> names = new ArrayList<>();
+            tools.path("result").path("tools").forEach(tool -> names.add(tool.path("name").asText()));
+            assertThat(names).contains("maven_compile", "maven_test", "maven_clean");
+            System.out.println("native startup to initialize response: " + startupMillis + " ms");
+
+            stdin.close();
+            assertThat(process.waitFor(10, TimeUnit.SECONDS)).as("server exits on stdin EOF").isTrue();
+        } finally {
+            process.destroyForcibly();
+        }
+    }
+
+    private static Path executable() {
+        String property = System.getProperty("native.executable");
+        if (property == null) {
+            return null;
+        }
+        for (Path candidate : List.of(Path.of(property), Path.of(property + ".exe"))) {
+            if (Files.isExecutable(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static void send(OutputStream stdin, String message) throws IOException {
+        stdin.write((message + "\n").getBytes(StandardCharsets.UTF_8));
+        stdin.flush();
+    }
+
+    private static JsonNode readResponse(BufferedReader reader) throws Exception {
+        String line = CompletableFuture.supplyAsync(() -> {
+            try {
+                return reader.readLine();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }).get(30, TimeUnit.SECONDS);
+        assertThat(line).as("response line").isNotNull();
+        return MAPPER.readTree(line);
+    }
+}
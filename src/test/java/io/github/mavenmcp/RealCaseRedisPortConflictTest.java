@@ -2,6 +2,7 @@ package io.github.mavenmcp;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.mavenmcp.model.TestFailure;
+import io.github.mavenmcp.parser.FrameCache;
 import io.github.mavenmcp.parser.StackTraceProcessor;
 import io.github.mavenmcp.parser.SurefireReportParser;
 import io.github.mavenmcp.parser.SurefireReportParser.SurefireResult;
@@ -163,6 +164,57 @@ class RealCaseRedisPortConflictTest {
         System.out.println();
     }
 
+    @Test
+    void sharedFrameCacheShouldScaleToTenThousandFailures() {
+        // --- Arrange: cycle the real-case traces up to 10k failures (in memory, no XML) ---
+        int failureCount = 10_000;
+        List<TestFailure> failures = new ArrayList<>(failureCount);
+        String fullTrace = buildFullStackTrace(TEST_CLASSES.get(0));
+        for (int i = 0; i < failureCount; i++) {
+            String testClass = TEST_CLASSES.get(i % TEST_CLASSES.size());
+            String trace = i == 0 ? fullTrace : buildThresholdTrace(testClass);
+            failures.add(new TestFailure(testClass, "testMethod" + i, null, trace, null));
+        }
+
+        // --- Act: per-trace classification vs. one run-scoped cache ---
+        long uncachedStart = System.nanoTime();
+        List<TestFailure> uncached = new ArrayList<>(failureCount);
+        for (TestFailure f : failures) {
+            uncached.add(f.withStackTrace(StackTraceProcessor.process(f.stackTrace(), "com.example", 50)));
+        }
+        long uncachedNanos = System.nanoTime() - uncachedStart;
+
+        FrameCache frameCache = new FrameCache("com.example");
+        long cachedStart = System.nanoTime();
+        List<TestFailure> cached = new ArrayList<>(failureCount);
+        for (TestFailure f : failures) {
+            cached.add(f.withStackTrace(StackTraceProcessor.processWithCache(f.stackTrace(), frameCache, 50)));
+        }
+        long cachedNanos = System.nanoTime() - cachedStart;
+
+        List<TestFailure> deduplicated = TestFailureDeduplicator.deduplicate(cached);
+
+        // --- Assert: identical output, bounded cache, almost every lookup is a hit ---
+        assertThat(cached).isEqualTo(uncached);
+        assertThat(deduplicated).hasSize(2);
+        assertThat(frameCache.size()).isLessThanOrEqualTo(FrameCache.DEFAULT_MAX_ENTRIES);
+        assertThat(frameCache.hits()).isGreaterThan(frameCache.misses() * 100);
+
+        // --- Diagnostic output (intentional for this integration test) ---
+        System.out.println();
+        System.out.println("=== Frame Cache Throughput (10k failures) ===");
+        System.out.println();
+        System.out.printf("  Per-trace classification: %,d ms (%,.0f failures/s)%n",
+                uncachedNanos / 1_000_000, failureCount / (uncachedNanos / 1e9));
+        System.out.printf("  Shared frame cache:       %,d ms (%,.0f failures/s)%n",
+                cachedNanos / 1_000_000, failureCount / (cachedNanos / 1e9));
+        System.out.printf("  Cache hits / misses:      %,d / %,d (%d entries)%n",
+                frameCache.hits(), frameCache.misses(), frameCache.size());
+        System.out.println();
+        System.out.println("=============================================");
+        System.out.println();
+    }
+
     // ---- XML generation ----
 
     private void writeXml(String testClass, String message, String stackTrace) throws IOException {
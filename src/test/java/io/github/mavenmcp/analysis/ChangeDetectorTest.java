@@ -0,0 +1,130 @@
+package io.github.mavenmcp.analysis;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ChangeDetectorTest {
+
+    @TempDir
+    Path projectDir;
+
+    @Nested
+    class ChangeSetMapping {
+
+        @Test
+        void shouldMapJavaSourcesToClassNames() {
+            var changes = ChangeDetector.ChangeSet.of("git", Set.of(
+                    "src/main/java/com/example/Foo.java",
+                    "module-a/src/test/java/com/example/FooTest.java",
+                    "README.md"));
+
+            assertThat(changes.classNames()).containsExactlyInAnyOrder("com.example.Foo", "com.example.FooTest");
+            assertThat(changes.requiresFullRun()).isFalse();
+        }
+
+        @Test
+        void shouldRequireFullRunForPomAndResources() {
+            assertThat(ChangeDetector.ChangeSet.of("git", Set.of("pom.xml")).requiresFullRun()).isTrue();
+            assertThat(ChangeDetector.ChangeSet.of("git", Set.of("src/test/resources/app.yml")).requiresFullRun())
+                    .isTrue();
+            assertThat(ChangeDetector.ChangeSet.of("git", Set.of("docs/guide.md")).requiresFullRun()).isFalse();
+        }
+
+        @Test
+        void shouldNotMapPackageInfo() {
+            assertThat(ChangeDetector.ChangeSet.classNameOf("src/main/java/com/example/package-info.java")).isEmpty();
+            assertThat(ChangeDetector.ChangeSet.classNameOf("src/main/kotlin/com/example/Foo.kt")).isEmpty();
+        }
+    }
+
+    @Nested
+    class Timestamps {
+
+        @Test
+        void shouldBeUnknownWithoutMarker() {
+            assertThat(ChangeDetector.fromTimestamps(projectDir)).isEmpty();
+        }
+
+        @Test
+        void shouldReportSourcesModifiedAfterLastRun() throws IOException {
+            Path changed = projectDir.resolve("src/main/java/com/example/Foo.java");
+            Path unchanged = projectDir.resolve("src/main/java/com/example/Bar.java");
+            Files.createDirectories(changed.getParent());
+            Files.writeString(changed, "class Foo {}");
+            Files.writeString(unchanged, "class Bar {}");
+            Files.setLastModifiedTime(unchanged, FileTime.from(Instant.now().minusSeconds(60)));
+            ChangeDetector.markTestRun(projectDir);
+            Files.setLastModifiedTime(projectDir.resolve(ChangeDetector.MARKER_FILE),
+                    FileTime.from(Instant.now().minusSeconds(30)));
+
+            var changes = ChangeDetector.fromTimestamps(projectDir).orElseThrow();
+
+            assertThat(changes.method()).isEqualTo("timestamps");
+            assertThat(changes.classNames()).containsExactly("com.example.Foo");
+        }
+    }
+
+    @Test
+    void shouldCheckEveryModuleForTimestampChanges() throws IOException {
+        Path changed = projectDir.resolve("core/src/main/java/com/example/Core.java");
+        Files.createDirectories(changed.getParent());
+        Files.writeString(changed, "class Core {}");
+        Files.createDirectories(projectDir.resolve("api"));
+        Files.writeString(projectDir.resolve("api/pom.xml"), "<project/>");
+        ChangeDetector.markTestRun(projectDir);
+        Files.setLastModifiedTime(projectDir.resolve(ChangeDetector.MARKER_FILE),
+                FileTime.from(Instant.now().minusSeconds(30)));
+
+        var changes = ChangeDetector.fromTimestamps(projectDir, List.of("", "core", "api")).orElseThrow();
+
+        assertThat(changes.files()).containsExactlyInAnyOrder(
+                "core/src/main/java/com/example/Core.java", "api/pom.xml");
+    }
+
+    @Nested
+    class Git {
+
+        private boolean git(String... args) throws IOException, InterruptedException {
+            List<String> command = new ArrayList<>(List.of("git", "-C", projectDir.toString(),
+                    "-c", "user.name=test", "-c", "user.email=test@example.com", "-c", "commit.gpgsign=false"));
+            command.addAll(List.of(args));
+            try {
+                return new ProcessBuilder(command).redirectErrorStream(true)
+                        .redirectOutput(ProcessBuilder.Redirect.DISCARD).start().waitFor() == 0;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Test
+        void shouldReportModifiedAndUntrackedFiles() throws Exception {
+            assumeTrue(git("init", "-q"), "git not available");
+            Path tracked = projectDir.resolve("src/main/java/com/example/Foo.java");
+            Files.createDirectories(tracked.getParent());
+            Files.writeString(tracked, "class Foo {}");
+            Files.writeString(projectDir.resolve("src/main/java/com/example/Same.java"), "class Same {}");
+            assumeTrue(git("add", "-A") && git("commit", "-q", "-m", "init"), "git commit failed");
+
+            Files.writeString(tracked, "class Foo { int x; }");
+            Files.writeString(projectDir.resolve("src/main/java/com/example/New.java"), "class New {}");
+
+            var changes = ChangeDetector.detect(projectDir).orElseThrow();
+
+            assertThat(changes.method()).isEqualTo("git");
+            assertThat(changes.classNames()).containsExactlyInAnyOrder("com.example.Foo", "com.example.New");
+        }
+    }
+}
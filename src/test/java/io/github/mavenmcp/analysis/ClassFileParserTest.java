@@ -0,0 +1,68 @@
+package io.github.mavenmcp.analysis;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClassFileParserTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ClassFileParser.ClassFileInfo compileAndParse(String className, Map<String, String> sources)
+            throws IOException {
+        Path out = tempDir.resolve("classes");
+        CompiledFixture.compile(tempDir.resolve("src"), out, sources);
+        return ClassFileParser.parse(Files.readAllBytes(out.resolve(className.replace('.', '/') + ".class")));
+    }
+
+    @Test
+    void shouldReadNameAndDirectReferences() throws IOException {
+        var info = compileAndParse("com.example.Service", Map.of(
+                "com/example/Repo.java", "package com.example; public class Repo { public int count() { return 1; } }",
+                "com/example/Service.java", """
+                        package com.example;
+                        public class Service {
+                            private final Repo repo = new Repo();
+                            public int total() { return repo.count(); }
+                        }
+                        """));
+
+        assertThat(info.name()).isEqualTo("com.example.Service");
+        assertThat(info.references()).contains("com.example.Repo", "java.lang.Object");
+        assertThat(info.references()).doesNotContain("com.example.Service");
+        assertThat(info.isAbstract()).isFalse();
+    }
+
+    @Test
+    void shouldFindTypesOnlyMentionedInDescriptorsAndSignatures() throws IOException {
+        var info = compileAndParse("com.example.Holder", Map.of(
+                "com/example/Model.java", "package com.example; public class Model {}",
+                "com/example/Tag.java", "package com.example; public @interface Tag {}",
+                "com/example/Holder.java", """
+                        package com.example;
+                        import java.util.List;
+                        @Tag
+                        public abstract class Holder {
+                            List<Model> models;
+                            abstract long[] ids(int a, Model[] m);
+                        }
+                        """));
+
+        assertThat(info.references()).contains("com.example.Model", "com.example.Tag", "java.util.List");
+        assertThat(info.isAbstract()).isTrue();
+    }
+
+    @Test
+    void shouldRejectNonClassBytes() {
+        assertThatThrownBy(() -> ClassFileParser.parse(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10}))
+                .isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.mavenmcp.analysis;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClassIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path classes;
+    private Path testClasses;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        classes = tempDir.resolve("target/classes");
+        testClasses = tempDir.resolve("target/test-classes");
+        CompiledFixture.compile(tempDir.resolve("src/main/java"), classes, Map.of(
+                "com/example/Repo.java", "package com.example; public class Repo { public int count() { return 1; } }",
+                "com/example/Service.java",
+                "package com.example; public class Service { public int total() { return new Repo().count(); } }",
+                "com/example/Unused.java", "package com.example; public class Unused {}"));
+        CompiledFixture.compile(tempDir.resolve("src/test/java"), testClasses, Map.of(
+                "com/example/ServiceTest.java", """
+                        package com.example;
+                        public class ServiceTest {
+                            class Nested { int v = new Service().total(); }
+                        }
+                        """), classes);
+    }
+
+    @Test
+    void shouldIndexClassesWithRoots() throws IOException {
+        var index = ClassIndex.scan(List.of(testClasses, classes));
+
+        assertThat(index.classNames()).contains("com.example.ServiceTest", "com.example.ServiceTest$Nested",
+                "com.example.Service", "com.example.Repo");
+        assertThat(index.root("com.example.ServiceTest")).contains(testClasses);
+        assertThat(index.root("com.example.Repo")).contains(classes);
+    }
+
+    @Test
+    void shouldRestrictDependenciesToIndexedClasses() throws IOException {
+        var index = ClassIndex.scan(List.of(testClasses, classes));
+
+        assertThat(index.dependencies("com.example.Service")).containsExactly("com.example.Repo");
+    }
+
+    @Test
+    void shouldComputeTransitiveClosureThroughNestedClasses() throws IOException {
+        var index = ClassIndex.scan(List.of(testClasses, classes));
+
+        assertThat(index.transitiveDependencies("com.example.ServiceTest")).hasValueSatisfying(closure ->
+                assertThat(closure).contains("com.example.ServiceTest", "com.example.ServiceTest$Nested",
+                        "com.example.Service", "com.example.Repo").doesNotContain("com.example.Unused"));
+    }
+
+    @Test
+    void shouldSkipMissingDirectories() throws IOException {
+        var index = ClassIndex.scan(List.of(tempDir.resolve("missing"), classes));
+
+        assertThat(index.contains("com.example.Repo")).isTrue();
+        assertThat(index.digest("com.example.Missing")).isEmpty();
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.mavenmcp.analysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+/**
+ * Compiles small Java sources into a class output directory for bytecode analysis tests.
+ */
+public final class CompiledFixture {
+
+    private CompiledFixture() {
+    }
+
+    /**
+     * Compile sources (file path relative to {@code sourceRoot} to content) into {@code outputDir},
+     * with {@code classpath} entries available for compilation.
+     */
+    public static void compile(Path sourceRoot, Path outputDir, Map<String, String> sources, Path... classpath)
+            throws IOException {
+        List<String> args = new ArrayList<>(List.of("-d", outputDir.toString(), "-proc:none"));
+        if (classpath.length > 0) {
+            args.add("-cp");
+            args.add(String.join(File.pathSeparator, Arrays.stream(classpath).map(Path::toString).toList()));
+        }
+        for (var source : sources.entrySet()) {
+            Path file = sourceRoot.resolve(source.getKey());
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, source.getValue());
+            args.add(file.toString());
+        }
+        Files.createDirectories(outputDir);
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int exit = compiler.run(null, null, null, args.toArray(String[]::new));
+        if (exit != 0) {
+            throw new IllegalStateException("Fixture compilation failed");
+        }
+    }
+}
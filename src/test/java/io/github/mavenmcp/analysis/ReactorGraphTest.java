@@ -0,0 +1,163 @@
+package io.github.mavenmcp.analysis;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactorGraphTest {
+
+    @TempDir
+    Path projectDir;
+
+    @BeforeEach
+    void createReactor() throws IOException {
+        pom("", """
+                <groupId>com.example</groupId><artifactId>root</artifactId><packaging>pom</packaging>
+                <properties><web.group>com.example.web</web.group></properties>
+                <modules><module>core</module><module>api</module><module>services</module>\
+                <module>tools</module></modules>""");
+        pom("core", """
+                <parent><groupId>com.example</groupId><artifactId>root</artifactId></parent>
+                <artifactId>core</artifactId>""");
+        pom("api", """
+                <parent><groupId>com.example</groupId><artifactId>root</artifactId></parent>
+                <artifactId>api</artifactId>
+                <dependencies><dependency><groupId>${project.groupId}</groupId>\
+                <artifactId>core</artifactId></dependency></dependencies>""");
+        pom("services", """
+                <parent><groupId>com.example</groupId><artifactId>root</artifactId></parent>
+                <artifactId>services</artifactId><packaging>pom</packaging>
+                <modules><module>web</module></modules>""");
+        pom("services/web", """
+                <parent><groupId>com.example</groupId><artifactId>services</artifactId></parent>
+                <groupId>${web.group}</groupId><artifactId>web</artifactId>
+                <dependencies><dependency><groupId>com.example</groupId>\
+                <artifactId>api</artifactId></dependency></dependencies>""");
+        pom("tools", """
+                <parent><groupId>com.example</groupId><artifactId>root</artifactId></parent>
+                <artifactId>tools</artifactId>
+                <dependencies><dependency><groupId>org.other</groupId>\
+                <artifactId>core</artifactId></dependency></dependencies>""");
+    }
+
+    @Test
+    void shouldReadModulesAndDependencies() {
+        var graph = ReactorGraph.load(projectDir).orElseThrow();
+
+        assertThat(graph.isMultiModule()).isTrue();
+        assertThat(graph.modules().keySet()).containsExactly("", "core", "api", "services", "tools", "services/web");
+        assertThat(graph.modules().get("services/web").groupId()).isEqualTo("com.example.web");
+        assertThat(graph.modules().get("services/web").upstream()).containsExactlyInAnyOrder("api", "services");
+        assertThat(graph.modules().get("tools").upstream()).containsExactly("");
+    }
+
+    @Test
+    void shouldSelectChangedModulesAndDependents() {
+        var selection = ReactorGraph.load(projectDir).orElseThrow().select(List.of(
+                "core/src/main/java/com/example/Core.java",
+                "api/src/main/java/com/example/Api.java",
+                "README.md"));
+
+        assertThat(selection.fullBuild()).isFalse();
+        assertThat(selection.changed()).containsExactly("api", "core");
+        assertThat(selection.projects()).containsExactly("core");
+        assertThat(selection.affected()).containsExactly("api", "core", "services/web");
+    }
+
+    @Test
+    void shouldAttributeFilesToInnermostModule() {
+        var selection = ReactorGraph.load(projectDir).orElseThrow()
+                .select(List.of("services/web/src/main/java/Web.java"));
+
+        assertThat(selection.changed()).containsExactly("services/web");
+    }
+
+    @Test
+    void shouldRequireFullBuildForRootPom() {
+        var selection = ReactorGraph.load(projectDir).orElseThrow().select(List.of("pom.xml"));
+
+        assertThat(selection.fullBuild()).isTrue();
+    }
+
+    @Test
+    void shouldReuseCachedGraphUntilPomChanges() throws IOException {
+        var first = ReactorGraph.load(projectDir).orElseThrow();
+        assertThat(ReactorGraph.load(projectDir).orElseThrow()).isSameAs(first);
+
+        pom("tools", """
+                <parent><groupId>com.example</groupId><artifactId>root</artifactId></parent>
+                <artifactId>tools</artifactId>
+                <dependencies><dependency><groupId>com.example</groupId>\
+                <artifactId>core</artifactId></dependency></dependencies>""");
+
+        var reloaded = ReactorGraph.load(projectDir).orElseThrow();
+        assertThat(reloaded).isNotSameAs(first);
+        assertThat(reloaded.withDownstream(Set.of("core"))).contains("tools");
+    }
+
+    @Test
+    void shouldNotBeMultiModuleWithoutModules(@TempDir Path single) throws IOException {
+        Files.writeString(single.resolve("pom.xml"),
+                "<project><groupId>com.example</groupId><artifactId>app</artifactId></project>");
+
+        assertThat(ReactorGraph.load(single).orElseThrow().isMultiModule()).isFalse();
+    }
+
+    @Test
+    void shouldFailOnMissingModulePom() throws IOException {
+        Files.delete(projectDir.resolve("tools/pom.xml"));
+
+        assertThat(ReactorGraph.load(projectDir)).isEmpty();
+    }
+
+    @Test
+    void shouldRecordExternalParentsAndSnapshotDependencies(@TempDir Path workspace) throws IOException {
+        Path parent = workspace.resolve("parent/pom.xml");
+        Files.createDirectories(parent.getParent());
+        Files.writeString(parent, """
+                <project><groupId>com.example</groupId><artifactId>parent</artifactId><version>1</version>
+                <properties><lib.version>2.0-SNAPSHOT</lib.version></properties>
+                <dependencyManagement><dependencies><dependency><groupId>org.lib</groupId>\
+                <artifactId>lib</artifactId><version>${lib.version}</version></dependency></dependencies>\
+                </dependencyManagement></project>""");
+        Path app = Files.createDirectories(workspace.resolve("app"));
+        Files.writeString(app.resolve("pom.xml"), """
+                <project><parent><groupId>com.example</groupId><artifactId>parent</artifactId><version>1</version>\
+                <relativePath>../parent</relativePath></parent><artifactId>app</artifactId><version>3-SNAPSHOT</version>
+                <dependencies>\
+                <dependency><groupId>org.lib</groupId><artifactId>lib</artifactId></dependency>\
+                <dependency><groupId>org.lib</groupId><artifactId>released</artifactId><version>1.0</version></dependency>\
+                <dependency><groupId>org.other</groupId><artifactId>util</artifactId>\
+                <version>${project.version}</version></dependency>\
+                </dependencies></project>""");
+
+        var graph = ReactorGraph.load(app).orElseThrow();
+
+        assertThat(graph.externalPoms()).containsExactly(parent);
+        assertThat(graph.snapshotArtifacts()).containsExactly("org.lib:lib:2.0-SNAPSHOT", "org.other:util:3-SNAPSHOT");
+
+        Files.writeString(parent, Files.readString(parent).replace("2.0-SNAPSHOT", "2.0.1-SNAPSHOT"));
+        assertThat(ReactorGraph.load(app).orElseThrow().snapshotArtifacts()).contains("org.lib:lib:2.0.1-SNAPSHOT");
+    }
+
+    @Test
+    void shouldNotRecordReactorModulesAsSnapshotDependencies() {
+        assertThat(ReactorGraph.load(projectDir).orElseThrow().snapshotArtifacts()).isEmpty();
+        assertThat(ReactorGraph.load(projectDir).orElseThrow().externalPoms()).isEmpty();
+    }
+
+    private void pom(String dir, String body) throws IOException {
+        Path pom = projectDir.resolve(dir).resolve("pom.xml");
+        Files.createDirectories(pom.getParent());
+        // Size differs between rewrites, so the cache notices even within the same mtime tick
+        Files.writeString(pom, "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">" + body + "</project>");
+    }
+}
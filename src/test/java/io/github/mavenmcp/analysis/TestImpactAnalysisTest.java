@@ -0,0 +1,59 @@
+package io.github.mavenmcp.analysis;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TestImpactAnalysisTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path testClasses;
+    private ClassIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path classes = tempDir.resolve("target/classes");
+        testClasses = tempDir.resolve("target/test-classes");
+        CompiledFixture.compile(tempDir.resolve("src/main/java"), classes, Map.of(
+                "com/example/Repo.java", "package com.example; public class Repo {}",
+                "com/example/Service.java", "package com.example; public class Service { Repo r = new Repo(); }",
+                "com/example/Other.java", "package com.example; public class Other {}"));
+        CompiledFixture.compile(tempDir.resolve("src/test/java"), testClasses, Map.of(
+                "com/example/ServiceTest.java", """
+                        package com.example;
+                        public class ServiceTest {
+                            class Inner { Service s = new Service(); }
+                        }
+                        """,
+                "com/example/OtherTest.java", "package com.example; public class OtherTest { Other o; }",
+                "com/example/Fixtures.java", "package com.example; public class Fixtures { Repo r; }"), classes);
+        index = ClassIndex.scan(List.of(testClasses, classes));
+    }
+
+    @Test
+    void shouldSelectTestsReachingChangedClassTransitively() {
+        assertThat(TestImpactAnalysis.affectedTests(index, Set.of("com.example.Repo"), testClasses))
+                .containsExactly("com.example.ServiceTest");
+    }
+
+    @Test
+    void shouldSelectChangedTestClassItself() {
+        assertThat(TestImpactAnalysis.affectedTests(index, Set.of("com.example.OtherTest"), testClasses))
+                .containsExactly("com.example.OtherTest");
+    }
+
+    @Test
+    void shouldSelectNothingForUnreferencedChanges() {
+        assertThat(TestImpactAnalysis.affectedTests(index, Set.of("com.example.Unknown"), testClasses)).isEmpty();
+    }
+}
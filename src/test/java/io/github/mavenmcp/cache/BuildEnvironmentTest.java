@@ -0,0 +1,83 @@
+package io.github.mavenmcp.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BuildEnvironmentTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path projectDir;
+    private Path home;
+    private Path maven;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        projectDir = Files.createDirectories(tempDir.resolve("project"));
+        Files.writeString(projectDir.resolve("pom.xml"), """
+                <project><groupId>com.example</groupId><artifactId>app</artifactId><version>1</version>
+                <dependencies><dependency><groupId>org.lib</groupId><artifactId>lib</artifactId>\
+                <version>2.0-SNAPSHOT</version></dependency></dependencies></project>""");
+        home = Files.createDirectories(tempDir.resolve("home"));
+        maven = Files.createDirectories(tempDir.resolve("maven/bin")).resolve("mvn");
+        Files.writeString(maven, "#!/bin/sh\n");
+    }
+
+    private long hash(Map<String, String> env) {
+        return BuildEnvironment.hash(projectDir, maven, List.of(), env, home);
+    }
+
+    @Test
+    void shouldBeStableWhenNothingChanges() {
+        assertThat(hash(Map.of())).isEqualTo(hash(Map.of()));
+    }
+
+    @Test
+    void shouldChangeWhenSnapshotDependencyIsReinstalled() throws IOException {
+        Path jar = home.resolve(".m2/repository/org/lib/lib/2.0-SNAPSHOT/lib-2.0-SNAPSHOT.jar");
+        Files.createDirectories(jar.getParent());
+        Files.writeString(jar, "v1");
+        long before = hash(Map.of());
+
+        Files.setLastModifiedTime(jar, FileTime.from(Instant.now().plusSeconds(5)));
+
+        assertThat(hash(Map.of())).isNotEqualTo(before);
+    }
+
+    @Test
+    void shouldChangeWithSettingsMavenOptsAndExecutable() throws IOException {
+        long before = hash(Map.of());
+        assertThat(hash(Map.of("MAVEN_OPTS", "-Xmx2g"))).isNotEqualTo(before);
+
+        Files.createDirectories(home.resolve(".m2"));
+        Files.writeString(home.resolve(".m2/settings.xml"), "<settings/>");
+        long withSettings = hash(Map.of());
+        assertThat(withSettings).isNotEqualTo(before);
+
+        Files.writeString(maven, "#!/bin/sh\nexec mvn4 \"$@\"\n");
+        assertThat(hash(Map.of())).isNotEqualTo(withSettings);
+    }
+
+    @Test
+    void shouldTakeLocalRepositoryFromArgsOrMavenOpts() {
+        Path m2 = home.resolve(".m2");
+
+        assertThat(BuildEnvironment.localRepository(List.of(), Map.of(), m2)).isEqualTo(m2.resolve("repository"));
+        assertThat(BuildEnvironment.localRepository(List.of(), Map.of("MAVEN_OPTS", "-Xmx1g -Dmaven.repo.local=/r"), m2))
+                .isEqualTo(Path.of("/r"));
+        assertThat(BuildEnvironment.localRepository(List.of("-Dmaven.repo.local=/args"),
+                Map.of("MAVEN_OPTS", "-Dmaven.repo.local=/r"), m2)).isEqualTo(Path.of("/args"));
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.mavenmcp.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlakyTestsTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-15T12:00:00Z");
+
+    @TempDir
+    Path projectDir;
+
+    @Test
+    void shouldCountFlakyRunsAcrossLoads() {
+        var store = FlakyTests.load(projectDir);
+        assertThat(store.record("com.example.FooTest#shouldConnect", NOW.minusSeconds(60))).isEqualTo(1);
+        store.save();
+
+        var reloaded = FlakyTests.load(projectDir);
+        assertThat(reloaded.record("com.example.FooTest#shouldConnect", NOW)).isEqualTo(2);
+        reloaded.save();
+
+        assertThat(FlakyTests.load(projectDir).get("com.example.FooTest#shouldConnect"))
+                .contains(new FlakyTests.Entry(2, NOW.toEpochMilli()));
+    }
+
+    @Test
+    void shouldSkipMalformedEntries() throws IOException {
+        Path file = projectDir.resolve(FlakyTests.STORE_FILE);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "com.example.FooTest#a=3 100\ncom.example.BarTest#b=garbage\n");
+
+        var store = FlakyTests.load(projectDir);
+
+        assertThat(store.get("com.example.FooTest#a")).contains(new FlakyTests.Entry(3, 100));
+        assertThat(store.get("com.example.BarTest#b")).isEmpty();
+    }
+
+    @Test
+    void shouldNotWriteUnchangedStore() {
+        FlakyTests.load(projectDir).save();
+
+        assertThat(projectDir.resolve(FlakyTests.STORE_FILE)).doesNotExist();
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.mavenmcp.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InputFingerprintTest {
+
+    @TempDir
+    Path projectDir;
+
+    private Path source;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(projectDir.resolve("pom.xml"), "<project/>");
+        source = projectDir.resolve("src/main/java/com/example/App.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, "class App {}");
+    }
+
+    private InputFingerprint fingerprint() {
+        return InputFingerprint.compute(projectDir).orElseThrow();
+    }
+
+    @Test
+    void shouldBeStableWhenNothingChanges() {
+        assertThat(fingerprint()).isEqualTo(fingerprint());
+    }
+
+    @Test
+    void shouldChangeWhenSourceModified() throws IOException {
+        InputFingerprint before = fingerprint();
+        Files.setLastModifiedTime(source, FileTime.from(Instant.now().plusSeconds(5)));
+
+        assertThat(fingerprint().sources()).isNotEqualTo(before.sources());
+    }
+
+    @Test
+    void shouldChangeWhenSourceAddedOrPomEdited() throws IOException {
+        InputFingerprint before = fingerprint();
+        Files.writeString(source.resolveSibling("Other.java"), "class Other {}");
+        InputFingerprint added = fingerprint();
+        Files.writeString(projectDir.resolve("pom.xml"), "<project><modules/></project>");
+
+        assertThat(added.sources()).isNotEqualTo(before.sources());
+        assertThat(fingerprint().sources()).isNotEqualTo(added.sources());
+    }
+
+    @Test
+    void shouldIgnoreTargetAndHiddenDirectories() throws IOException {
+        InputFingerprint before = fingerprint();
+        Files.createDirectories(projectDir.resolve("target/generated-sources/src"));
+        Files.writeString(projectDir.resolve("target/generated-sources/src/Gen.java"), "class Gen {}");
+        Files.createDirectories(projectDir.resolve(".git/src"));
+        Files.writeString(projectDir.resolve(".git/src/HEAD"), "ref");
+        Files.writeString(projectDir.resolve("README.md"), "docs");
+
+        assertThat(fingerprint().sources()).isEqualTo(before.sources());
+    }
+
+    @Test
+    void shouldChangeWhenMavenConfigChanges() throws IOException {
+        Path mvnDir = projectDir.resolve(".mvn");
+        Files.createDirectories(mvnDir);
+        Files.writeString(mvnDir.resolve("maven.config"), "-T 4");
+        InputFingerprint before = fingerprint();
+        Files.writeString(mvnDir.resolve("jvm.config"), "-Xmx2g");
+
+        assertThat(fingerprint().sources()).isNotEqualTo(before.sources());
+    }
+
+    @Test
+    void shouldTrackCompiledOutputPresenceSeparately() throws IOException {
+        InputFingerprint before = fingerprint();
+        Files.createDirectories(projectDir.resolve("target/classes"));
+        InputFingerprint after = fingerprint();
+
+        assertThat(after.sources()).isEqualTo(before.sources());
+        assertThat(after.outputs()).isNotEqualTo(before.outputs());
+    }
+
+    @Test
+    void shouldBeEmptyForMissingDirectory() {
+        assertThat(InputFingerprint.compute(projectDir.resolve("missing"))).isEmpty();
+    }
+
+    @Test
+    void shouldHashArgsByValueAndOrder() {
+        assertThat(InputFingerprint.hashArgs(List.of("-Pa", "-Pb")))
+                .isEqualTo(InputFingerprint.hashArgs(List.of("-Pa", "-Pb")))
+                .isNotEqualTo(InputFingerprint.hashArgs(List.of("-Pb", "-Pa")))
+                .isNotEqualTo(InputFingerprint.hashArgs(List.of("-Pa-Pb")));
+    }
+}
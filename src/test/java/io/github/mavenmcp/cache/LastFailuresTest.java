@@ -0,0 +1,125 @@
+package io.github.mavenmcp.cache;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.github.mavenmcp.parser.SurefireReportParser.SuiteResult;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LastFailuresTest {
+
+    @TempDir
+    Path projectDir;
+
+    @Test
+    void shouldPersistFailuresAcrossLoads() {
+        var store = LastFailures.load(projectDir);
+        store.update(List.of(suite("com.example.FooTest", "com.example.FooTest#b", "com.example.FooTest#a")));
+        store.save();
+
+        assertThat(LastFailures.load(projectDir).ids())
+                .containsExactly("com.example.FooTest#a", "com.example.FooTest#b");
+    }
+
+    @Test
+    void shouldOnlyReplaceClassesThatRan() {
+        var store = LastFailures.load(projectDir);
+        store.update(List.of(
+                suite("com.example.FooTest", "com.example.FooTest#a"),
+                suite("com.example.BarTest", "com.example.BarTest#b")));
+        store.save();
+
+        var reloaded = LastFailures.load(projectDir);
+        reloaded.update(List.of(suite("com.example.FooTest")));
+        reloaded.save();
+
+        assertThat(LastFailures.load(projectDir).ids()).containsExactly("com.example.BarTest#b");
+    }
+
+    @Test
+    void shouldDeleteFileWhenEverythingPasses() {
+        var store = LastFailures.load(projectDir);
+        store.update(List.of(suite("com.example.FooTest", "com.example.FooTest#a")));
+        store.save();
+        store.update(List.of(suite("com.example.FooTest")));
+        store.save();
+
+        assertThat(projectDir.resolve(LastFailures.STORE_FILE)).doesNotExist();
+        assertThat(LastFailures.load(projectDir).isEmpty()).isTrue();
+    }
+
+    @Nested
+    class Compaction {
+
+        @Test
+        void shouldGroupMethodsPerClass() {
+            var filter = LastFailures.compact(Set.of(
+                    "com.example.FooTest#b", "com.example.FooTest#a", "com.example.BarTest#c"), 1000);
+
+            assertThat(filter).contains("com.example.BarTest#c,com.example.FooTest#a+b");
+        }
+
+        @Test
+        void shouldSelectWholeClassForParameterizedOrDisplayNames() {
+            var filter = LastFailures.compact(Set.of(
+                    "com.example.FooTest#test(int)[1]", "com.example.BarTest#adds two numbers"), 1000);
+
+            assertThat(filter).contains("com.example.BarTest,com.example.FooTest#test");
+        }
+
+        @Test
+        void shouldFallBackToClassNames() {
+            Set<String> ids = new LinkedHashSet<>();
+            for (int i = 0; i < 20; i++) {
+                ids.add("com.example.FooTest#someRatherLongTestMethodName" + i);
+            }
+            ids.add("com.example.BarTest#x");
+
+            assertThat(LastFailures.compact(ids, 100)).contains("com.example.BarTest,com.example.FooTest");
+        }
+
+        @Test
+        void shouldFallBackToPackagePatterns() {
+            Set<String> ids = new LinkedHashSet<>();
+            for (int i = 0; i < 20; i++) {
+                ids.add("com.example.service.ServiceNumber" + i + "Test#m");
+            }
+            ids.add("com.example.web.ControllerTest#m");
+
+            assertThat(LastFailures.compact(ids, 60))
+                    .contains("com/example/service/**/*,com/example/web/**/*");
+            assertThat(LastFailures.compact(ids, 20)).contains("com/example/**/*");
+        }
+
+        @Test
+        void shouldCompactClassListsToPackagePatterns() {
+            List<String> classes = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                classes.add("com.example.module" + (i % 3) + ".SomeRatherLongTestClassName" + i + "Test");
+            }
+
+            assertThat(LastFailures.toClassFilter(List.of("com.example.BTest", "com.example.ATest"), 100))
+                    .contains("com.example.ATest,com.example.BTest");
+            assertThat(LastFailures.toClassFilter(classes, LastFailures.MAX_FILTER_LENGTH))
+                    .contains("com/example/module0/**/*,com/example/module1/**/*,com/example/module2/**/*");
+            assertThat(LastFailures.toClassFilter(List.of(), 100)).isEmpty();
+        }
+
+        @Test
+        void shouldGiveUpWhenNothingFits() {
+            assertThat(LastFailures.compact(Set.of("com.example.FooTest#a"), 5)).isEmpty();
+            assertThat(LastFailures.compact(Set.of(), 100)).isEmpty();
+        }
+    }
+
+    private static SuiteResult suite(String name, String... failedTests) {
+        return new SuiteResult(name, 3, failedTests.length, 0, 0, 100, List.of(failedTests));
+    }
+}
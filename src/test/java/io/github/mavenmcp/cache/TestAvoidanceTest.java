@@ -0,0 +1,128 @@
+package io.github.mavenmcp.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import io.github.mavenmcp.analysis.CompiledFixture;
+import io.github.mavenmcp.parser.SurefireReportParser.SuiteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TestAvoidanceTest {
+
+    @TempDir
+    Path projectDir;
+
+    private Path classes;
+    private Path testClasses;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        classes = projectDir.resolve(TestAvoidance.CLASSES_DIR);
+        testClasses = projectDir.resolve(TestAvoidance.TEST_CLASSES_DIR);
+        Files.writeString(projectDir.resolve("pom.xml"), "<project/>");
+        compileMain("return 1;");
+        CompiledFixture.compile(projectDir.resolve("fixture/test"), testClasses, Map.of(
+                "com/example/ServiceTest.java",
+                "package com.example; public class ServiceTest { int t() { return new Service().total(); } }",
+                "com/example/OtherTest.java",
+                "package com.example; public class OtherTest { Other o = new Other(); }",
+                "com/example/AbstractBaseTest.java",
+                "package com.example; public abstract class AbstractBaseTest {}",
+                "com/example/Helper.java",
+                "package com.example; public class Helper {}"), classes);
+    }
+
+    private void compileMain(String repoBody) throws IOException {
+        CompiledFixture.compile(projectDir.resolve("fixture/main"), classes, Map.of(
+                "com/example/Repo.java", "package com.example; public class Repo { int count() { " + repoBody + " } }",
+                "com/example/Service.java",
+                "package com.example; public class Service { int total() { return new Repo().count(); } }",
+                "com/example/Other.java", "package com.example; public class Other {}"));
+    }
+
+    private TestAvoidance.Plan plan(TestResultCache cache) {
+        return TestAvoidance.plan(projectDir, List.of(), cache).orElseThrow();
+    }
+
+    private static List<SuiteResult> passing(String... classNames) {
+        return Arrays.stream(classNames).map(n -> new SuiteResult(n, 2, 0, 0, 1)).toList();
+    }
+
+    @Test
+    void shouldSelectConcreteTestClassesOnly() {
+        var plan = plan(TestResultCache.load(projectDir));
+
+        assertThat(plan.toRun().keySet())
+                .containsExactlyInAnyOrder("com.example.ServiceTest", "com.example.OtherTest");
+        assertThat(plan.cached()).isEmpty();
+    }
+
+    @Test
+    void shouldSkipPassedClassesWhenNothingChanged() {
+        var cache = TestResultCache.load(projectDir);
+        TestAvoidance.record(plan(cache), passing("com.example.ServiceTest", "com.example.OtherTest"), cache);
+
+        var plan = plan(TestResultCache.load(projectDir));
+
+        assertThat(plan.toRun()).isEmpty();
+        assertThat(plan.cached()).hasSize(2);
+        assertThat(plan.cachedTests()).isEqualTo(4);
+        assertThat(plan.cachedSkipped()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRerunOnlyClassesReachingChangedBytecode() throws IOException {
+        var cache = TestResultCache.load(projectDir);
+        TestAvoidance.record(plan(cache), passing("com.example.ServiceTest", "com.example.OtherTest"), cache);
+
+        compileMain("return 2;");
+        var plan = plan(TestResultCache.load(projectDir));
+
+        assertThat(plan.toRun().keySet()).containsExactly("com.example.ServiceTest");
+        assertThat(plan.cached().keySet()).containsExactly("com.example.OtherTest");
+    }
+
+    @Test
+    void shouldRerunFailedClasses() {
+        var cache = TestResultCache.load(projectDir);
+        TestAvoidance.record(plan(cache), List.of(
+                new SuiteResult("com.example.ServiceTest", 2, 1, 0, 0),
+                new SuiteResult("com.example.OtherTest", 1, 0, 0, 0)), cache);
+
+        var plan = plan(TestResultCache.load(projectDir));
+
+        assertThat(plan.toRun().keySet()).containsExactly("com.example.ServiceTest");
+    }
+
+    @Test
+    void shouldInvalidateEverythingWhenArgsOrPomChange() throws IOException {
+        var cache = TestResultCache.load(projectDir);
+        TestAvoidance.record(plan(cache), passing("com.example.ServiceTest", "com.example.OtherTest"), cache);
+
+        var withArgs = TestAvoidance.plan(projectDir, List.of("-Pci"), TestResultCache.load(projectDir)).orElseThrow();
+        Files.writeString(projectDir.resolve("pom.xml"), "<project><version>2</version></project>");
+        var withPom = plan(TestResultCache.load(projectDir));
+
+        assertThat(withArgs.cached()).isEmpty();
+        assertThat(withPom.cached()).isEmpty();
+    }
+
+    @Test
+    void shouldInvalidateWhenResourceChanges() throws IOException {
+        var cache = TestResultCache.load(projectDir);
+        Files.writeString(testClasses.resolve("application.properties"), "a=1");
+        TestAvoidance.record(plan(cache), passing("com.example.ServiceTest", "com.example.OtherTest"), cache);
+
+        Files.writeString(testClasses.resolve("application.properties"), "a=2");
+
+        assertThat(plan(TestResultCache.load(projectDir)).cached()).isEmpty();
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.mavenmcp.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import io.github.mavenmcp.parser.SurefireReportParser.SuiteResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TestHistoryTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-15T12:00:00Z");
+
+    @TempDir
+    Path projectDir;
+
+    @Test
+    void shouldFoldRunsAcrossLoads() {
+        var history = TestHistory.load(projectDir);
+        history.record(List.of(suite("com.example.FooTest", 1000, false)), NOW.minus(Duration.ofHours(2)));
+        history.record(List.of(suite("com.example.FooTest", 2000, true)), NOW.minus(Duration.ofHours(1)));
+
+        var stats = TestHistory.load(projectDir).stats("com.example.FooTest").orElseThrow();
+
+        assertThat(stats.runs()).isEqualTo(2);
+        assertThat(stats.failures()).isEqualTo(1);
+        assertThat(stats.lastFailedAt()).isEqualTo(NOW.minus(Duration.ofHours(2)).toEpochMilli());
+        assertThat(stats.averageMillis()).isEqualTo(1300);
+    }
+
+    @Test
+    void shouldCompactLongLogIntoSummaryLines() throws IOException {
+        var history = TestHistory.load(projectDir);
+        for (int i = 0; i < 1001; i++) {
+            history.record(List.of(suite("com.example.FooTest", 100, i != 0)), NOW);
+        }
+
+        List<String> lines = Files.readAllLines(projectDir.resolve(TestHistory.HISTORY_FILE));
+
+        assertThat(lines).hasSizeLessThan(10).allMatch(line -> line.startsWith("S ") || line.startsWith("R "));
+        var stats = TestHistory.load(projectDir).stats("com.example.FooTest").orElseThrow();
+        assertThat(stats.runs()).isEqualTo(1001);
+        assertThat(stats.failures()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSkipMalformedLines() throws IOException {
+        Path file = projectDir.resolve(TestHistory.HISTORY_FILE);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "garbage\nR x P 1 com.example.BadTest\nR 1 P 50 com.example.FooTest\n");
+
+        var history = TestHistory.load(projectDir);
+
+        assertThat(history.size()).isEqualTo(1);
+        assertThat(history.stats("com.example.FooTest")).isPresent();
+    }
+
+    @Test
+    void shouldPutRecentFailuresAndFastClassesFirst() {
+        var history = TestHistory.load(projectDir);
+        history.record(List.of(
+                suite("com.example.SlowFailingTest", 60_000, false),
+                suite("com.example.FastTest", 200, true),
+                suite("com.example.SlowTest", 30_000, true)), NOW.minus(Duration.ofHours(1)));
+
+        var ordering = history.prioritize(List.of(
+                "com.example.SlowTest", "com.example.NewTest", "com.example.FastTest", "com.example.SlowFailingTest"),
+                NOW);
+
+        assertThat(ordering.first()).containsExactly("com.example.SlowFailingTest", "com.example.FastTest");
+        assertThat(ordering.rest()).containsExactly("com.example.SlowTest", "com.example.NewTest");
+    }
+
+    @Test
+    void shouldNotSplitWithoutHistory() {
+        var ordering = TestHistory.load(projectDir).prioritize(List.of("com.example.FooTest"), NOW);
+
+        assertThat(ordering.first()).isEmpty();
+        assertThat(ordering.rest()).containsExactly("com.example.FooTest");
+    }
+
+    @Test
+    void shouldForgetOldFailures() {
+        var history = TestHistory.load(projectDir);
+        history.record(List.of(suite("com.example.FooTest", 60_000, false)), NOW.minus(Duration.ofDays(2)));
+        history.record(List.of(suite("com.example.BarTest", 60_000, true)), NOW.minus(Duration.ofDays(2)));
+
+        assertThat(history.prioritize(List.of("com.example.FooTest", "com.example.BarTest"), NOW).first()).isEmpty();
+    }
+
+    @Test
+    void shouldBalanceShardsByRecordedDuration() {
+        var history = TestHistory.load(projectDir);
+        history.record(List.of(
+                suite("com.example.ATest", 8000, true),
+                suite("com.example.BTest", 5000, true),
+                suite("com.example.CTest", 4000, true),
+                suite("com.example.DTest", 3000, true)), NOW);
+
+        var shards = history.shard(List.of("com.example.ATest", "com.example.BTest", "com.example.CTest",
+                "com.example.DTest", "com.example.NewTest"), 2);
+
+        // Longest first to the lightest shard: A(8)->0, B(5)->1, New(median 5)->1, C(4)->0, D(3)->1
+        assertThat(shards).hasSize(2);
+        assertThat(shards.get(0)).containsExactly("com.example.BTest", "com.example.NewTest", "com.example.DTest");
+        assertThat(shards.get(1)).containsExactly("com.example.ATest", "com.example.CTest");
+    }
+
+    @Test
+    void shouldNotCreateEmptyShards() {
+        var shards = TestHistory.load(projectDir).shard(List.of("com.example.ATest", "com.example.BTest"), 8);
+
+        assertThat(shards).hasSize(2).allMatch(shard -> shard.size() == 1);
+    }
+
+    private static SuiteResult suite(String name, long millis, boolean passed) {
+        return new SuiteResult(name, 1, passed ? 0 : 1, 0, 0, millis,
+                passed ? List.of() : List.of(name + "#test"));
+    }
+}
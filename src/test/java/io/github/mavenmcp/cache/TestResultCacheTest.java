@@ -0,0 +1,59 @@
+package io.github.mavenmcp.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TestResultCacheTest {
+
+    @TempDir
+    Path projectDir;
+
+    @Test
+    void shouldPersistPassesAcrossLoads() {
+        var cache = TestResultCache.load(projectDir);
+        cache.recordPass("com.example.FooTest", "abc123", 5, 1);
+        cache.save();
+
+        var reloaded = TestResultCache.load(projectDir);
+
+        assertThat(reloaded.get("com.example.FooTest", "abc123"))
+                .contains(new TestResultCache.Entry("abc123", 5, 1));
+        assertThat(reloaded.get("com.example.FooTest", "other")).isEmpty();
+    }
+
+    @Test
+    void shouldForgetRemovedClasses() {
+        var cache = TestResultCache.load(projectDir);
+        cache.recordPass("com.example.FooTest", "abc123", 5, 0);
+        cache.save();
+        cache.remove("com.example.FooTest");
+        cache.save();
+
+        assertThat(TestResultCache.load(projectDir).size()).isZero();
+    }
+
+    @Test
+    void shouldStartEmptyOnCorruptFile() throws IOException {
+        Path file = projectDir.resolve(TestResultCache.CACHE_FILE);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "com.example.FooTest=garbage\ncom.example.BarTest=abc 1 0\n");
+
+        var cache = TestResultCache.load(projectDir);
+
+        assertThat(cache.get("com.example.FooTest", "garbage")).isEmpty();
+        assertThat(cache.get("com.example.BarTest", "abc")).isPresent();
+    }
+
+    @Test
+    void shouldNotWriteWhenUnchanged() {
+        TestResultCache.load(projectDir).save();
+
+        assertThat(projectDir.resolve(TestResultCache.CACHE_FILE)).doesNotExist();
+    }
+}
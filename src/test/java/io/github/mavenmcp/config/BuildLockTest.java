@@ -0,0 +1,54 @@
+package io.github.mavenmcp.config;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BuildLockTest {
+
+    private final BuildLock lock = new BuildLock();
+
+    @Test
+    void shouldGrantFreeLockImmediately() {
+        assertThat(lock.acquire()).isCompleted();
+        assertThat(lock.isLocked()).isTrue();
+        assertThat(lock.tryLock()).isFalse();
+    }
+
+    @Test
+    void shouldHandLockToWaitersInRequestOrder() {
+        lock.lock();
+        CompletableFuture<Void> first = lock.acquire();
+        CompletableFuture<Void> second = lock.acquire();
+        assertThat(first).isNotDone();
+
+        lock.unlock();
+        assertThat(first).isCompleted();
+        assertThat(second).isNotDone();
+        assertThat(lock.isLocked()).isTrue();
+
+        lock.unlock();
+        assertThat(second).isCompleted();
+
+        lock.unlock();
+        assertThat(lock.isLocked()).isFalse();
+    }
+
+    @Test
+    void shouldAllowReleaseFromAnotherThread() throws Exception {
+        lock.lock();
+
+        CompletableFuture.runAsync(lock::unlock).get(5, TimeUnit.SECONDS);
+
+        assertThat(lock.tryLock()).isTrue();
+    }
+
+    @Test
+    void shouldRejectUnlockWhenNotHeld() {
+        assertThatThrownBy(lock::unlock).isInstanceOf(IllegalStateException.class);
+    }
+}
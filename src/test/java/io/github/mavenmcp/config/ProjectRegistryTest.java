@@ -0,0 +1,128 @@
+package io.github.mavenmcp.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProjectRegistryTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void shouldUseStartupProjectWithoutParameter() {
+        var registry = ProjectRegistry.multi(startupConfig(), 2);
+
+        var project = registry.resolve(Map.of());
+
+        assertThat(project.config().projectDir()).isEqualTo(root);
+        assertThat(registry.resolve(Map.of("project", "."))).isSameAs(project);
+        assertThat(registry.resolve(Map.of("project", root.toString()))).isSameAs(project);
+    }
+
+    @Test
+    void shouldRejectOtherProjectsInSingleProjectMode() throws IOException {
+        project("other");
+        var registry = ProjectRegistry.single(startupConfig());
+
+        assertThatThrownBy(() -> registry.resolve(Map.of("project", "other")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("--multi-project");
+    }
+
+    @Test
+    void shouldCreateProjectStateOnFirstUse() throws IOException {
+        Path other = project("other");
+        var registry = ProjectRegistry.multi(startupConfig(), 2);
+
+        var project = registry.resolve(Map.of("project", other.toString()));
+
+        assertThat(project.config().projectDir()).isEqualTo(other.toRealPath());
+        assertThat(project.config().mavenExecutable()).isEqualTo(other.resolve("mvnw").toRealPath());
+        assertThat(registry.resolve(Map.of("project", "other"))).isSameAs(project);
+        assertThat(registry.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectDirectoryWithoutPom() throws IOException {
+        Files.createDirectories(root.resolve("docs"));
+        var registry = ProjectRegistry.multi(startupConfig(), 2);
+
+        assertThatThrownBy(() -> registry.resolve(Map.of("project", "docs")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("No pom.xml found");
+        assertThatThrownBy(() -> registry.resolve(Map.of("project", "missing")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("does not exist");
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedIdleProject() throws IOException {
+        project("a");
+        project("b");
+        project("c");
+        var registry = ProjectRegistry.multi(startupConfig(), 2);
+        var a = registry.resolve(Map.of("project", "a"));
+        var b = registry.resolve(Map.of("project", "b"));
+        registry.resolve(Map.of("project", "a"));
+
+        registry.resolve(Map.of("project", "c"));
+
+        assertThat(registry.size()).isEqualTo(3);
+        assertThat(registry.resolve(Map.of("project", "a"))).isSameAs(a);
+        assertThat(registry.resolve(Map.of("project", "b"))).isNotSameAs(b);
+    }
+
+    @Test
+    void shouldNotEvictProjectWithBuildRunning() throws IOException {
+        project("a");
+        project("b");
+        var registry = ProjectRegistry.multi(startupConfig(), 1);
+        var a = registry.resolve(Map.of("project", "a"));
+        a.buildLock().lock();
+        try {
+            registry.resolve(Map.of("project", "b"));
+
+            assertThat(registry.resolve(Map.of("project", "a"))).isSameAs(a);
+        } finally {
+            a.buildLock().unlock();
+        }
+    }
+
+    @Test
+    void shouldNotEvictProjectHeldByToolCall() throws IOException {
+        project("a");
+        project("b");
+        project("c");
+        var registry = ProjectRegistry.multi(startupConfig(), 1);
+        var a = registry.acquire(Map.of("project", "a"));
+
+        registry.resolve(Map.of("project", "b"));
+        assertThat(registry.resolve(Map.of("project", "a"))).isSameAs(a);
+
+        registry.release(a);
+        registry.resolve(Map.of("project", "c"));
+        assertThat(registry.resolve(Map.of("project", "a"))).isNotSameAs(a);
+    }
+
+    private ServerConfig startupConfig() {
+        return new ServerConfig(root, Path.of("/usr/bin/mvn"));
+    }
+
+    private Path project(String name) throws IOException {
+        Path dir = Files.createDirectories(root.resolve(name));
+        Files.writeString(dir.resolve("pom.xml"), "<project/>");
+        Path mvnw = dir.resolve("mvnw");
+        Files.writeString(mvnw, "#!/bin/sh\n");
+        Files.setPosixFilePermissions(mvnw, PosixFilePermissions.fromString("rwx------"));
+        return dir;
+    }
+}
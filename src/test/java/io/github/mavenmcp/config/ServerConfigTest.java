@@ -1,6 +1,10 @@
 package io.github.mavenmcp.config;
 
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import io.github.mavenmcp.maven.MavenExecutionException;
+import io.github.mavenmcp.maven.MavenNotFoundException;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -35,4 +39,44 @@ class ServerConfigTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("mavenExecutable");
     }
+
+    @Test
+    void shouldCompareByProjectDirAndResolvedExecutable() {
+        Path mavenExe = tempDir.resolve("mvn");
+        var config = new ServerConfig(tempDir, mavenExe);
+        var pending = new CompletableFuture<Path>();
+
+        assertThat(config).isEqualTo(new ServerConfig(tempDir, mavenExe))
+                .hasSameHashCodeAs(new ServerConfig(tempDir, mavenExe))
+                .isNotEqualTo(new ServerConfig(tempDir, tempDir.resolve("mvnw")))
+                .isNotEqualTo(new ServerConfig(tempDir.resolve("other"), mavenExe))
+                .isNotEqualTo(ServerConfig.withPendingMaven(tempDir, pending));
+
+        pending.complete(mavenExe);
+        assertThat(ServerConfig.withPendingMaven(tempDir, pending)).isEqualTo(config);
+    }
+
+    @Test
+    void shouldWaitForPendingMavenDetection() {
+        Path mavenExe = tempDir.resolve("mvn");
+        var detection = new CompletableFuture<Path>();
+        var config = ServerConfig.withPendingMaven(tempDir, detection);
+
+        CompletableFuture.runAsync(() -> detection.complete(mavenExe));
+
+        assertThat(config.projectDir()).isEqualTo(tempDir);
+        assertThat(config.mavenExecutable()).isEqualTo(mavenExe);
+    }
+
+    @Test
+    void shouldReportFailedMavenDetectionAsExecutionError() {
+        var detection = CompletableFuture.<Path>failedFuture(
+                new MavenNotFoundException("Maven not found. Install Maven or add mvnw to your project."));
+        var config = ServerConfig.withPendingMaven(tempDir, detection);
+
+        assertThatThrownBy(config::mavenExecutable)
+                .isInstanceOf(MavenExecutionException.class)
+                .hasMessage("Maven not found. Install Maven or add mvnw to your project.");
+        assertThat(config.toString()).contains("(not found)");
+    }
 }
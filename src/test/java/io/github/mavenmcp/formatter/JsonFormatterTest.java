@@ -0,0 +1,83 @@
+package io.github.mavenmcp.formatter;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.model.BuildResult;
+import io.github.mavenmcp.model.CompilationError;
+import io.github.mavenmcp.model.FlakyTest;
+import io.github.mavenmcp.model.TestFailure;
+import io.github.mavenmcp.model.TestSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonFormatterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private void assertMatchesDatabind(BuildResult result) throws Exception {
+        JsonNode streamed = objectMapper.readTree(JsonFormatter.format(result, objectMapper.getFactory()));
+        JsonNode databind = objectMapper.readTree(objectMapper.writeValueAsString(result));
+        assertThat(streamed).isEqualTo(databind);
+    }
+
+    @Test
+    void minimalResult() throws Exception {
+        var result = new BuildResult(BuildResult.SUCCESS, 800,
+                null, null, null, null, null, null, null);
+        assertThat(JsonFormatter.format(result, objectMapper.getFactory()))
+                .isEqualTo("{\"status\":\"SUCCESS\",\"duration\":800}");
+    }
+
+    @Test
+    void compileFailureMatchesDatabind() throws Exception {
+        var e1 = new CompilationError("src/Foo.java", 10, 5, "cannot find symbol", "ERROR");
+        var e2 = new CompilationError("src/Bar.java", 3, null, "';' expected", "ERROR");
+        var w1 = new CompilationError("src/Baz.java", 7, null, "deprecated", "WARNING");
+        assertMatchesDatabind(new BuildResult(BuildResult.FAILURE, 4200,
+                List.of(e1, e2), List.of(w1), null, null, null, "[ERROR] tail \"quoted\"\n\tnext", null));
+    }
+
+    @Test
+    void testFailureMatchesDatabind() throws Exception {
+        var f1 = new TestFailure("com.example.FooTest", "shouldWork", "expected:<1> but was:<2>",
+                "org.opentest4j.AssertionFailedError: x\n\tat com.example.FooTest.shouldWork(FooTest.java:5)",
+                "stdout ✓ line");
+        var f2 = new TestFailure("com.example.BarTest", null, null, null, null);
+        assertMatchesDatabind(new BuildResult(BuildResult.FAILURE, 9000, null, null,
+                new TestSummary(10, 1, 2, 1), List.of(f1, f2), null, null, "Ran in testOnly mode."));
+    }
+
+    @Test
+    void moduleAttributionMatchesDatabind() throws Exception {
+        var error = new CompilationError("core/src/Foo.java", 10, 5, "cannot find symbol", "ERROR", "core");
+        var failure = new TestFailure("com.example.FooTest", "shouldWork", "boom", null, null, "core, api");
+        assertMatchesDatabind(new BuildResult(BuildResult.FAILURE, 4200,
+                List.of(error), null, new TestSummary(1, 1, 0, 0), List.of(failure), null, null, null));
+    }
+
+    @Test
+    void flakyTestsMatchDatabind() throws Exception {
+        var flaky = new FlakyTest("com.example.FooTest", "shouldConnect", 2, "Connection refused", 3);
+        var untracked = new FlakyTest("com.example.BarTest", "shouldRace", 1, null, null);
+        assertMatchesDatabind(new BuildResult(BuildResult.SUCCESS, 1200, null, null,
+                new TestSummary(5, 0, 0, 0), null, null, null, null, List.of(flaky, untracked)));
+    }
+
+    @Test
+    void artifactSerializedThroughCodec() throws Exception {
+        assertMatchesDatabind(new BuildResult(BuildResult.SUCCESS, 1, null, null, null, null,
+                Map.of("path", "target/app.jar", "size", 1024), null, null));
+    }
+
+    @Test
+    void emptyListsAreKept() throws Exception {
+        assertMatchesDatabind(new BuildResult(BuildResult.SUCCESS, 1,
+                List.of(), List.of(), null, List.of(), null, null, null));
+    }
+}
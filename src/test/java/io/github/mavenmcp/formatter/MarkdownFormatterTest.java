@@ -2,10 +2,13 @@ package io.github.mavenmcp.formatter;
 
 import io.github.mavenmcp.model.BuildResult;
 import io.github.mavenmcp.model.CompilationError;
+import io.github.mavenmcp.model.FlakyTest;
 import io.github.mavenmcp.model.TestFailure;
 import io.github.mavenmcp.model.TestSummary;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -121,6 +124,71 @@ class MarkdownFormatterTest {
         assertThat(md).isEqualTo("Test SUCCESS (5.1s) — 42 run, 0 failed, 3 skipped");
     }
 
+    @Test
+    void testSuccessWithFlakyTests() {
+        var summary = new TestSummary(42, 0, 0, 0);
+        var flaky = List.of(
+                new FlakyTest("com.example.FooTest", "shouldConnect", 2, "Connection refused", 3),
+                new FlakyTest("com.example.BarTest", "shouldRace", 1, null, 1));
+        var result = new BuildResult(BuildResult.SUCCESS, 5100,
+                null, null, summary, null, null, null, null, flaky);
+        String md = MarkdownFormatter.format(result, "Test");
+        assertThat(md).isEqualTo("""
+                Test SUCCESS (5.1s) — 42 run, 0 failed, 2 flaky
+
+                ### FLAKY: FooTest#shouldConnect — passed after 2 failed attempts, flaky in 3 runs
+                Connection refused
+
+                ### FLAKY: BarTest#shouldRace — passed after 1 failed attempt""");
+    }
+
+    @Test
+    void compileErrorsGroupedByModule() {
+        var errors = List.of(
+                new CompilationError("core/src/Foo.java", 3, null, "cannot find symbol", "ERROR", "core"),
+                new CompilationError("app/src/App.java", 7, 2, "';' expected", "ERROR", "app"),
+                new CompilationError("core/src/Bar.java", 9, null, "incompatible types", "ERROR", "core"));
+        var result = new BuildResult(BuildResult.FAILURE, 2000, errors, null, null, null, null, null, null);
+        String md = MarkdownFormatter.format(result, "Compile");
+        assertThat(md).isEqualTo("""
+                Compile FAILURE (2.0s) — 3 errors
+
+                ## Module: core — 2 errors
+
+                ### core/src/Foo.java
+                - L3 — cannot find symbol
+
+                ### core/src/Bar.java
+                - L9 — incompatible types
+
+                ## Module: app — 1 error
+
+                ### app/src/App.java
+                - L7:2 — ';' expected""");
+    }
+
+    @Test
+    void testFailuresGroupedByModule() {
+        var summary = new TestSummary(10, 2, 0, 0);
+        var failures = List.of(
+                new TestFailure("com.example.FooTest", "a", "boom", null, null, "core"),
+                new TestFailure("com.example.AppTest", "b", "bang", null, null, "app"));
+        var result = new BuildResult(BuildResult.FAILURE, 1000, null, null, summary, failures, null, null, null);
+        String md = MarkdownFormatter.format(result, "Test");
+        assertThat(md).isEqualTo("""
+                Test FAILURE (1.0s) — 10 run, 2 failed
+
+                ## Module: core — 1 failure
+
+                ### FAILED: FooTest#a
+                boom
+
+                ## Module: app — 1 failure
+
+                ### FAILED: AppTest#b
+                bang""");
+    }
+
     @Test
     void testFailureWithFailures() {
         var summary = new TestSummary(42, 2, 1, 0);
@@ -238,4 +306,94 @@ class MarkdownFormatterTest {
         String md = MarkdownFormatter.format(result, "Compile");
         assertThat(md).isEqualTo("Compile TIMEOUT (30.0s)");
     }
+
+    @Nested
+    class OutputBudget {
+
+        private static final String TRACE = String.join("\n",
+                "java.lang.IllegalStateException: boom",
+                "\tat com.example.Service.call(Service.java:10)",
+                "\t... 12 framework frames omitted",
+                "Caused by: java.io.IOException: disk",
+                "\tat com.example.Store.write(Store.java:5)");
+
+        private BuildResult failures(int count, String testOutput) {
+            var failures = new ArrayList<TestFailure>();
+            for (int i = 0; i < count; i++) {
+                failures.add(new TestFailure("com.example.FooTest", "test" + i, "boom " + i, TRACE, testOutput));
+            }
+            return new BuildResult(BuildResult.FAILURE, 1000, null, null,
+                    new TestSummary(count, count, 0, 0), failures, null, null, "Ran in testOnly mode.");
+        }
+
+        @Test
+        void shouldNotChangeOutputWhenWithinBudget() {
+            var result = failures(2, "log line");
+            assertThat(MarkdownFormatter.format(result, "Test", 100_000))
+                    .isEqualTo(MarkdownFormatter.format(result, "Test"));
+        }
+
+        @Test
+        void shouldStayWithinBudget() {
+            var result = failures(200, "log line\n".repeat(20));
+            String md = MarkdownFormatter.format(result, "Test", 8_000);
+            assertThat(md.length()).isLessThanOrEqualTo(8_000);
+            assertThat(md).startsWith("Test FAILURE (1.0s) — 200 run, 200 failed");
+            assertThat(md).endsWith("Raise maxOutputTokens to see more.");
+        }
+
+        @Test
+        void shouldTrimTestOutputAndFrameworkMarkersBeforeFrames() {
+            var result = failures(3, "log line\n".repeat(200));
+            String md = MarkdownFormatter.format(result, "Test", 2_000);
+            assertThat(md.length()).isLessThanOrEqualTo(2_000);
+            assertThat(md).doesNotContain("framework frames omitted");
+            assertThat(md).contains("at com.example.Store.write(Store.java:5)");
+            assertThat(md).contains("Caused by: java.io.IOException: disk");
+            assertThat(md).contains("### FAILED: FooTest#test2");
+            assertThat(md).contains("lines omitted (output budget)");
+        }
+
+        @Test
+        void shouldKeepRootCausesBeforeApplicationFrames() {
+            var result = failures(20, null);
+            String md = MarkdownFormatter.format(result, "Test", 4_000);
+            assertThat(md).contains("### FAILED: FooTest#test19");
+            assertThat(md).contains("Caused by: java.io.IOException: disk");
+            assertThat(md.length()).isLessThanOrEqualTo(4_000);
+        }
+
+        @Test
+        void shouldReserveMarkerSpaceOnlyForCutSections() {
+            var failures = new ArrayList<TestFailure>();
+            for (int i = 0; i < 800; i++) {
+                failures.add(new TestFailure("com.example.FooTest", "test" + i, "boom " + i, null, null));
+            }
+            failures.add(new TestFailure("com.example.FooTest", "noisy", "boom", null, "log line\n".repeat(2_000)));
+            var result = new BuildResult(BuildResult.FAILURE, 1000, null, null,
+                    new TestSummary(801, 801, 0, 0), failures, null, null, null);
+
+            String md = MarkdownFormatter.format(result, "Test", 40_000);
+
+            assertThat(md.length()).isLessThanOrEqualTo(40_000);
+            assertThat(md).contains("### FAILED: FooTest#test799").contains("### FAILED: FooTest#noisy");
+            assertThat(md).contains("lines omitted (output budget)");
+        }
+
+        @Test
+        void shouldAlwaysKeepSummaryAndNote() {
+            var result = failures(50, null);
+            String md = MarkdownFormatter.format(result, "Test", 300);
+            assertThat(md).startsWith("Test FAILURE");
+            assertThat(md).contains("> Ran in testOnly mode.");
+            assertThat(md).contains("sections dropped entirely");
+        }
+
+        @Test
+        void shouldConvertTokensToChars() {
+            assertThat(MarkdownFormatter.tokensToChars(1000)).isEqualTo(4000);
+            assertThat(MarkdownFormatter.tokensToChars(0)).isEqualTo(Integer.MAX_VALUE);
+            assertThat(MarkdownFormatter.tokensToChars(Integer.MAX_VALUE)).isEqualTo(Integer.MAX_VALUE);
+        }
+    }
 }
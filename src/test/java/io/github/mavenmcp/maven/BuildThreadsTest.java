@@ -0,0 +1,31 @@
+package io.github.mavenmcp.maven;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BuildThreadsTest {
+
+    private static final long GIB = BuildThreads.MEMORY_PER_THREAD_BYTES;
+
+    @Test
+    void shouldUseAllCoresWithEnoughMemory() {
+        assertThat(BuildThreads.compute(8, 64 * GIB, 0)).isEqualTo(8);
+    }
+
+    @Test
+    void shouldLimitThreadsByMemory() {
+        assertThat(BuildThreads.compute(16, 8 * GIB, 0)).isEqualTo(4);
+    }
+
+    @Test
+    void shouldNotExceedModuleCount() {
+        assertThat(BuildThreads.compute(16, 64 * GIB, 3)).isEqualTo(3);
+    }
+
+    @Test
+    void shouldUseAtLeastOneThread() {
+        assertThat(BuildThreads.compute(4, GIB / 2, 0)).isEqualTo(1);
+        assertThat(BuildThreads.compute(4, 0, 0)).isEqualTo(4);
+    }
+}
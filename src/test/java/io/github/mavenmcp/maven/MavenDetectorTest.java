@@ -3,7 +3,10 @@ package io.github.mavenmcp.maven;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.nio.file.attribute.PosixFilePermission;
+import java.time.Instant;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
@@ -72,4 +75,101 @@ class MavenDetectorTest {
         // Should prefer the wrapper over system mvn
         assertThat(detected).isEqualTo(mvnw);
     }
+
+    @Test
+    void shouldScanPathBeforeMavenHome() throws IOException {
+        Path first = executable(tempDir.resolve("first/mvn"));
+        executable(tempDir.resolve("second/mvn"));
+        executable(tempDir.resolve("home/bin/mvn"));
+
+        var found = MavenDetector.scan(Map.of(
+                "PATH", tempDir.resolve("empty") + ":" + tempDir.resolve("first") + ":" + tempDir.resolve("second"),
+                "MAVEN_HOME", tempDir.resolve("home").toString()), "Linux");
+
+        assertThat(found.mvn()).isEqualTo(first);
+        assertThat(found.mvnd()).isNull();
+    }
+
+    @Test
+    void shouldFallBackToMavenHomeThenM2Home() throws IOException {
+        Path m2Home = executable(tempDir.resolve("m2/bin/mvn"));
+        Files.createDirectories(tempDir.resolve("home/bin"));
+        Files.writeString(tempDir.resolve("home/bin/mvn"), "not executable");
+
+        var found = MavenDetector.scan(Map.of(
+                "PATH", "",
+                "MAVEN_HOME", tempDir.resolve("home").toString(),
+                "M2_HOME", tempDir.resolve("m2").toString()), "Linux");
+
+        assertThat(found.mvn()).isEqualTo(m2Home);
+    }
+
+    @Test
+    void shouldDiscoverMavenDaemon() throws IOException {
+        Path mvnd = executable(tempDir.resolve("mvnd/bin/mvnd"));
+
+        var found = MavenDetector.scan(Map.of("MVND_HOME", tempDir.resolve("mvnd").toString()), "Linux");
+
+        assertThat(found.mvnd()).isEqualTo(mvnd);
+        assertThat(found.mvn()).isNull();
+    }
+
+    @Test
+    void shouldUsePathExtOnWindows() throws IOException {
+        Path cmd = executable(tempDir.resolve("maven/mvn.cmd"));
+        executable(tempDir.resolve("maven/mvn"));
+
+        var found = MavenDetector.scan(Map.of(
+                "PATH", "\"" + tempDir.resolve("maven") + "\";" + tempDir.resolve("other"),
+                "PATHEXT", ".EXE;.CMD"), "Windows 11");
+
+        assertThat(found.mvn()).isEqualTo(cmd);
+    }
+
+    @Test
+    void shouldParseVersionFromDistributionUrl() {
+        assertThat(MavenDetector.parseDistributionVersion(
+                "https://repo.maven.apache.org/maven2/org/apache/maven/apache-maven/3.9.9/apache-maven-3.9.9-bin.zip"))
+                .isEqualTo("3.9.9");
+        assertThat(MavenDetector.parseDistributionVersion(
+                "https://repo.maven.apache.org/maven2/org/apache/maven/apache-maven/4.0.0-rc-2/apache-maven-4.0.0-rc-2-bin.tar.gz"))
+                .isEqualTo("4.0.0-rc-2");
+        assertThat(MavenDetector.parseDistributionVersion(
+                "https://downloads.apache.org/maven/mvnd/1.0.2/maven-mvnd-1.0.2-linux-amd64.zip"))
+                .isEqualTo("1.0.2");
+        assertThat(MavenDetector.parseDistributionVersion("https://example.com/maven.zip")).isNull();
+        assertThat(MavenDetector.parseDistributionVersion(null)).isNull();
+    }
+
+    @Test
+    void shouldReadWrapperVersionAndNoticeChanges() throws IOException {
+        Path properties = tempDir.resolve(MavenDetector.WRAPPER_PROPERTIES);
+        Files.createDirectories(properties.getParent());
+        Files.writeString(properties, "distributionUrl=https\\://repo.maven.apache.org/maven2/org/apache/maven/"
+                + "apache-maven/3.9.6/apache-maven-3.9.6-bin.zip\n");
+
+        assertThat(MavenDetector.wrapperVersion(tempDir)).contains("3.9.6");
+
+        Files.writeString(properties, "distributionUrl=https\\://repo.maven.apache.org/maven2/org/apache/maven/"
+                + "apache-maven/3.9.9/apache-maven-3.9.9-bin.zip\n");
+        Files.setLastModifiedTime(properties, FileTime.from(Instant.now().plusSeconds(10)));
+
+        assertThat(MavenDetector.wrapperVersion(tempDir)).contains("3.9.9");
+    }
+
+    @Test
+    void shouldReturnEmptyWrapperVersionWithoutWrapper() {
+        assertThat(MavenDetector.wrapperVersion(tempDir)).isEmpty();
+    }
+
+    private static Path executable(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "#!/bin/sh\n");
+        Files.setPosixFilePermissions(file, Set.of(
+                PosixFilePermission.OWNER_READ,
+                PosixFilePermission.OWNER_WRITE,
+                PosixFilePermission.OWNER_EXECUTE
+        ));
+        return file;
+    }
 }
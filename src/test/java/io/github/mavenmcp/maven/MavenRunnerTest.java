@@ -1,9 +1,23 @@
 package io.github.mavenmcp.maven;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.mavenmcp.metrics.MavenForkEvent;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -68,4 +82,88 @@ class MavenRunnerTest {
         assertThat(result.exitCode()).isNotEqualTo(0);
         assertThat(result.duration()).isGreaterThan(0);
     }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void shouldTerminateProcessTreeWhenStopConditionHolds(@TempDir Path tempDir) throws IOException {
+        // Stand-in for mvn that forks a long-running child, like a Surefire fork
+        Path script = tempDir.resolve("mvn");
+        Files.writeString(script, "#!/bin/sh\necho started\nsleep 60 &\necho $! > child.pid\nwait\n");
+        script.toFile().setExecutable(true);
+        var polls = new AtomicInteger();
+
+        MavenExecutionResult result = runner.execute("test", List.of(), script, tempDir,
+                () -> polls.incrementAndGet() >= 2);
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.duration()).isLessThan(30_000);
+        assertThat(result.stdout()).contains("started");
+        long childPid = Long.parseLong(Files.readString(tempDir.resolve("child.pid")).strip());
+        assertThat(ProcessHandle.of(childPid).map(ProcessHandle::isAlive).orElse(false)).isFalse();
+    }
+
+    @Test
+    void shouldRunToCompletionWhenStopConditionNeverHolds() {
+        Path mvn = MavenDetector.detect(Path.of("."));
+        Path projectDir = Path.of(".").toAbsolutePath();
+
+        MavenExecutionResult result = runner.execute("--version", List.of(), mvn, projectDir, () -> false);
+
+        assertThat(result.exitCode()).isEqualTo(0);
+        assertThat(result.stdout()).contains("Apache Maven");
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void shouldCompleteAsyncExecutionWhenProcessExits(@TempDir Path tempDir) throws Exception {
+        Path script = tempDir.resolve("mvn");
+        Files.writeString(script, "#!/bin/sh\necho \"$@\"\necho oops >&2\nexit 3\n");
+        script.toFile().setExecutable(true);
+
+        CompletableFuture<MavenExecutionResult> future = runner.executeAsync("verify", List.of("-q"), script, tempDir);
+        MavenExecutionResult result = future.get(30, TimeUnit.SECONDS);
+
+        assertThat(result.exitCode()).isEqualTo(3);
+        assertThat(result.stdout()).isEqualTo("verify -B -q");
+        assertThat(result.stderr()).isEqualTo("oops");
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void shouldRecordForkEventWhileRecording(@TempDir Path tempDir) throws Exception {
+        Path script = tempDir.resolve("mvn");
+        Files.writeString(script, "#!/bin/sh\necho \"$@\"\necho oops >&2\nexit 3\n");
+        script.toFile().setExecutable(true);
+        Path jfr = tempDir.resolve("fork.jfr");
+
+        try (var recording = new Recording()) {
+            recording.enable(MavenForkEvent.NAME);
+            recording.start();
+            runner.execute("verify", List.of(), script, tempDir);
+            runner.executeAsync("test", List.of(), script, tempDir).get(30, TimeUnit.SECONDS);
+            recording.stop();
+            recording.dump(jfr);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(jfr);
+        assertThat(events).extracting(e -> e.getString("goal")).containsExactlyInAnyOrder("verify", "test");
+        assertThat(events).allSatisfy(e -> {
+            assertThat(e.getInt("exitCode")).isEqualTo(3);
+            assertThat(e.getLong("pid")).isPositive();
+            assertThat(e.getLong("stderrBytes")).isEqualTo(5);
+            assertThat(e.getBoolean("terminated")).isFalse();
+            assertThat(e.getDuration()).isGreaterThanOrEqualTo(Duration.ofNanos(e.getLong("forkTime")));
+        });
+    }
+
+    @Test
+    void shouldFailAsyncExecutionOnInvalidExecutable() {
+        Path fakeExe = Path.of("/nonexistent/maven");
+        Path projectDir = Path.of(".").toAbsolutePath();
+
+        assertThat(runner.executeAsync("compile", List.of(), fakeExe, projectDir))
+                .failsWithin(Duration.ofSeconds(5))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(MavenExecutionException.class);
+    }
 }
@@ -0,0 +1,68 @@
+package io.github.mavenmcp.metrics;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HistogramTest {
+
+    @Test
+    void shouldMapValuesToContiguousBuckets() {
+        assertThat(Histogram.bucket(0)).isZero();
+        assertThat(Histogram.bucket(31)).isEqualTo(31);
+        assertThat(Histogram.bucket(32)).isEqualTo(32);
+        assertThat(Histogram.bucket(64)).isEqualTo(64);
+        assertThat(Histogram.bucket(Long.MAX_VALUE)).isEqualTo(Histogram.BUCKETS - 1);
+        for (long v = 1; v < 1 << 20; v = v * 3 / 2 + 1) {
+            int bucket = Histogram.bucket(v);
+            assertThat(Histogram.highestEquivalent(bucket)).isGreaterThanOrEqualTo(v);
+            assertThat(Histogram.highestEquivalent(bucket - 1)).isLessThan(v);
+        }
+    }
+
+    @Test
+    void shouldReportPercentilesWithinRelativeError() {
+        var histogram = new Histogram();
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v);
+        }
+
+        Histogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.count()).isEqualTo(100_000);
+        assertThat(snapshot.max()).isEqualTo(100_000);
+        assertThat(snapshot.mean()).isCloseTo(50_000.5, within(0.01));
+        assertThat(snapshot.p50()).isCloseTo(50_000L, within(50_000L / Histogram.SUB_BUCKETS));
+        assertThat(snapshot.p90()).isCloseTo(90_000L, within(90_000L / Histogram.SUB_BUCKETS));
+        assertThat(snapshot.p99()).isCloseTo(99_000L, within(99_000L / Histogram.SUB_BUCKETS));
+    }
+
+    @Test
+    void shouldReportZerosWhenEmpty() {
+        assertThat(new Histogram().snapshot()).isEqualTo(new Histogram.Snapshot(0, 0, 0, 0, 0, 0));
+    }
+
+    @Test
+    void shouldCountConcurrentRecordings() throws InterruptedException {
+        var histogram = new Histogram();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        histogram.record(i);
+                    }
+                });
+            }
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(histogram.snapshot().count()).isEqualTo(80_000);
+        assertThat(histogram.snapshot().max()).isEqualTo(9_999);
+    }
+}
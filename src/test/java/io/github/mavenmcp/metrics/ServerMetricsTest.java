@@ -0,0 +1,89 @@
+package io.github.mavenmcp.metrics;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServerMetricsTest {
+
+    private final ServerMetrics metrics = new ServerMetrics();
+
+    @Test
+    void shouldTrackConcurrentBuilds() {
+        metrics.buildStarted();
+        metrics.buildStarted();
+        metrics.buildFinished(1200);
+        metrics.buildStarted();
+        metrics.recordOutputBytes(4096);
+
+        ServerMetrics.Snapshot snapshot = metrics.snapshot();
+
+        assertThat(snapshot.activeBuilds()).isEqualTo(2);
+        assertThat(snapshot.peakBuilds()).isEqualTo(2);
+        assertThat(snapshot.builds()).isEqualTo(1);
+        assertThat(snapshot.maven().max()).isEqualTo(1_200_000);
+        assertThat(snapshot.outputBytes()).isEqualTo(4096);
+    }
+
+    @Test
+    void shouldRecordStageDurationAlsoWhenItFails() {
+        assertThat(metrics.time(ServerMetrics.STAGE_SUREFIRE_REPORTS, () -> "parsed")).isEqualTo("parsed");
+        assertThatThrownBy(() -> metrics.time(ServerMetrics.STAGE_SUREFIRE_REPORTS, () -> {
+            throw new IllegalStateException("broken report");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(metrics.snapshot().stages().get(ServerMetrics.STAGE_SUREFIRE_REPORTS).count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReportToolErrorsAndCacheHitRates() {
+        metrics.recordToolCall("maven_test", 5_000_000, false);
+        metrics.recordToolCall("maven_test", 7_000_000, true);
+        metrics.recordCacheLookups(ServerMetrics.CACHE_TEST_CLASSES, 3, 1);
+
+        ServerMetrics.Snapshot snapshot = metrics.snapshot();
+
+        assertThat(snapshot.tools().get("maven_test").errors()).isEqualTo(1);
+        assertThat(snapshot.tools().get("maven_test").latency().count()).isEqualTo(2);
+        assertThat(snapshot.caches().get(ServerMetrics.CACHE_TEST_CLASSES).hitRate()).isEqualTo(0.75);
+    }
+
+    @Test
+    void shouldServePrometheusTextFormat() throws Exception {
+        metrics.recordFork(2_000_000);
+        metrics.recordToolCall("maven_compile", 3_000_000, false);
+        metrics.recordCacheLookups(ServerMetrics.CACHE_COMPILE_RESULTS, 1, 0);
+
+        try (var endpoint = PrometheusEndpoint.start(0, metrics)) {
+            assertThat(endpoint.uri().getHost()).isEqualTo("127.0.0.1");
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(endpoint.uri()).build(), HttpResponse.BodyHandlers.ofString());
+
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(
+                    type -> assertThat(type).startsWith("text/plain; version=0.0.4"));
+            assertThat(response.body())
+                    .contains("# TYPE maven_mcp_fork_seconds summary\n")
+                    .contains("maven_mcp_fork_seconds_count 1\n")
+                    .contains("maven_mcp_tool_call_seconds{tool=\"maven_compile\",quantile=\"0.99\"} 0.00")
+                    .contains("maven_mcp_cache_hits_total{cache=\"compile_results\"} 1\n");
+        }
+    }
+
+    @Test
+    void shouldNotServeOtherMethods() throws Exception {
+        try (var endpoint = PrometheusEndpoint.start(0, metrics)) {
+            HttpResponse<Void> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(endpoint.uri())
+                            .POST(HttpRequest.BodyPublishers.noBody()).build(),
+                    HttpResponse.BodyHandlers.discarding());
+
+            assertThat(response.statusCode()).isEqualTo(405);
+        }
+    }
+}
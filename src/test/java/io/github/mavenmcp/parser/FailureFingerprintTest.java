@@ -0,0 +1,131 @@
+package io.github.mavenmcp.parser;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FailureFingerprintTest {
+
+    private static long fingerprint(String message, String stackTrace) {
+        return FailureFingerprint.compute(message, stackTrace, new FrameCache("com.example"),
+                FailureFingerprint.DEFAULT_APP_FRAMES);
+    }
+
+    private static String connectTrace(int port) {
+        return "java.lang.IllegalStateException: context failed\n"
+                + "\tat org.framework.Runner.run(Runner.java:50)\n"
+                + "Caused by: java.net.ConnectException: Connection refused: localhost/127.0.0.1:" + port + "\n"
+                + "\tat com.example.Client.open(Client.java:45)\n"
+                + "\tat java.net.Socket.connect(Socket.java:591)";
+    }
+
+    @Nested
+    class Normalization {
+
+        @Test
+        void shouldNormalizeIpAndPort() {
+            assertThat(FailureFingerprint.normalize("Connection refused: localhost/127.0.0.1:54321"))
+                    .isEqualTo("Connection refused: localhost/<ip>:<port>");
+        }
+
+        @Test
+        void shouldNormalizePortsAfterHostNames() {
+            assertThat(FailureFingerprint.normalize("Cannot reach db.example.com:5432 or localhost:8080"))
+                    .isEqualTo("Cannot reach db.example.com:<port> or localhost:<port>");
+        }
+
+        @Test
+        void shouldKeepSourceLineNumbersInFrames() {
+            assertThat(FailureFingerprint.normalize("at com.example.Foo.bar(Foo.java:42)"))
+                    .isEqualTo("at com.example.Foo.bar(Foo.java:42)");
+            assertThat(FailureFingerprint.normalize("at com.example.Foo.bar(Foo.kt:12345)"))
+                    .isEqualTo("at com.example.Foo.bar(Foo.kt:12345)");
+        }
+
+        @Test
+        void shouldNormalizeUuid() {
+            assertThat(FailureFingerprint.normalize("No order 3f2b8c1e-9d4a-4e7b-8a1c-2b3c4d5e6f70"))
+                    .isEqualTo("No order <uuid>");
+        }
+
+        @Test
+        void shouldNormalizeIdentityHashAndHexPrefix() {
+            assertThat(FailureFingerprint.normalize("Config@4d45b457 at 0x7ffe12ab"))
+                    .isEqualTo("Config@<hex> at <hex>");
+        }
+
+        @Test
+        void shouldNormalizeTimestamp() {
+            assertThat(FailureFingerprint.normalize("expired at 2026-02-15T10:42:17.123Z"))
+                    .isEqualTo("expired at <timestamp>");
+        }
+
+        @Test
+        void shouldNormalizeTempPaths() {
+            assertThat(FailureFingerprint.normalize("File not found: /tmp/junit8812731/data.json"))
+                    .isEqualTo("File not found: <tmp>");
+            assertThat(FailureFingerprint.normalize("Cannot read /var/folders/x1/abc/T/cache.bin"))
+                    .isEqualTo("Cannot read <tmp>");
+        }
+
+        @Test
+        void shouldNormalizeLongNumbersButKeepShortOnes() {
+            assertThat(FailureFingerprint.normalize("expected:<200> but was:<404> after 15234 ms"))
+                    .isEqualTo("expected:<200> but was:<404> after <n> ms");
+        }
+
+        @Test
+        void shouldReturnEmptyForNull() {
+            assertThat(FailureFingerprint.normalize(null)).isEmpty();
+        }
+    }
+
+    @Nested
+    class Fingerprinting {
+
+        @Test
+        void shouldMatchSameRootCauseOnDifferentPorts() {
+            assertThat(fingerprint("m", connectTrace(54321)))
+                    .isEqualTo(fingerprint("m", connectTrace(54322)));
+        }
+
+        @Test
+        void shouldDifferForDifferentRootCauseExceptions() {
+            String other = connectTrace(54321).replace("ConnectException", "SocketTimeoutException");
+            assertThat(fingerprint("m", connectTrace(54321))).isNotEqualTo(fingerprint("m", other));
+        }
+
+        @Test
+        void shouldDifferForDifferentRootCauseApplicationFrames() {
+            String other = connectTrace(54321).replace("com.example.Client.open", "com.example.Other.open");
+            assertThat(fingerprint("m", connectTrace(54321))).isNotEqualTo(fingerprint("m", other));
+        }
+
+        @Test
+        void shouldIgnoreFrameworkFramesInRootCause() {
+            String other = connectTrace(54321).replace("java.net.Socket.connect", "sun.nio.ch.Net.connect");
+            assertThat(fingerprint("m", connectTrace(54321))).isEqualTo(fingerprint("m", other));
+        }
+
+        @Test
+        void shouldMatchRawAndProcessedTrace() {
+            String raw = connectTrace(54321);
+            String processed = StackTraceProcessor.process(raw, "com.example", 50);
+            assertThat(fingerprint("m", processed)).isEqualTo(fingerprint("m", raw));
+        }
+
+        @Test
+        void shouldMatchTruncatedAndUntruncatedRootCauseHeader() {
+            String raw = "java.lang.Exception: top\nCaused by: java.io.IOException: " + "x".repeat(400);
+            String processed = StackTraceProcessor.process(raw, "com.example", 50);
+            assertThat(fingerprint("m", processed)).isEqualTo(fingerprint("m", raw));
+        }
+
+        @Test
+        void shouldFallBackToNormalizedMessageFirstLine() {
+            assertThat(fingerprint("Timed out after 30001 ms\ndetails", null))
+                    .isEqualTo(fingerprint("Timed out after 30517 ms", null));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.mavenmcp.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FailureWatcherTest {
+
+    @TempDir
+    Path reportsDir;
+
+    @Test
+    void shouldNotTriggerWithoutReports() {
+        var watcher = new FailureWatcher(reportsDir.resolve("missing"), new FrameCache(null), 1);
+
+        assertThat(watcher.getAsBoolean()).isFalse();
+        assertThat(watcher.rootCauseCount()).isZero();
+    }
+
+    @Test
+    void shouldCountDistinctRootCausesAcrossPolls() throws IOException {
+        var watcher = new FailureWatcher(reportsDir, new FrameCache(null), 3);
+        copyFixture("TEST-com.example.PassingTest.xml");
+        copyFixture("TEST-com.example.FailingTest.xml");
+
+        assertThat(watcher.getAsBoolean()).isFalse();
+        assertThat(watcher.rootCauseCount()).isEqualTo(2);
+
+        copyFixture("TEST-com.example.ErrorTest.xml");
+
+        assertThat(watcher.getAsBoolean()).isTrue();
+        assertThat(watcher.triggered()).isTrue();
+    }
+
+    @Test
+    void shouldRetryReportsStillBeingWritten() throws IOException {
+        var watcher = new FailureWatcher(reportsDir, new FrameCache(null), 1);
+        Path partial = reportsDir.resolve("TEST-com.example.FailingTest.xml");
+        Files.writeString(partial, "<?xml version=\"1.0\"?><testsuite name=\"com.example.FailingTest\">");
+
+        assertThat(watcher.getAsBoolean()).isFalse();
+
+        Files.delete(partial);
+        copyFixture("TEST-com.example.FailingTest.xml");
+
+        assertThat(watcher.getAsBoolean()).isTrue();
+    }
+
+    private void copyFixture(String filename) throws IOException {
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream("surefire-reports/" + filename)) {
+            if (is == null) throw new RuntimeException("Fixture not found: " + filename);
+            Files.copy(is, reportsDir.resolve(filename));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.mavenmcp.parser;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FrameCacheTest {
+
+    private static final String APP_FRAME = "\tat com.example.Foo.bar(Foo.java:42)";
+    private static final String FRAMEWORK_FRAME = "\tat org.junit.platform.Runner.run(Runner.java:10)";
+
+    @Test
+    void shouldClassifyApplicationFrame() {
+        var cache = new FrameCache("com.example");
+
+        FrameCache.Frame frame = cache.classify(APP_FRAME);
+
+        assertThat(frame.kind()).isEqualTo(FrameCache.Kind.APPLICATION);
+        assertThat(frame.rendered()).isEqualTo(APP_FRAME);
+    }
+
+    @Test
+    void shouldClassifyFrameworkFrameWithoutRendering() {
+        var cache = new FrameCache("com.example");
+
+        FrameCache.Frame frame = cache.classify(FRAMEWORK_FRAME);
+
+        assertThat(frame.kind()).isEqualTo(FrameCache.Kind.FRAMEWORK);
+        assertThat(frame.rendered()).isNull();
+    }
+
+    @Test
+    void shouldClassifyStructuralLineWithTruncatedHeader() {
+        var cache = new FrameCache("com.example");
+        String longSuppressed = "\tSuppressed: java.lang.IllegalStateException: " + "x".repeat(300);
+
+        FrameCache.Frame frame = cache.classify(longSuppressed);
+
+        assertThat(frame.kind()).isEqualTo(FrameCache.Kind.STRUCTURAL);
+        assertThat(frame.rendered()).endsWith("...");
+        assertThat(frame.rendered()).hasSize(StackTraceProcessor.MAX_HEADER_LENGTH + 3);
+    }
+
+    @Test
+    void shouldReturnSameInstanceForRepeatedLine() {
+        var cache = new FrameCache("com.example");
+
+        FrameCache.Frame first = cache.classify(FRAMEWORK_FRAME);
+        FrameCache.Frame second = cache.classify(new String(FRAMEWORK_FRAME));
+
+        assertThat(second).isSameAs(first);
+        assertThat(cache.hits()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedBeyondLimit() {
+        var cache = new FrameCache("com.example", 2);
+
+        cache.classify("\tat a.A.a(A.java:1)");
+        cache.classify("\tat b.B.b(B.java:1)");
+        cache.classify("\tat a.A.a(A.java:1)"); // touch A so B is eldest
+        cache.classify("\tat c.C.c(C.java:1)");
+
+        assertThat(cache.size()).isEqualTo(2);
+        cache.classify("\tat a.A.a(A.java:1)");
+        assertThat(cache.hits()).isEqualTo(2);
+        cache.classify("\tat b.B.b(B.java:1)");
+        assertThat(cache.misses()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldNotFilterWhenAppPackageBlank() {
+        assertThat(new FrameCache(null).filtersFrames()).isFalse();
+        assertThat(new FrameCache("  ").filtersFrames()).isFalse();
+        assertThat(new FrameCache("com.example").filtersFrames()).isTrue();
+    }
+
+    @Test
+    void shouldRejectNonPositiveLimit() {
+        assertThatThrownBy(() -> new FrameCache("com.example", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void sharedCacheShouldProduceSameOutputAsPerTraceProcessing() {
+        String trace = """
+                java.lang.IllegalStateException: top
+                \tat org.springframework.Foo.run(Foo.java:1)
+                \tat com.example.Service.call(Service.java:10)
+                Caused by: java.io.IOException: root
+                \tat com.example.Client.open(Client.java:5)
+                \tat java.net.Socket.connect(Socket.java:591)""";
+        var cache = new FrameCache("com.example");
+
+        String expected = StackTraceProcessor.process(trace, "com.example", 50);
+        String first = StackTraceProcessor.processWithCache(trace, cache, 50);
+        String second = StackTraceProcessor.processWithCache(trace, cache, 50);
+
+        assertThat(first).isEqualTo(expected);
+        assertThat(second).isEqualTo(expected);
+        assertThat(cache.hits()).isEqualTo(cache.misses());
+    }
+}
@@ -4,7 +4,17 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import io.github.mavenmcp.metrics.DedupEvent;
+import io.github.mavenmcp.metrics.StackTraceProcessEvent;
+import io.github.mavenmcp.metrics.SurefireParseEvent;
 import io.github.mavenmcp.model.TestFailure;
 import io.github.mavenmcp.parser.SurefireReportParser.SurefireResult;
 import org.junit.jupiter.api.BeforeEach;
@@ -60,6 +70,119 @@ class SurefireReportParserTest {
         assertThat(first.stackTrace()).isNotNull();
     }
 
+    @Test
+    void shouldRecordFailedTestIdsPerSuite() throws IOException {
+        copyFixture("TEST-com.example.FailingTest.xml");
+        copyFixture("TEST-com.example.ErrorTest.xml");
+
+        SurefireResult sr = SurefireReportParser.parse(tempDir).orElseThrow();
+
+        assertThat(sr.suites()).flatExtracting(SurefireReportParser.SuiteResult::failedTests)
+                .containsExactlyInAnyOrder(
+                        "com.example.FailingTest#shouldReturnUser",
+                        "com.example.FailingTest#shouldHandleNull",
+                        "com.example.ErrorTest#shouldNotThrow");
+    }
+
+    @Test
+    void shouldMergeReportsOfSeveralDirectories() throws IOException {
+        copyFixture("TEST-com.example.FailingTest.xml");
+        Path shardDir = Files.createDirectories(tempDir.resolve("shard-2"));
+        try (InputStream is = getClass().getClassLoader()
+                .getResourceAsStream("surefire-reports/TEST-com.example.PassingTest.xml")) {
+            Files.copy(is, shardDir.resolve("TEST-com.example.PassingTest.xml"));
+        }
+
+        var accumulator = new TestFailureDeduplicator.Accumulator(new FrameCache(null));
+        SurefireResult sr = SurefireReportParser.parse(
+                List.of(reportsDir, shardDir, tempDir.resolve("missing")), true, 2000, accumulator).orElseThrow();
+
+        assertThat(sr.summary().testsRun()).isEqualTo(7);
+        assertThat(sr.suites()).hasSize(2);
+        assertThat(sr.failures()).hasSize(2);
+    }
+
+    @Test
+    void shouldEmitParserEventsWhileRecording() throws IOException {
+        copyFixture("TEST-com.example.FailingTest.xml");
+        Path jfr = tempDir.resolve("parse.jfr");
+
+        try (var recording = new Recording()) {
+            recording.enable(SurefireParseEvent.NAME);
+            recording.enable(DedupEvent.NAME);
+            recording.enable(StackTraceProcessEvent.NAME);
+            recording.start();
+            var accumulator = new TestFailureDeduplicator.Accumulator(new FrameCache(null));
+            SurefireResult sr = SurefireReportParser.parse(tempDir, true, 2000, accumulator).orElseThrow();
+            sr.failures().forEach(f -> StackTraceProcessor.process(f.stackTrace(), "com.example", 50));
+            recording.stop();
+            recording.dump(jfr);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(jfr);
+        RecordedEvent parse = single(events, SurefireParseEvent.NAME);
+        assertThat(parse.getInt("reportFiles")).isEqualTo(1);
+        assertThat(parse.getLong("reportBytes")).isPositive();
+        assertThat(parse.getInt("tests")).isEqualTo(4);
+        assertThat(parse.getInt("failures")).isEqualTo(2);
+        RecordedEvent dedup = single(events, DedupEvent.NAME);
+        assertThat(dedup.getInt("failures")).isEqualTo(2);
+        assertThat(dedup.getInt("groups")).isEqualTo(2);
+        assertThat(events).filteredOn(e -> e.getEventType().getName().equals(StackTraceProcessEvent.NAME))
+                .hasSize(2)
+                .allSatisfy(e -> assertThat(e.getLong("inputChars")).isPositive());
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+        assertThat(matching).hasSize(1);
+        return matching.getFirst();
+    }
+
+    @Test
+    void shouldAttributeFailuresToModuleOfReportDirectory() throws IOException {
+        Path moduleDir = Files.createDirectories(tempDir.resolve("core/target/surefire-reports"));
+        try (InputStream is = getClass().getClassLoader()
+                .getResourceAsStream("surefire-reports/TEST-com.example.ErrorTest.xml")) {
+            Files.copy(is, moduleDir.resolve("TEST-com.example.ErrorTest.xml"));
+        }
+        copyFixture("TEST-com.example.FailingTest.xml");
+        Map<Path, String> dirs = new LinkedHashMap<>();
+        dirs.put(reportsDir, "");
+        dirs.put(moduleDir, "core");
+
+        var accumulator = new TestFailureDeduplicator.Accumulator(new FrameCache(null));
+        SurefireResult sr = SurefireReportParser.parse(dirs, true, 2000, accumulator).orElseThrow();
+
+        assertThat(sr.failures()).filteredOn(f -> "com.example.ErrorTest".equals(f.testClass()))
+                .isNotEmpty().allMatch(f -> "core".equals(f.module()));
+        assertThat(sr.failures()).filteredOn(f -> "com.example.FailingTest".equals(f.testClass()))
+                .isNotEmpty().allMatch(f -> f.module() == null);
+    }
+
+    @Test
+    void shouldReportTestsPassingOnRerunAsFlaky() throws IOException {
+        copyFixture("TEST-com.example.FlakyTest.xml");
+
+        SurefireResult sr = SurefireReportParser.parse(tempDir).orElseThrow();
+
+        assertThat(sr.flakyTests()).singleElement().satisfies(flaky -> {
+            assertThat(flaky.testMethod()).isEqualTo("shouldEventuallyConnect");
+            assertThat(flaky.failedAttempts()).isEqualTo(2);
+            assertThat(flaky.message()).isEqualTo("Connection refused");
+        });
+        assertThat(sr.failures()).extracting(TestFailure::testMethod).containsExactly("shouldAlwaysFail");
+    }
+
+    @Test
+    void shouldRecordSuiteDuration() throws IOException {
+        copyFixture("TEST-com.example.FailingTest.xml");
+
+        SurefireResult sr = SurefireReportParser.parse(tempDir).orElseThrow();
+
+        assertThat(sr.suites().getFirst().durationMillis()).isEqualTo(1234);
+    }
+
     @Test
     void shouldParseTestErrors() throws IOException {
         copyFixture("TEST-com.example.ErrorTest.xml");
@@ -265,6 +388,56 @@ class SurefireReportParserTest {
         }
     }
 
+    @Nested
+    class StreamingDeduplication {
+
+        @Test
+        void shouldFoldFailuresWithSameRootCauseWhileParsing() throws IOException {
+            StringBuilder testcases = new StringBuilder();
+            for (int i = 0; i < 200; i++) {
+                testcases.append("""
+                          <testcase name="test%d" classname="com.example.RedisTest" time="0.1">
+                            <error message="context failed" type="java.lang.IllegalStateException">java.lang.IllegalStateException: context failed
+                        Caused by: java.net.ConnectException: Connection refused: localhost/127.0.0.1:%d</error>
+                          </testcase>
+                        """.formatted(i, 50000 + i));
+            }
+            Files.writeString(reportsDir.resolve("TEST-com.example.RedisTest.xml"), """
+                    <?xml version="1.0" encoding="UTF-8"?>
+                    <testsuite name="com.example.RedisTest" time="1.0" tests="200" errors="200" skipped="0" failures="0">
+                    %s</testsuite>
+                    """.formatted(testcases));
+            var accumulator = new TestFailureDeduplicator.Accumulator(new FrameCache(null));
+
+            var result = SurefireReportParser.parse(tempDir, true, 2000, accumulator);
+
+            assertThat(result).isPresent();
+            assertThat(result.get().summary().testsErrored()).isEqualTo(200);
+            assertThat(accumulator.failureCount()).isEqualTo(200);
+            assertThat(result.get().failures()).hasSize(1);
+            TestFailure merged = result.get().failures().getFirst();
+            assertThat(merged.testClass()).isEqualTo("com.example.RedisTest");
+            assertThat(merged.testMethod()).isEqualTo("test0, test1, test2 (+197 more)");
+            assertThat(merged.stackTrace()).endsWith("127.0.0.1:50000");
+        }
+
+        @Test
+        void shouldMatchListParsingFollowedByDeduplication() throws IOException {
+            copyFixture("TEST-com.example.FailingTest.xml");
+            copyFixture("TEST-com.example.ErrorTest.xml");
+            copyFixture("TEST-com.example.FailingTestWithLogs.xml");
+
+            var listResult = SurefireReportParser.parse(tempDir, true, 2000);
+            var streamed = SurefireReportParser.parse(tempDir, true, 2000,
+                    new TestFailureDeduplicator.Accumulator(new FrameCache(null)));
+
+            assertThat(streamed).isPresent();
+            assertThat(streamed.get().summary()).isEqualTo(listResult.get().summary());
+            assertThat(streamed.get().failures())
+                    .isEqualTo(TestFailureDeduplicator.deduplicate(listResult.get().failures()));
+        }
+    }
+
     @Test
     void shouldTruncateTestOutputFromBeginningKeepingTail() {
         String output = "AAAA\nBBBB\nCCCC\nDDDD";
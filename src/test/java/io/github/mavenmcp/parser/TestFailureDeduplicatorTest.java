@@ -82,6 +82,38 @@ class TestFailureDeduplicatorTest {
         assertThat(result.getFirst().testMethod()).isEqualTo("testA, testB");
     }
 
+    @Test
+    void shouldGroupRootCausesDifferingOnlyByVolatileTokens() {
+        String trace1 = "java.lang.IllegalStateException: context failed\n"
+                + "Caused by: java.net.ConnectException: Connection refused: localhost/127.0.0.1:54321";
+        String trace2 = "java.lang.IllegalStateException: context failed\n"
+                + "Caused by: java.net.ConnectException: Connection refused: localhost/127.0.0.1:54322";
+
+        var f1 = failure("com.example.FooTest", "testA", "context failed", trace1, null);
+        var f2 = failure("com.example.BarTest", "testB", "context failed", trace2, null);
+        List<TestFailure> result = TestFailureDeduplicator.deduplicate(List.of(f1, f2));
+
+        assertThat(result).hasSize(1);
+        assertThat(result.getFirst().stackTrace()).isEqualTo(trace1);
+    }
+
+    @Test
+    void shouldSeparateSameRootCauseThrownFromDifferentApplicationFrames() {
+        String trace1 = "java.lang.IllegalStateException: context failed\n"
+                + "Caused by: java.net.ConnectException: Connection refused\n"
+                + "\tat com.example.RedisClient.connect(RedisClient.java:12)";
+        String trace2 = "java.lang.IllegalStateException: context failed\n"
+                + "Caused by: java.net.ConnectException: Connection refused\n"
+                + "\tat com.example.KafkaClient.connect(KafkaClient.java:30)";
+
+        var f1 = failure("com.example.FooTest", "testA", "e", trace1, null);
+        var f2 = failure("com.example.FooTest", "testB", "e", trace2, null);
+        List<TestFailure> result = TestFailureDeduplicator.deduplicate(
+                List.of(f1, f2), new FrameCache("com.example"));
+
+        assertThat(result).hasSize(2);
+    }
+
     @Test
     void shouldSeparateFailuresWithDifferentRootCauses() {
         var f1 = failure("com.example.FooTest", "testA", "error", TRACE_WITH_ROOT_CAUSE_A, null);
@@ -201,6 +233,36 @@ class TestFailureDeduplicatorTest {
         assertThat(result.getFirst().testMethod()).isEqualTo("testA, testB");
     }
 
+    @Test
+    void accumulatorShouldKeepOnlyFirstFailurePerGroup() {
+        var accumulator = new TestFailureDeduplicator.Accumulator(new FrameCache("com.example"));
+        var first = failure("com.example.FooTest", "test0", "error", TRACE_WITH_ROOT_CAUSE_A, null);
+        accumulator.add(first);
+        for (int i = 1; i < 1000; i++) {
+            accumulator.add(failure("com.example.FooTest", "test" + i, "error",
+                    TRACE_WITH_ROOT_CAUSE_A + "\n\tat org.framework.Pool.get(Pool.java:" + i + ")", null));
+        }
+
+        List<TestFailure> result = accumulator.results();
+
+        assertThat(accumulator.failureCount()).isEqualTo(1000);
+        assertThat(accumulator.groupCount()).isEqualTo(1);
+        assertThat(result).hasSize(1);
+        assertThat(result.getFirst().stackTrace()).isSameAs(first.stackTrace());
+        assertThat(result.getFirst().testMethod()).isEqualTo("test0, test1, test2 (+997 more)");
+    }
+
+    @Test
+    void accumulatorShouldReturnSingletonUnchanged() {
+        var accumulator = new TestFailureDeduplicator.Accumulator(new FrameCache(null));
+        var f = failure("com.example.FooTest", "testA", "error", TRACE_WITH_ROOT_CAUSE_A, "output");
+
+        accumulator.add(f);
+
+        assertThat(accumulator.results()).containsExactly(f);
+        assertThat(accumulator.results().getFirst()).isSameAs(f);
+    }
+
     @Test
     void extractRootCauseKey_lastCausedByLine() {
         String trace = "java.lang.Exception: top\n"
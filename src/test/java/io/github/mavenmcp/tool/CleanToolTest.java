@@ -1,21 +1,39 @@
 package io.github.mavenmcp.tool;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.config.ProjectRegistry;
 import io.github.mavenmcp.config.ServerConfig;
 import io.github.mavenmcp.maven.MavenExecutionResult;
+import io.github.mavenmcp.maven.MavenNotFoundException;
+import io.github.mavenmcp.maven.MavenRunner;
+import io.github.mavenmcp.metrics.ToolCallEvent;
+import io.github.mavenmcp.model.BuildResult;
+import io.modelcontextprotocol.server.McpServerFeatures.AsyncToolSpecification;
 import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema.CallToolRequest;
 import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 class CleanToolTest {
 
+    private static final CallToolRequest CALL = new CallToolRequest("maven_clean", Map.of());
+
     private final ObjectMapper objectMapper = new ObjectMapper()
             .setSerializationInclusion(JsonInclude.Include.NON_NULL);
     private final ServerConfig config = new ServerConfig(
@@ -56,6 +74,18 @@ class CleanToolTest {
         assertThat(result.isError()).isTrue();
     }
 
+    @Test
+    void shouldReturnIsErrorWhenMavenWasNotFound() {
+        var noMaven = ServerConfig.withPendingMaven(Path.of("/tmp/test-project"), CompletableFuture.failedFuture(
+                new MavenNotFoundException("Maven not found. Install Maven or add mvnw to your project.")));
+        SyncToolSpecification spec = CleanTool.create(noMaven, new TestRunners.CapturingRunner(), objectMapper);
+
+        CallToolResult result = spec.call().apply(null, Map.of());
+
+        assertThat(result.isError()).isTrue();
+        assertThat(result.content().getFirst().toString()).contains("Maven not found");
+    }
+
     @Test
     void shouldPassArgsToRunner() {
         var runner = new TestRunners.CapturingRunner();
@@ -66,4 +96,136 @@ class CleanToolTest {
         assertThat(runner.capturedArgs).containsExactly("-X", "-Pfoo");
     }
 
+    @Test
+    void shouldReturnJsonAndStructuredContentWhenRequested() throws Exception {
+        var runner = new TestRunners.StubRunner(new MavenExecutionResult(1, "[ERROR] Clean failed", "", 200));
+        SyncToolSpecification spec = CleanTool.create(config, runner, objectMapper);
+
+        CallToolResult result = spec.call().apply(null, Map.of("format", "json"));
+
+        String json = ((TextContent) result.content().getFirst()).text();
+        var node = objectMapper.readTree(json);
+        assertThat(node.get("status").asText()).isEqualTo("FAILURE");
+        assertThat(node.get("output").asText()).contains("Clean failed");
+        assertThat(result.structuredContent()).isInstanceOf(BuildResult.class);
+        assertThat(result.isError()).isFalse();
+    }
+
+    @Test
+    void shouldRunInProjectNamedByParameterInMultiProjectMode(@TempDir Path root) throws Exception {
+        Path other = root.resolve("other");
+        Files.createDirectories(other);
+        Files.writeString(other.resolve("pom.xml"), "<project/>");
+        var runner = new TestRunners.CapturingRunner();
+        var projects = ProjectRegistry.multi(new ServerConfig(root, Path.of("/usr/bin/mvn")), 4);
+        SyncToolSpecification spec = CleanTool.create(projects, runner, objectMapper);
+
+        spec.call().apply(null, Map.of("project", "other"));
+        assertThat(runner.capturedDir).isEqualTo(other.toRealPath());
+
+        spec.call().apply(null, Map.of());
+        assertThat(runner.capturedDir).isEqualTo(root);
+    }
+
+    @Test
+    void shouldRejectOtherProjectInSingleProjectMode(@TempDir Path root) throws Exception {
+        Files.writeString(root.resolve("pom.xml"), "<project/>");
+        var runner = new TestRunners.CapturingRunner();
+        SyncToolSpecification spec = CleanTool.create(config, runner, objectMapper);
+
+        CallToolResult result = spec.call().apply(null, Map.of("project", root.toString()));
+
+        assertThat(result.isError()).isTrue();
+        assertThat(((TextContent) result.content().getFirst()).text()).contains("--multi-project");
+        assertThat(runner.capturedGoal).isNull();
+    }
+
+    @Test
+    void shouldCompleteAsyncCallWhenMavenExits() {
+        var runner = new PendingRunner();
+        AsyncToolSpecification spec = CleanTool.createAsync(ProjectRegistry.single(config), runner, objectMapper);
+
+        CompletableFuture<CallToolResult> call = spec.callHandler().apply(null, CALL).toFuture();
+        await(() -> runner.runs.size() == 1);
+        assertThat(call).isNotDone();
+
+        runner.runs.getFirst().complete(new MavenExecutionResult(0, "[INFO] BUILD SUCCESS", "", 500));
+
+        CallToolResult result = call.join();
+        assertThat(result.isError()).isFalse();
+        assertThat(((TextContent) result.content().getFirst()).text()).contains("SUCCESS");
+    }
+
+    @Test
+    void shouldQueueAsyncCallsOnSameProject() {
+        var runner = new PendingRunner();
+        AsyncToolSpecification spec = CleanTool.createAsync(ProjectRegistry.single(config), runner, objectMapper);
+
+        CompletableFuture<CallToolResult> first = spec.callHandler().apply(null, CALL).toFuture();
+        await(() -> runner.runs.size() == 1);
+        CompletableFuture<CallToolResult> second = spec.callHandler().apply(null, CALL).toFuture();
+        assertThat(runner.runs).hasSize(1);
+
+        runner.runs.getFirst().complete(new MavenExecutionResult(0, "", "", 100));
+        await(() -> runner.runs.size() == 2);
+        runner.runs.get(1).complete(new MavenExecutionResult(0, "", "", 100));
+
+        assertThat(first.join().isError()).isFalse();
+        assertThat(second.join().isError()).isFalse();
+    }
+
+    @Test
+    void shouldReturnIsErrorWhenAsyncExecutionFails() {
+        AsyncToolSpecification spec = CleanTool.createAsync(ProjectRegistry.single(config),
+                new TestRunners.ThrowingRunner(), objectMapper);
+
+        CallToolResult result = spec.callHandler().apply(null, CALL).block();
+
+        assertThat(result.isError()).isTrue();
+        assertThat(((TextContent) result.content().getFirst()).text()).isEqualTo("Error: Simulated failure");
+    }
+
+    @Test
+    void shouldEmitToolCallEventWhileRecording(@TempDir Path tempDir) throws Exception {
+        Path jfr = tempDir.resolve("calls.jfr");
+        try (var recording = new Recording()) {
+            recording.enable(ToolCallEvent.NAME);
+            recording.start();
+            CleanTool.create(config, new TestRunners.StubRunner(new MavenExecutionResult(0, "", "", 10)), objectMapper)
+                    .call().apply(null, Map.of());
+            CleanTool.createAsync(ProjectRegistry.single(config), new TestRunners.ThrowingRunner(), objectMapper)
+                    .callHandler().apply(null, CALL).block();
+            recording.stop();
+            recording.dump(jfr);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(jfr);
+        assertThat(events).hasSize(2).allSatisfy(e -> {
+            assertThat(e.getString("tool")).isEqualTo("maven_clean");
+            assertThat(e.getString("project")).isEqualTo(config.projectDir().toString());
+            assertThat(e.getLong("responseChars")).isPositive();
+        });
+        assertThat(events).extracting(e -> e.getBoolean("error")).containsExactlyInAnyOrder(false, true);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition met in time").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    /** Maven runs that complete only when the test says so. */
+    private static class PendingRunner extends MavenRunner {
+        final List<CompletableFuture<MavenExecutionResult>> runs = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableFuture<MavenExecutionResult> executeAsync(String goal, List<String> extraArgs,
+                                                                    Path exe, Path dir) {
+            var run = new CompletableFuture<MavenExecutionResult>();
+            runs.add(run);
+            return run;
+        }
+    }
 }
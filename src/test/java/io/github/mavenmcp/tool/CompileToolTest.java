@@ -1,16 +1,26 @@
 package io.github.mavenmcp.tool;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.analysis.ChangeDetector;
+import io.github.mavenmcp.config.ProjectRegistry;
 import io.github.mavenmcp.config.ServerConfig;
 import io.github.mavenmcp.maven.MavenExecutionResult;
+import io.modelcontextprotocol.server.McpServerFeatures.AsyncToolSpecification;
 import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema.CallToolRequest;
 import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -48,6 +58,20 @@ class CompileToolTest {
         assertThat(text).contains("src/main/java/Foo.java"); // relative path in error group
     }
 
+    @Test
+    void shouldReturnParsedErrorsFromAsyncVariant() {
+        String stdout = "[ERROR] /home/user/my-project/src/main/java/Foo.java:[42,15] cannot find symbol\n[ERROR] BUILD FAILURE";
+        var runner = new TestRunners.StubRunner(new MavenExecutionResult(1, stdout, "", 4000));
+        AsyncToolSpecification spec = CompileTool.createAsync(ProjectRegistry.single(config), runner, objectMapper);
+
+        CallToolResult result = spec.callHandler().apply(null, new CallToolRequest("maven_compile", Map.of()))
+                .block();
+
+        String text = result.content().getFirst().toString();
+        assertThat(text).contains("Compile FAILURE");
+        assertThat(text).contains("cannot find symbol");
+    }
+
     @Test
     void shouldReturnSuccessWithWarnings() {
         String stdout = "[WARNING] /home/user/my-project/src/main/java/Old.java:[10,5] [deprecation] deprecated method\n[INFO] BUILD SUCCESS";
@@ -71,4 +95,247 @@ class CompileToolTest {
         assertThat(runner.capturedArgs).containsExactly("-DskipFrontend");
     }
 
+    @Nested
+    class ResultCache {
+
+        @TempDir
+        Path projectDir;
+
+        private Path source;
+        private ServerConfig cacheConfig;
+
+        private void setUpProject() throws IOException {
+            Files.writeString(projectDir.resolve("pom.xml"), "<project/>");
+            source = projectDir.resolve("src/main/java/App.java");
+            Files.createDirectories(source.getParent());
+            Files.writeString(source, "class App {}");
+            Files.createDirectories(projectDir.resolve("target/classes"));
+            cacheConfig = new ServerConfig(projectDir, Path.of("/usr/bin/mvn"));
+        }
+
+        @Test
+        void shouldServeUnchangedInputsFromCache() throws IOException {
+            setUpProject();
+            var runner = new TestRunners.CapturingRunner();
+            SyncToolSpecification spec = CompileTool.create(cacheConfig, runner, objectMapper);
+
+            spec.call().apply(null, Map.of());
+            CallToolResult second = spec.call().apply(null, Map.of());
+
+            assertThat(runner.allGoals).hasSize(1);
+            assertThat(second.content().getFirst().toString())
+                    .contains("Compile SUCCESS")
+                    .contains("Cached result");
+        }
+
+        @Test
+        void shouldKeepOriginalNoteOnCachedResult() throws IOException {
+            setUpProject();
+            var runner = new TestRunners.CapturingRunner();
+            SyncToolSpecification spec = CompileTool.create(cacheConfig, runner, objectMapper);
+
+            String first = spec.call().apply(null, Map.of("threads", 4)).content().getFirst().toString();
+            CallToolResult second = spec.call().apply(null, Map.of("threads", 4));
+
+            assertThat(first).contains("threads:");
+            assertThat(second.content().getFirst().toString())
+                    .contains("threads:")
+                    .contains("Cached result");
+        }
+
+        @Test
+        void shouldRunAgainWhenSourceChanges() throws IOException {
+            setUpProject();
+            var runner = new TestRunners.CapturingRunner();
+            SyncToolSpecification spec = CompileTool.create(cacheConfig, runner, objectMapper);
+
+            spec.call().apply(null, Map.of());
+            Files.setLastModifiedTime(source, FileTime.from(Instant.now().plusSeconds(5)));
+            spec.call().apply(null, Map.of());
+
+            assertThat(runner.allGoals).hasSize(2);
+        }
+
+        @Test
+        void shouldRunAgainWhenParentPomOutsideProjectChanges() throws IOException {
+            Path parent = projectDir.resolve("parent/pom.xml");
+            Files.createDirectories(parent.getParent());
+            Files.writeString(parent, "<project><groupId>g</groupId><artifactId>parent</artifactId></project>");
+            Path app = Files.createDirectories(projectDir.resolve("app"));
+            Files.writeString(app.resolve("pom.xml"), "<project><parent><groupId>g</groupId>"
+                    + "<artifactId>parent</artifactId><relativePath>../parent</relativePath></parent>"
+                    + "<artifactId>app</artifactId></project>");
+            Files.createDirectories(app.resolve("target/classes"));
+            var runner = new TestRunners.CapturingRunner();
+            SyncToolSpecification spec = CompileTool.create(
+                    new ServerConfig(app, Path.of("/usr/bin/mvn")), runner, objectMapper);
+
+            spec.call().apply(null, Map.of());
+            Files.setLastModifiedTime(parent, FileTime.from(Instant.now().plusSeconds(5)));
+            spec.call().apply(null, Map.of());
+
+            assertThat(runner.allGoals).hasSize(2);
+        }
+
+        @Test
+        void shouldRunAgainWhenArgsChange() throws IOException {
+            setUpProject();
+            var runner = new TestRunners.CapturingRunner();
+            SyncToolSpecification spec = CompileTool.create(cacheConfig, runner, objectMapper);
+
+            spec.call().apply(null, Map.of());
+            spec.call().apply(null, Map.of("args", List.of("-Pdev")));
+
+            assertThat(runner.allGoals).hasSize(2);
+        }
+
+        @Test
+        void shouldRunAgainAfterOutputsAreCleaned() throws IOException {
+            setUpProject();
+            var runner = new TestRunners.CapturingRunner();
+            SyncToolSpecification spec = CompileTool.create(cacheConfig, runner, objectMapper);
+
+            spec.call().apply(null, Map.of());
+            Files.delete(projectDir.resolve("target/classes"));
+            spec.call().apply(null, Map.of());
+
+            assertThat(runner.allGoals).hasSize(2);
+        }
+
+        @Test
+        void shouldBypassCacheWhenDisabled() throws IOException {
+            setUpProject();
+            var runner = new TestRunners.CapturingRunner();
+            SyncToolSpecification spec = CompileTool.create(cacheConfig, runner, objectMapper);
+
+            spec.call().apply(null, Map.of());
+            spec.call().apply(null, Map.of("useCache", false));
+
+            assertThat(runner.allGoals).hasSize(2);
+        }
+
+        @Test
+        void shouldNotCacheFailuresWithoutCompilationErrors() throws IOException {
+            setUpProject();
+            var runner = new TestRunners.CapturingRunner();
+            runner.failOnGoal("compile");
+            SyncToolSpecification spec = CompileTool.create(cacheConfig, runner, objectMapper);
+
+            spec.call().apply(null, Map.of());
+            spec.call().apply(null, Map.of());
+
+            assertThat(runner.allGoals).hasSize(2);
+        }
+    }
+
+    @Nested
+    class AffectedModules {
+
+        @TempDir
+        Path projectDir;
+
+        private ServerConfig reactorConfig;
+
+        private void setUpReactor() throws IOException {
+            Files.writeString(projectDir.resolve("pom.xml"), """
+                    <project><groupId>com.example</groupId><artifactId>root</artifactId>
+                    <modules><module>core</module><module>app</module><module>docs</module></modules></project>""");
+            module("core", "");
+            module("app", "<dependencies><dependency><groupId>com.example</groupId>"
+                    + "<artifactId>core</artifactId></dependency></dependencies>");
+            module("docs", "");
+            ChangeDetector.markTestRun(projectDir);
+            Files.setLastModifiedTime(projectDir.resolve(ChangeDetector.MARKER_FILE),
+                    FileTime.from(Instant.now().plusSeconds(60)));
+            reactorConfig = new ServerConfig(projectDir, Path.of("/usr/bin/mvn"));
+        }
+
+        private void module(String name, String dependencies) throws IOException {
+            Path source = projectDir.resolve(name).resolve("src/main/java/" + name + "/Main.java");
+            Files.createDirectories(source.getParent());
+            Files.writeString(source, "class Main {}");
+            Files.writeString(projectDir.resolve(name).resolve("pom.xml"),
+                    "<project><groupId>com.example</groupId><artifactId>" + name + "</artifactId>"
+                            + dependencies + "</project>");
+        }
+
+        @Test
+        void shouldBuildChangedModuleAndDependents() throws IOException {
+            setUpReactor();
+            Files.setLastModifiedTime(projectDir.resolve("core/src/main/java/core/Main.java"),
+                    FileTime.from(Instant.now().plusSeconds(120)));
+            var runner = new TestRunners.CapturingRunner();
+
+            CallToolResult result = CompileTool.create(reactorConfig, runner, objectMapper).call()
+                    .apply(null, Map.of("affectedModules", true, "useCache", false));
+
+            assertThat(runner.capturedArgs).containsExactly("-pl", "core", "-amd");
+            assertThat(result.content().getFirst().toString())
+                    .contains("affectedModules: 1 changed module(s) — ran 2 of 3 modules");
+        }
+
+        @Test
+        void shouldSkipMavenWhenNoModuleChanged() throws IOException {
+            setUpReactor();
+            var runner = new TestRunners.CapturingRunner();
+
+            CallToolResult result = CompileTool.create(reactorConfig, runner, objectMapper).call()
+                    .apply(null, Map.of("affectedModules", true));
+
+            assertThat(runner.allGoals).isEmpty();
+            assertThat(result.content().getFirst().toString())
+                    .contains("Compile SUCCESS")
+                    .contains("no module changed (timestamps)");
+        }
+
+        @Test
+        void shouldAttributeDiagnosticsToModules() throws IOException {
+            setUpReactor();
+            String stdout = "[ERROR] " + projectDir.resolve("app/src/main/java/app/Main.java") + ":[3,5] cannot find symbol\n"
+                    + "[ERROR] " + projectDir.resolve("core/src/main/java/core/Main.java") + ":[1,1] ';' expected\n"
+                    + "[ERROR] BUILD FAILURE";
+            var runner = new TestRunners.StubRunner(new MavenExecutionResult(1, stdout, "", 1000));
+
+            CallToolResult result = CompileTool.create(reactorConfig, runner, objectMapper).call()
+                    .apply(null, Map.of("useCache", false, "threads", "auto"));
+
+            assertThat(result.content().getFirst().toString())
+                    .contains("## Module: app — 1 error")
+                    .contains("## Module: core — 1 error")
+                    .contains("threads: -T ");
+        }
+
+        @Test
+        void shouldAddExplicitThreadCount() throws IOException {
+            setUpReactor();
+            var runner = new TestRunners.CapturingRunner();
+
+            CompileTool.create(reactorConfig, runner, objectMapper).call()
+                    .apply(null, Map.of("useCache", false, "threads", 4));
+
+            assertThat(runner.capturedArgs).containsExactly("-T", "4");
+        }
+
+        @Test
+        void shouldKeepExplicitThreadArgument() throws IOException {
+            setUpReactor();
+            var runner = new TestRunners.CapturingRunner();
+
+            CompileTool.create(reactorConfig, runner, objectMapper).call()
+                    .apply(null, Map.of("useCache", false, "threads", "auto", "args", List.of("-T2C")));
+
+            assertThat(runner.capturedArgs).containsExactly("-T2C");
+        }
+
+        @Test
+        void shouldKeepExplicitProjectSelection() throws IOException {
+            setUpReactor();
+            var runner = new TestRunners.CapturingRunner();
+
+            CompileTool.create(reactorConfig, runner, objectMapper).call()
+                    .apply(null, Map.of("affectedModules", true, "useCache", false, "args", List.of("-pl", "docs")));
+
+            assertThat(runner.capturedArgs).containsExactly("-pl", "docs");
+        }
+    }
 }
@@ -0,0 +1,60 @@
+package io.github.mavenmcp.tool;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.metrics.ServerMetrics;
+import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatsToolTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    private final ServerMetrics metrics = new ServerMetrics();
+
+    @BeforeEach
+    void record() {
+        metrics.recordFork(1_500_000);
+        metrics.buildStarted();
+        metrics.buildFinished(2_000);
+        metrics.recordStage(ServerMetrics.STAGE_COMPILER_OUTPUT, 250_000);
+        metrics.recordToolCall("maven_compile", 2_100_000_000L, true);
+        metrics.recordCacheLookups(ServerMetrics.CACHE_COMPILE_RESULTS, 1, 3);
+    }
+
+    @Test
+    void shouldReportMetricsAsMarkdown() {
+        SyncToolSpecification spec = StatsTool.create(metrics, objectMapper);
+
+        CallToolResult result = spec.call().apply(null, Map.of());
+
+        String text = ((TextContent) result.content().getFirst()).text();
+        assertThat(result.isError()).isFalse();
+        assertThat(text).contains("Maven builds: 1 finished, 0 running, peak 1 concurrent");
+        assertThat(text).contains("| fork | 1 | 1.50 |");
+        assertThat(text).contains("| stage: compiler_output_parse | 1 | 0.25 |");
+        assertThat(text).contains("| tool: maven_compile (1 errors) | 1 |");
+        assertThat(text).contains("| compile_results | 1 | 3 | 25% |");
+    }
+
+    @Test
+    void shouldReturnJsonAndStructuredContentWhenRequested() throws Exception {
+        SyncToolSpecification spec = StatsTool.create(metrics, objectMapper);
+
+        CallToolResult result = spec.call().apply(null, Map.of("format", "json"));
+
+        JsonNode json = objectMapper.readTree(((TextContent) result.content().getFirst()).text());
+        assertThat(json.path("builds").asLong()).isEqualTo(1);
+        assertThat(json.path("maven").path("max").asLong()).isEqualTo(2_000_000);
+        assertThat(json.path("tools").path("maven_compile").path("errors").asLong()).isEqualTo(1);
+        assertThat(result.structuredContent()).isNotNull();
+    }
+}
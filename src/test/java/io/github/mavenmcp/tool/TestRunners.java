@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import io.github.mavenmcp.maven.MavenExecutionException;
 import io.github.mavenmcp.maven.MavenExecutionResult;
@@ -18,8 +19,21 @@ final class TestRunners {
     private TestRunners() {
     }
 
+    /** Answers {@link #executeAsync} with the result of {@link #execute}, already completed. */
+    abstract static class SyncRunner extends MavenRunner {
+        @Override
+        public CompletableFuture<MavenExecutionResult> executeAsync(String goal, List<String> extraArgs,
+                                                                    Path exe, Path dir) {
+            try {
+                return CompletableFuture.completedFuture(execute(goal, extraArgs, exe, dir));
+            } catch (MavenExecutionException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+    }
+
     /** Returns a fixed result for any execution. */
-    static class StubRunner extends MavenRunner {
+    static class StubRunner extends SyncRunner {
         private final MavenExecutionResult result;
         private final Runnable duringExecution;
 
@@ -39,9 +53,10 @@ final class TestRunners {
         }
     }
 
-    static class CapturingRunner extends MavenRunner {
+    static class CapturingRunner extends SyncRunner {
         String capturedGoal;
         List<String> capturedArgs;
+        Path capturedDir;
         final List<String> allGoals = new ArrayList<>();
         private final Set<String> failingGoals = new HashSet<>();
 
@@ -53,6 +68,7 @@ final class TestRunners {
         public MavenExecutionResult execute(String goal, List<String> extraArgs, Path exe, Path dir) {
             capturedGoal = goal;
             capturedArgs = extraArgs;
+            capturedDir = dir;
             allGoals.add(goal);
             int exitCode = failingGoals.contains(goal) ? 1 : 0;
             return new MavenExecutionResult(exitCode, "", "", 100);
@@ -60,7 +76,7 @@ final class TestRunners {
     }
 
     /** Always throws MavenExecutionException. */
-    static class ThrowingRunner extends MavenRunner {
+    static class ThrowingRunner extends SyncRunner {
         @Override
         public MavenExecutionResult execute(String goal, List<String> extraArgs, Path exe, Path dir) {
             throw new MavenExecutionException("Simulated failure", new RuntimeException(), 0);
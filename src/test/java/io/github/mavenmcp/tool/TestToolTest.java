@@ -4,14 +4,28 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.analysis.ChangeDetector;
+import io.github.mavenmcp.analysis.CompiledFixture;
+import io.github.mavenmcp.cache.FlakyTests;
+import io.github.mavenmcp.cache.LastFailures;
+import io.github.mavenmcp.cache.TestHistory;
+import io.github.mavenmcp.config.ProjectRegistry;
 import io.github.mavenmcp.config.ServerConfig;
 import io.github.mavenmcp.maven.MavenExecutionResult;
+import io.github.mavenmcp.maven.MavenRunner;
+import io.modelcontextprotocol.server.McpServerFeatures.AsyncToolSpecification;
 import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema.CallToolRequest;
 import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -56,6 +70,26 @@ class TestToolTest {
         assertThat(result.isError()).isFalse();
     }
 
+    @Test
+    void shouldRunAsyncCallsOnTheGivenExecutor() throws IOException {
+        Files.createDirectories(reportsDir);
+        var runner = new TestRunners.StubRunner(
+                new MavenExecutionResult(0, "[INFO] BUILD SUCCESS", "", 5000),
+                () -> copyFixtureUnchecked("TEST-com.example.PassingTest.xml"));
+        List<Runnable> submitted = new ArrayList<>();
+        AsyncToolSpecification spec = TestTool.createAsync(ProjectRegistry.single(config), runner, objectMapper,
+                task -> {
+                    submitted.add(task);
+                    task.run();
+                });
+
+        CallToolResult result = spec.callHandler().apply(null, new CallToolRequest("maven_test", Map.of()))
+                .block();
+
+        assertThat(submitted).hasSize(1);
+        assertThat(result.content().getFirst().toString()).contains("Test SUCCESS").contains("3 run");
+    }
+
     @Test
     void shouldReturnFailuresFromSurefireXml() throws IOException {
         Files.createDirectories(reportsDir);
@@ -99,6 +133,23 @@ class TestToolTest {
         assertThat(runner.capturedArgs).contains("-DfailIfNoTests=false");
     }
 
+    @Test
+    void shouldCapTestClassSelectionToFitTheCommandLine() {
+        List<String> classes = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            classes.add("com.example.feature" + (i % 7) + ".GeneratedScenario" + i + "Test");
+        }
+
+        List<String> args = TestTool.withTests(List.of("-X"), classes).orElseThrow();
+
+        String filter = args.stream().filter(arg -> arg.startsWith("-Dtest=")).findFirst().orElseThrow();
+        assertThat(filter.length()).isLessThanOrEqualTo("-Dtest=".length() + LastFailures.MAX_FILTER_LENGTH);
+        assertThat(filter).startsWith("-Dtest=com/example/feature0/**/*,");
+        assertThat(args).contains("-X", "-Dsurefire.failIfNoSpecifiedTests=false");
+        assertThat(TestTool.withTests(List.of(), List.of("ATest"))).contains(
+                List.of("-Dtest=ATest", "-Dsurefire.failIfNoSpecifiedTests=false"));
+    }
+
     @Test
     void shouldPassExtraArgs() {
         var runner = new TestRunners.CapturingRunner();
@@ -466,6 +517,432 @@ class TestToolTest {
 
             assertThat(otherFile).exists();
         }
+
+        @Test
+        void shouldDeleteShardReports() throws IOException {
+            Path shardDir = Files.createDirectories(TestTool.shardReportsDir(tempDir, 1));
+            Files.writeString(shardDir.resolve("TEST-com.example.StaleTest.xml"), "<testsuite/>");
+
+            TestTool.cleanSurefireReports(tempDir);
+
+            assertThat(shardDir.resolve("TEST-com.example.StaleTest.xml")).doesNotExist();
+        }
+    }
+
+    @Nested
+    class TestSelection {
+
+        private static final String SERVICE_TEST_REPORT = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="com.example.ServiceTest" tests="2" failures="0" errors="0" skipped="0">
+                  <testcase name="a" classname="com.example.ServiceTest"/>
+                  <testcase name="b" classname="com.example.ServiceTest"/>
+                </testsuite>
+                """;
+
+        private final List<List<String>> invocations = new ArrayList<>();
+
+        private MavenRunner recordingRunner() {
+            return new MavenRunner() {
+                @Override
+                public MavenExecutionResult execute(String goal, List<String> extraArgs, Path exe, Path dir) {
+                    invocations.add(extraArgs);
+                    try {
+                        Files.createDirectories(reportsDir);
+                        Files.writeString(reportsDir.resolve("TEST-com.example.ServiceTest.xml"), SERVICE_TEST_REPORT);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                    return new MavenExecutionResult(0, "[INFO] BUILD SUCCESS", "", 1000);
+                }
+            };
+        }
+
+        private void compileProject() throws IOException {
+            CompiledFixture.compile(tempDir.resolve("fixture/main"), tempDir.resolve("target/classes"), Map.of(
+                    "com/example/Service.java", "package com.example; public class Service {}"));
+            CompiledFixture.compile(tempDir.resolve("fixture/test"), tempDir.resolve("target/test-classes"), Map.of(
+                    "com/example/ServiceTest.java",
+                    "package com.example; public class ServiceTest { Service s = new Service(); }"),
+                    tempDir.resolve("target/classes"));
+        }
+
+        @Test
+        void shouldReportCachedPassWithoutRunningMaven() throws IOException {
+            compileProject();
+            SyncToolSpecification spec = TestTool.create(config, recordingRunner(), objectMapper);
+
+            spec.call().apply(null, Map.of("useCache", true));
+            CallToolResult second = spec.call().apply(null, Map.of("useCache", true));
+
+            assertThat(invocations).hasSize(1);
+            String text = second.content().getFirst().toString();
+            assertThat(text).contains("Test SUCCESS").contains("2 run, 0 failed").contains("cached");
+        }
+
+        @Test
+        void shouldRunEverythingWhenCacheDisabled() throws IOException {
+            compileProject();
+            SyncToolSpecification spec = TestTool.create(config, recordingRunner(), objectMapper);
+
+            spec.call().apply(null, Map.of("useCache", true));
+            spec.call().apply(null, Map.of());
+
+            assertThat(invocations).hasSize(2);
+            assertThat(invocations.get(1)).noneMatch(arg -> arg.startsWith("-Dtest="));
+        }
+
+        @Test
+        void shouldRunAllWhenChangesUnknown() throws IOException {
+            compileProject();
+            SyncToolSpecification spec = TestTool.create(config, recordingRunner(), objectMapper);
+
+            CallToolResult result = spec.call().apply(null, Map.of("affectedOnly", true));
+
+            assertThat(result.content().getFirst().toString()).contains("changed sources unknown");
+            assertThat(invocations.getFirst()).noneMatch(arg -> arg.startsWith("-Dtest="));
+        }
+
+        @Test
+        void shouldRunOnlyAffectedTestsAfterPreviousRun() throws IOException {
+            compileProject();
+            SyncToolSpecification spec = TestTool.create(config, recordingRunner(), objectMapper);
+            spec.call().apply(null, Map.of());
+            Files.setLastModifiedTime(tempDir.resolve(ChangeDetector.MARKER_FILE),
+                    FileTime.from(Instant.now().minusSeconds(60)));
+            Path source = tempDir.resolve("src/main/java/com/example/Service.java");
+            Files.createDirectories(source.getParent());
+            Files.writeString(source, "package com.example; public class Service {}");
+            Files.setLastModifiedTime(source, FileTime.from(Instant.now().minusSeconds(30)));
+
+            CallToolResult result = spec.call().apply(null, Map.of("affectedOnly", true));
+
+            assertThat(invocations.getLast()).contains("-Dtest=com.example.ServiceTest");
+            assertThat(result.content().getFirst().toString()).contains("1 test class(es) affected");
+        }
+
+        @Test
+        void shouldSkipMavenWhenNoTestIsAffected() throws IOException {
+            compileProject();
+            SyncToolSpecification spec = TestTool.create(config, recordingRunner(), objectMapper);
+            spec.call().apply(null, Map.of());
+            Files.setLastModifiedTime(tempDir.resolve(ChangeDetector.MARKER_FILE),
+                    FileTime.from(Instant.now().minusSeconds(60)));
+            Path source = tempDir.resolve("src/main/java/com/example/Unrelated.java");
+            Files.createDirectories(source.getParent());
+            Files.writeString(source, "package com.example; public class Unrelated {}");
+            Files.setLastModifiedTime(source, FileTime.from(Instant.now().minusSeconds(30)));
+
+            Path store = tempDir.resolve(LastFailures.STORE_FILE);
+            Files.createDirectories(store.getParent());
+            Files.writeString(store, "com.example.ServiceTest#fails\n");
+
+            CallToolResult result = spec.call().apply(null, Map.of("affectedOnly", true));
+
+            assertThat(invocations).hasSize(1);
+            String text = result.content().getFirst().toString();
+            assertThat(text).contains("Test NO_TESTS").doesNotContain("SUCCESS")
+                    .contains("0 test class(es) affected")
+                    .contains("1 test(s) failed in an earlier run and have not passed since: com.example.ServiceTest#fails");
+        }
+
+        @Test
+        void shouldRunRemainingClassesAndMergeReportsWhenFirstPhaseFails() throws IOException {
+            compileProject();
+            CompiledFixture.compile(tempDir.resolve("fixture/other"), tempDir.resolve("target/test-classes"), Map.of(
+                    "com/example/OtherTest.java", "package com.example; public class OtherTest {}"));
+            Path history = tempDir.resolve(TestHistory.HISTORY_FILE);
+            Files.createDirectories(history.getParent());
+            Files.writeString(history, "R " + Instant.now().toEpochMilli() + " F 60000 com.example.ServiceTest\n"
+                    + "R " + Instant.now().toEpochMilli() + " P 60000 com.example.OtherTest\n");
+            MavenRunner runner = new MavenRunner() {
+                @Override
+                public MavenExecutionResult execute(String goal, List<String> extraArgs, Path exe, Path dir) {
+                    invocations.add(extraArgs);
+                    boolean first = invocations.size() == 1;
+                    String test = first ? "com.example.ServiceTest" : "com.example.OtherTest";
+                    String report = SERVICE_TEST_REPORT.replace("com.example.ServiceTest", test);
+                    if (first) {
+                        report = report.replace("failures=\"0\"", "failures=\"1\"").replace(
+                                "<testcase name=\"b\" classname=\"com.example.ServiceTest\"/>",
+                                "<testcase name=\"b\" classname=\"com.example.ServiceTest\">"
+                                        + "<failure message=\"boom\" type=\"java.lang.AssertionError\">"
+                                        + "java.lang.AssertionError: boom</failure></testcase>");
+                    }
+                    try {
+                        Files.createDirectories(reportsDir);
+                        Files.writeString(reportsDir.resolve("TEST-" + test + ".xml"), report);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                    return first
+                            ? new MavenExecutionResult(1, "[ERROR] BUILD FAILURE", "", 1000)
+                            : new MavenExecutionResult(0, "[INFO] BUILD SUCCESS", "", 1000);
+                }
+            };
+
+            CallToolResult result = TestTool.create(config, runner, objectMapper).call()
+                    .apply(null, Map.of("failuresFirst", true));
+
+            assertThat(invocations).hasSize(2);
+            assertThat(invocations.get(0)).contains("-Dtest=com.example.ServiceTest");
+            assertThat(invocations.get(1)).contains("-Dtest=com.example.OtherTest");
+            String text = result.content().getFirst().toString();
+            assertThat(text).contains("Test FAILURE").contains("4 run, 1 failed").contains("boom")
+                    .contains("failuresFirst: ran 1 recently failed or fast test class(es) first");
+        }
+
+        @Test
+        void shouldRunRemainingClassesAfterFirstPhasePasses() throws IOException {
+            compileProject();
+            CompiledFixture.compile(tempDir.resolve("fixture/other"), tempDir.resolve("target/test-classes"), Map.of(
+                    "com/example/OtherTest.java", "package com.example; public class OtherTest {}"));
+            Path history = tempDir.resolve(TestHistory.HISTORY_FILE);
+            Files.createDirectories(history.getParent());
+            Files.writeString(history, "R " + Instant.now().toEpochMilli() + " F 60000 com.example.ServiceTest\n");
+
+            TestTool.create(config, recordingRunner(), objectMapper).call().apply(null, Map.of("failuresFirst", true));
+
+            assertThat(invocations).hasSize(2);
+            assertThat(invocations.get(0)).contains("-Dtest=com.example.ServiceTest");
+            assertThat(invocations.get(1)).contains("-Dtest=com.example.OtherTest");
+        }
+
+        @Test
+        void shouldRunShardsConcurrentlyAndMergeTheirReports() throws IOException {
+            compileProject();
+            CompiledFixture.compile(tempDir.resolve("fixture/other"), tempDir.resolve("target/test-classes"), Map.of(
+                    "com/example/OtherTest.java", "package com.example; public class OtherTest {}"));
+            List<List<String>> shardInvocations = Collections.synchronizedList(new ArrayList<>());
+            MavenRunner runner = new MavenRunner() {
+                @Override
+                public MavenExecutionResult execute(String goal, List<String> extraArgs, Path exe, Path dir) {
+                    shardInvocations.add(extraArgs);
+                    String test = extraArgs.stream().filter(a -> a.startsWith("-Dtest=")).findFirst().orElseThrow()
+                            .substring("-Dtest=".length());
+                    Path shardDir = Path.of(extraArgs.stream()
+                            .filter(a -> a.startsWith("-Dsurefire.reportsDirectory=")).findFirst().orElseThrow()
+                            .substring("-Dsurefire.reportsDirectory=".length())
+                            .replace("${project.basedir}", dir.toString()));
+                    try {
+                        Files.createDirectories(shardDir);
+                        Files.writeString(shardDir.resolve("TEST-" + test + ".xml"),
+                                SERVICE_TEST_REPORT.replace("com.example.ServiceTest", test));
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                    return new MavenExecutionResult(0, "[INFO] BUILD SUCCESS", "", 1000);
+                }
+            };
+
+            CallToolResult result = TestTool.create(config, runner, objectMapper).call()
+                    .apply(null, Map.of("parallel", true, "shards", 4));
+
+            assertThat(shardInvocations).hasSize(2);
+            assertThat(shardInvocations).flatExtracting(args -> args)
+                    .contains("-Dtest=com.example.ServiceTest", "-Dtest=com.example.OtherTest");
+            String text = result.content().getFirst().toString();
+            assertThat(text).contains("4 run, 0 failed").contains("parallel: ran 2 shard(s)");
+        }
+
+        @Test
+        void shouldGiveEachShardItsOwnReportsDirectoryPerModule() throws IOException {
+            Files.writeString(tempDir.resolve("pom.xml"), """
+                    <project><groupId>com.example</groupId><artifactId>root</artifactId>
+                    <modules><module>core</module><module>app</module></modules></project>""");
+            for (String module : List.of("core", "app")) {
+                Files.createDirectories(tempDir.resolve(module));
+                Files.writeString(tempDir.resolve(module).resolve("pom.xml"),
+                        "<project><groupId>com.example</groupId><artifactId>" + module + "</artifactId></project>");
+                String test = Character.toUpperCase(module.charAt(0)) + module.substring(1) + "Test";
+                CompiledFixture.compile(tempDir.resolve("fixture/" + module),
+                        tempDir.resolve(module).resolve("target/test-classes"),
+                        Map.of("com/example/" + test + ".java", "package com.example; public class " + test + " {}"));
+            }
+            List<List<String>> shardInvocations = Collections.synchronizedList(new ArrayList<>());
+            MavenRunner runner = new MavenRunner() {
+                @Override
+                public MavenExecutionResult execute(String goal, List<String> extraArgs, Path exe, Path dir) {
+                    shardInvocations.add(extraArgs);
+                    String test = extraArgs.stream().filter(a -> a.startsWith("-Dtest=")).findFirst().orElseThrow()
+                            .substring("-Dtest=".length());
+                    String reports = extraArgs.stream()
+                            .filter(a -> a.startsWith("-Dsurefire.reportsDirectory=")).findFirst().orElseThrow()
+                            .substring("-Dsurefire.reportsDirectory=".length());
+                    // Maven resolves ${project.basedir} to the module that ran the test
+                    String module = test.contains("Core") ? "core" : "app";
+                    Path shardDir = Path.of(reports.replace("${project.basedir}", dir.resolve(module).toString()));
+                    String report = SERVICE_TEST_REPORT.replace("com.example.ServiceTest", test);
+                    if (module.equals("app")) {
+                        report = report.replace("failures=\"0\"", "failures=\"1\"").replace(
+                                "<testcase name=\"b\" classname=\"" + test + "\"/>",
+                                "<testcase name=\"b\" classname=\"" + test + "\">"
+                                        + "<failure message=\"boom\" type=\"java.lang.AssertionError\">"
+                                        + "java.lang.AssertionError: boom</failure></testcase>");
+                    }
+                    try {
+                        Files.createDirectories(shardDir);
+                        Files.writeString(shardDir.resolve("TEST-" + test + ".xml"), report);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                    return new MavenExecutionResult(module.equals("app") ? 1 : 0, "", "", 1000);
+                }
+            };
+
+            CallToolResult result = TestTool.create(config, runner, objectMapper).call()
+                    .apply(null, Map.of("parallel", true, "shards", 2));
+
+            assertThat(shardInvocations).hasSize(2);
+            assertThat(shardInvocations).flatExtracting(args -> args)
+                    .contains("-Dsurefire.reportsDirectory=${project.basedir}/target/surefire-reports/shard-1",
+                            "-Dsurefire.reportsDirectory=${project.basedir}/target/surefire-reports/shard-2",
+                            "-DtempDir=surefire-shard-1", "-DtempDir=surefire-shard-2");
+            String text = result.content().getFirst().toString();
+            assertThat(text).contains("4 run, 1 failed").contains("## Module: app — 1 failure")
+                    .contains("parallel: ran 2 shard(s)");
+        }
+
+        @Test
+        void shouldIgnoreCacheWithTestFilter() throws IOException {
+            compileProject();
+            SyncToolSpecification spec = TestTool.create(config, recordingRunner(), objectMapper);
+
+            CallToolResult result = spec.call().apply(null, Map.of("useCache", true, "testFilter", "ServiceTest"));
+
+            assertThat(result.content().getFirst().toString()).contains("useCache was ignored");
+        }
+    }
+
+    @Nested
+    class FailedOnly {
+
+        @Test
+        void shouldRerunRecordedFailures() throws IOException {
+            Files.createDirectories(reportsDir);
+            var failing = new TestRunners.StubRunner(
+                    new MavenExecutionResult(1, "[ERROR] Tests failed", "", 8000),
+                    () -> copyFixtureUnchecked("TEST-com.example.FailingTest.xml"));
+            TestTool.create(config, failing, objectMapper).call().apply(null, Map.of());
+
+            var runner = new TestRunners.CapturingRunner();
+            CallToolResult result = TestTool.create(config, runner, objectMapper).call()
+                    .apply(null, Map.of("failedOnly", true));
+
+            assertThat(runner.capturedArgs)
+                    .contains("-Dtest=com.example.FailingTest#shouldHandleNull+shouldReturnUser");
+            assertThat(result.content().getFirst().toString()).contains("re-ran 2 previously failing test(s)");
+        }
+
+        @Test
+        void shouldClearFailuresOnceTheyPass() throws IOException {
+            Files.createDirectories(reportsDir);
+            var failing = new TestRunners.StubRunner(
+                    new MavenExecutionResult(1, "[ERROR] Tests failed", "", 8000),
+                    () -> copyFixtureUnchecked("TEST-com.example.FailingTest.xml"));
+            TestTool.create(config, failing, objectMapper).call().apply(null, Map.of());
+            String passingReport = Files.readString(reportsDir.resolve("TEST-com.example.FailingTest.xml"))
+                    .replaceAll("(?s)<failure.*?</failure>", "")
+                    .replace("failures=\"2\"", "failures=\"0\"");
+            var passing = new TestRunners.StubRunner(
+                    new MavenExecutionResult(0, "[INFO] BUILD SUCCESS", "", 1000),
+                    () -> writeUnchecked(reportsDir.resolve("TEST-com.example.FailingTest.xml"), passingReport));
+            TestTool.create(config, passing, objectMapper).call().apply(null, Map.of("failedOnly", true));
+
+            var runner = new TestRunners.CapturingRunner();
+            CallToolResult result = TestTool.create(config, runner, objectMapper).call()
+                    .apply(null, Map.of("failedOnly", true));
+
+            assertThat(runner.capturedArgs).noneMatch(arg -> arg.startsWith("-Dtest="));
+            assertThat(result.content().getFirst().toString()).contains("no failures recorded");
+        }
+
+        @Test
+        void shouldPreferExplicitTestFilter() {
+            var runner = new TestRunners.CapturingRunner();
+            CallToolResult result = TestTool.create(config, runner, objectMapper).call()
+                    .apply(null, Map.of("failedOnly", true, "testFilter", "MyTest"));
+
+            assertThat(runner.capturedArgs).containsOnlyOnce("-Dtest=MyTest");
+            assertThat(result.content().getFirst().toString()).contains("failedOnly was ignored");
+        }
+
+        private static void writeUnchecked(Path file, String content) {
+            try {
+                Files.writeString(file, content);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    @Nested
+    class FailFast {
+
+        @Test
+        void shouldStopOnceEnoughRootCausesWereReported() throws IOException {
+            Files.createDirectories(reportsDir);
+            var stopped = new boolean[1];
+            MavenRunner runner = new MavenRunner() {
+                @Override
+                public MavenExecutionResult execute(String goal, List<String> extraArgs, Path exe, Path dir,
+                                                    BooleanSupplier stopCondition) {
+                    copyFixtureUnchecked("TEST-com.example.FailingTest.xml");
+                    stopped[0] = stopCondition.getAsBoolean();
+                    return new MavenExecutionResult(143, "", "", 2000);
+                }
+            };
+
+            CallToolResult result = TestTool.create(config, runner, objectMapper).call()
+                    .apply(null, Map.of("failFast", 1));
+
+            assertThat(stopped[0]).isTrue();
+            String text = result.content().getFirst().toString();
+            assertThat(text).contains("Test FAILURE").contains("shouldReturnUser")
+                    .contains("failFast: stopped after 2 distinct failure root cause(s)");
+        }
+
+        @Test
+        void shouldNotWatchReportsByDefault() {
+            var runner = new TestRunners.CapturingRunner();
+
+            CallToolResult result = TestTool.create(config, runner, objectMapper).call().apply(null, Map.of());
+
+            assertThat(runner.allGoals).containsExactly("surefire:test");
+            assertThat(result.content().getFirst().toString()).doesNotContain("failFast");
+        }
+    }
+
+    @Nested
+    class RetryFailures {
+
+        @Test
+        void shouldPassRerunCountAndReportFlakyTests() throws IOException {
+            Files.createDirectories(reportsDir);
+            var runner = new TestRunners.StubRunner(
+                    new MavenExecutionResult(1, "[ERROR] Tests failed", "", 3000),
+                    () -> copyFixtureUnchecked("TEST-com.example.FlakyTest.xml"));
+            SyncToolSpecification spec = TestTool.create(config, runner, objectMapper);
+
+            spec.call().apply(null, Map.of("retryFailures", 2));
+            CallToolResult result = spec.call().apply(null, Map.of("retryFailures", 2));
+
+            String text = result.content().getFirst().toString();
+            assertThat(text).contains("1 flaky")
+                    .contains("### FLAKY: FlakyTest#shouldEventuallyConnect — passed after 2 failed attempts, "
+                            + "flaky in 2 runs")
+                    .contains("### FAILED: FlakyTest#shouldAlwaysFail");
+            assertThat(tempDir.resolve(FlakyTests.STORE_FILE)).exists();
+        }
+
+        @Test
+        void shouldAddRerunFailingTestsCount() {
+            var runner = new TestRunners.CapturingRunner();
+
+            TestTool.create(config, runner, objectMapper).call().apply(null, Map.of("retryFailures", 3));
+
+            assertThat(runner.capturedArgs).contains("-Dsurefire.rerunFailingTestsCount=3");
+        }
     }
 
     private void copyFixture(String filename) throws IOException {
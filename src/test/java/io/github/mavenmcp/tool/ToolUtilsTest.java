@@ -1,5 +1,7 @@
 package io.github.mavenmcp.tool;
 
+import java.util.Map;
+
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -39,4 +41,18 @@ class ToolUtilsTest {
     void defaultOutputTailLines_is50() {
         assertThat(ToolUtils.DEFAULT_OUTPUT_TAIL_LINES).isEqualTo(50);
     }
+
+    @Test
+    void isJsonFormat_onlyForJsonValue() {
+        assertThat(ToolUtils.isJsonFormat(Map.of("format", "json"))).isTrue();
+        assertThat(ToolUtils.isJsonFormat(Map.of("format", " JSON "))).isTrue();
+        assertThat(ToolUtils.isJsonFormat(Map.of("format", "markdown"))).isFalse();
+        assertThat(ToolUtils.isJsonFormat(Map.of())).isFalse();
+    }
+
+    @Test
+    void extractMaxOutputChars_defaultAndDisabled() {
+        assertThat(ToolUtils.extractMaxOutputChars(Map.of())).isEqualTo(40_000);
+        assertThat(ToolUtils.extractMaxOutputChars(Map.of("maxOutputTokens", 0))).isEqualTo(Integer.MAX_VALUE);
+    }
 }
@@ -0,0 +1,193 @@
+package io.github.mavenmcp.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.HttpClientStreamableHttpTransport;
+import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
+import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.spec.McpSchema.CallToolRequest;
+import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
+import io.modelcontextprotocol.spec.McpSchema.ServerCapabilities;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.modelcontextprotocol.spec.McpSchema.Tool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpTransportTest {
+
+    /** Simulated Maven run: the handler only waits, like a tool waiting for the Maven process. */
+    private static final long BUILD_MILLIS = 50;
+
+    private final JacksonMcpJsonMapper jsonMapper = new JacksonMcpJsonMapper(new ObjectMapper());
+    private HttpTransport transport;
+    private McpSyncServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        transport = HttpTransport.create(0, jsonMapper);
+        Tool tool = Tool.builder()
+                .name("fake_build")
+                .description("Waits like a build")
+                .inputSchema(jsonMapper, "{\"type\":\"object\",\"properties\":{}}")
+                .build();
+        server = McpServer.sync(transport.provider())
+                .serverInfo("maven-mcp", "test")
+                .capabilities(ServerCapabilities.builder().tools(Boolean.TRUE).build())
+                .tools(new SyncToolSpecification(tool, (exchange, params) -> {
+                    try {
+                        Thread.sleep(BUILD_MILLIS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new CallToolResult(List.of(new TextContent("BUILD SUCCESS")), false);
+                }))
+                .build();
+        transport.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.closeGracefully();
+        transport.close();
+    }
+
+    @Test
+    void shouldBindLoopbackOnly() {
+        assertThat(transport.port()).isPositive();
+        assertThat(transport.endpoint().getHost()).isEqualTo("127.0.0.1");
+        assertThat(transport.endpoint().getPath()).isEqualTo(HttpTransport.ENDPOINT);
+    }
+
+    @Test
+    void shouldServeToolCallsOverStreamableHttp() {
+        try (McpSyncClient client = client()) {
+            var init = client.initialize();
+            assertThat(init.serverInfo().name()).isEqualTo("maven-mcp");
+
+            assertThat(client.listTools().tools()).extracting(Tool::name).containsExactly("fake_build");
+            CallToolResult result = client.callTool(new CallToolRequest("fake_build", Map.of()));
+            assertThat(((TextContent) result.content().getFirst()).text()).isEqualTo("BUILD SUCCESS");
+        }
+    }
+
+    @Test
+    void shouldRejectForeignOrigin() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(transport.endpoint())
+                .header("Origin", "http://attacker.example")
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json, text/event-stream")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"ping\"}"))
+                .build();
+
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(403);
+    }
+
+    @Test
+    void shouldRejectForeignHost() throws IOException {
+        // Host cannot be overridden on java.net.http requests, so write the request by hand
+        try (Socket socket = new Socket("127.0.0.1", transport.port())) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET " + HttpTransport.ENDPOINT + " HTTP/1.1\r\nHost: rebound.example:" + transport.port()
+                    + "\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            String statusLine = new String(in.readNBytes(12), StandardCharsets.US_ASCII);
+
+            assertThat(statusLine).isEqualTo("HTTP/1.1 403");
+        }
+    }
+
+    @Test
+    void shouldRecognizeLoopbackHostsLiterally() {
+        assertThat(LoopbackOriginFilter.isLoopbackHost("localhost")).isTrue();
+        assertThat(LoopbackOriginFilter.isLoopbackHost("127.0.0.1")).isTrue();
+        assertThat(LoopbackOriginFilter.isLoopbackHost("[::1]")).isTrue();
+        assertThat(LoopbackOriginFilter.isLoopbackHost("127.0.0.1.attacker.example")).isFalse();
+        assertThat(LoopbackOriginFilter.isLoopbackHost("localhost.attacker.example")).isFalse();
+        assertThat(LoopbackOriginFilter.isLoopbackHost(null)).isFalse();
+    }
+
+    @Test
+    void shouldServeConcurrentClientsInParallel() throws Exception {
+        // Throughput and p99 latency as the number of concurrent clients grows
+        Load single = load(1, 10);
+        Load many = load(8, 10);
+        System.out.printf("HTTP load: 1 client %.0f calls/s p99 %d ms; 8 clients %.0f calls/s p99 %d ms%n",
+                single.callsPerSecond(), single.p99Millis(), many.callsPerSecond(), many.p99Millis());
+
+        assertThat(many.callsPerSecond()).isGreaterThan(single.callsPerSecond() * 3);
+        assertThat(many.p99Millis()).isLessThan(BUILD_MILLIS * 8);
+    }
+
+    private Load load(int clients, int callsPerClient) throws Exception {
+        List<McpSyncClient> connected = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            McpSyncClient client = client();
+            client.initialize();
+            connected.add(client);
+        }
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService callers = Executors.newFixedThreadPool(clients);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (McpSyncClient client : connected) {
+                futures.add(callers.submit(() -> {
+                    for (int i = 0; i < callsPerClient; i++) {
+                        long callStart = System.nanoTime();
+                        client.callTool(new CallToolRequest("fake_build", Map.of()));
+                        latencies.add(System.nanoTime() - callStart);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            long elapsed = System.nanoTime() - start;
+            List<Long> sorted = latencies.stream().sorted().toList();
+            long p99 = sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+            return new Load(sorted.size() * 1e9 / elapsed, TimeUnit.NANOSECONDS.toMillis(p99));
+        } finally {
+            callers.shutdownNow();
+            connected.forEach(McpSyncClient::close);
+        }
+    }
+
+    private McpSyncClient client() {
+        var clientTransport = HttpClientStreamableHttpTransport.builder("http://127.0.0.1:" + transport.port())
+                .endpoint(HttpTransport.ENDPOINT)
+                .jsonMapper(jsonMapper)
+                .build();
+        return McpClient.sync(clientTransport).requestTimeout(Duration.ofSeconds(30)).build();
+    }
+
+    private record Load(double callsPerSecond, long p99Millis) {
+    }
+}
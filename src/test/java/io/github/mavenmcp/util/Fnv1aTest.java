@@ -0,0 +1,24 @@
+package io.github.mavenmcp.util;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Fnv1aTest {
+
+    @Test
+    void shouldMatchReferenceVectors() {
+        assertThat(Fnv1a.hash(Fnv1a.OFFSET_BASIS, "")).isEqualTo(0xcbf29ce484222325L);
+        assertThat(Fnv1a.hash(Fnv1a.OFFSET_BASIS, "a")).isEqualTo(0xaf63dc4c8601ec8cL);
+        assertThat(Fnv1a.hash(Fnv1a.OFFSET_BASIS, "foobar".getBytes(StandardCharsets.US_ASCII)))
+                .isEqualTo(0x85944171f73967e8L);
+    }
+
+    @Test
+    void shouldHashLongsLittleEndian() {
+        assertThat(Fnv1a.hash(Fnv1a.OFFSET_BASIS, 0x61L))
+                .isEqualTo(Fnv1a.hash(Fnv1a.OFFSET_BASIS, new byte[] {0x61, 0, 0, 0, 0, 0, 0, 0}));
+    }
+}